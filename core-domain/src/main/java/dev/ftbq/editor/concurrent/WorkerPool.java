@@ -0,0 +1,48 @@
+package dev.ftbq.editor.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The editor's shared pool for short, independent background work such as parsing pack files, hashing and
+ * copying assets, extracting icons and deflating archive entries.
+ * <p>
+ * Components take an {@link java.util.concurrent.Executor} and fall back to {@link #shared()}, so one set of
+ * daemon threads serves all of them instead of one pool per component. Tasks submitted here must not block
+ * on other tasks of the pool.
+ */
+public final class WorkerPool {
+
+    private WorkerPool() {
+    }
+
+    /**
+     * The shared pool, sized to the available processors and created on first use. Its threads are daemons
+     * named {@code ftbq-worker-N}, so it never keeps the application alive and is never shut down.
+     */
+    public static ExecutorService shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Factory of daemon threads named {@code <prefix>-N}, for components that need a pool of their own.
+     */
+    public static ThreadFactory daemonThreads(String prefix) {
+        Objects.requireNonNull(prefix, "prefix");
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + '-' + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Holder {
+        private static final ExecutorService SHARED = Executors.newFixedThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()),
+                daemonThreads("ftbq-worker"));
+    }
+}
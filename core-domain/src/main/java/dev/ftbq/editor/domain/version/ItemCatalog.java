@@ -2,10 +2,42 @@ package dev.ftbq.editor.domain.version;
 
 import dev.ftbq.editor.domain.ItemRef;
 import java.util.Collection;
+import java.util.Optional;
 
 /**
  * Represents a collection of items for a particular Minecraft version or mod set.
  */
 public interface ItemCatalog {
     Collection<ItemRef> items();
+
+    /**
+     * Looks up an item by id. The default implementation scans {@link #items()}; indexed catalogs override it.
+     */
+    default Optional<ItemRef> find(String itemId) {
+        if (itemId == null) {
+            return Optional.empty();
+        }
+        Collection<ItemRef> items = items();
+        if (items == null) {
+            return Optional.empty();
+        }
+        for (ItemRef item : items) {
+            if (item != null && item.itemId().equals(itemId)) {
+                return Optional.of(item);
+            }
+        }
+        return Optional.empty();
+    }
+
+    default boolean exists(String itemId) {
+        return find(itemId).isPresent();
+    }
+
+    /**
+     * Revision of the catalog contents. Catalogs whose items can change after construction must return a
+     * different value after every change so that merged views built on top of them are rebuilt.
+     */
+    default long revision() {
+        return 0L;
+    }
 }
@@ -72,7 +72,7 @@ public final class CacheManager {
         synchronized (iconLock) {
             writeIfNecessary(iconPath, data);
             touch(iconPath);
-            enforceLimit(iconDirectory, maxIconEntries);
+            enforceLimit(iconDirectory, ICON_EXTENSION, maxIconEntries);
             missingIconHashes.remove(hash);
         }
         return hash;
@@ -110,6 +110,25 @@ public final class CacheManager {
         }
     }
 
+    /**
+     * Fetch the display variant of an ingested icon, written at ingest as {@code <hash>-<size>.png}. Falls
+     * back to the original icon when the texture needed no variant.
+     */
+    public Optional<byte[]> fetchIcon(String hash, int size) {
+        Objects.requireNonNull(hash, "hash");
+        if (isLikelyHash(hash)) {
+            Path variantPath = iconDirectory.resolve(hash + "-" + size + ".png");
+            synchronized (iconLock) {
+                Optional<byte[]> variant = readIconBytes(variantPath);
+                if (variant.isPresent()) {
+                    touch(variantPath);
+                    return variant;
+                }
+            }
+        }
+        return fetchIcon(hash);
+    }
+
     public String storeBackground(byte[] data) {
         Objects.requireNonNull(data, "data");
         String hash = hashBytes(data);
@@ -117,7 +136,7 @@ public final class CacheManager {
         synchronized (backgroundLock) {
             writeIfNecessary(backgroundPath, data);
             touch(backgroundPath);
-            enforceLimit(backgroundDirectory, maxBackgroundEntries);
+            enforceLimit(backgroundDirectory, BACKGROUND_EXTENSION, maxBackgroundEntries);
             missingBackgroundHashes.remove(hash);
         }
         return hash;
@@ -226,13 +245,15 @@ public final class CacheManager {
         return logicalClock.updateAndGet(previous -> now > previous ? now : previous + 1);
     }
 
-    private void enforceLimit(Path directory, int maxEntries) {
+    private void enforceLimit(Path directory, String extension, int maxEntries) {
         if (maxEntries <= 0) {
             purgeDirectory(directory);
             return;
         }
 
+        // Only blobs stored through this manager are evicted; ingested <hash>.png icons are kept.
         List<Path> entries = listRegularFiles(directory);
+        entries.removeIf(path -> !path.getFileName().toString().endsWith(extension));
         int overflow = entries.size() - maxEntries;
         if (overflow <= 0) {
             return;
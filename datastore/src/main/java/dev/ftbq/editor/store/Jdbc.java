@@ -19,7 +19,10 @@ public final class Jdbc {
     private static final String MIGRATIONS_BASE = "/dev/ftbq/editor/store/migrations/";
     private static final List<String> MIGRATIONS = List.of(
             "001_create_quest_schema.sql",
-            "002_add_chapter_tables.sql"
+            "002_add_chapter_tables.sql",
+            "003_add_ingestion_manifest.sql",
+            "004_add_catalog_imports.sql",
+            "005_add_catalog_import_fingerprint.sql"
     );
 
     private Jdbc() {
@@ -68,6 +68,43 @@ public class StoreDao {
                 version = excluded.version
             """;
 
+    private static final String UPSERT_INGESTION_MANIFEST_SQL = """
+            INSERT INTO ingestion_manifest (jar_path, size, modified_millis, central_directory_hash, extractor_version, version)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT(jar_path) DO UPDATE SET
+                size = excluded.size,
+                modified_millis = excluded.modified_millis,
+                central_directory_hash = excluded.central_directory_hash,
+                extractor_version = excluded.extractor_version,
+                version = excluded.version,
+                ingested_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final String SELECT_INGESTION_MANIFEST_SQL = """
+            SELECT jar_path, size, modified_millis, central_directory_hash, extractor_version, version
+            FROM ingestion_manifest
+            """;
+
+    private static final String INSERT_INGESTION_ENTRY_SQL =
+            "INSERT OR IGNORE INTO ingestion_manifest_entries (jar_path, kind, entry_id) VALUES (?, ?, ?)";
+    private static final String DELETE_INGESTION_ENTRIES_SQL = "DELETE FROM ingestion_manifest_entries WHERE jar_path = ?";
+    private static final String DELETE_INGESTION_MANIFEST_SQL = "DELETE FROM ingestion_manifest WHERE jar_path = ?";
+    private static final String DELETE_OWNED_ITEM_SQL = "DELETE FROM items WHERE id = ? AND source_jar = ?";
+    private static final String DELETE_OWNED_ENTITY_SQL = "DELETE FROM entities WHERE id = ? AND source_jar = ?";
+    private static final String DELETE_ITEMS_BY_SOURCE_SQL = "DELETE FROM items WHERE source_jar = ?";
+    private static final String DELETE_ENTITIES_BY_SOURCE_SQL = "DELETE FROM entities WHERE source_jar = ?";
+    private static final String UPSERT_CATALOG_IMPORT_SQL = """
+            INSERT INTO catalog_imports (source, version, fingerprint)
+            VALUES (?, ?, ?)
+            ON CONFLICT(source) DO UPDATE SET
+                version = excluded.version,
+                fingerprint = excluded.fingerprint,
+                imported_at = CURRENT_TIMESTAMP
+            """;
+    private static final String INSERT_CATALOG_IMPORT_TAG_SQL =
+            "INSERT OR IGNORE INTO catalog_import_tags (source, entry_id) VALUES (?, ?)";
+    private static final String DELETE_CATALOG_IMPORT_TAGS_SQL = "DELETE FROM catalog_import_tags WHERE source = ?";
+
     private static final String UPSERT_LOOT_TABLE_SQL = """
             INSERT INTO loot_tables (name, data)
             VALUES (?, ?)
@@ -192,23 +229,37 @@ public class StoreDao {
 
     public void upsertItem(ItemEntity item) {
         try (PreparedStatement statement = connection.prepareStatement(UPSERT_ITEM_SQL)) {
-            statement.setString(1, item.id());
-            statement.setString(2, item.displayName());
-            statement.setInt(3, item.isVanilla() ? 1 : 0);
-            setStringOrNull(statement, 4, item.modId());
-            setStringOrNull(statement, 5, item.modName());
-            setStringOrNull(statement, 6, item.tags());
-            setStringOrNull(statement, 7, item.texturePath());
-            setStringOrNull(statement, 8, item.iconHash());
-            setStringOrNull(statement, 9, item.sourceJar());
-            setStringOrNull(statement, 10, item.version());
-            setStringOrNull(statement, 11, item.kind());
+            bindItem(statement, item);
             statement.executeUpdate();
         } catch (SQLException e) {
             throw new UncheckedSqlException("Failed to upsert item " + item.id(), e);
         }
     }
 
+    /**
+     * Upserts all items in one transaction, so either every row is written or none is.
+     */
+    public void upsertItems(List<ItemEntity> items) {
+        Objects.requireNonNull(items, "items");
+        boolean previousAutoCommit = getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_ITEM_SQL)) {
+                for (ItemEntity item : items) {
+                    bindItem(statement, item);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly();
+            throw new UncheckedSqlException("Failed to upsert " + items.size() + " items", e);
+        } finally {
+            restoreAutoCommit(previousAutoCommit);
+        }
+    }
+
     public List<ItemEntity> listItems(
             String filterText,
             List<String> tagFilters,
@@ -352,20 +403,37 @@ public class StoreDao {
 
     public void upsertEntity(EntityEntity entity) {
         try (PreparedStatement statement = connection.prepareStatement(UPSERT_ENTITY_SQL)) {
-            statement.setString(1, entity.id());
-            statement.setString(2, entity.displayName());
-            statement.setInt(3, entity.isVanilla() ? 1 : 0);
-            setStringOrNull(statement, 4, entity.modId());
-            setStringOrNull(statement, 5, entity.modName());
-            setStringOrNull(statement, 6, entity.texturePath());
-            setStringOrNull(statement, 7, entity.sourceJar());
-            setStringOrNull(statement, 8, entity.version());
+            bindEntity(statement, entity);
             statement.executeUpdate();
         } catch (SQLException e) {
             throw new UncheckedSqlException("Failed to upsert entity " + entity.id(), e);
         }
     }
 
+    /**
+     * Upserts all entities in one transaction, so either every row is written or none is.
+     */
+    public void upsertEntities(List<EntityEntity> entities) {
+        Objects.requireNonNull(entities, "entities");
+        boolean previousAutoCommit = getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_ENTITY_SQL)) {
+                for (EntityEntity entity : entities) {
+                    bindEntity(statement, entity);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly();
+            throw new UncheckedSqlException("Failed to upsert " + entities.size() + " entities", e);
+        } finally {
+            restoreAutoCommit(previousAutoCommit);
+        }
+    }
+
     public List<EntityEntity> listEntities(
             String filterText,
             String modFilter,
@@ -454,6 +522,348 @@ public class StoreDao {
         );
     }
 
+    public List<ItemEntity> listItemsBySourceJar(String sourceJar) {
+        Objects.requireNonNull(sourceJar, "sourceJar");
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT id, display_name, is_vanilla, mod_id, mod_name, tags, texture_path, icon_hash, source_jar, version, kind
+                FROM items
+                WHERE source_jar = ?
+                ORDER BY id
+                """)) {
+            statement.setString(1, sourceJar);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<ItemEntity> items = new ArrayList<>();
+                while (resultSet.next()) {
+                    items.add(mapItem(resultSet));
+                }
+                return items;
+            }
+        } catch (SQLException e) {
+            throw new UncheckedSqlException("Failed to list items for " + sourceJar, e);
+        }
+    }
+
+    public List<EntityEntity> listEntitiesBySourceJar(String sourceJar) {
+        Objects.requireNonNull(sourceJar, "sourceJar");
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT id, display_name, is_vanilla, mod_id, mod_name, texture_path, source_jar, version
+                FROM entities
+                WHERE source_jar = ?
+                ORDER BY id
+                """)) {
+            statement.setString(1, sourceJar);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<EntityEntity> entities = new ArrayList<>();
+                while (resultSet.next()) {
+                    entities.add(mapEntity(resultSet));
+                }
+                return entities;
+            }
+        } catch (SQLException e) {
+            throw new UncheckedSqlException("Failed to list entities for " + sourceJar, e);
+        }
+    }
+
+    public Optional<IngestionManifestEntity> findIngestionManifest(String jarPath) {
+        Objects.requireNonNull(jarPath, "jarPath");
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_INGESTION_MANIFEST_SQL + " WHERE jar_path = ?")) {
+            statement.setString(1, jarPath);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return Optional.of(mapIngestionManifest(resultSet));
+                }
+                return Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new UncheckedSqlException("Failed to load ingestion manifest for " + jarPath, e);
+        }
+    }
+
+    public List<IngestionManifestEntity> listIngestionManifests() {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_INGESTION_MANIFEST_SQL + " ORDER BY jar_path");
+             ResultSet resultSet = statement.executeQuery()) {
+            List<IngestionManifestEntity> manifests = new ArrayList<>();
+            while (resultSet.next()) {
+                manifests.add(mapIngestionManifest(resultSet));
+            }
+            return manifests;
+        } catch (SQLException e) {
+            throw new UncheckedSqlException("Failed to list ingestion manifests", e);
+        }
+    }
+
+    /**
+     * Lists the ids of the rows of the given kind ({@code item}, {@code entity} or {@code tag})
+     * that the last ingestion of {@code jarPath} produced.
+     */
+    public List<String> listIngestionManifestEntries(String jarPath, String kind) {
+        Objects.requireNonNull(jarPath, "jarPath");
+        Objects.requireNonNull(kind, "kind");
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT entry_id FROM ingestion_manifest_entries WHERE jar_path = ? AND kind = ? ORDER BY entry_id"
+        )) {
+            statement.setString(1, jarPath);
+            statement.setString(2, kind);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<String> entries = new ArrayList<>();
+                while (resultSet.next()) {
+                    entries.add(resultSet.getString("entry_id"));
+                }
+                return entries;
+            }
+        } catch (SQLException e) {
+            throw new UncheckedSqlException("Failed to list ingestion manifest entries for " + jarPath, e);
+        }
+    }
+
+    /**
+     * Applies a row-level ingestion diff for a single JAR in one transaction. Item and entity rows are
+     * only deleted while they are still owned by the JAR, so ids claimed by another source survive.
+     * The manifest and its entries are replaced so they describe exactly what the JAR produced.
+     *
+     * @param manifest fingerprint of the ingested JAR
+     * @param diff     rows to write and delete
+     */
+    public void applyIngestionDiff(IngestionManifestEntity manifest, IngestionDiff diff) {
+        Objects.requireNonNull(manifest, "manifest");
+        Objects.requireNonNull(diff, "diff");
+        boolean previousAutoCommit = getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            writeIngestionDiff(manifest, diff);
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly();
+            throw new UncheckedSqlException("Failed to apply ingestion diff for " + manifest.jarPath(), e);
+        } finally {
+            restoreAutoCommit(previousAutoCommit);
+        }
+    }
+
+    /**
+     * Applies the diffs of several JARs and removes vanished JARs in a single transaction. Used by
+     * directory rescans so that a rescan is committed as a whole or not at all.
+     *
+     * @param changes     per-JAR manifests and diffs to apply
+     * @param removedJars JARs whose rows and manifests are deleted
+     */
+    public void applyIngestionBatch(List<IngestionChange> changes, List<String> removedJars) {
+        applyIngestionBatch(changes, removedJars, List.of());
+    }
+
+    /**
+     * Variant of {@link #applyIngestionBatch(List, List)} that also rewrites items of other sources in the same
+     * transaction, for rows whose resolved tags changed because a tag they belong to is defined by one of the
+     * changed JARs.
+     *
+     * @param changes      per-JAR manifests and diffs to apply
+     * @param removedJars  JARs whose rows and manifests are deleted
+     * @param updatedItems items of unchanged sources to upsert
+     */
+    public void applyIngestionBatch(List<IngestionChange> changes, List<String> removedJars,
+            List<ItemEntity> updatedItems) {
+        Objects.requireNonNull(changes, "changes");
+        Objects.requireNonNull(removedJars, "removedJars");
+        Objects.requireNonNull(updatedItems, "updatedItems");
+        if (changes.isEmpty() && removedJars.isEmpty() && updatedItems.isEmpty()) {
+            return;
+        }
+        boolean previousAutoCommit = getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            for (IngestionChange change : changes) {
+                writeIngestionDiff(change.manifest(), change.diff());
+            }
+            for (String jarPath : removedJars) {
+                deleteIngestedJarRows(jarPath);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_ITEM_SQL)) {
+                for (ItemEntity item : updatedItems) {
+                    bindItem(statement, item);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly();
+            throw new UncheckedSqlException("Failed to apply ingestion batch of " + changes.size() + " jars", e);
+        } finally {
+            restoreAutoCommit(previousAutoCommit);
+        }
+    }
+
+    /**
+     * Removes the manifest of a JAR that disappeared together with every item and entity row it owned.
+     */
+    public void deleteIngestedJar(String jarPath) {
+        Objects.requireNonNull(jarPath, "jarPath");
+        boolean previousAutoCommit = getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            deleteIngestedJarRows(jarPath);
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly();
+            throw new UncheckedSqlException("Failed to delete ingested jar " + jarPath, e);
+        } finally {
+            restoreAutoCommit(previousAutoCommit);
+        }
+    }
+
+    /**
+     * Writes the items of an imported catalog and replaces the tag definitions recorded for its source in one
+     * transaction, so the tags outlive the session and are not lost when another source is ingested later.
+     *
+     * @param catalog    source, version and file fingerprint of the imported catalog
+     * @param tagEntries tag definitions of the catalog, in the same encoding as ingestion manifest tag entries
+     * @param items      items of the catalog and items of other sources whose resolved tags changed
+     */
+    public void applyCatalogImport(CatalogImportEntity catalog, List<String> tagEntries, List<ItemEntity> items) {
+        Objects.requireNonNull(catalog, "catalog");
+        Objects.requireNonNull(tagEntries, "tagEntries");
+        Objects.requireNonNull(items, "items");
+        boolean previousAutoCommit = getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_ITEM_SQL)) {
+                for (ItemEntity item : items) {
+                    bindItem(statement, item);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_CATALOG_IMPORT_SQL)) {
+                statement.setString(1, catalog.source());
+                setStringOrNull(statement, 2, catalog.version());
+                setStringOrNull(statement, 3, catalog.fingerprint());
+                statement.executeUpdate();
+            }
+            deleteRecords(DELETE_CATALOG_IMPORT_TAGS_SQL, catalog.source());
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_CATALOG_IMPORT_TAG_SQL)) {
+                for (String entryId : tagEntries) {
+                    statement.setString(1, catalog.source());
+                    statement.setString(2, entryId);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly();
+            throw new UncheckedSqlException("Failed to apply catalog import for " + catalog.source(), e);
+        } finally {
+            restoreAutoCommit(previousAutoCommit);
+        }
+    }
+
+    public List<CatalogImportEntity> listCatalogImports() {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT source, version, fingerprint FROM catalog_imports ORDER BY source");
+             ResultSet resultSet = statement.executeQuery()) {
+            List<CatalogImportEntity> imports = new ArrayList<>();
+            while (resultSet.next()) {
+                imports.add(new CatalogImportEntity(resultSet.getString("source"), resultSet.getString("version"),
+                        resultSet.getString("fingerprint")));
+            }
+            return imports;
+        } catch (SQLException e) {
+            throw new UncheckedSqlException("Failed to list catalog imports", e);
+        }
+    }
+
+    /**
+     * Lists the tag definitions recorded by the last {@link #applyCatalogImport} of {@code source}.
+     */
+    public List<String> listCatalogImportTags(String source) {
+        Objects.requireNonNull(source, "source");
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT entry_id FROM catalog_import_tags WHERE source = ? ORDER BY entry_id"
+        )) {
+            statement.setString(1, source);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<String> entries = new ArrayList<>();
+                while (resultSet.next()) {
+                    entries.add(resultSet.getString("entry_id"));
+                }
+                return entries;
+            }
+        } catch (SQLException e) {
+            throw new UncheckedSqlException("Failed to list catalog import tags for " + source, e);
+        }
+    }
+
+    private void writeIngestionDiff(IngestionManifestEntity manifest, IngestionDiff diff) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_ITEM_SQL)) {
+            for (ItemEntity item : diff.upsertItems()) {
+                bindItem(statement, item);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        executeOwnedDeletes(DELETE_OWNED_ITEM_SQL, diff.deleteItemIds(), manifest.jarPath());
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_ENTITY_SQL)) {
+            for (EntityEntity entity : diff.upsertEntities()) {
+                bindEntity(statement, entity);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        executeOwnedDeletes(DELETE_OWNED_ENTITY_SQL, diff.deleteEntityIds(), manifest.jarPath());
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_INGESTION_MANIFEST_SQL)) {
+            statement.setString(1, manifest.jarPath());
+            statement.setLong(2, manifest.size());
+            statement.setLong(3, manifest.modifiedMillis());
+            statement.setString(4, manifest.centralDirectoryHash());
+            statement.setInt(5, manifest.extractorVersion());
+            setStringOrNull(statement, 6, manifest.version());
+            statement.executeUpdate();
+        }
+        deleteRecords(DELETE_INGESTION_ENTRIES_SQL, manifest.jarPath());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_INGESTION_ENTRY_SQL)) {
+            for (Map.Entry<String, List<String>> entry : diff.entriesByKind().entrySet()) {
+                for (String entryId : entry.getValue()) {
+                    statement.setString(1, manifest.jarPath());
+                    statement.setString(2, entry.getKey());
+                    statement.setString(3, entryId);
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void deleteIngestedJarRows(String jarPath) throws SQLException {
+        deleteRecords(DELETE_ITEMS_BY_SOURCE_SQL, jarPath);
+        deleteRecords(DELETE_ENTITIES_BY_SOURCE_SQL, jarPath);
+        deleteRecords(DELETE_INGESTION_ENTRIES_SQL, jarPath);
+        deleteRecords(DELETE_INGESTION_MANIFEST_SQL, jarPath);
+    }
+
+    private void executeOwnedDeletes(String sql, List<String> ids, String sourceJar) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (String id : ids) {
+                statement.setString(1, id);
+                statement.setString(2, sourceJar);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static IngestionManifestEntity mapIngestionManifest(ResultSet resultSet) throws SQLException {
+        return new IngestionManifestEntity(
+                resultSet.getString("jar_path"),
+                resultSet.getLong("size"),
+                resultSet.getLong("modified_millis"),
+                resultSet.getString("central_directory_hash"),
+                resultSet.getInt("extractor_version"),
+                resultSet.getString("version"));
+    }
+
     /**
      * Lists all quests from the database. Only basic quest fields are loaded
      * (id, title, description, icon and visibility). Tasks, rewards and dependencies
@@ -1376,6 +1786,31 @@ public class StoreDao {
                 resultSet.getString("kind"));
     }
 
+    private static void bindItem(PreparedStatement statement, ItemEntity item) throws SQLException {
+        statement.setString(1, item.id());
+        statement.setString(2, item.displayName());
+        statement.setInt(3, item.isVanilla() ? 1 : 0);
+        setStringOrNull(statement, 4, item.modId());
+        setStringOrNull(statement, 5, item.modName());
+        setStringOrNull(statement, 6, item.tags());
+        setStringOrNull(statement, 7, item.texturePath());
+        setStringOrNull(statement, 8, item.iconHash());
+        setStringOrNull(statement, 9, item.sourceJar());
+        setStringOrNull(statement, 10, item.version());
+        setStringOrNull(statement, 11, item.kind());
+    }
+
+    private static void bindEntity(PreparedStatement statement, EntityEntity entity) throws SQLException {
+        statement.setString(1, entity.id());
+        statement.setString(2, entity.displayName());
+        statement.setInt(3, entity.isVanilla() ? 1 : 0);
+        setStringOrNull(statement, 4, entity.modId());
+        setStringOrNull(statement, 5, entity.modName());
+        setStringOrNull(statement, 6, entity.texturePath());
+        setStringOrNull(statement, 7, entity.sourceJar());
+        setStringOrNull(statement, 8, entity.version());
+    }
+
     private static void setStringOrNull(PreparedStatement statement, int index, String value) throws SQLException {
         if (value == null) {
             statement.setNull(index, Types.VARCHAR);
@@ -1426,6 +1861,47 @@ public class StoreDao {
             String version) {
     }
 
+    public record IngestionManifestEntity(
+            String jarPath,
+            long size,
+            long modifiedMillis,
+            String centralDirectoryHash,
+            int extractorVersion,
+            String version) {
+        public IngestionManifestEntity {
+            Objects.requireNonNull(jarPath, "jarPath");
+            Objects.requireNonNull(centralDirectoryHash, "centralDirectoryHash");
+        }
+    }
+
+    public record CatalogImportEntity(String source, String version, String fingerprint) {
+        public CatalogImportEntity {
+            Objects.requireNonNull(source, "source");
+        }
+    }
+
+    public record IngestionDiff(
+            List<ItemEntity> upsertItems,
+            List<String> deleteItemIds,
+            List<EntityEntity> upsertEntities,
+            List<String> deleteEntityIds,
+            Map<String, List<String>> entriesByKind) {
+        public IngestionDiff {
+            upsertItems = List.copyOf(upsertItems);
+            deleteItemIds = List.copyOf(deleteItemIds);
+            upsertEntities = List.copyOf(upsertEntities);
+            deleteEntityIds = List.copyOf(deleteEntityIds);
+            entriesByKind = Map.copyOf(entriesByKind);
+        }
+    }
+
+    public record IngestionChange(IngestionManifestEntity manifest, IngestionDiff diff) {
+        public IngestionChange {
+            Objects.requireNonNull(manifest, "manifest");
+            Objects.requireNonNull(diff, "diff");
+        }
+    }
+
     public record LootTableEntity(String name, String data) {
     }
 
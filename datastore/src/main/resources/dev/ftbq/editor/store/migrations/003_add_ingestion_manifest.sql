@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS ingestion_manifest(
+  jar_path TEXT PRIMARY KEY,
+  size INTEGER NOT NULL,
+  modified_millis INTEGER NOT NULL,
+  central_directory_hash TEXT NOT NULL,
+  extractor_version INTEGER NOT NULL,
+  version TEXT,
+  ingested_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS ingestion_manifest_entries(
+  jar_path TEXT NOT NULL REFERENCES ingestion_manifest(jar_path) ON DELETE CASCADE,
+  kind TEXT NOT NULL, -- item, entity or icon
+  entry_id TEXT NOT NULL,
+  PRIMARY KEY (jar_path, kind, entry_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_items_source_jar ON items(source_jar);
+CREATE INDEX IF NOT EXISTS idx_entities_source_jar ON entities(source_jar);
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS catalog_imports(
+  source TEXT PRIMARY KEY,
+  version TEXT,
+  imported_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS catalog_import_tags(
+  source TEXT NOT NULL REFERENCES catalog_imports(source) ON DELETE CASCADE,
+  entry_id TEXT NOT NULL,
+  PRIMARY KEY (source, entry_id)
+);
@@ -0,0 +1 @@
+ALTER TABLE catalog_imports ADD COLUMN fingerprint TEXT;
@@ -23,6 +23,14 @@ class SchemaMigrationTest {
             assertTrue(tableExists(connection, "quest_details"), "legacy quest details table should exist");
             assertTrue(migrationRecorded(connection, "001_create_quest_schema.sql"), "initial migration marker should be recorded");
             assertTrue(migrationRecorded(connection, "002_add_chapter_tables.sql"), "chapter migration marker should be recorded");
+            assertTrue(tableExists(connection, "ingestion_manifest"), "ingestion_manifest table should exist");
+            assertTrue(tableExists(connection, "ingestion_manifest_entries"), "ingestion_manifest_entries table should exist");
+            assertTrue(migrationRecorded(connection, "003_add_ingestion_manifest.sql"), "ingestion manifest migration marker should be recorded");
+            assertTrue(tableExists(connection, "catalog_imports"), "catalog_imports table should exist");
+            assertTrue(tableExists(connection, "catalog_import_tags"), "catalog_import_tags table should exist");
+            assertTrue(migrationRecorded(connection, "004_add_catalog_imports.sql"), "catalog import migration marker should be recorded");
+            assertTrue(columnExists(connection, "catalog_imports", "fingerprint"), "catalog_imports table should have fingerprint column");
+            assertTrue(migrationRecorded(connection, "005_add_catalog_import_fingerprint.sql"), "catalog import fingerprint migration marker should be recorded");
         }
     }
 
@@ -0,0 +1,57 @@
+package dev.ftbq.editor.importer.snbt.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outline of an SNBT quest pack: identifiers and counts only, read without building the full tree.
+ * Used for import previews; {@link ImportedQuestPack} is still needed to perform the import.
+ */
+public record QuestPackSkim(String id,
+                            String title,
+                            long schemaVersion,
+                            int chapterGroupCount,
+                            List<ChapterSkim> chapters,
+                            int taskCount,
+                            int rewardCount,
+                            List<String> warnings) {
+
+    public QuestPackSkim {
+        chapters = List.copyOf(chapters);
+        warnings = List.copyOf(warnings);
+    }
+
+    /**
+     * Outline of a pack that has already been read in full.
+     */
+    public static QuestPackSkim of(ImportedQuestPack pack) {
+        List<ChapterSkim> chapters = new ArrayList<>(pack.chapters().size());
+        int taskCount = 0;
+        int rewardCount = 0;
+        for (ImportedChapter chapter : pack.chapters()) {
+            List<String> questIds = new ArrayList<>(chapter.quests().size());
+            for (ImportedQuest quest : chapter.quests()) {
+                questIds.add(quest.id());
+                taskCount += quest.tasks().size();
+                rewardCount += quest.rewards().size();
+            }
+            chapters.add(new ChapterSkim(chapter.id(), chapter.title(), questIds));
+        }
+        return new QuestPackSkim(pack.id(), pack.title(), pack.schemaVersion(), pack.chapterGroups().size(),
+                chapters, taskCount, rewardCount, pack.warnings());
+    }
+
+    public int questCount() {
+        int count = 0;
+        for (ChapterSkim chapter : chapters) {
+            count += chapter.questIds().size();
+        }
+        return count;
+    }
+
+    public record ChapterSkim(String id, String title, List<String> questIds) {
+        public ChapterSkim {
+            questIds = List.copyOf(questIds);
+        }
+    }
+}
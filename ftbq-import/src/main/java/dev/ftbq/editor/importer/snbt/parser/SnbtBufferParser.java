@@ -0,0 +1,148 @@
+package dev.ftbq.editor.importer.snbt.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * SNBT parser built on {@link SnbtLexer}. Produces the same collections and values as {@link SnbtParser}
+ * but reads from a {@code char[]} window and can decode a file straight into one, skipping the
+ * intermediate {@code String}.
+ */
+public final class SnbtBufferParser {
+
+    /** Files up to this size are read with a plain read; larger ones are memory-mapped for decoding. */
+    private static final long MAP_THRESHOLD = 1L << 20;
+
+    private final SnbtLexer lexer;
+
+    public SnbtBufferParser(SnbtLexer lexer) {
+        this.lexer = Objects.requireNonNull(lexer, "lexer");
+    }
+
+    public static Map<String, Object> parseRootCompound(CharSequence snbt) {
+        return new SnbtBufferParser(SnbtLexer.of(snbt)).parseRoot();
+    }
+
+    public static Map<String, Object> parseRootCompound(char[] chars, int offset, int length) {
+        return new SnbtBufferParser(new SnbtLexer(chars, offset, length)).parseRoot();
+    }
+
+    /**
+     * Parses a UTF-8 SNBT file. Malformed bytes are replaced, as {@code new String(bytes, UTF_8)} does.
+     */
+    public static Map<String, Object> parseRootCompound(Path file) throws IOException {
+        return parseRootCompound(readChars(file));
+    }
+
+    /**
+     * Decodes a UTF-8 file into an array-backed buffer without building a {@code String}.
+     */
+    public static CharBuffer readChars(Path file) throws IOException {
+        Objects.requireNonNull(file, "file");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("SNBT file too large: " + file);
+            }
+            ByteBuffer bytes;
+            if (size > MAP_THRESHOLD) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                bytes = ByteBuffer.allocate((int) size);
+                while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                    // keep reading until the buffer is full or the file ends
+                }
+                bytes.flip();
+            }
+            return decode(bytes);
+        }
+    }
+
+    private static CharBuffer decode(ByteBuffer bytes) throws CharacterCodingException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        // UTF-8 never decodes to more chars than it has bytes.
+        CharBuffer chars = CharBuffer.allocate(bytes.remaining());
+        decoder.decode(bytes, chars, true);
+        decoder.flush(chars);
+        return chars.flip();
+    }
+
+    public Map<String, Object> parseRoot() {
+        Object value = parseValue();
+        if (!(value instanceof Map<?, ?>)) {
+            throw new SnbtParseException("Root of SNBT must be a compound");
+        }
+        lexer.skipWhitespace();
+        if (lexer.hasNext()) {
+            throw new SnbtParseException("Trailing content after root compound at index " + lexer.position());
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> compound = (Map<String, Object>) value;
+        return compound;
+    }
+
+    private Object parseValue() {
+        lexer.skipWhitespace();
+        if (!lexer.hasNext()) {
+            throw new SnbtParseException("Unexpected end of SNBT input");
+        }
+        return switch (lexer.peek()) {
+            case '{' -> parseCompound();
+            case '[' -> parseList();
+            default -> {
+                lexer.readScalar();
+                yield lexer.boxedValue();
+            }
+        };
+    }
+
+    private Map<String, Object> parseCompound() {
+        lexer.expect('{');
+        Map<String, Object> compound = new LinkedHashMap<>();
+        lexer.skipWhitespace();
+        if (lexer.consume('}')) {
+            return compound;
+        }
+        do {
+            String key = lexer.readKey();
+            lexer.skipWhitespace();
+            lexer.expect(':');
+            compound.put(key, parseValue());
+            lexer.skipWhitespace();
+        } while (lexer.consume(','));
+        lexer.skipWhitespace();
+        lexer.expect('}');
+        return compound;
+    }
+
+    private List<Object> parseList() {
+        lexer.expect('[');
+        List<Object> list = new ArrayList<>();
+        lexer.skipWhitespace();
+        if (lexer.consume(']')) {
+            return list;
+        }
+        do {
+            list.add(parseValue());
+            lexer.skipWhitespace();
+        } while (lexer.consume(','));
+        lexer.skipWhitespace();
+        lexer.expect(']');
+        return list;
+    }
+}
@@ -0,0 +1,765 @@
+package dev.ftbq.editor.importer.snbt.parser;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Lossless SNBT document whose subtrees are parsed on first access.
+ * <p>
+ * Every node keeps the span of source text it was read from. Reading a document finds the entries of the root
+ * compound and of the containers directly inside it; any other compound or list finds its entries when it is
+ * first accessed. Everything deeper is only skipped, so the contents of a chapter stay unparsed until something
+ * asks for them. Editing a container marks it and its
+ * ancestors dirty. {@link #write(Writer)} copies clean subtrees verbatim from the source, including comments,
+ * whitespace and number spellings, and re-emits only dirty containers, keeping the original text before, between
+ * and after their entries. Entries added by an edit take the line break and indentation of the existing entries;
+ * keys and values the editor does not know about are never touched.
+ * <p>
+ * The accepted syntax is that of {@link SnbtBufferParser}, and {@link Node#toValue()} returns the same
+ * collections and values it would. Documents are not thread-safe. A node removed from its container can be
+ * added to another one, also in another document, and still writes its own source text.
+ */
+public final class SnbtDocument {
+
+    private final char[] source;
+    private final int start;
+    private final int end;
+    private final Compound root;
+
+    private SnbtDocument(char[] source, int offset, int length) {
+        this.source = source;
+        this.start = offset;
+        this.end = offset + length;
+        SnbtLexer lexer = new SnbtLexer(source, offset, length);
+        lexer.skipWhitespace();
+        if (!lexer.hasNext()) {
+            throw new SnbtParseException("Unexpected end of SNBT input");
+        }
+        if (lexer.peek() != '{') {
+            throw new SnbtParseException("Root of SNBT must be a compound");
+        }
+        this.root = new Compound(source, offset + lexer.position(), -1);
+        lexer.expect('{');
+        root.scan(lexer, offset);
+        lexer.skipWhitespace();
+        if (lexer.hasNext()) {
+            throw new SnbtParseException("Trailing content after root compound at index " + lexer.position());
+        }
+    }
+
+    public static SnbtDocument parse(CharSequence snbt) {
+        Objects.requireNonNull(snbt, "snbt");
+        if (snbt instanceof CharBuffer chars && chars.hasArray()) {
+            return new SnbtDocument(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+        }
+        char[] chars = snbt.toString().toCharArray();
+        return new SnbtDocument(chars, 0, chars.length);
+    }
+
+    /**
+     * Reads a UTF-8 SNBT file, decoding it the way {@link SnbtBufferParser#readChars(Path)} does.
+     */
+    public static SnbtDocument read(Path file) throws IOException {
+        return parse(SnbtBufferParser.readChars(file));
+    }
+
+    public Compound root() {
+        return root;
+    }
+
+    /**
+     * Whether an edit changed the document since it was read. A clean document writes its source unchanged.
+     */
+    public boolean isDirty() {
+        return root.dirty;
+    }
+
+    /**
+     * Writes the document: the text around the root compound verbatim, clean subtrees copied from the source and
+     * dirty containers re-emitted.
+     */
+    public void write(Writer out) throws IOException {
+        Objects.requireNonNull(out, "out");
+        if (!root.dirty) {
+            out.write(source, start, end - start);
+            return;
+        }
+        out.write(source, start, root.start - start);
+        root.write(out, 0);
+        out.write(source, root.end, end - root.end);
+    }
+
+    public String toSnbt() {
+        StringWriter out = new StringWriter(end - start);
+        try {
+            write(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Node for {@code value}: nodes are returned as they are, maps become {@link Compound}s, collections
+     * {@link ListNode}s and everything else a {@link Value}, recursively.
+     */
+    public static Node node(Object value) {
+        if (value instanceof Node node) {
+            return node;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Compound compound = new Compound();
+            map.forEach((key, entry) -> compound.put(String.valueOf(key), entry));
+            return compound;
+        }
+        if (value instanceof Collection<?> collection) {
+            ListNode list = new ListNode();
+            collection.forEach(list::add);
+            return list;
+        }
+        return Value.of(value);
+    }
+
+    /**
+     * A compound, list or scalar, either read from source text or created by an edit.
+     */
+    public abstract static sealed class Node permits Container, Value {
+        final char[] source;
+        final int start;
+        int end;
+        Container parent;
+        boolean dirty;
+
+        Node(char[] source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Whether this node was read from source text rather than created by an edit.
+         */
+        public boolean hasSource() {
+            return source != null;
+        }
+
+        /**
+         * Whether this node or anything below it was edited, so it can no longer be copied from its source.
+         */
+        public boolean isDirty() {
+            return dirty;
+        }
+
+        /**
+         * The container holding this node, or {@code null} for a root or detached node.
+         */
+        public Container parent() {
+            return parent;
+        }
+
+        /**
+         * This subtree as {@link SnbtBufferParser} would return it.
+         */
+        public abstract Object toValue();
+
+        /**
+         * This subtree as SNBT text, nested as if it stood at the top level.
+         */
+        public String toSnbt() {
+            StringWriter out = new StringWriter();
+            try {
+                write(out, 0);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return out.toString();
+        }
+
+        abstract void write(Writer out, int depth) throws IOException;
+
+        final boolean copySource(Writer out) throws IOException {
+            if (dirty || source == null) {
+                return false;
+            }
+            out.write(source, start, end - start);
+            return true;
+        }
+    }
+
+    /**
+     * Common part of compounds and lists: entries with the source text around them.
+     */
+    public abstract static sealed class Container extends Node permits Compound, ListNode {
+        List<Entry> entries;
+        private int closingStart;
+        private int closingEnd;
+        private boolean sourceEmpty;
+
+        Container(char[] source, int start, int end) {
+            super(source, start, end);
+        }
+
+        Container() {
+            super(null, -1, -1);
+            entries = new ArrayList<>();
+        }
+
+        public int size() {
+            return entries().size();
+        }
+
+        public boolean isEmpty() {
+            return entries().isEmpty();
+        }
+
+        /**
+         * Whether the entries have been scanned; their values may still be unparsed.
+         */
+        boolean isParsed() {
+            return entries != null;
+        }
+
+        final List<Entry> entries() {
+            if (entries == null) {
+                scan(new SnbtLexer(source, start + 1, end - start - 1), start + 1);
+            }
+            return entries;
+        }
+
+        /**
+         * Reads the entries from {@code lexer}, positioned after the opening bracket, up to and including the
+         * closing bracket; {@code base} is the source index of the lexer's position 0. Values that are containers
+         * get their own entries read in the same pass, without going deeper, so walking down the tree does not
+         * scan the same text once per level. Everything further down is only skipped.
+         */
+        final void scan(SnbtLexer lexer, int base) {
+            scan(lexer, base, true);
+        }
+
+        private void scan(SnbtLexer lexer, int base, boolean scanChildren) {
+            boolean compound = this instanceof Compound;
+            char close = compound ? '}' : ']';
+            entries = new ArrayList<>();
+            int lead = base + lexer.position();
+            lexer.skipWhitespace();
+            if (lexer.consume(close)) {
+                closingStart = lead;
+                end = base + lexer.position();
+                closingEnd = end - 1;
+                sourceEmpty = true;
+                return;
+            }
+            while (true) {
+                lexer.skipWhitespace();
+                int keyStart = base + lexer.position();
+                String key = null;
+                if (compound) {
+                    key = lexer.readKey();
+                    lexer.skipWhitespace();
+                    lexer.expect(':');
+                    lexer.skipWhitespace();
+                }
+                int valueStart = base + lexer.position();
+                Node value;
+                char open = scanChildren && lexer.hasNext() ? lexer.peek() : 0;
+                if (open == '{' || open == '[') {
+                    lexer.expect(open);
+                    Container container = open == '{'
+                            ? new Compound(source, valueStart, -1)
+                            : new ListNode(source, valueStart, -1);
+                    container.scan(lexer, base, false);
+                    value = container;
+                } else {
+                    lexer.skipValue();
+                    value = child(valueStart, base + lexer.position());
+                }
+                int valueEnd = base + lexer.position();
+                lexer.skipWhitespace();
+                int trailEnd = base + lexer.position();
+                boolean more = lexer.consume(',');
+                Entry entry = new Entry(key, value);
+                entry.headStart = lead;
+                entry.keyStart = keyStart;
+                entry.headEnd = valueStart;
+                entry.trailStart = valueEnd;
+                entry.trailEnd = more ? trailEnd : valueEnd;
+                entry.value.parent = this;
+                entries.add(entry);
+                indexEntry(entry);
+                if (!more) {
+                    lexer.expect(close);
+                    closingStart = valueEnd;
+                    closingEnd = trailEnd;
+                    end = base + lexer.position();
+                    return;
+                }
+                lead = base + lexer.position();
+            }
+        }
+
+        private Node child(int valueStart, int valueEnd) {
+            return switch (source[valueStart]) {
+                case '{' -> new Compound(source, valueStart, valueEnd);
+                case '[' -> new ListNode(source, valueStart, valueEnd);
+                default -> new Value(source, valueStart, valueEnd);
+            };
+        }
+
+        void indexEntry(Entry entry) {
+        }
+
+        final Node adopt(Object value) {
+            Node node = node(value);
+            if (node.parent != null) {
+                throw new IllegalArgumentException("Node already belongs to a container");
+            }
+            for (Container ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (ancestor == node) {
+                    throw new IllegalArgumentException("Node cannot contain itself");
+                }
+            }
+            node.parent = this;
+            return node;
+        }
+
+        final void markDirty() {
+            for (Node node = this; node != null && !node.dirty; node = node.parent) {
+                node.dirty = true;
+            }
+        }
+
+        @Override
+        final void write(Writer out, int depth) throws IOException {
+            if (copySource(out)) {
+                return;
+            }
+            List<Entry> list = entries();
+            out.write(this instanceof Compound ? '{' : '[');
+            String indentation = null;
+            for (int i = 0; i < list.size(); i++) {
+                Entry entry = list.get(i);
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (entry.headStart >= 0) {
+                    out.write(source, entry.headStart, entry.headEnd - entry.headStart);
+                } else {
+                    if (indentation == null) {
+                        indentation = indentation(depth);
+                    }
+                    out.write(indentation);
+                    if (entry.key != null) {
+                        out.write(keyText(entry.key));
+                        out.write(':');
+                    }
+                }
+                entry.value.write(out, depth + 1);
+                if (entry.trailStart >= 0) {
+                    out.write(source, entry.trailStart, entry.trailEnd - entry.trailStart);
+                }
+            }
+            if (source == null) {
+                if (!list.isEmpty()) {
+                    out.write('\n');
+                    out.write(indent(depth));
+                }
+            } else if (sourceEmpty && !list.isEmpty() && !containsNewline(closingStart, closingEnd)) {
+                out.write('\n');
+                out.write(indent(depth));
+            } else {
+                out.write(source, closingStart, closingEnd - closingStart);
+            }
+            out.write(this instanceof Compound ? '}' : ']');
+        }
+
+        /**
+         * Whitespace written before added entries: the line break and indentation of the last source entry, or the
+         * editor's two spaces per level when there is none to copy.
+         */
+        private String indentation(int depth) {
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                Entry entry = entries.get(i);
+                if (entry.headStart < 0) {
+                    continue;
+                }
+                int lineStart = entry.keyStart;
+                while (lineStart > entry.headStart && source[lineStart - 1] != '\n') {
+                    if (!Character.isWhitespace(source[lineStart - 1])) {
+                        return "\n" + indent(depth + 1);
+                    }
+                    lineStart--;
+                }
+                String whitespace = new String(source, lineStart, entry.keyStart - lineStart);
+                if (lineStart == entry.headStart) {
+                    return whitespace.isEmpty() ? " " : whitespace;
+                }
+                boolean crlf = lineStart - 2 >= entry.headStart && source[lineStart - 2] == '\r';
+                return (crlf ? "\r\n" : "\n") + whitespace;
+            }
+            return "\n" + indent(depth + 1);
+        }
+
+        private boolean containsNewline(int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (source[i] == '\n') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String indent(int depth) {
+            return "  ".repeat(depth);
+        }
+    }
+
+    /**
+     * A compound. Keys keep their first position; with duplicate keys the last value wins, as in
+     * {@link SnbtBufferParser}.
+     */
+    public static final class Compound extends Container {
+        private Map<String, Entry> index;
+
+        Compound(char[] source, int start, int end) {
+            super(source, start, end);
+        }
+
+        public Compound() {
+            index = new LinkedHashMap<>();
+        }
+
+        public Set<String> keys() {
+            return Collections.unmodifiableSet(index().keySet());
+        }
+
+        public boolean containsKey(String key) {
+            return index().containsKey(key);
+        }
+
+        public Node get(String key) {
+            Entry entry = index().get(key);
+            return entry != null ? entry.value : null;
+        }
+
+        /**
+         * The compound stored under {@code key}, or {@code null} when there is none or the value is not a compound.
+         */
+        public Compound getCompound(String key) {
+            return get(key) instanceof Compound compound ? compound : null;
+        }
+
+        public ListNode getList(String key) {
+            return get(key) instanceof ListNode list ? list : null;
+        }
+
+        public Value getValue(String key) {
+            return get(key) instanceof Value value ? value : null;
+        }
+
+        /**
+         * The string stored under {@code key}, or {@code null} when there is none or the value is not a string.
+         */
+        public String getString(String key) {
+            Value value = getValue(key);
+            return value != null ? value.stringValue() : null;
+        }
+
+        /**
+         * Stores {@code value}, converted with {@link SnbtDocument#node(Object)}. An existing key keeps its place
+         * and the text around it; a new key is appended.
+         */
+        public void put(String key, Object value) {
+            Objects.requireNonNull(key, "key");
+            Entry existing = index().get(key);
+            if (existing != null && existing.value == value) {
+                return;
+            }
+            Node node = adopt(value);
+            if (existing != null) {
+                existing.value.parent = null;
+                existing.value = node;
+            } else {
+                Entry entry = new Entry(key, node);
+                entries().add(entry);
+                index.put(key, entry);
+            }
+            markDirty();
+        }
+
+        /**
+         * Removes every entry for {@code key}.
+         *
+         * @return the value that was stored, or {@code null}
+         */
+        public Node remove(String key) {
+            Entry removed = index().remove(key);
+            if (removed == null) {
+                return null;
+            }
+            entries.removeIf(entry -> key.equals(entry.key));
+            removed.value.parent = null;
+            markDirty();
+            return removed.value;
+        }
+
+        @Override
+        public Map<String, Object> toValue() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Entry entry : entries()) {
+                values.put(entry.key, entry.value.toValue());
+            }
+            return values;
+        }
+
+        private Map<String, Entry> index() {
+            if (index == null) {
+                index = new LinkedHashMap<>();
+                entries();
+            }
+            return index;
+        }
+
+        @Override
+        void indexEntry(Entry entry) {
+            if (index == null) {
+                index = new LinkedHashMap<>();
+            }
+            index.put(entry.key, entry);
+        }
+    }
+
+    /**
+     * A list.
+     */
+    public static final class ListNode extends Container {
+
+        ListNode(char[] source, int start, int end) {
+            super(source, start, end);
+        }
+
+        public ListNode() {
+        }
+
+        public Node get(int index) {
+            return entries().get(index).value;
+        }
+
+        /**
+         * The compound at {@code index}, or {@code null} when the element is not a compound.
+         */
+        public Compound getCompound(int index) {
+            return get(index) instanceof Compound compound ? compound : null;
+        }
+
+        /**
+         * Appends {@code value}, converted with {@link SnbtDocument#node(Object)}.
+         */
+        public void add(Object value) {
+            add(size(), value);
+        }
+
+        public void add(int index, Object value) {
+            List<Entry> list = entries();
+            Objects.checkIndex(index, list.size() + 1);
+            list.add(index, new Entry(null, adopt(value)));
+            markDirty();
+        }
+
+        /**
+         * Replaces the element at {@code index}, keeping the text around it.
+         */
+        public void set(int index, Object value) {
+            Entry entry = entries().get(index);
+            if (entry.value == value) {
+                return;
+            }
+            Node node = adopt(value);
+            entry.value.parent = null;
+            entry.value = node;
+            markDirty();
+        }
+
+        public Node remove(int index) {
+            Entry removed = entries().remove(index);
+            removed.value.parent = null;
+            markDirty();
+            return removed.value;
+        }
+
+        @Override
+        public List<Object> toValue() {
+            List<Entry> list = entries();
+            List<Object> values = new ArrayList<>(list.size());
+            for (Entry entry : list) {
+                values.add(entry.value.toValue());
+            }
+            return values;
+        }
+    }
+
+    /**
+     * A scalar. Values are immutable; edits replace them in their container. A value read from source is decoded
+     * on first access and always written with its original spelling.
+     */
+    public static final class Value extends Node {
+        private String text;
+        private SnbtLexer.ScalarType type;
+        private Object value;
+
+        Value(char[] source, int start, int end) {
+            super(source, start, end);
+        }
+
+        private Value(String text, SnbtLexer.ScalarType type, Object value) {
+            super(null, -1, -1);
+            this.text = text;
+            this.type = type;
+            this.value = value;
+        }
+
+        /**
+         * A value for a string, boolean or number. {@code Integer}s are stored as unsuffixed longs, and doubles and
+         * floats are written as plain decimals with their {@code d} and {@code f} suffixes. SNBT has no spelling
+         * for {@code NaN} or infinities, so those are rejected.
+         */
+        public static Value of(Object value) {
+            Objects.requireNonNull(value, "value");
+            return switch (value) {
+                case String string -> new Value(quote(string), SnbtLexer.ScalarType.STRING, string);
+                case Boolean bool -> new Value(bool.toString(), SnbtLexer.ScalarType.BOOLEAN, bool);
+                case Byte number -> new Value(number + "b", SnbtLexer.ScalarType.BYTE, number);
+                case Short number -> new Value(number + "s", SnbtLexer.ScalarType.SHORT, number);
+                case Integer number -> new Value(number.toString(), SnbtLexer.ScalarType.LONG, number.longValue());
+                case Long number -> new Value(number.toString(), SnbtLexer.ScalarType.LONG, number);
+                case Float number -> new Value(decimal(number, 'f'), SnbtLexer.ScalarType.FLOAT, number);
+                case Double number -> new Value(decimal(number, 'd'), SnbtLexer.ScalarType.DOUBLE, number);
+                default -> throw new IllegalArgumentException("Unsupported SNBT value: " + value.getClass().getName());
+            };
+        }
+
+        /**
+         * The shortest plain decimal form of a number with at least one fractional digit, as the exporter writes
+         * it: {@code 1.0E10} becomes {@code 10000000000.0}.
+         */
+        private static String decimal(Number number, char suffix) {
+            String shortest = number.toString();
+            if (!Double.isFinite(number.doubleValue())) {
+                throw new IllegalArgumentException("Unsupported SNBT value: " + shortest);
+            }
+            String plain = shortest.indexOf('E') < 0
+                    ? shortest
+                    : new BigDecimal(shortest).stripTrailingZeros().toPlainString();
+            return plain.indexOf('.') < 0 ? plain + ".0" + suffix : plain + suffix;
+        }
+
+        public SnbtLexer.ScalarType type() {
+            decode();
+            return type;
+        }
+
+        /**
+         * The value boxed the way {@link SnbtBufferParser} stores it.
+         */
+        @Override
+        public Object toValue() {
+            decode();
+            return value;
+        }
+
+        /**
+         * The string value, or {@code null} when this is not a string.
+         */
+        public String stringValue() {
+            decode();
+            return type == SnbtLexer.ScalarType.STRING ? (String) value : null;
+        }
+
+        /**
+         * The SNBT spelling of this value, for example {@code 1.5d} or {@code "text"}.
+         */
+        public String text() {
+            if (text == null) {
+                text = new String(source, start, end - start);
+            }
+            return text;
+        }
+
+        @Override
+        void write(Writer out, int depth) throws IOException {
+            if (!copySource(out)) {
+                out.write(text);
+            }
+        }
+
+        private void decode() {
+            if (type == null) {
+                SnbtLexer lexer = new SnbtLexer(source, start, end - start);
+                type = lexer.readScalar();
+                value = lexer.boxedValue();
+            }
+        }
+
+        private static String quote(String value) {
+            StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> builder.append("\\\"");
+                    case '\\' -> builder.append("\\\\");
+                    case '\n' -> builder.append("\\n");
+                    case '\r' -> builder.append("\\r");
+                    case '\t' -> builder.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            builder.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            builder.append(c);
+                        }
+                    }
+                }
+            }
+            return builder.append('"').toString();
+        }
+    }
+
+    static final class Entry {
+        final String key;
+        Node value;
+        int headStart = -1;
+        int keyStart = -1;
+        int headEnd = -1;
+        int trailStart = -1;
+        int trailEnd = -1;
+
+        Entry(String key, Node value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static String keyText(String key) {
+        if (key.isEmpty()) {
+            return "\"\"";
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.' && c != '/') {
+                return Value.quote(key);
+            }
+        }
+        return key;
+    }
+}
@@ -0,0 +1,746 @@
+package dev.ftbq.editor.importer.snbt.parser;
+
+import java.nio.CharBuffer;
+import java.util.Objects;
+
+/**
+ * Pull lexer for SNBT over a {@code char[]} window.
+ * <p>
+ * Character classes come from lookup tables for ASCII; only non-ASCII characters fall back to
+ * {@link Character}. Numbers are parsed straight from the buffer into primitive fields and keys plus short
+ * strings are interned through a per-lexer pool, so a typical quest file produces no throw-away strings.
+ * Token rules match {@link SnbtParser} exactly, including which bare words become numbers, booleans or text,
+ * and error messages report the same indexes.
+ * <p>
+ * Keys and values use different character sets, so callers ask for the token they expect:
+ * {@link #readKey()} in key position and {@link #readScalar()} in value position after checking
+ * {@link #peek()} for {@code {} or {@code [}.
+ */
+public final class SnbtLexer {
+
+    /**
+     * Type of the scalar read by the last {@link #readScalar()}. Unsuffixed integers are {@link #LONG} and
+     * unsuffixed decimals {@link #DOUBLE}, as in {@link SnbtParser}.
+     */
+    public enum ScalarType {
+        STRING,
+        BOOLEAN,
+        BYTE,
+        SHORT,
+        LONG,
+        FLOAT,
+        DOUBLE
+    }
+
+    private static final byte WHITESPACE = 1;
+    private static final byte KEY = 2;
+    private static final byte BARE = 4;
+    private static final byte[] CLASSES = new byte[128];
+
+    private static final int MAX_FAST_LONG_DIGITS = 18;
+    private static final int MAX_FAST_DOUBLE_DIGITS = 15;
+    private static final int MAX_FAST_FLOAT_DIGITS = 7;
+    private static final double[] DOUBLE_POWERS = new double[23];
+    private static final float[] FLOAT_POWERS = new float[11];
+
+    static {
+        for (int c = 0; c < 128; c++) {
+            if (Character.isWhitespace(c)) {
+                CLASSES[c] |= WHITESPACE;
+            }
+            if (Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.' || c == '/') {
+                CLASSES[c] |= KEY | BARE;
+            }
+        }
+        CLASSES['+'] |= BARE;
+        CLASSES[':'] |= BARE;
+        CLASSES['#'] |= BARE;
+        double power = 1;
+        for (int i = 0; i < DOUBLE_POWERS.length; i++) {
+            DOUBLE_POWERS[i] = power;
+            power *= 10;
+        }
+        float floatPower = 1;
+        for (int i = 0; i < FLOAT_POWERS.length; i++) {
+            FLOAT_POWERS[i] = floatPower;
+            floatPower *= 10;
+        }
+    }
+
+    private final char[] buffer;
+    private final int start;
+    private final int end;
+    private final StringPool pool = new StringPool();
+    private int index;
+
+    private ScalarType type;
+    private String text;
+    private boolean quoted;
+    private long longValue;
+    private double doubleValue;
+
+    public SnbtLexer(char[] buffer, int offset, int length) {
+        Objects.requireNonNull(buffer, "buffer");
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.buffer = buffer;
+        this.start = offset;
+        this.end = offset + length;
+        this.index = offset;
+    }
+
+    public static SnbtLexer of(CharSequence input) {
+        Objects.requireNonNull(input, "input");
+        if (input instanceof CharBuffer chars) {
+            return of(chars);
+        }
+        char[] chars = input.toString().toCharArray();
+        return new SnbtLexer(chars, 0, chars.length);
+    }
+
+    /**
+     * Lexes the remaining characters of {@code chars}. Array-backed buffers are read in place.
+     */
+    public static SnbtLexer of(CharBuffer chars) {
+        Objects.requireNonNull(chars, "chars");
+        if (chars.hasArray()) {
+            return new SnbtLexer(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+        }
+        char[] copy = new char[chars.remaining()];
+        chars.duplicate().get(copy);
+        return new SnbtLexer(copy, 0, copy.length);
+    }
+
+    /**
+     * Current position relative to the start of the input, as used in error messages.
+     */
+    public int position() {
+        return index - start;
+    }
+
+    /**
+     * Moves to {@code position}, relative to the start of the input like {@link #position()}, for callers that
+     * look ahead and come back, or visit values in an order other than the input's.
+     */
+    public void seek(int position) {
+        Objects.checkIndex(position, end - start + 1);
+        index = start + position;
+    }
+
+    public boolean hasNext() {
+        return index < end;
+    }
+
+    /**
+     * Skips whitespace and {@code //}, {@code /* *}{@code /} and {@code #} comments.
+     */
+    public void skipWhitespace() {
+        while (index < end) {
+            char c = buffer[index];
+            if (c < 128 ? (CLASSES[c] & WHITESPACE) != 0 : Character.isWhitespace(c)) {
+                index++;
+                continue;
+            }
+            if (c == '/' && index + 1 < end) {
+                char next = buffer[index + 1];
+                if (next == '/') {
+                    index = lineEnd(index + 2);
+                    continue;
+                }
+                if (next == '*') {
+                    index += 2;
+                    while (index + 1 < end && !(buffer[index] == '*' && buffer[index + 1] == '/')) {
+                        index++;
+                    }
+                    if (index + 1 >= end) {
+                        throw new SnbtParseException("Unterminated block comment");
+                    }
+                    index += 2;
+                    continue;
+                }
+            }
+            if (c == '#') {
+                index = lineEnd(index + 1);
+                continue;
+            }
+            break;
+        }
+    }
+
+    /**
+     * Next character without consuming it. Callers check {@link #hasNext()} first.
+     */
+    public char peek() {
+        return buffer[index];
+    }
+
+    public boolean consume(char expected) {
+        if (index < end && buffer[index] == expected) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    public void expect(char expected) {
+        if (!consume(expected)) {
+            String message = index < end
+                    ? "Expected '" + expected + "' at index " + position() + " but found '" + buffer[index] + "'"
+                    : "Expected '" + expected + "' at end of input";
+            throw new SnbtParseException(message);
+        }
+    }
+
+    /**
+     * Reads a compound key: a quoted string or a run of letters, digits, {@code _ - . /}.
+     */
+    public String readKey() {
+        skipWhitespace();
+        if (index >= end) {
+            throw new SnbtParseException("Unexpected end of SNBT while reading key");
+        }
+        char c = buffer[index];
+        if (c == '"' || c == '\'') {
+            return readQuoted(c);
+        }
+        int from = index;
+        while (index < end && isKeyChar(buffer[index])) {
+            index++;
+        }
+        if (from == index) {
+            throw new SnbtParseException("Invalid key at index " + position());
+        }
+        return pool.intern(buffer, from, index - from);
+    }
+
+    /**
+     * Reads a quoted string or bare word in value position and classifies it. The value is available from
+     * the typed accessors until the next call.
+     */
+    public ScalarType readScalar() {
+        char c = buffer[index];
+        if (c == '"' || c == '\'') {
+            text = readQuoted(c);
+            quoted = true;
+            return type = ScalarType.STRING;
+        }
+        quoted = false;
+        int from = index;
+        while (index < end && isBareChar(buffer[index])) {
+            index++;
+        }
+        if (from == index) {
+            throw new SnbtParseException("Expected value at index " + position());
+        }
+        return type = classify(from, index);
+    }
+
+    /**
+     * Consumes a key without building it.
+     */
+    public void skipKey() {
+        skipWhitespace();
+        if (index >= end) {
+            throw new SnbtParseException("Unexpected end of SNBT while reading key");
+        }
+        char c = buffer[index];
+        if (c == '"' || c == '\'') {
+            skipQuoted(c);
+            return;
+        }
+        int from = index;
+        while (index < end && isKeyChar(buffer[index])) {
+            index++;
+        }
+        if (from == index) {
+            throw new SnbtParseException("Invalid key at index " + position());
+        }
+    }
+
+    /**
+     * Consumes a scalar in value position without decoding or classifying it.
+     */
+    public void skipScalar() {
+        char c = buffer[index];
+        if (c == '"' || c == '\'') {
+            skipQuoted(c);
+            return;
+        }
+        int from = index;
+        while (index < end && isBareChar(buffer[index])) {
+            index++;
+        }
+        if (from == index) {
+            throw new SnbtParseException("Expected value at index " + position());
+        }
+    }
+
+    /**
+     * Consumes a complete value in value position, scalar or container, without building it. Leading
+     * whitespace is skipped; containers are only scanned for brackets, separators and string boundaries.
+     */
+    public void skipValue() {
+        skipWhitespace();
+        if (index >= end) {
+            throw new SnbtParseException("Unexpected end of SNBT input");
+        }
+        if (consume('{')) {
+            skipWhitespace();
+            if (consume('}')) {
+                return;
+            }
+            do {
+                skipKey();
+                skipWhitespace();
+                expect(':');
+                skipValue();
+                skipWhitespace();
+            } while (consume(','));
+            skipWhitespace();
+            expect('}');
+        } else if (consume('[')) {
+            skipWhitespace();
+            if (consume(']')) {
+                return;
+            }
+            do {
+                skipValue();
+                skipWhitespace();
+            } while (consume(','));
+            skipWhitespace();
+            expect(']');
+        } else {
+            skipScalar();
+        }
+    }
+
+    public ScalarType scalarType() {
+        return type;
+    }
+
+    /**
+     * Whether the last scalar was a quoted string rather than a bare word.
+     */
+    public boolean isQuoted() {
+        return quoted;
+    }
+
+    /**
+     * Text of the last {@link ScalarType#STRING} scalar.
+     */
+    public String stringValue() {
+        return text;
+    }
+
+    public boolean booleanValue() {
+        return longValue != 0;
+    }
+
+    /**
+     * Value of the last integral scalar ({@code BYTE}, {@code SHORT} or {@code LONG}).
+     */
+    public long longValue() {
+        return longValue;
+    }
+
+    /**
+     * Value of the last {@code FLOAT} or {@code DOUBLE} scalar.
+     */
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    /**
+     * The last scalar boxed the way {@link SnbtParser} returns it.
+     */
+    public Object boxedValue() {
+        return switch (type) {
+            case STRING -> text;
+            case BOOLEAN -> longValue != 0 ? Boolean.TRUE : Boolean.FALSE;
+            case BYTE -> Byte.valueOf((byte) longValue);
+            case SHORT -> Short.valueOf((short) longValue);
+            case LONG -> Long.valueOf(longValue);
+            case FLOAT -> Float.valueOf((float) doubleValue);
+            case DOUBLE -> Double.valueOf(doubleValue);
+        };
+    }
+
+    private ScalarType classify(int from, int to) {
+        int length = to - from;
+        if (matchesIgnoreCase(from, length, "true")) {
+            longValue = 1;
+            return ScalarType.BOOLEAN;
+        }
+        if (matchesIgnoreCase(from, length, "false")) {
+            longValue = 0;
+            return ScalarType.BOOLEAN;
+        }
+        boolean ascii = true;
+        boolean decimal = false;
+        for (int i = from; i < to; i++) {
+            char c = buffer[i];
+            if (c == ':' || c == '/') {
+                return bareString(from, length);
+            }
+            if (c >= 128) {
+                ascii = false;
+            } else if (c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+            }
+        }
+        if (!ascii) {
+            return classifySlow(new String(buffer, from, length));
+        }
+        char last = buffer[to - 1];
+        boolean suffixed = (last | 0x20) >= 'a' && (last | 0x20) <= 'z';
+        int numberEnd = suffixed ? to - 1 : to;
+        ScalarType parsed = switch (suffixed ? (char) (last | 0x20) : '\0') {
+            case 'b' -> integral(from, numberEnd, Byte.MIN_VALUE, Byte.MAX_VALUE, ScalarType.BYTE);
+            case 's' -> integral(from, numberEnd, Short.MIN_VALUE, Short.MAX_VALUE, ScalarType.SHORT);
+            case 'l' -> integral(from, numberEnd, Long.MIN_VALUE, Long.MAX_VALUE, ScalarType.LONG);
+            case 'f' -> floating(from, numberEnd, true);
+            case 'd' -> floating(from, numberEnd, false);
+            default -> decimal ? floating(from, to, false)
+                    : integral(from, to, Long.MIN_VALUE, Long.MAX_VALUE, ScalarType.LONG);
+        };
+        return parsed != null ? parsed : bareString(from, length);
+    }
+
+    private ScalarType bareString(int from, int length) {
+        text = pool.intern(buffer, from, length);
+        return ScalarType.STRING;
+    }
+
+    /**
+     * Parses {@code [+-]?[0-9]+} in range, as {@code Long/Short/Byte.valueOf} accept for ASCII input.
+     * Returns {@code null} when the token is not such a number.
+     */
+    private ScalarType integral(int from, int to, long min, long max, ScalarType result) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        if (i >= to) {
+            return null;
+        }
+        if (to - i > MAX_FAST_LONG_DIGITS) {
+            return integralSlow(from, to, min, max, result);
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < min || value > max) {
+            return null;
+        }
+        longValue = value;
+        return result;
+    }
+
+    private ScalarType integralSlow(int from, int to, long min, long max, ScalarType result) {
+        try {
+            long value = Long.parseLong(new String(buffer, from, to - from));
+            if (value < min || value > max) {
+                return null;
+            }
+            longValue = value;
+            return result;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses plain decimal notation when the result is exact in one multiplication or division (mantissa
+     * and power of ten both exactly representable); everything else, including {@code NaN}, hex and
+     * long mantissas, goes through {@link Double#parseDouble} / {@link Float#parseFloat}.
+     */
+    private ScalarType floating(int from, int to, boolean single) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        for (; i < to; i++) {
+            char c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                if (++digits > MAX_FAST_DOUBLE_DIGITS) {
+                    return floatingSlow(from, to, single);
+                }
+                if (point) {
+                    scale--;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return floatingSlow(from, to, single);
+        }
+        if (i < to) {
+            if ((buffer[i] | 0x20) != 'e') {
+                return floatingSlow(from, to, single);
+            }
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (buffer[i] == '-' || buffer[i] == '+')) {
+                negativeExponent = buffer[i] == '-';
+                i++;
+            }
+            if (i >= to || to - i > 3) {
+                return floatingSlow(from, to, single);
+            }
+            int exponent = 0;
+            for (; i < to; i++) {
+                int digit = buffer[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return floatingSlow(from, to, single);
+                }
+                exponent = exponent * 10 + digit;
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (single) {
+            if (digits > MAX_FAST_FLOAT_DIGITS || scale < -10 || scale > 10) {
+                return floatingSlow(from, to, true);
+            }
+            float value = scale < 0 ? mantissa / FLOAT_POWERS[-scale] : mantissa * FLOAT_POWERS[scale];
+            doubleValue = negative ? -value : value;
+            return ScalarType.FLOAT;
+        }
+        if (scale < -22 || scale > 22) {
+            return floatingSlow(from, to, false);
+        }
+        double value = scale < 0 ? mantissa / DOUBLE_POWERS[-scale] : mantissa * DOUBLE_POWERS[scale];
+        doubleValue = negative ? -value : value;
+        return ScalarType.DOUBLE;
+    }
+
+    private ScalarType floatingSlow(int from, int to, boolean single) {
+        String number = new String(buffer, from, to - from);
+        try {
+            if (single) {
+                doubleValue = Float.parseFloat(number);
+                return ScalarType.FLOAT;
+            }
+            doubleValue = Double.parseDouble(number);
+            return ScalarType.DOUBLE;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * {@link SnbtParser}'s rules verbatim, for bare words containing non-ASCII characters.
+     */
+    private ScalarType classifySlow(String token) {
+        char lastChar = token.charAt(token.length() - 1);
+        String numberPart = Character.isAlphabetic(lastChar) ? token.substring(0, token.length() - 1) : token;
+        try {
+            switch (Character.toLowerCase(lastChar)) {
+                case 'b' -> {
+                    longValue = Byte.parseByte(numberPart);
+                    return ScalarType.BYTE;
+                }
+                case 's' -> {
+                    longValue = Short.parseShort(numberPart);
+                    return ScalarType.SHORT;
+                }
+                case 'l' -> {
+                    longValue = Long.parseLong(numberPart);
+                    return ScalarType.LONG;
+                }
+                case 'f' -> {
+                    doubleValue = Float.parseFloat(numberPart);
+                    return ScalarType.FLOAT;
+                }
+                case 'd' -> {
+                    doubleValue = Double.parseDouble(numberPart);
+                    return ScalarType.DOUBLE;
+                }
+                default -> {
+                    if (token.contains(".") || token.contains("e") || token.contains("E")) {
+                        doubleValue = Double.parseDouble(token);
+                        return ScalarType.DOUBLE;
+                    }
+                    longValue = Long.parseLong(token);
+                    return ScalarType.LONG;
+                }
+            }
+        } catch (NumberFormatException ex) {
+            text = token;
+            return ScalarType.STRING;
+        }
+    }
+
+    private String readQuoted(char delimiter) {
+        expect(delimiter);
+        int from = index;
+        while (index < end) {
+            char c = buffer[index];
+            if (c == delimiter) {
+                index++;
+                return pool.intern(buffer, from, index - 1 - from);
+            }
+            if (c == '\\') {
+                return readEscaped(delimiter, from);
+            }
+            index++;
+        }
+        throw new SnbtParseException("Unterminated string literal");
+    }
+
+    private void skipQuoted(char delimiter) {
+        expect(delimiter);
+        while (index < end) {
+            char c = buffer[index++];
+            if (c == delimiter) {
+                return;
+            }
+            if (c == '\\') {
+                if (index >= end) {
+                    throw new SnbtParseException("Unterminated escape sequence");
+                }
+                index++;
+            }
+        }
+        throw new SnbtParseException("Unterminated string literal");
+    }
+
+    private String readEscaped(char delimiter, int from) {
+        StringBuilder builder = new StringBuilder(index - from + 16);
+        builder.append(buffer, from, index - from);
+        while (index < end) {
+            char c = buffer[index++];
+            if (c == delimiter) {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (index >= end) {
+                throw new SnbtParseException("Unterminated escape sequence");
+            }
+            char escaped = buffer[index++];
+            builder.append(switch (escaped) {
+                case '"', '\\', '\'', '/' -> escaped;
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case 't' -> '\t';
+                case 'u' -> unicodeEscape();
+                default -> throw new SnbtParseException("Unsupported escape character '" + escaped + "'");
+            });
+        }
+        throw new SnbtParseException("Unterminated string literal");
+    }
+
+    private char unicodeEscape() {
+        if (index + 4 > end) {
+            throw new SnbtParseException("Incomplete unicode escape");
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(buffer[index + i], 16);
+            if (digit < 0) {
+                throw new SnbtParseException("Invalid unicode escape at index " + position());
+            }
+            value = value << 4 | digit;
+        }
+        index += 4;
+        return (char) value;
+    }
+
+    private boolean matchesIgnoreCase(int from, int length, String word) {
+        if (length != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if ((buffer[from + i] | 0x20) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int lineEnd(int from) {
+        int i = from;
+        while (i < end && buffer[i] != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isKeyChar(char c) {
+        return c < 128 ? (CLASSES[c] & KEY) != 0 : Character.isLetterOrDigit(c);
+    }
+
+    private static boolean isBareChar(char c) {
+        return c < 128 ? (CLASSES[c] & BARE) != 0 : Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * Open-addressing pool for short strings, keyed by buffer contents so that a hit allocates nothing.
+     * Stops growing at half capacity; later new strings are simply not pooled.
+     */
+    private static final class StringPool {
+        private static final int CAPACITY = 8192;
+        private static final int MAX_LENGTH = 64;
+
+        private final String[] slots = new String[CAPACITY];
+        private int size;
+
+        String intern(char[] chars, int offset, int length) {
+            if (length > MAX_LENGTH) {
+                return new String(chars, offset, length);
+            }
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + chars[offset + i];
+            }
+            int mask = CAPACITY - 1;
+            for (int slot = (hash ^ (hash >>> 16)) & mask; ; slot = (slot + 1) & mask) {
+                String existing = slots[slot];
+                if (existing == null) {
+                    String created = new String(chars, offset, length);
+                    if (size < CAPACITY / 2) {
+                        slots[slot] = created;
+                        size++;
+                    }
+                    return created;
+                }
+                if (existing.hashCode() == hash && matches(existing, chars, offset, length)) {
+                    return existing;
+                }
+            }
+        }
+
+        private static boolean matches(String candidate, char[] chars, int offset, int length) {
+            if (candidate.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (candidate.charAt(i) != chars[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
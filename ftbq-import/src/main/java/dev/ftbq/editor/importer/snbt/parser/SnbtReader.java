@@ -0,0 +1,264 @@
+package dev.ftbq.editor.importer.snbt.parser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Pull-style event reader for SNBT documents.
+ * <p>
+ * Instead of materialising the whole tree, callers step through {@link Event}s and read scalars from the
+ * reader's typed accessors. Subtrees that are not needed can be passed over with {@link #skipValue()}, which
+ * only scans brackets and string boundaries. {@link #path()} reports the current location in the same
+ * {@code $.chapters[0].id} notation the validation messages use.
+ * <p>
+ * The accepted syntax is that of {@link SnbtBufferParser}; a document must have a compound at its root.
+ */
+public final class SnbtReader {
+
+    public enum Event {
+        BEGIN_COMPOUND,
+        END_COMPOUND,
+        BEGIN_LIST,
+        END_LIST,
+        KEY,
+        VALUE,
+        END_DOCUMENT
+    }
+
+    private final SnbtLexer lexer;
+    private Frame[] frames = new Frame[16];
+    private int depth;
+    private Event current;
+
+    public SnbtReader(SnbtLexer lexer) {
+        this.lexer = Objects.requireNonNull(lexer, "lexer");
+    }
+
+    public static SnbtReader of(CharSequence snbt) {
+        return new SnbtReader(SnbtLexer.of(snbt));
+    }
+
+    public static SnbtReader of(Path file) throws IOException {
+        return new SnbtReader(SnbtLexer.of(SnbtBufferParser.readChars(file)));
+    }
+
+    /**
+     * Advances to the next event. After {@link Event#END_DOCUMENT} every call returns it again.
+     */
+    public Event next() {
+        if (current == null) {
+            lexer.skipWhitespace();
+            if (!lexer.hasNext()) {
+                throw new SnbtParseException("Unexpected end of SNBT input");
+            }
+            if (lexer.peek() != '{') {
+                throw new SnbtParseException("Root of SNBT must be a compound");
+            }
+            return beginValue();
+        }
+        if (current == Event.END_DOCUMENT) {
+            return current;
+        }
+        if (depth == 0) {
+            lexer.skipWhitespace();
+            if (lexer.hasNext()) {
+                throw new SnbtParseException("Trailing content after root compound at index " + lexer.position());
+            }
+            return current = Event.END_DOCUMENT;
+        }
+        Frame frame = frames[depth - 1];
+        if (frame.compound) {
+            if (current == Event.KEY) {
+                lexer.skipWhitespace();
+                lexer.expect(':');
+                return beginValue();
+            }
+            if (frame.empty) {
+                frame.empty = false;
+                lexer.skipWhitespace();
+                if (lexer.consume('}')) {
+                    return endContainer(Event.END_COMPOUND);
+                }
+                return readKey(frame);
+            }
+            lexer.skipWhitespace();
+            if (lexer.consume(',')) {
+                return readKey(frame);
+            }
+            lexer.skipWhitespace();
+            lexer.expect('}');
+            return endContainer(Event.END_COMPOUND);
+        }
+        if (frame.empty) {
+            frame.empty = false;
+            lexer.skipWhitespace();
+            if (lexer.consume(']')) {
+                return endContainer(Event.END_LIST);
+            }
+            frame.index++;
+            return beginValue();
+        }
+        lexer.skipWhitespace();
+        if (lexer.consume(',')) {
+            frame.index++;
+            return beginValue();
+        }
+        lexer.skipWhitespace();
+        lexer.expect(']');
+        return endContainer(Event.END_LIST);
+    }
+
+    /**
+     * Skips a value without producing events. After {@link Event#KEY} the key's value is skipped and the
+     * reader behaves as if it had just returned that {@link Event#VALUE}; after {@link Event#BEGIN_COMPOUND}
+     * or {@link Event#BEGIN_LIST} the rest of the container is skipped and the reader is positioned on its
+     * end event. Scalar accessors are undefined after a skip.
+     */
+    public void skipValue() {
+        if (current == Event.KEY) {
+            lexer.skipWhitespace();
+            lexer.expect(':');
+            lexer.skipValue();
+            current = Event.VALUE;
+            return;
+        }
+        if (current == Event.BEGIN_COMPOUND || current == Event.BEGIN_LIST) {
+            Frame frame = frames[depth - 1];
+            if (!frame.empty) {
+                throw new IllegalStateException("Container already partially read");
+            }
+            // Nothing past the opening bracket has been read, so the lexer can skip the container from there
+            lexer.seek(lexer.position() - 1);
+            lexer.skipValue();
+            endContainer(frame.compound ? Event.END_COMPOUND : Event.END_LIST);
+            return;
+        }
+        throw new IllegalStateException("skipValue() must follow KEY, BEGIN_COMPOUND or BEGIN_LIST, not " + current);
+    }
+
+    public Event current() {
+        return current;
+    }
+
+    /**
+     * Number of open containers, counting the root compound.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Key of the innermost open compound: the key just read, or the key whose value is being read.
+     */
+    public String key() {
+        for (int i = depth - 1; i >= 0; i--) {
+            if (frames[i].compound) {
+                return frames[i].key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Index of the current element in the innermost open list, or {@code -1} when not inside a list.
+     */
+    public int index() {
+        return depth > 0 && !frames[depth - 1].compound ? frames[depth - 1].index : -1;
+    }
+
+    /**
+     * Location of the current event, for example {@code $.chapters[2].quests[0].id}. Begin and end events
+     * report the location of their container.
+     */
+    public String path() {
+        StringBuilder path = new StringBuilder("$");
+        int open = current == Event.BEGIN_COMPOUND || current == Event.BEGIN_LIST ? depth - 1 : depth;
+        for (int i = 0; i < open; i++) {
+            Frame frame = frames[i];
+            if (frame.compound) {
+                if (frame.key != null) {
+                    path.append('.').append(frame.key);
+                }
+            } else if (frame.index >= 0) {
+                path.append('[').append(frame.index).append(']');
+            }
+        }
+        return path.toString();
+    }
+
+    public SnbtLexer.ScalarType scalarType() {
+        return lexer.scalarType();
+    }
+
+    public String stringValue() {
+        return lexer.stringValue();
+    }
+
+    public boolean booleanValue() {
+        return lexer.booleanValue();
+    }
+
+    public long longValue() {
+        return lexer.longValue();
+    }
+
+    public double doubleValue() {
+        return lexer.doubleValue();
+    }
+
+    /**
+     * The current scalar boxed the way {@link SnbtBufferParser} stores it.
+     */
+    public Object value() {
+        return lexer.boxedValue();
+    }
+
+    private Event beginValue() {
+        lexer.skipWhitespace();
+        if (!lexer.hasNext()) {
+            throw new SnbtParseException("Unexpected end of SNBT input");
+        }
+        char c = lexer.peek();
+        if (c == '{' || c == '[') {
+            lexer.expect(c);
+            push(c == '{');
+            return current = c == '{' ? Event.BEGIN_COMPOUND : Event.BEGIN_LIST;
+        }
+        lexer.readScalar();
+        return current = Event.VALUE;
+    }
+
+    private Event readKey(Frame frame) {
+        frame.key = lexer.readKey();
+        return current = Event.KEY;
+    }
+
+    private Event endContainer(Event event) {
+        depth--;
+        return current = event;
+    }
+
+    private void push(boolean compound) {
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+        }
+        Frame frame = frames[depth];
+        if (frame == null) {
+            frame = frames[depth] = new Frame();
+        }
+        frame.compound = compound;
+        frame.empty = true;
+        frame.key = null;
+        frame.index = -1;
+        depth++;
+    }
+
+    private static final class Frame {
+        boolean compound;
+        boolean empty;
+        String key;
+        int index;
+    }
+}
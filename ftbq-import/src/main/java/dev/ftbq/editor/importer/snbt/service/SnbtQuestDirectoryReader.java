@@ -0,0 +1,374 @@
+package dev.ftbq.editor.importer.snbt.service;
+
+import dev.ftbq.editor.concurrent.WorkerPool;
+import dev.ftbq.editor.importer.snbt.model.ImportedChapter;
+import dev.ftbq.editor.importer.snbt.model.ImportedChapterGroup;
+import dev.ftbq.editor.importer.snbt.model.ImportedQuestPack;
+import dev.ftbq.editor.importer.snbt.model.QuestPackSkim;
+import dev.ftbq.editor.importer.snbt.parser.SnbtBufferParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Reads an FTB Quests quest directory in the split layout the mod writes: {@code data.snbt},
+ * {@code chapter_groups.snbt}, {@code chapters/*.snbt}, {@code reward_tables/*.snbt} and {@code lang/en_us.snbt}
+ * (or {@code lang/en_us/*.snbt}). A lone {@code data.snbt} with its chapters inline is read as well.
+ * <p>
+ * Every file is parsed on the executor, and chapter files are converted there too, so packs with many
+ * chapters are read on all cores. The result does not depend on scheduling: chapters are ordered by
+ * {@code order_index} and then file name, and assets and warnings follow that order. A file that cannot be
+ * read or parsed is reported as a warning and left out while the rest of the pack is still imported.
+ */
+public final class SnbtQuestDirectoryReader {
+
+    private static final List<Path> QUEST_ROOTS = List.of(
+            Path.of(""),
+            Path.of("quests"),
+            Path.of("config", "ftbquests", "quests"),
+            Path.of("questbook"));
+
+    private static final String LANGUAGE = "en_us";
+
+    private final SnbtQuestPackReader reader;
+    private final Executor executor;
+
+    public SnbtQuestDirectoryReader() {
+        this(new SnbtQuestPackReader(), WorkerPool.shared());
+    }
+
+    public SnbtQuestDirectoryReader(SnbtQuestPackReader reader, Executor executor) {
+        this.reader = Objects.requireNonNull(reader, "reader");
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Finds the quest root of a pack: the first of the directory itself, {@code quests/},
+     * {@code config/ftbquests/quests/} and {@code questbook/} that holds a {@code data.snbt} or a
+     * {@code chapters/} directory.
+     */
+    public static Optional<Path> locate(Path directory) {
+        Objects.requireNonNull(directory, "directory");
+        for (Path candidate : QUEST_ROOTS) {
+            Path root = directory.resolve(candidate);
+            if (Files.isRegularFile(root.resolve("data.snbt")) || Files.isDirectory(root.resolve("chapters"))) {
+                return Optional.of(root);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @throws NoSuchFileException if the directory contains no quest data
+     * @throws IOException         if a directory cannot be listed, or the pack consists of a single
+     *                             {@code data.snbt} that cannot be read
+     */
+    public ImportedQuestPack read(Path directory) throws IOException {
+        Path root = requireRoot(directory);
+        List<Path> chapterFiles = listSnbt(root.resolve("chapters"));
+        List<Path> rewardTableFiles = listSnbt(root.resolve("reward_tables"));
+        List<Path> langFiles = langFiles(root.resolve("lang"));
+        Path dataFile = root.resolve("data.snbt");
+        Path groupsFile = root.resolve("chapter_groups.snbt");
+
+        CompletableFuture<Parsed> data = Files.isRegularFile(dataFile)
+                ? parseAsync(dataFile)
+                : CompletableFuture.completedFuture(new Parsed(dataFile, Map.of(), null));
+        CompletableFuture<Parsed> groups = Files.isRegularFile(groupsFile) ? parseAsync(groupsFile) : null;
+        List<CompletableFuture<Parsed>> langParts = langFiles.stream().map(this::parseAsync).toList();
+        List<CompletableFuture<Parsed>> rewardTables = rewardTableFiles.stream().map(this::parseAsync).toList();
+        CompletableFuture<Map<String, Object>> lang = CompletableFuture
+                .allOf(langParts.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> mergeLang(langParts));
+        List<CompletableFuture<ChapterPart>> chapterParts = new ArrayList<>(chapterFiles.size());
+        for (Path file : chapterFiles) {
+            chapterParts.add(parseAsync(file).thenCombineAsync(lang, this::convertChapter, executor));
+        }
+
+        List<String> fileErrors = new ArrayList<>();
+        Parsed dataPart = data.join();
+        report(root, dataPart, fileErrors);
+        Map<String, Object> header = dataPart.compound() != null ? dataPart.compound() : Map.of();
+        Parsed groupsPart = groups != null ? groups.join() : null;
+        if (groupsPart != null) {
+            report(root, groupsPart, fileErrors);
+        }
+        for (CompletableFuture<Parsed> part : langParts) {
+            report(root, part.join(), fileErrors);
+        }
+        Map<String, Object> strings = lang.join();
+
+        List<ImportedChapter> chapters = new ArrayList<>();
+        List<String> chapterWarnings = new ArrayList<>();
+        Set<String> chapterAssets = new LinkedHashSet<>();
+        if (chapterFiles.isEmpty()) {
+            if (dataPart.error() != null) {
+                throw rethrow(dataPart.error());
+            }
+            for (Map<String, Object> entry : reader.asListOfCompounds(header.get("chapters"))) {
+                localize(entry, strings);
+                chapters.add(reader.parseChapter(entry, chapterWarnings, chapterAssets));
+            }
+        } else {
+            List<ChapterPart> parts = new ArrayList<>(chapterParts.size());
+            for (CompletableFuture<ChapterPart> part : chapterParts) {
+                parts.add(part.join());
+            }
+            parts.sort(Comparator.comparingLong(ChapterPart::order));
+            for (ChapterPart part : parts) {
+                if (part.error() != null) {
+                    fileErrors.add(skipped(root, part.file(), part.error()));
+                    continue;
+                }
+                chapters.add(part.chapter());
+                chapterWarnings.addAll(part.warnings());
+                chapterAssets.addAll(part.assets());
+            }
+        }
+
+        int rewardTableCount = 0;
+        for (CompletableFuture<Parsed> part : rewardTables) {
+            Parsed table = part.join();
+            report(root, table, fileErrors);
+            if (table.error() == null) {
+                rewardTableCount++;
+            }
+        }
+
+        Object rawGroups = groupsPart != null && groupsPart.error() == null
+                ? groupsPart.compound().get("chapter_groups")
+                : header.get("chapter_groups");
+        List<String> groupWarnings = new ArrayList<>();
+        Set<String> assets = new LinkedHashSet<>();
+        List<ImportedChapterGroup> chapterGroups = List.of();
+        try {
+            List<Map<String, Object>> groupEntries = reader.asListOfCompounds(rawGroups);
+            assignChapters(groupEntries, chapters);
+            for (Map<String, Object> entry : groupEntries) {
+                translate(entry, "chapter_group", "title", "title", strings);
+            }
+            chapterGroups = reader.parseChapterGroups(groupEntries, groupWarnings, assets);
+        } catch (RuntimeException ex) {
+            fileErrors.add(skipped(root, groupsPart != null ? groupsFile : dataFile, ex));
+        }
+        assets.addAll(chapterAssets);
+
+        List<String> warnings = new ArrayList<>(fileErrors);
+        warnings.addAll(groupWarnings);
+        warnings.addAll(chapterWarnings);
+        if (rewardTableCount > 0) {
+            warnings.add("Reward tables are not imported (" + rewardTableCount + " found).");
+        }
+        return reader.assemble(header, chapterGroups, chapters, assets, warnings);
+    }
+
+    /**
+     * Skims a pack for previews. A single {@code data.snbt} is streamed as in
+     * {@link SnbtQuestPackReader#skim(Path)}; split packs are read in full, in parallel, and summarised.
+     */
+    public QuestPackSkim skim(Path directory) throws IOException {
+        Path root = requireRoot(directory);
+        if (!Files.isDirectory(root.resolve("chapters"))) {
+            return reader.skim(root.resolve("data.snbt"));
+        }
+        return QuestPackSkim.of(read(directory));
+    }
+
+    private static Path requireRoot(Path directory) throws NoSuchFileException {
+        return locate(directory).orElseThrow(() -> new NoSuchFileException(directory.toString(), null,
+                "no FTB Quests data.snbt or chapters directory found"));
+    }
+
+    private CompletableFuture<Parsed> parseAsync(Path file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return new Parsed(file, SnbtBufferParser.parseRootCompound(file), null);
+            } catch (IOException | RuntimeException ex) {
+                return new Parsed(file, null, ex);
+            }
+        }, executor);
+    }
+
+    private ChapterPart convertChapter(Parsed parsed, Map<String, Object> strings) {
+        if (parsed.error() != null) {
+            return new ChapterPart(parsed.file(), Long.MAX_VALUE, null, List.of(), Set.of(), parsed.error());
+        }
+        try {
+            Map<String, Object> entry = parsed.compound();
+            localize(entry, strings);
+            List<String> warnings = new ArrayList<>();
+            Set<String> assets = new LinkedHashSet<>();
+            ImportedChapter chapter = reader.parseChapter(entry, warnings, assets);
+            long order = entry.get("order_index") instanceof Number number ? number.longValue() : Long.MAX_VALUE;
+            return new ChapterPart(parsed.file(), order, chapter, warnings, assets, null);
+        } catch (RuntimeException ex) {
+            return new ChapterPart(parsed.file(), Long.MAX_VALUE, null, List.of(), Set.of(), ex);
+        }
+    }
+
+    /**
+     * FTB Quests keeps chapter membership on the chapters ({@code group}); groups that do not list their
+     * chapters get them filled in, in chapter order.
+     */
+    private static void assignChapters(List<Map<String, Object>> groups, List<ImportedChapter> chapters) {
+        Map<String, List<String>> byGroup = new LinkedHashMap<>();
+        for (ImportedChapter chapter : chapters) {
+            if (chapter.groupId() != null) {
+                byGroup.computeIfAbsent(chapter.groupId(), key -> new ArrayList<>()).add(chapter.id());
+            }
+        }
+        for (Map<String, Object> group : groups) {
+            if (!group.containsKey("chapter_ids") && !group.containsKey("chapters")) {
+                List<String> members = byGroup.get(idOf(group.get("id")));
+                if (members != null) {
+                    group.put("chapters", new ArrayList<Object>(members));
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies translated titles and descriptions from the lang file into entries that do not carry them
+     * inline, as packs written by FTB Quests 2001 and later do.
+     */
+    private static void localize(Map<String, Object> chapter, Map<String, Object> strings) {
+        if (strings.isEmpty()) {
+            return;
+        }
+        translate(chapter, "chapter", "title", "title", strings);
+        if (!(chapter.get("quests") instanceof List<?> quests)) {
+            return;
+        }
+        for (Object raw : quests) {
+            if (!(raw instanceof Map<?, ?> map)) {
+                continue;
+            }
+            Map<String, Object> quest = compound(map);
+            translate(quest, "quest", "title", "title", strings);
+            translate(quest, "quest", "quest_subtitle", "subtitle", strings);
+            translate(quest, "quest", "quest_desc", "description", strings);
+            localizeEntries(quest.get("tasks"), "task", strings);
+            localizeEntries(quest.get("rewards"), "reward", strings);
+        }
+    }
+
+    private static void localizeEntries(Object raw, String kind, Map<String, Object> strings) {
+        if (raw instanceof List<?> list) {
+            for (Object entry : list) {
+                if (entry instanceof Map<?, ?> map) {
+                    translate(compound(map), kind, "title", "title", strings);
+                }
+            }
+        }
+    }
+
+    private static void translate(Map<String, Object> target,
+                                  String kind,
+                                  String langKey,
+                                  String property,
+                                  Map<String, Object> strings) {
+        if (target.containsKey(property) || !target.containsKey("id")) {
+            return;
+        }
+        Object value = strings.get(kind + "." + idOf(target.get("id")) + "." + langKey);
+        if (value != null) {
+            target.put(property, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> compound(Map<?, ?> map) {
+        return (Map<String, Object>) map;
+    }
+
+    private static String idOf(Object raw) {
+        if (raw instanceof Number number) {
+            return Long.toString(number.longValue());
+        }
+        return raw != null ? raw.toString() : "0";
+    }
+
+    private static Map<String, Object> mergeLang(List<CompletableFuture<Parsed>> parts) {
+        Map<String, Object> strings = new LinkedHashMap<>();
+        for (CompletableFuture<Parsed> part : parts) {
+            Parsed parsed = part.join();
+            if (parsed.error() == null) {
+                strings.putAll(parsed.compound());
+            }
+        }
+        return strings;
+    }
+
+    private static List<Path> listSnbt(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".snbt"))
+                    .filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    private static List<Path> langFiles(Path langDirectory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Path single = langDirectory.resolve(LANGUAGE + ".snbt");
+        if (Files.isRegularFile(single)) {
+            files.add(single);
+        }
+        Path split = langDirectory.resolve(LANGUAGE);
+        if (Files.isDirectory(split)) {
+            try (Stream<Path> walk = Files.walk(split)) {
+                walk.filter(file -> file.getFileName().toString().endsWith(".snbt"))
+                        .filter(Files::isRegularFile)
+                        .sorted(Comparator.comparing(file -> split.relativize(file).toString()))
+                        .forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    private static void report(Path root, Parsed parsed, List<String> fileErrors) {
+        if (parsed.error() != null) {
+            fileErrors.add(skipped(root, parsed.file(), parsed.error()));
+        }
+    }
+
+    private static String skipped(Path root, Path file, Exception error) {
+        String name = root.relativize(file).toString().replace('\\', '/');
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        return "Skipped " + name + ": " + message;
+    }
+
+    private static IOException rethrow(Exception error) {
+        if (error instanceof IOException io) {
+            return io;
+        }
+        throw (RuntimeException) error;
+    }
+
+    private record Parsed(Path file, Map<String, Object> compound, Exception error) {
+    }
+
+    private record ChapterPart(Path file,
+                               long order,
+                               ImportedChapter chapter,
+                               List<String> warnings,
+                               Set<String> assets,
+                               Exception error) {
+    }
+}
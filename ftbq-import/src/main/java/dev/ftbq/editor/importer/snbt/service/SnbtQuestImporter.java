@@ -40,33 +40,61 @@ import dev.ftbq.editor.importer.snbt.model.ImportedReward;
 import dev.ftbq.editor.importer.snbt.model.ImportedTask;
 import dev.ftbq.editor.importer.snbt.model.QuestImportResult;
 import dev.ftbq.editor.importer.snbt.model.QuestImportSummary;
+import dev.ftbq.editor.importer.snbt.model.QuestPackSkim;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import dev.ftbq.editor.domain.HexId;
 
 /**
  * Coordinates parsing SNBT quest data and merging it into an existing quest file.
+ * <p>
+ * The merge looks up ids through hash indexes built once per merge ({@link IdPool} for taken ids,
+ * {@link IndexedList} for chapter and quest positions), so it stays linear in the size of both packs.
  */
 public final class SnbtQuestImporter {
 
     private final SnbtQuestPackReader reader = new SnbtQuestPackReader();
+    private final SnbtQuestDirectoryReader directoryReader = new SnbtQuestDirectoryReader();
 
     public ImportedQuestPack parse(String snbtText) {
         return reader.read(snbtText);
     }
 
+    public ImportedQuestPack parse(Path file) throws IOException {
+        return reader.read(file);
+    }
+
+    public QuestPackSkim skim(Path file) throws IOException {
+        return reader.skim(file);
+    }
+
+    /**
+     * Reads a pack directory, either FTB Quests' split layout or a single {@code data.snbt}; see
+     * {@link SnbtQuestDirectoryReader}.
+     */
+    public ImportedQuestPack parseDirectory(Path directory) throws IOException {
+        return directoryReader.read(directory);
+    }
+
+    public QuestPackSkim skimDirectory(Path directory) throws IOException {
+        return directoryReader.skim(directory);
+    }
+
     public QuestImportResult merge(QuestFile current,
                                    ImportedQuestPack imported,
                                    ImportOptions options) {
@@ -82,10 +110,10 @@ public final class SnbtQuestImporter {
         List<String> renamedIds = new ArrayList<>();
         Map<String, String> idRemap = new LinkedHashMap<>();
 
-        Map<String, Quest> existingQuests = new LinkedHashMap<>();
+        IdPool usedQuestIds = new IdPool();
         for (Chapter chapter : current.chapters()) {
             for (Quest quest : chapter.quests()) {
-                existingQuests.put(quest.id(), quest);
+                usedQuestIds.add(quest.id());
             }
         }
 
@@ -105,7 +133,7 @@ public final class SnbtQuestImporter {
 
         // Prepare imported chapter groups when no override is specified
         if (options.targetGroupId() == null) {
-            Set<String> usedGroupIds = new LinkedHashSet<>(groupDescriptors.keySet());
+            IdPool usedGroupIds = new IdPool(groupDescriptors.keySet());
             for (ImportedChapterGroup group : imported.chapterGroups()) {
                 String desiredId = normalizeId(group.id());
                 boolean conflict = groupDescriptors.containsKey(desiredId);
@@ -124,14 +152,13 @@ public final class SnbtQuestImporter {
         // Ensure a fallback group exists
         String fallbackGroupId = determineFallbackGroup(groupDescriptors, warnings);
 
-        List<Chapter> updatedChapters = new ArrayList<>(current.chapters());
-        Map<String, Chapter> chapterIndex = new LinkedHashMap<>();
-        for (Chapter chapter : updatedChapters) {
+        IndexedList<Chapter> updatedChapters = new IndexedList<>(current.chapters(), Chapter::id);
+        Map<String, Chapter> chapterIndex = new HashMap<>();
+        for (Chapter chapter : current.chapters()) {
             chapterIndex.put(chapter.id(), chapter);
         }
 
-        Set<String> usedChapterIds = new LinkedHashSet<>(chapterIndex.keySet());
-        Set<String> usedQuestIds = new LinkedHashSet<>(existingQuests.keySet());
+        IdPool usedChapterIds = new IdPool(chapterIndex.keySet());
 
         for (ImportedChapter chapter : imported.chapters()) {
             String originalChapterId = normalizeId(chapter.id());
@@ -173,12 +200,11 @@ public final class SnbtQuestImporter {
                     addedChapters);
 
             if (chapterResolution.type == ResolutionType.MERGE) {
-                replaceChapter(updatedChapters, mergedChapter);
-                chapterIndex.put(mergedChapter.id(), mergedChapter);
+                updatedChapters.replaceOrAdd(mergedChapter);
             } else {
                 updatedChapters.add(mergedChapter);
-                chapterIndex.put(mergedChapter.id(), mergedChapter);
             }
+            chapterIndex.put(mergedChapter.id(), mergedChapter);
         }
 
         List<ChapterGroup> updatedGroups = rebuildGroups(groupDescriptors);
@@ -187,7 +213,7 @@ public final class SnbtQuestImporter {
             copyAssets(imported.referencedAssets(), options.assetSource(), options.assetDestination(), assetWarnings);
         }
 
-        QuestFile updatedFile = new QuestFile(current.id(), current.title(), updatedGroups, updatedChapters, current.lootTables());
+        QuestFile updatedFile = new QuestFile(current.id(), current.title(), updatedGroups, updatedChapters.items(), current.lootTables());
         QuestImportSummary summary = new QuestImportSummary(addedChapters, mergedChapters, addedQuests, renamedIds, idRemap, warnings, assetWarnings);
         return new QuestImportResult(updatedFile, summary);
     }
@@ -237,20 +263,10 @@ public final class SnbtQuestImporter {
         return groups;
     }
 
-    private void replaceChapter(List<Chapter> chapters, Chapter replacement) {
-        for (int i = 0; i < chapters.size(); i++) {
-            if (chapters.get(i).id().equals(replacement.id())) {
-                chapters.set(i, replacement);
-                return;
-            }
-        }
-        chapters.add(replacement);
-    }
-
     private Chapter applyChapterResolution(ResolutionResult chapterResolution,
                                            ImportedChapter importedChapter,
                                            Map<String, Quest> existingChapterQuests,
-                                           Set<String> usedQuestIds,
+                                           IdPool usedQuestIds,
                                            ImportConflictPolicy questPolicy,
                                            List<String> warnings,
                                            List<String> addedQuests,
@@ -277,7 +293,7 @@ public final class SnbtQuestImporter {
             questRemap.put(quest.id(), quest.id());
         }
 
-        List<Quest> quests = new ArrayList<>(existingChapterQuests.values());
+        IndexedList<Quest> quests = new IndexedList<>(existingChapterQuests.values(), Quest::id);
         List<QuestPlan> plans = new ArrayList<>();
 
         for (ImportedQuest importedQuest : importedChapter.quests()) {
@@ -295,7 +311,7 @@ public final class SnbtQuestImporter {
         for (QuestPlan plan : plans) {
             Quest quest = buildQuest(plan.quest(), plan.resolution().resolvedId(), questRemap, warnings);
             if (plan.resolution().type == ResolutionType.MERGE) {
-                replaceQuest(quests, quest);
+                quests.replaceOrAdd(quest);
             } else {
                 quests.add(quest);
                 addedQuests.add(plan.resolution().resolvedId());
@@ -303,7 +319,7 @@ public final class SnbtQuestImporter {
             questIndex.put(quest.id(), quest);
         }
 
-        for (Quest quest : quests) {
+        for (Quest quest : quests.items()) {
             builder.addQuest(quest);
         }
         for (ChapterImage image : convertImages(importedChapter.images())) {
@@ -372,16 +388,6 @@ public final class SnbtQuestImporter {
         return List.of();
     }
 
-    private void replaceQuest(List<Quest> quests, Quest replacement) {
-        for (int i = 0; i < quests.size(); i++) {
-            if (quests.get(i).id().equals(replacement.id())) {
-                quests.set(i, replacement);
-                return;
-            }
-        }
-        quests.add(replacement);
-    }
-
     private Quest buildQuest(ImportedQuest importedQuest,
                              String questId,
                              Map<String, String> questIdRemap,
@@ -638,7 +644,7 @@ public final class SnbtQuestImporter {
     private ResolutionResult resolveId(String originalId,
                                        boolean conflict,
                                        ImportConflictPolicy policy,
-                                       Set<String> usedIds,
+                                       IdPool usedIds,
                                        String label,
                                        List<String> warnings,
                                        List<String> renamedIds,
@@ -659,12 +665,7 @@ public final class SnbtQuestImporter {
             }
             case MERGE_BY_ID -> new ResolutionResult(originalId, ResolutionType.MERGE);
             case RENAME -> {
-                String candidate = normalized + "_import";
-                int index = 1;
-                while (usedIds.contains(candidate)) {
-                    candidate = normalized + "_import" + index++;
-                }
-                usedIds.add(candidate);
+                String candidate = usedIds.claimRename(normalized);
                 renamedIds.add(originalId + " -> " + candidate);
                 yield new ResolutionResult(candidate, ResolutionType.NEW);
             }
@@ -728,6 +729,85 @@ public final class SnbtQuestImporter {
                                    List<String> chapterIds) {
     }
 
+    /**
+     * Ids already taken in one namespace (groups, chapters or quests). Also remembers how far the RENAME
+     * suffix search got for each base id: taken ids are never released, so the next search for the same base
+     * can resume there and still pick the same candidate a search from {@code _import} would.
+     */
+    private static final class IdPool {
+        private final Set<String> used = new HashSet<>();
+        private final Map<String, Integer> nextRenameSuffix = new HashMap<>();
+
+        IdPool() {
+        }
+
+        IdPool(Collection<String> ids) {
+            used.addAll(ids);
+        }
+
+        boolean contains(String id) {
+            return used.contains(id);
+        }
+
+        void add(String id) {
+            used.add(id);
+        }
+
+        /**
+         * Takes the first free id of {@code base_import}, {@code base_import1}, {@code base_import2}, ...
+         */
+        String claimRename(String base) {
+            int suffix = nextRenameSuffix.getOrDefault(base, 0);
+            String candidate = renameCandidate(base, suffix);
+            while (used.contains(candidate)) {
+                candidate = renameCandidate(base, ++suffix);
+            }
+            nextRenameSuffix.put(base, suffix + 1);
+            used.add(candidate);
+            return candidate;
+        }
+
+        private static String renameCandidate(String base, int suffix) {
+            return suffix == 0 ? base + "_import" : base + "_import" + suffix;
+        }
+    }
+
+    /**
+     * List with a first-occurrence position index by id, so merged entries replace in place without a scan.
+     */
+    private static final class IndexedList<T> {
+        private final List<T> items;
+        private final Map<String, Integer> positions;
+        private final Function<T, String> idOf;
+
+        IndexedList(Collection<T> initial, Function<T, String> idOf) {
+            this.items = new ArrayList<>(initial.size());
+            this.positions = new HashMap<>(Math.max(16, initial.size() * 2));
+            this.idOf = idOf;
+            for (T item : initial) {
+                add(item);
+            }
+        }
+
+        void add(T item) {
+            positions.putIfAbsent(idOf.apply(item), items.size());
+            items.add(item);
+        }
+
+        void replaceOrAdd(T item) {
+            Integer position = positions.get(idOf.apply(item));
+            if (position != null) {
+                items.set(position, item);
+            } else {
+                add(item);
+            }
+        }
+
+        List<T> items() {
+            return items;
+        }
+    }
+
     private enum ResolutionType {
         NEW,
         MERGE,
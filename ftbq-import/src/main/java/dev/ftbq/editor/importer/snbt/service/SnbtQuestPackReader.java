@@ -8,8 +8,13 @@ import dev.ftbq.editor.importer.snbt.model.ImportedQuest;
 import dev.ftbq.editor.importer.snbt.model.ImportedQuestPack;
 import dev.ftbq.editor.importer.snbt.model.ImportedReward;
 import dev.ftbq.editor.importer.snbt.model.ImportedTask;
+import dev.ftbq.editor.importer.snbt.model.QuestPackSkim;
+import dev.ftbq.editor.importer.snbt.parser.SnbtBufferParser;
+import dev.ftbq.editor.importer.snbt.parser.SnbtLexer;
 import dev.ftbq.editor.importer.snbt.parser.SnbtParseException;
-import dev.ftbq.editor.importer.snbt.parser.SnbtParser;
+import dev.ftbq.editor.importer.snbt.parser.SnbtReader;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -27,23 +32,59 @@ public final class SnbtQuestPackReader {
 
     public ImportedQuestPack read(String snbtText) {
         Objects.requireNonNull(snbtText, "snbtText");
-        Map<String, Object> root = SnbtParser.parseRootCompound(snbtText);
+        return read(SnbtBufferParser.parseRootCompound(snbtText));
+    }
+
+    /**
+     * Reads a UTF-8 SNBT file, decoding it directly into the parser's buffer.
+     */
+    public ImportedQuestPack read(Path file) throws IOException {
+        Objects.requireNonNull(file, "file");
+        return read(SnbtBufferParser.parseRootCompound(file));
+    }
+
+    /**
+     * Reads only identifiers, titles and counts, streaming past everything else. Previews of large packs
+     * use this instead of {@link #read(String)}; ids, titles and warnings match what a full read yields.
+     */
+    public QuestPackSkim skim(String snbtText) {
+        Objects.requireNonNull(snbtText, "snbtText");
+        return new PackSkimmer(SnbtReader.of(snbtText)).skim();
+    }
+
+    public QuestPackSkim skim(Path file) throws IOException {
+        Objects.requireNonNull(file, "file");
+        return new PackSkimmer(SnbtReader.of(file)).skim();
+    }
+
+    private ImportedQuestPack read(Map<String, Object> root) {
         List<String> warnings = new ArrayList<>();
         Set<String> assets = new LinkedHashSet<>();
 
+        List<ImportedChapterGroup> groups = parseChapterGroups(root.get("chapter_groups"), warnings, assets);
+        List<ImportedChapter> chapters = parseChapters(root.get("chapters"), warnings, assets);
+
+        return assemble(root, groups, chapters, assets, warnings);
+    }
+
+    /**
+     * Builds the pack from already converted parts, taking id, title and version from {@code root}.
+     */
+    ImportedQuestPack assemble(Map<String, Object> root,
+                               List<ImportedChapterGroup> groups,
+                               List<ImportedChapter> chapters,
+                               Set<String> assets,
+                               List<String> warnings) {
         String id = stringValue(root, "id").orElse("quest_file");
         String title = stringValue(root, "title").orElse("Imported Quest Pack");
         long version = numberValue(root, "file_version").or(() -> numberValue(root, "version")).orElse(0L);
 
-        List<ImportedChapterGroup> groups = parseChapterGroups(root.get("chapter_groups"), warnings, assets);
-        List<ImportedChapter> chapters = parseChapters(root.get("chapters"), warnings, assets);
-
         return new ImportedQuestPack(id, title, version, groups, chapters, assets, warnings);
     }
 
-    private List<ImportedChapterGroup> parseChapterGroups(Object raw,
-                                                          List<String> warnings,
-                                                          Set<String> assets) {
+    List<ImportedChapterGroup> parseChapterGroups(Object raw,
+                                                  List<String> warnings,
+                                                  Set<String> assets) {
         List<Map<String, Object>> entries = asListOfCompounds(raw);
         List<ImportedChapterGroup> groups = new ArrayList<>(entries.size());
         for (Map<String, Object> entry : entries) {
@@ -67,26 +108,36 @@ public final class SnbtQuestPackReader {
         List<Map<String, Object>> entries = asListOfCompounds(raw);
         List<ImportedChapter> chapters = new ArrayList<>(entries.size());
         for (Map<String, Object> entry : entries) {
-            String id = stringValue(entry, "id").orElseGet(() -> Long.toString(numberValue(entry, "id").orElse(0L)));
-            String title = stringValue(entry, "title").orElse("Imported Chapter " + id);
-            String description = collapseDescription(entry.get("description"));
-            String groupId = stringValue(entry, "group").or(() -> stringValue(entry, "group_id"))
-                    .orElse(null);
-            String icon = stringValue(entry, "icon").orElse("minecraft:book");
-            assets.add(icon);
-            String background = stringValue(entry, "background").orElse("minecraft:textures/gui/default.png");
-            assets.add(background);
-            Visibility visibility = visibilityValue(entry.get("visibility"));
-            List<ImportedQuest> quests = parseQuests(entry.get("quests"), warnings, assets);
-            List<Map<String, Object>> images = parseImages(entry.get("images"), assets);
-            List<Map<String, Object>> questLinks = parseQuestLinks(entry.get("quest_links"));
-            Map<String, Object> properties = remainingProperties(entry,
-                    List.of("id", "title", "description", "group", "group_id", "icon", "background", "visibility", "quests", "images", "quest_links"));
-            chapters.add(new ImportedChapter(id, title, description, groupId, icon, background, visibility, quests, images, questLinks, properties));
+            chapters.add(parseChapter(entry, warnings, assets));
         }
         return chapters;
     }
 
+    /**
+     * Converts one chapter compound. Safe to call concurrently with separate {@code warnings} and
+     * {@code assets} collections.
+     */
+    ImportedChapter parseChapter(Map<String, Object> entry,
+                                 List<String> warnings,
+                                 Set<String> assets) {
+        String id = stringValue(entry, "id").orElseGet(() -> Long.toString(numberValue(entry, "id").orElse(0L)));
+        String title = stringValue(entry, "title").orElse("Imported Chapter " + id);
+        String description = collapseDescription(entry.get("description"));
+        String groupId = stringValue(entry, "group").or(() -> stringValue(entry, "group_id"))
+                .orElse(null);
+        String icon = stringValue(entry, "icon").orElse("minecraft:book");
+        assets.add(icon);
+        String background = stringValue(entry, "background").orElse("minecraft:textures/gui/default.png");
+        assets.add(background);
+        Visibility visibility = visibilityValue(entry.get("visibility"));
+        List<ImportedQuest> quests = parseQuests(entry.get("quests"), warnings, assets);
+        List<Map<String, Object>> images = parseImages(entry.get("images"), assets);
+        List<Map<String, Object>> questLinks = parseQuestLinks(entry.get("quest_links"));
+        Map<String, Object> properties = remainingProperties(entry,
+                List.of("id", "title", "description", "group", "group_id", "icon", "background", "visibility", "quests", "images", "quest_links"));
+        return new ImportedChapter(id, title, description, groupId, icon, background, visibility, quests, images, questLinks, properties);
+    }
+
     private List<Map<String, Object>> parseImages(Object raw, Set<String> assets) {
         List<Map<String, Object>> entries = asListOfCompounds(raw);
         for (Map<String, Object> entry : entries) {
@@ -292,7 +343,7 @@ public final class SnbtQuestPackReader {
         return List.of();
     }
 
-    private List<Map<String, Object>> asListOfCompounds(Object raw) {
+    List<Map<String, Object>> asListOfCompounds(Object raw) {
         List<Map<String, Object>> result = new ArrayList<>();
         if (raw instanceof List<?> list) {
             for (Object entry : list) {
@@ -316,4 +367,200 @@ public final class SnbtQuestPackReader {
         map.forEach((key, value) -> result.put(String.valueOf(key), value));
         return result;
     }
+
+    /**
+     * Event-based counterpart of {@link #read(Map)} that keeps ids and counts only.
+     */
+    private static final class PackSkimmer {
+        private final SnbtReader reader;
+        private final List<String> groupWarnings = new ArrayList<>();
+        private final List<String> questWarnings = new ArrayList<>();
+        private int taskCount;
+        private int rewardCount;
+
+        PackSkimmer(SnbtReader reader) {
+            this.reader = reader;
+        }
+
+        QuestPackSkim skim() {
+            reader.next();
+            String id = null;
+            String title = null;
+            Long fileVersion = null;
+            Long version = null;
+            int groupCount = 0;
+            List<QuestPackSkim.ChapterSkim> chapters = new ArrayList<>();
+            while (reader.next() == SnbtReader.Event.KEY) {
+                switch (reader.key()) {
+                    case "id" -> id = text();
+                    case "title" -> title = text();
+                    case "file_version" -> fileVersion = number();
+                    case "version" -> version = number();
+                    case "chapter_groups" -> {
+                        groupWarnings.clear();
+                        groupCount = compounds(this::group);
+                    }
+                    case "chapters" -> {
+                        chapters.clear();
+                        questWarnings.clear();
+                        taskCount = 0;
+                        rewardCount = 0;
+                        compounds(() -> chapters.add(chapter()));
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.next();
+            long schemaVersion = fileVersion != null ? fileVersion : version != null ? version : 0L;
+            List<String> warnings = new ArrayList<>(groupWarnings);
+            warnings.addAll(questWarnings);
+            return new QuestPackSkim(id != null ? id : "quest_file", title != null ? title : "Imported Quest Pack",
+                    schemaVersion, groupCount, chapters, taskCount, rewardCount, warnings);
+        }
+
+        private void group() {
+            String id = null;
+            Boolean listsChapterIds = null;
+            Boolean listsChapters = null;
+            while (reader.next() == SnbtReader.Event.KEY) {
+                switch (reader.key()) {
+                    case "id" -> id = text();
+                    case "chapter_ids" -> listsChapterIds = nonEmptyStringList();
+                    case "chapters" -> listsChapters = nonEmptyStringList();
+                    default -> reader.skipValue();
+                }
+            }
+            boolean listsAny = listsChapterIds != null ? listsChapterIds : listsChapters != null && listsChapters;
+            if (!listsAny) {
+                groupWarnings.add("Chapter group " + orZero(id) + " does not list any chapters.");
+            }
+        }
+
+        private QuestPackSkim.ChapterSkim chapter() {
+            String id = null;
+            String title = null;
+            List<String> questIds = new ArrayList<>();
+            while (reader.next() == SnbtReader.Event.KEY) {
+                switch (reader.key()) {
+                    case "id" -> id = text();
+                    case "title" -> title = text();
+                    case "quests" -> {
+                        questIds.clear();
+                        compounds(() -> questIds.add(quest()));
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            String chapterId = orZero(id);
+            return new QuestPackSkim.ChapterSkim(chapterId, title != null ? title : "Imported Chapter " + chapterId,
+                    questIds);
+        }
+
+        private String quest() {
+            String id = null;
+            int tasks = 0;
+            int rewards = 0;
+            while (reader.next() == SnbtReader.Event.KEY) {
+                switch (reader.key()) {
+                    case "id" -> id = text();
+                    case "tasks" -> tasks = compounds(reader::skipValue);
+                    case "rewards" -> rewards = compounds(reader::skipValue);
+                    default -> reader.skipValue();
+                }
+            }
+            String questId = orZero(id);
+            taskCount += tasks;
+            rewardCount += rewards;
+            if (tasks == 0) {
+                questWarnings.add("Quest " + questId + " has no tasks.");
+            }
+            return questId;
+        }
+
+        /**
+         * Visits each compound of a list (or a single compound) with the reader on its
+         * {@code BEGIN_COMPOUND}; the visitor must consume it up to {@code END_COMPOUND}. Other shapes are
+         * rejected like {@code asListOfCompounds} does.
+         */
+        private int compounds(Runnable visitor) {
+            SnbtReader.Event event = reader.next();
+            if (event == SnbtReader.Event.BEGIN_COMPOUND) {
+                visitor.run();
+                return 1;
+            }
+            if (event == SnbtReader.Event.VALUE) {
+                throw new SnbtParseException("Expected list of compounds but found: " + reader.value());
+            }
+            int count = 0;
+            while ((event = reader.next()) != SnbtReader.Event.END_LIST) {
+                if (event != SnbtReader.Event.BEGIN_COMPOUND) {
+                    throw new SnbtParseException("Expected compound entry at " + reader.path());
+                }
+                visitor.run();
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * Scalar rendered like {@code stringValue(Object)}; {@code null} for containers, which are skipped.
+         */
+        private String text() {
+            if (reader.next() != SnbtReader.Event.VALUE) {
+                reader.skipValue();
+                return null;
+            }
+            return switch (reader.scalarType()) {
+                case STRING -> reader.stringValue();
+                case BOOLEAN -> Boolean.toString(reader.booleanValue());
+                case BYTE, SHORT, LONG -> Long.toString(reader.longValue());
+                case FLOAT, DOUBLE -> Long.toString((long) reader.doubleValue());
+            };
+        }
+
+        private Long number() {
+            if (reader.next() != SnbtReader.Event.VALUE) {
+                reader.skipValue();
+                return null;
+            }
+            return switch (reader.scalarType()) {
+                case BYTE, SHORT, LONG -> reader.longValue();
+                case FLOAT, DOUBLE -> (long) reader.doubleValue();
+                case STRING -> {
+                    try {
+                        yield Long.parseLong(reader.stringValue());
+                    } catch (NumberFormatException ignored) {
+                        yield null;
+                    }
+                }
+                case BOOLEAN -> null;
+            };
+        }
+
+        /**
+         * Whether {@code stringList} would return anything for the value.
+         */
+        private boolean nonEmptyStringList() {
+            SnbtReader.Event event = reader.next();
+            if (event == SnbtReader.Event.VALUE) {
+                return reader.scalarType() != SnbtLexer.ScalarType.BOOLEAN;
+            }
+            if (event == SnbtReader.Event.BEGIN_COMPOUND) {
+                reader.skipValue();
+                return false;
+            }
+            int size = 0;
+            while ((event = reader.next()) != SnbtReader.Event.END_LIST) {
+                size++;
+                if (event != SnbtReader.Event.VALUE) {
+                    reader.skipValue();
+                }
+            }
+            return size > 0;
+        }
+
+        private static String orZero(String id) {
+            return id != null ? id : "0";
+        }
+    }
 }
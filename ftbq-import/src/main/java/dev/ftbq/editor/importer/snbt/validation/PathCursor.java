@@ -0,0 +1,60 @@
+package dev.ftbq.editor.importer.snbt.validation;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Mutable path used by compiled schema validators. Descending into a property or index pushes a segment and
+ * returning pops it; the dotted string is only built by {@link #toString()}, when an issue is reported.
+ * Renders exactly like the {@link ValidationPath} reached by the same steps.
+ */
+final class PathCursor {
+    private final String prefix;
+    private String[] names = new String[16];
+    private int[] indices = new int[16];
+    private int depth;
+
+    PathCursor(ValidationPath base) {
+        this.prefix = Objects.requireNonNull(base, "base").toString();
+    }
+
+    void push(String name) {
+        ensureCapacity();
+        names[depth] = name;
+        depth++;
+    }
+
+    void push(int index) {
+        ensureCapacity();
+        names[depth] = null;
+        indices[depth] = index;
+        depth++;
+    }
+
+    void pop() {
+        depth--;
+    }
+
+    private void ensureCapacity() {
+        if (depth == names.length) {
+            names = Arrays.copyOf(names, depth * 2);
+            indices = Arrays.copyOf(indices, depth * 2);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (depth == 0) {
+            return prefix;
+        }
+        StringBuilder out = new StringBuilder(prefix.length() + depth * 12).append(prefix);
+        for (int i = 0; i < depth; i++) {
+            if (names[i] != null) {
+                out.append('.').append(names[i]);
+            } else {
+                out.append('[').append(indices[i]).append(']');
+            }
+        }
+        return out.toString();
+    }
+}
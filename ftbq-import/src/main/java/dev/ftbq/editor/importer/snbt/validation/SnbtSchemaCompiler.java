@@ -0,0 +1,384 @@
+package dev.ftbq.editor.importer.snbt.validation;
+
+import dev.ftbq.editor.validation.ValidationIssue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles {@link SnbtSchemaNode} trees into validators that report the same issues as
+ * {@link SnbtSchemaNode#validate} without re-reading the schema: property lookups go through prebuilt hash
+ * tables, fixed messages are built once, and paths are tracked with a {@link PathCursor} that is only rendered
+ * for reported issues. Unions first look for an option that {@link Validator#accepts accepts} the value, so a
+ * passing value never builds issues for the options it did not match.
+ * <p>
+ * Compiled validators are immutable and cached per schema root.
+ */
+final class SnbtSchemaCompiler {
+    private static final String ERROR = "ERROR";
+    private static final Map<SnbtSchemaNode, Validator> CACHE = new ConcurrentHashMap<>();
+
+    private static final Validator STRING = new StringValidator();
+    private static final Validator NUMBER = new NumberValidator();
+    private static final Validator BOOLEAN = new BooleanValidator();
+
+    private SnbtSchemaCompiler() {
+    }
+
+    static Validator compile(SnbtSchemaNode root) {
+        Objects.requireNonNull(root, "root");
+        Validator compiled = CACHE.get(root);
+        if (compiled == null) {
+            compiled = root.compile();
+            Validator raced = CACHE.putIfAbsent(root, compiled);
+            if (raced != null) {
+                compiled = raced;
+            }
+        }
+        return compiled;
+    }
+
+    interface Validator {
+        void validate(Object value, PathCursor path, List<ValidationIssue> issues);
+
+        /**
+         * Whether {@link #validate} would report no {@code ERROR} for {@code value}. Reports nothing.
+         */
+        boolean accepts(Object value);
+    }
+
+    interface Rule {
+        void validate(Map<?, ?> value, PathCursor path, List<ValidationIssue> issues);
+
+        boolean accepts(Map<?, ?> value);
+    }
+
+    static Validator object(Map<String, Validator> properties, Set<String> required, boolean allowAdditional,
+                            List<Rule> rules) {
+        return new ObjectValidator(properties, required, allowAdditional, rules);
+    }
+
+    static Validator list(Validator element, boolean allowEmpty) {
+        return new ListValidator(element, allowEmpty);
+    }
+
+    static Validator string() {
+        return STRING;
+    }
+
+    static Validator pattern(Pattern pattern) {
+        return new PatternValidator(pattern);
+    }
+
+    static Validator enumString(Set<String> allowed) {
+        return new EnumValidator(allowed);
+    }
+
+    static Validator number() {
+        return NUMBER;
+    }
+
+    static Validator bool() {
+        return BOOLEAN;
+    }
+
+    static Validator union(List<Validator> options) {
+        return new UnionValidator(options);
+    }
+
+    static void error(List<ValidationIssue> issues, PathCursor path, String message) {
+        issues.add(new ValidationIssue(ERROR, path.toString(), message));
+    }
+
+    private static void typeError(List<ValidationIssue> issues, PathCursor path, String expected, Object value) {
+        error(issues, path, "Expected " + expected + " but found " + SnbtSchemas.describeType(value));
+    }
+
+    /**
+     * The map itself when all keys are strings, as parsed SNBT always is; otherwise a copy keyed by
+     * {@link String#valueOf}, which is what the interpreted schema validates against.
+     */
+    private static Map<?, ?> stringKeyed(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                Map<String, Object> typed = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    typed.put(String.valueOf(entry.getKey()), entry.getValue());
+                }
+                return typed;
+            }
+        }
+        return map;
+    }
+
+    private static final class ObjectValidator implements Validator {
+        private final Map<String, Validator> properties;
+        private final String[] required;
+        private final String[] missingMessages;
+        private final String[] nullMessages;
+        private final boolean allowAdditional;
+        private final Rule[] rules;
+
+        private ObjectValidator(Map<String, Validator> properties, Set<String> required, boolean allowAdditional,
+                                List<Rule> rules) {
+            this.properties = new HashMap<>(properties);
+            this.required = required.toArray(String[]::new);
+            this.missingMessages = new String[this.required.length];
+            this.nullMessages = new String[this.required.length];
+            for (int i = 0; i < this.required.length; i++) {
+                missingMessages[i] = "Missing required property '" + this.required[i] + "'";
+                nullMessages[i] = "Property '" + this.required[i] + "' cannot be null";
+            }
+            this.allowAdditional = allowAdditional;
+            this.rules = rules.toArray(Rule[]::new);
+        }
+
+        @Override
+        public void validate(Object value, PathCursor path, List<ValidationIssue> issues) {
+            if (!(value instanceof Map<?, ?> map)) {
+                typeError(issues, path, "object", value);
+                return;
+            }
+            Map<?, ?> typed = stringKeyed(map);
+            for (int i = 0; i < required.length; i++) {
+                if (typed.get(required[i]) == null) {
+                    path.push(required[i]);
+                    error(issues, path, typed.containsKey(required[i]) ? nullMessages[i] : missingMessages[i]);
+                    path.pop();
+                }
+            }
+            for (Map.Entry<?, ?> entry : typed.entrySet()) {
+                String key = (String) entry.getKey();
+                Validator child = properties.get(key);
+                if (child != null) {
+                    path.push(key);
+                    child.validate(entry.getValue(), path, issues);
+                    path.pop();
+                } else if (!allowAdditional) {
+                    path.push(key);
+                    issues.add(new ValidationIssue("WARNING", path.toString(), "Unexpected property '" + key + "'"));
+                    path.pop();
+                }
+            }
+            for (Rule rule : rules) {
+                rule.validate(typed, path, issues);
+            }
+        }
+
+        @Override
+        public boolean accepts(Object value) {
+            if (!(value instanceof Map<?, ?> map)) {
+                return false;
+            }
+            Map<?, ?> typed = stringKeyed(map);
+            for (String key : required) {
+                if (typed.get(key) == null) {
+                    return false;
+                }
+            }
+            for (Map.Entry<?, ?> entry : typed.entrySet()) {
+                Validator child = properties.get((String) entry.getKey());
+                if (child != null && !child.accepts(entry.getValue())) {
+                    return false;
+                }
+            }
+            for (Rule rule : rules) {
+                if (!rule.accepts(typed)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class ListValidator implements Validator {
+        private final Validator element;
+        private final boolean allowEmpty;
+
+        private ListValidator(Validator element, boolean allowEmpty) {
+            this.element = Objects.requireNonNull(element, "element");
+            this.allowEmpty = allowEmpty;
+        }
+
+        @Override
+        public void validate(Object value, PathCursor path, List<ValidationIssue> issues) {
+            if (!(value instanceof List<?> list)) {
+                typeError(issues, path, "list", value);
+                return;
+            }
+            if (!allowEmpty && list.isEmpty()) {
+                error(issues, path, "Array must contain at least one entry");
+            }
+            for (int i = 0; i < list.size(); i++) {
+                path.push(i);
+                element.validate(list.get(i), path, issues);
+                path.pop();
+            }
+        }
+
+        @Override
+        public boolean accepts(Object value) {
+            if (!(value instanceof List<?> list) || (!allowEmpty && list.isEmpty())) {
+                return false;
+            }
+            for (Object entry : list) {
+                if (!element.accepts(entry)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class StringValidator implements Validator {
+        @Override
+        public void validate(Object value, PathCursor path, List<ValidationIssue> issues) {
+            if (!(value instanceof String string)) {
+                typeError(issues, path, "string", value);
+            } else if (string.isBlank()) {
+                error(issues, path, "Value cannot be blank");
+            }
+        }
+
+        @Override
+        public boolean accepts(Object value) {
+            return value instanceof String string && !string.isBlank();
+        }
+    }
+
+    private static final class PatternValidator implements Validator {
+        private final Pattern pattern;
+
+        private PatternValidator(Pattern pattern) {
+            this.pattern = Objects.requireNonNull(pattern, "pattern");
+        }
+
+        @Override
+        public void validate(Object value, PathCursor path, List<ValidationIssue> issues) {
+            if (!(value instanceof String string)) {
+                typeError(issues, path, "string", value);
+            } else if (!pattern.matcher(string).matches()) {
+                error(issues, path, "Value '" + string + "' does not match required pattern");
+            }
+        }
+
+        @Override
+        public boolean accepts(Object value) {
+            return value instanceof String string && pattern.matcher(string).matches();
+        }
+    }
+
+    private static final class EnumValidator implements Validator {
+        private final Set<String> allowed;
+        private final String expected;
+
+        private EnumValidator(Set<String> allowed) {
+            this.allowed = Set.copyOf(allowed);
+            this.expected = "'. Expected one of " + allowed;
+        }
+
+        @Override
+        public void validate(Object value, PathCursor path, List<ValidationIssue> issues) {
+            if (!(value instanceof String string)) {
+                typeError(issues, path, "string", value);
+            } else if (!allowed.contains(string.toLowerCase(Locale.ROOT))) {
+                error(issues, path, "Unsupported value '" + string + expected);
+            }
+        }
+
+        @Override
+        public boolean accepts(Object value) {
+            return value instanceof String string && allowed.contains(string.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static final class NumberValidator implements Validator {
+        @Override
+        public void validate(Object value, PathCursor path, List<ValidationIssue> issues) {
+            if (!(value instanceof Number)) {
+                typeError(issues, path, "number", value);
+            }
+        }
+
+        @Override
+        public boolean accepts(Object value) {
+            return value instanceof Number;
+        }
+    }
+
+    private static final class BooleanValidator implements Validator {
+        @Override
+        public void validate(Object value, PathCursor path, List<ValidationIssue> issues) {
+            if (!(value instanceof Boolean)) {
+                typeError(issues, path, "boolean", value);
+            }
+        }
+
+        @Override
+        public boolean accepts(Object value) {
+            return value instanceof Boolean;
+        }
+    }
+
+    private static final class UnionValidator implements Validator {
+        private final Validator[] options;
+
+        private UnionValidator(List<Validator> options) {
+            this.options = options.toArray(Validator[]::new);
+        }
+
+        @Override
+        public void validate(Object value, PathCursor path, List<ValidationIssue> issues) {
+            for (Validator option : options) {
+                if (option.accepts(value)) {
+                    option.validate(value, path, issues);
+                    return;
+                }
+            }
+            // Every option reports errors; keep those of the first option with the fewest
+            List<ValidationIssue> best = null;
+            int bestErrors = Integer.MAX_VALUE;
+            for (Validator option : options) {
+                List<ValidationIssue> trial = new ArrayList<>();
+                option.validate(value, path, trial);
+                int errors = countErrors(trial);
+                if (errors < bestErrors) {
+                    best = trial;
+                    bestErrors = errors;
+                }
+            }
+            if (best != null) {
+                issues.addAll(best);
+            } else {
+                error(issues, path, "Value does not match any allowed type");
+            }
+        }
+
+        @Override
+        public boolean accepts(Object value) {
+            for (Validator option : options) {
+                if (option.accepts(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int countErrors(List<ValidationIssue> issues) {
+            int count = 0;
+            for (ValidationIssue issue : issues) {
+                if (ERROR.equalsIgnoreCase(issue.severity())) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -3,6 +3,12 @@ package dev.ftbq.editor.importer.snbt.validation;
 import dev.ftbq.editor.validation.ValidationIssue;
 import java.util.List;
 
+/**
+ * Node of an SNBT schema. {@link #validate} interprets the node directly and is the reference behaviour;
+ * {@link #compile} builds the equivalent validator that {@link SnbtSchemaValidator} runs.
+ */
 interface SnbtSchemaNode {
     void validate(Object value, ValidationPath path, List<ValidationIssue> issues);
+
+    SnbtSchemaCompiler.Validator compile();
 }
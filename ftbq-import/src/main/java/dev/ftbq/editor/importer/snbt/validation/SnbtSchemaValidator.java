@@ -5,16 +5,27 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Validates values against a schema. The schema is compiled once by {@link SnbtSchemaCompiler} and the compiled
+ * validator is shared by every validator built for the same schema.
+ */
 public final class SnbtSchemaValidator {
-    private final SnbtSchemaNode root;
+    private final SnbtSchemaCompiler.Validator compiled;
 
     public SnbtSchemaValidator(SnbtSchemaNode root) {
-        this.root = Objects.requireNonNull(root, "root");
+        this.compiled = SnbtSchemaCompiler.compile(Objects.requireNonNull(root, "root"));
     }
 
     public List<ValidationIssue> validate(Object value) {
         List<ValidationIssue> issues = new ArrayList<>();
-        root.validate(value, ValidationPath.root(), issues);
+        validate(value, ValidationPath.root(), issues);
         return issues;
     }
+
+    /**
+     * Validates {@code value} as the node found at {@code path}, appending to {@code issues}.
+     */
+    void validate(Object value, ValidationPath path, List<ValidationIssue> issues) {
+        compiled.validate(value, new PathCursor(path), issues);
+    }
 }
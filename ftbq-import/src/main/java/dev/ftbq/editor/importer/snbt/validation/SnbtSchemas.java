@@ -15,7 +15,15 @@ import java.util.Set;
 import java.util.regex.Pattern;
 
 final class SnbtSchemas {
-    private static final SnbtSchemaNode QUEST_PACK = createQuestPackSchema();
+    /**
+     * Placeholder that {@link #questPackShell()} emits where the issues of the chapter entries belong.
+     * Compared by identity.
+     */
+    static final ValidationIssue CHAPTER_ENTRIES = new ValidationIssue("INFO", "$.chapters", "chapter entries");
+
+    private static final SnbtSchemaNode CHAPTER = createChapterSchema();
+    private static final SnbtSchemaNode QUEST_PACK = createQuestPackSchema(new ArraySchemaNode(CHAPTER, true));
+    private static final SnbtSchemaNode QUEST_PACK_SHELL = createQuestPackSchema(new ChapterEntriesSlotNode());
 
     private SnbtSchemas() {
     }
@@ -24,7 +32,23 @@ final class SnbtSchemas {
         return QUEST_PACK;
     }
 
-    private static SnbtSchemaNode createQuestPackSchema() {
+    /**
+     * Schema of a single entry of {@code chapters}.
+     */
+    static SnbtSchemaNode chapter() {
+        return CHAPTER;
+    }
+
+    /**
+     * Same as {@link #questPack()}, except that the entries of a {@code chapters} list are not visited; a single
+     * {@link #CHAPTER_ENTRIES} placeholder marks where their issues go. Lets callers validate chapters
+     * separately and still report issues in the order {@link #questPack()} would.
+     */
+    static SnbtSchemaNode questPackShell() {
+        return QUEST_PACK_SHELL;
+    }
+
+    private static SnbtSchemaNode createChapterSchema() {
         var visibilityEnum = enumValues(Visibility.class);
         var taskTypes = TaskTypeRegistry.ids();
         var rewardTypes = RewardTypeRegistry.ids();
@@ -96,7 +120,7 @@ final class SnbtSchemas {
                 List.of()
         );
 
-        SnbtSchemaNode chapterNode = new ObjectSchemaNode(
+        return new ObjectSchemaNode(
                 Map.of(
                         "id", stringOrNumber(),
                         "title", new StringSchemaNode(),
@@ -112,6 +136,10 @@ final class SnbtSchemas {
                 true,
                 List.of()
         );
+    }
+
+    private static SnbtSchemaNode createQuestPackSchema(SnbtSchemaNode chaptersNode) {
+        var visibilityEnum = enumValues(Visibility.class);
 
         SnbtSchemaNode chapterGroupNode = new ObjectSchemaNode(
                 Map.of(
@@ -156,7 +184,7 @@ final class SnbtSchemas {
                         "file_version", new NumberSchemaNode(),
                         "version", new NumberSchemaNode(),
                         "chapter_groups", new ArraySchemaNode(chapterGroupNode, true),
-                        "chapters", new ArraySchemaNode(chapterNode, true),
+                        "chapters", chaptersNode,
                         "loot_tables", new ArraySchemaNode(lootTableNode, true)
                 ),
                 Set.of("id", "title", "chapters"),
@@ -187,9 +215,11 @@ final class SnbtSchemas {
 
     private interface ObjectRule {
         void validate(Map<String, Object> value, ValidationPath path, List<ValidationIssue> issues);
+
+        SnbtSchemaCompiler.Rule compile();
     }
 
-    private static final class RequireAnyRule implements ObjectRule {
+    private static final class RequireAnyRule implements ObjectRule, SnbtSchemaCompiler.Rule {
         private final Set<String> keys;
         private final String message;
 
@@ -207,6 +237,28 @@ final class SnbtSchemas {
             }
             issues.add(new ValidationIssue("ERROR", path.toString(), message));
         }
+
+        @Override
+        public SnbtSchemaCompiler.Rule compile() {
+            return this;
+        }
+
+        @Override
+        public void validate(Map<?, ?> value, PathCursor path, List<ValidationIssue> issues) {
+            if (!accepts(value)) {
+                SnbtSchemaCompiler.error(issues, path, message);
+            }
+        }
+
+        @Override
+        public boolean accepts(Map<?, ?> value) {
+            for (String key : keys) {
+                if (value.get(key) != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
     private static final class ObjectSchemaNode implements SnbtSchemaNode {
@@ -258,6 +310,17 @@ final class SnbtSchemas {
                 rule.validate(typed, path, issues);
             }
         }
+
+        @Override
+        public SnbtSchemaCompiler.Validator compile() {
+            Map<String, SnbtSchemaCompiler.Validator> compiled = new LinkedHashMap<>();
+            properties.forEach((key, node) -> compiled.put(key, node.compile()));
+            List<SnbtSchemaCompiler.Rule> compiledRules = new ArrayList<>(rules.size());
+            for (ObjectRule rule : rules) {
+                compiledRules.add(rule.compile());
+            }
+            return SnbtSchemaCompiler.object(compiled, required, allowAdditional, compiledRules);
+        }
     }
 
     private static final class ArraySchemaNode implements SnbtSchemaNode {
@@ -283,6 +346,41 @@ final class SnbtSchemas {
                 element.validate(entry, path.index(i), issues);
             }
         }
+
+        @Override
+        public SnbtSchemaCompiler.Validator compile() {
+            return SnbtSchemaCompiler.list(element.compile(), allowEmpty);
+        }
+    }
+
+    private static final class ChapterEntriesSlotNode implements SnbtSchemaNode, SnbtSchemaCompiler.Validator {
+        @Override
+        public void validate(Object value, ValidationPath path, List<ValidationIssue> issues) {
+            if (!(value instanceof List<?>)) {
+                issues.add(new ValidationIssue("ERROR", path.toString(), "Expected list but found " + describeType(value)));
+                return;
+            }
+            issues.add(CHAPTER_ENTRIES);
+        }
+
+        @Override
+        public void validate(Object value, PathCursor path, List<ValidationIssue> issues) {
+            if (!(value instanceof List<?>)) {
+                SnbtSchemaCompiler.error(issues, path, "Expected list but found " + describeType(value));
+                return;
+            }
+            issues.add(CHAPTER_ENTRIES);
+        }
+
+        @Override
+        public boolean accepts(Object value) {
+            return value instanceof List<?>;
+        }
+
+        @Override
+        public SnbtSchemaCompiler.Validator compile() {
+            return this;
+        }
     }
 
     private static final class StringSchemaNode implements SnbtSchemaNode {
@@ -294,6 +392,11 @@ final class SnbtSchemas {
                 issues.add(new ValidationIssue("ERROR", path.toString(), "Value cannot be blank"));
             }
         }
+
+        @Override
+        public SnbtSchemaCompiler.Validator compile() {
+            return SnbtSchemaCompiler.string();
+        }
     }
 
     private static final class PatternStringSchemaNode implements SnbtSchemaNode {
@@ -313,6 +416,11 @@ final class SnbtSchemas {
                 issues.add(new ValidationIssue("ERROR", path.toString(), "Value '" + string + "' does not match required pattern"));
             }
         }
+
+        @Override
+        public SnbtSchemaCompiler.Validator compile() {
+            return SnbtSchemaCompiler.pattern(pattern);
+        }
     }
 
     private static final class EnumStringSchemaNode implements SnbtSchemaNode {
@@ -333,6 +441,11 @@ final class SnbtSchemas {
                 issues.add(new ValidationIssue("ERROR", path.toString(), "Unsupported value '" + string + "'. Expected one of " + allowed));
             }
         }
+
+        @Override
+        public SnbtSchemaCompiler.Validator compile() {
+            return SnbtSchemaCompiler.enumString(allowed);
+        }
     }
 
     private static final class NumberSchemaNode implements SnbtSchemaNode {
@@ -342,6 +455,11 @@ final class SnbtSchemas {
                 issues.add(new ValidationIssue("ERROR", path.toString(), "Expected number but found " + describeType(value)));
             }
         }
+
+        @Override
+        public SnbtSchemaCompiler.Validator compile() {
+            return SnbtSchemaCompiler.number();
+        }
     }
 
     private static final class BooleanSchemaNode implements SnbtSchemaNode {
@@ -351,6 +469,11 @@ final class SnbtSchemas {
                 issues.add(new ValidationIssue("ERROR", path.toString(), "Expected boolean but found " + describeType(value)));
             }
         }
+
+        @Override
+        public SnbtSchemaCompiler.Validator compile() {
+            return SnbtSchemaCompiler.bool();
+        }
     }
 
     private static final class UnionSchemaNode implements SnbtSchemaNode {
@@ -382,6 +505,15 @@ final class SnbtSchemas {
             }
         }
 
+        @Override
+        public SnbtSchemaCompiler.Validator compile() {
+            List<SnbtSchemaCompiler.Validator> compiled = new ArrayList<>(options.size());
+            for (SnbtSchemaNode option : options) {
+                compiled.add(option.compile());
+            }
+            return SnbtSchemaCompiler.union(compiled);
+        }
+
         private boolean containsError(List<ValidationIssue> issues) {
             for (ValidationIssue issue : issues) {
                 if ("ERROR".equalsIgnoreCase(issue.severity())) {
@@ -402,7 +534,7 @@ final class SnbtSchemas {
         }
     }
 
-    private static String describeType(Object value) {
+    static String describeType(Object value) {
         if (value == null) {
             return "null";
         }
@@ -0,0 +1,217 @@
+package dev.ftbq.editor.importer.snbt.validation;
+
+import dev.ftbq.editor.importer.snbt.parser.SnbtBufferParser;
+import dev.ftbq.editor.importer.snbt.parser.SnbtParseException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers parsed SNBT files and per-chapter validation results between
+ * {@link SnbtValidationService#validateDirectory(Path, SnbtValidationCache)} runs over the same quest directory.
+ * <p>
+ * Files are keyed by the SHA-256 of their bytes. A file whose size and modification time are unchanged is not
+ * read again; a file that was rewritten with the same content is read and hashed but not parsed again. Chapter
+ * results are keyed by the chapter's content alone: the hash of its file in the split layout, or a digest of the
+ * parsed chapter when several chapters share {@code data.snbt}. A chapter that only moved to another position is
+ * therefore not validated again; its result is moved to the new position instead. Every key carries
+ * {@link #RULES_VERSION}. Entries no longer referenced are dropped after each run.
+ * <p>
+ * Safe for use from the validation executor; runs sharing one cache should not overlap.
+ */
+public final class SnbtValidationCache {
+
+    /**
+     * Version of the parser and validation rules that cached results depend on. Bump it whenever either changes
+     * what a file parses to or what a chapter reports, so results produced under the old rules are never reused.
+     */
+    static final int RULES_VERSION = 1;
+
+    private final Map<Path, FileStamp> stamps = new ConcurrentHashMap<>();
+    private final Map<ContentKey, ParsedFile> parsed = new ConcurrentHashMap<>();
+    private final Map<ContentKey, List<ContentKey>> inlineChapters = new ConcurrentHashMap<>();
+    private final Map<ContentKey, SnbtValidationService.ChapterResult> chapters = new ConcurrentHashMap<>();
+    private final AtomicInteger parseCount = new AtomicInteger();
+    private final AtomicInteger chapterValidationCount = new AtomicInteger();
+
+    /**
+     * Number of files parsed through this cache so far.
+     */
+    public int parseCount() {
+        return parseCount.get();
+    }
+
+    /**
+     * Number of chapters validated (rather than taken from the cache) so far.
+     */
+    public int chapterValidationCount() {
+        return chapterValidationCount.get();
+    }
+
+    /**
+     * Number of parsed files currently held.
+     */
+    public int size() {
+        return parsed.size();
+    }
+
+    public void clear() {
+        stamps.clear();
+        parsed.clear();
+        inlineChapters.clear();
+        chapters.clear();
+    }
+
+    ParsedFile load(Path file) throws IOException {
+        long size = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        FileStamp stamp = stamps.get(file);
+        if (stamp != null && stamp.size() == size && stamp.modified() == modified) {
+            ParsedFile known = parsed.get(stamp.key());
+            if (known != null) {
+                return known;
+            }
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        ContentKey key = ContentKey.of(bytes);
+        ParsedFile result = parsed.get(key);
+        if (result == null) {
+            result = parse(key, bytes);
+            parsed.put(key, result);
+        }
+        stamps.put(file, new FileStamp(size, modified, key));
+        return result;
+    }
+
+    /**
+     * Content keys of the chapters listed inline in {@code file}, computed once per file content.
+     */
+    List<ContentKey> inlineChapterKeys(ParsedFile file, List<?> chapterList) {
+        return inlineChapters.computeIfAbsent(file.key(), key -> {
+            List<ContentKey> keys = new ArrayList<>(chapterList.size());
+            for (Object chapter : chapterList) {
+                keys.add(ContentKey.of(chapter));
+            }
+            return List.copyOf(keys);
+        });
+    }
+
+    SnbtValidationService.ChapterResult chapter(ContentKey key) {
+        return chapters.get(key);
+    }
+
+    void putChapter(ContentKey key, SnbtValidationService.ChapterResult result) {
+        if (chapters.put(key, result) == null) {
+            chapterValidationCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops everything not used by the run that just finished.
+     */
+    void retain(Collection<Path> files, Set<ContentKey> chapterKeys) {
+        stamps.keySet().retainAll(new HashSet<>(files));
+        Set<ContentKey> live = new HashSet<>();
+        for (FileStamp stamp : stamps.values()) {
+            live.add(stamp.key());
+        }
+        parsed.keySet().retainAll(live);
+        inlineChapters.keySet().retainAll(live);
+        chapters.keySet().retainAll(chapterKeys);
+    }
+
+    private ParsedFile parse(ContentKey key, byte[] bytes) {
+        parseCount.incrementAndGet();
+        CharBuffer chars;
+        try {
+            chars = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(ByteBuffer.wrap(bytes));
+        } catch (IOException ex) {
+            return new ParsedFile(key, null, ex.getMessage());
+        }
+        try {
+            return new ParsedFile(key, SnbtBufferParser.parseRootCompound(chars), null);
+        } catch (SnbtParseException ex) {
+            return new ParsedFile(key, null, ex.getMessage());
+        }
+    }
+
+    private record FileStamp(long size, long modified, ContentKey key) {
+    }
+
+    /**
+     * SHA-256 of some content together with the {@link #RULES_VERSION} it was processed under.
+     */
+    record ContentKey(String sha256, int rulesVersion) {
+        static ContentKey of(byte[] bytes) {
+            return new ContentKey(HexFormat.of().formatHex(newDigest().digest(bytes)), RULES_VERSION);
+        }
+
+        /**
+         * Digest of a parsed value tree. Types, map keys and element boundaries are part of the digest, so only
+         * equal trees share a key.
+         */
+        static ContentKey of(Object value) {
+            MessageDigest digest = newDigest();
+            update(digest, value);
+            return new ContentKey(HexFormat.of().formatHex(digest.digest()), RULES_VERSION);
+        }
+
+        private static void update(MessageDigest digest, Object value) {
+            if (value instanceof Map<?, ?> map) {
+                digest.update((byte) '{');
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    update(digest, entry.getKey());
+                    update(digest, entry.getValue());
+                }
+                digest.update((byte) '}');
+            } else if (value instanceof List<?> list) {
+                digest.update((byte) '[');
+                for (Object element : list) {
+                    update(digest, element);
+                }
+                digest.update((byte) ']');
+            } else {
+                String text = value == null ? "null" : value.getClass().getSimpleName() + ':' + value;
+                byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+                digest.update(bytes);
+            }
+        }
+
+        private static MessageDigest newDigest() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 not available", ex);
+            }
+        }
+    }
+
+    /**
+     * Parse outcome of one file: the root compound, or the parse error message.
+     */
+    record ParsedFile(ContentKey key, Map<String, Object> compound, String error) {
+        ParsedFile {
+            Objects.requireNonNull(key, "key");
+        }
+    }
+}
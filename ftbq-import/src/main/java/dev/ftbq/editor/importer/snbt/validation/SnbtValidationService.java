@@ -1,46 +1,341 @@
 package dev.ftbq.editor.importer.snbt.validation;
 
+import dev.ftbq.editor.concurrent.WorkerPool;
+import dev.ftbq.editor.importer.snbt.parser.SnbtBufferParser;
 import dev.ftbq.editor.importer.snbt.parser.SnbtParseException;
-import dev.ftbq.editor.importer.snbt.parser.SnbtParser;
+import dev.ftbq.editor.importer.snbt.service.SnbtQuestDirectoryReader;
 import dev.ftbq.editor.validation.ValidationIssue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
+/**
+ * Validates SNBT quest packs against the quest pack schema and structural rules.
+ * <p>
+ * Chapters are validated independently of each other on the executor: each yields its schema issues,
+ * its local structure issues and a summary of the ids and references it declares. Checks that span chapters
+ * (id uniqueness, chapter group, dependency and loot table references) then run over those summaries in
+ * chapter order, so the report lists issues in the same order as a single pass over the tree.
+ */
 public final class SnbtValidationService {
     private static final String SEVERITY_ERROR = "ERROR";
 
-    private final SnbtSchemaValidator schemaValidator = new SnbtSchemaValidator(SnbtSchemas.questPack());
+    private final SnbtSchemaValidator schemaValidator = new SnbtSchemaValidator(SnbtSchemas.questPackShell());
+    private final SnbtSchemaValidator chapterValidator = new SnbtSchemaValidator(SnbtSchemas.chapter());
+    private final Executor executor;
+
+    public SnbtValidationService() {
+        this(WorkerPool.shared());
+    }
+
+    public SnbtValidationService(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
 
     public SnbtValidationReport validate(String snbtText) {
         Objects.requireNonNull(snbtText, "snbtText");
         List<ValidationIssue> issues = new ArrayList<>();
         Map<String, Object> root;
         try {
-            root = SnbtParser.parseRootCompound(snbtText);
+            root = SnbtBufferParser.parseRootCompound(snbtText);
         } catch (SnbtParseException ex) {
             issues.add(new ValidationIssue(SEVERITY_ERROR, ValidationPath.root().toString(), "SNBT parse error: " + ex.getMessage()));
             return new SnbtValidationReport(issues);
         }
 
-        issues.addAll(schemaValidator.validate(root));
-        validateStructure(root, issues);
+        List<ChapterResult> chapters = root.get("chapters") instanceof List<?> list
+                ? validateChapters(list, Collections.nCopies(list.size(), null))
+                : List.of();
+        return report(root, chapters, issues);
+    }
+
+    /**
+     * Validates a quest directory: a {@code data.snbt} with its chapters inline, or FTB Quests' split layout with
+     * {@code chapter_groups.snbt}, {@code chapters/*.snbt} and {@code reward_tables/*.snbt}. Split files are
+     * combined into the document they stand for (chapters ordered by {@code order_index}, then file name;
+     * reward tables as {@code loot_tables}) and reported with the same paths a single-file pack would get.
+     */
+    public SnbtValidationReport validateDirectory(Path directory) throws IOException {
+        return validateDirectory(directory, new SnbtValidationCache());
+    }
+
+    /**
+     * Like {@link #validateDirectory(Path)}, reusing parse results and chapter summaries from earlier runs that
+     * share {@code cache}. Only files whose content changed are parsed and validated again; the schema check of
+     * the pack header and the cross-chapter checks always run.
+     */
+    public SnbtValidationReport validateDirectory(Path directory, SnbtValidationCache cache) throws IOException {
+        Objects.requireNonNull(cache, "cache");
+        Path questRoot = SnbtQuestDirectoryReader.locate(directory).orElseThrow(() -> new NoSuchFileException(
+                directory.toString(), null, "no FTB Quests data.snbt or chapters directory found"));
+        Path dataFile = questRoot.resolve("data.snbt");
+        Path groupsFile = questRoot.resolve("chapter_groups.snbt");
+        List<Path> chapterFiles = listSnbt(questRoot.resolve("chapters"));
+        List<Path> tableFiles = listSnbt(questRoot.resolve("reward_tables"));
+        boolean split = !chapterFiles.isEmpty() || Files.isRegularFile(groupsFile) || !tableFiles.isEmpty();
+
+        List<Path> files = new ArrayList<>();
+        if (Files.isRegularFile(dataFile)) {
+            files.add(dataFile);
+        }
+        if (Files.isRegularFile(groupsFile)) {
+            files.add(groupsFile);
+        }
+        files.addAll(chapterFiles);
+        files.addAll(tableFiles);
+        Map<Path, SnbtValidationCache.ParsedFile> parsed = loadAll(files, cache);
+
+        List<ValidationIssue> issues = new ArrayList<>();
+        SnbtValidationCache.ParsedFile data = parsed.get(dataFile);
+        if (!split && data != null && data.error() != null) {
+            issues.add(new ValidationIssue(SEVERITY_ERROR, ValidationPath.root().toString(), "SNBT parse error: " + data.error()));
+            cache.retain(parsed.keySet(), Set.of());
+            return new SnbtValidationReport(issues);
+        }
+        for (Path file : files) {
+            SnbtValidationCache.ParsedFile entry = parsed.get(file);
+            if (entry.error() != null) {
+                issues.add(new ValidationIssue(SEVERITY_ERROR, ValidationPath.root().toString(),
+                        "SNBT parse error in " + questRoot.relativize(file).toString().replace('\\', '/') + ": " + entry.error()));
+            }
+        }
+
+        Map<String, Object> root = new LinkedHashMap<>(data != null && data.compound() != null ? data.compound() : Map.of());
+        SnbtValidationCache.ParsedFile groups = parsed.get(groupsFile);
+        if (groups != null && groups.compound() != null) {
+            root.put("chapter_groups", groups.compound().get("chapter_groups"));
+        }
+        List<SnbtValidationCache.ParsedFile> chapterSources = new ArrayList<>();
+        if (!chapterFiles.isEmpty()) {
+            for (Path file : chapterFiles) {
+                SnbtValidationCache.ParsedFile entry = parsed.get(file);
+                if (entry.compound() != null) {
+                    chapterSources.add(entry);
+                }
+            }
+            // Stable sort over file-name order, as SnbtQuestDirectoryReader orders chapters
+            chapterSources.sort(Comparator.comparingLong(entry -> entry.compound().get("order_index") instanceof Number number
+                    ? number.longValue() : Long.MAX_VALUE));
+            List<Object> chapters = new ArrayList<>(chapterSources.size());
+            for (SnbtValidationCache.ParsedFile entry : chapterSources) {
+                chapters.add(entry.compound());
+            }
+            root.put("chapters", chapters);
+        }
+        if (!tableFiles.isEmpty()) {
+            List<Object> tables = new ArrayList<>(tableFiles.size());
+            for (Path file : tableFiles) {
+                SnbtValidationCache.ParsedFile entry = parsed.get(file);
+                if (entry.compound() != null) {
+                    tables.add(entry.compound());
+                }
+            }
+            root.put("loot_tables", tables);
+        }
+
+        List<ChapterResult> chapters = List.of();
+        Set<SnbtValidationCache.ContentKey> chapterKeys = new HashSet<>();
+        if (root.get("chapters") instanceof List<?> list) {
+            List<SnbtValidationCache.ContentKey> keys = new ArrayList<>(list.size());
+            if (chapterFiles.isEmpty()) {
+                keys.addAll(cache.inlineChapterKeys(data, list));
+            } else {
+                for (SnbtValidationCache.ParsedFile source : chapterSources) {
+                    keys.add(source.key());
+                }
+            }
+            List<ChapterResult> known = new ArrayList<>(list.size());
+            for (int i = 0; i < list.size(); i++) {
+                ChapterResult cached = cache.chapter(keys.get(i));
+                known.add(cached == null ? null : cached.at(i));
+            }
+            chapters = validateChapters(list, known);
+            for (int i = 0; i < keys.size(); i++) {
+                cache.putChapter(keys.get(i), chapters.get(i));
+            }
+            chapterKeys.addAll(keys);
+        }
+        cache.retain(parsed.keySet(), chapterKeys);
+        return report(root, chapters, issues);
+    }
+
+    private SnbtValidationReport report(Map<String, Object> root, List<ChapterResult> chapters, List<ValidationIssue> issues) {
+        for (ValidationIssue issue : schemaValidator.validate(root)) {
+            if (issue == SnbtSchemas.CHAPTER_ENTRIES) {
+                for (ChapterResult chapter : chapters) {
+                    issues.addAll(chapter.schemaIssues());
+                }
+            } else {
+                issues.add(issue);
+            }
+        }
+        validateStructure(root, chapters, issues);
         return new SnbtValidationReport(issues);
     }
 
-    @SuppressWarnings("unchecked")
-    private void validateStructure(Map<String, Object> root, List<ValidationIssue> issues) {
+    private Map<Path, SnbtValidationCache.ParsedFile> loadAll(List<Path> files, SnbtValidationCache cache) throws IOException {
+        List<CompletableFuture<SnbtValidationCache.ParsedFile>> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return cache.load(file);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, executor));
+        }
+        Map<Path, SnbtValidationCache.ParsedFile> parsed = new LinkedHashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            try {
+                parsed.put(files.get(i), tasks.get(i).join());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                throw ex;
+            }
+        }
+        return parsed;
+    }
+
+    private static List<Path> listSnbt(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".snbt"))
+                    .filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    /**
+     * Validates the chapters that have no entry in {@code known}, in parallel when there is more than one.
+     */
+    private List<ChapterResult> validateChapters(List<?> chapters, List<ChapterResult> known) {
+        List<ChapterResult> results = new ArrayList<>(known);
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                missing.add(i);
+            }
+        }
+        if (missing.size() < 2) {
+            for (int index : missing) {
+                results.set(index, validateChapter(chapters.get(index), index));
+            }
+            return results;
+        }
+        List<CompletableFuture<ChapterResult>> tasks = new ArrayList<>(missing.size());
+        for (int index : missing) {
+            Object entry = chapters.get(index);
+            tasks.add(CompletableFuture.supplyAsync(() -> validateChapter(entry, index), executor));
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                results.set(missing.get(i), tasks.get(i).join());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw ex;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Everything about one chapter that does not depend on the other chapters. Uniqueness of chapter and quest
+     * ids is left to the merge phase as {@link IdClaim}s, positioned among the local issues.
+     */
+    private ChapterResult validateChapter(Object entry, int index) {
+        ValidationPath chapterPath = chapterPath(index);
+        List<ValidationIssue> schemaIssues = new ArrayList<>();
+        chapterValidator.validate(entry, chapterPath, schemaIssues);
+        if (!(entry instanceof Map<?, ?> map)) {
+            return new ChapterResult(index, schemaIssues, List.of(), List.of(), List.of(), List.of());
+        }
+
+        List<ValidationIssue> issues = new ArrayList<>();
+        List<IdClaim> claims = new ArrayList<>();
+        List<QuestDependencies> questDependencies = new ArrayList<>();
+        List<LootTableRewardRef> lootTableRewards = new ArrayList<>();
+        Map<String, Object> chapter = castCompound(map);
+        String chapterId = normalizeId(chapter.get("id"));
+        if (chapterId != null) {
+            claims.add(new IdClaim("chapter", chapterId, chapterPath.property("id"), issues.size()));
+        }
+        List<?> questsRaw = optionalList(chapter.get("quests"));
+        if (questsRaw == null) {
+            return new ChapterResult(index, schemaIssues, issues, claims, questDependencies, lootTableRewards);
+        }
+        for (int q = 0; q < questsRaw.size(); q++) {
+            Object questEntry = questsRaw.get(q);
+            if (!(questEntry instanceof Map<?, ?> questMap)) {
+                continue;
+            }
+            Map<String, Object> quest = castCompound(questMap);
+            String questId = normalizeId(quest.get("id"));
+            ValidationPath questPath = chapterPath.property("quests").index(q);
+            if (questId != null) {
+                claims.add(new IdClaim("quest", questId, questPath.property("id"), issues.size()));
+            }
+            List<?> tasksRaw = optionalList(quest.get("tasks"));
+            if (tasksRaw != null) {
+                for (int t = 0; t < tasksRaw.size(); t++) {
+                    Object taskEntry = tasksRaw.get(t);
+                    if (taskEntry instanceof Map<?, ?> taskMap) {
+                        Map<String, Object> task = castCompound(taskMap);
+                        validateTask(task, questPath.property("tasks").index(t), issues);
+                    }
+                }
+            }
+            List<?> dependenciesRaw = optionalList(quest.get("dependencies"));
+            if (dependenciesRaw != null) {
+                questDependencies.add(new QuestDependencies(questPath.property("dependencies"), dependenciesRaw));
+            }
+            List<?> rewardsRaw = optionalList(quest.get("rewards"));
+            if (rewardsRaw != null) {
+                for (int r = 0; r < rewardsRaw.size(); r++) {
+                    Object rewardEntry = rewardsRaw.get(r);
+                    if (rewardEntry instanceof Map<?, ?> rewardMap) {
+                        Map<String, Object> reward = castCompound(rewardMap);
+                        validateReward(reward, questPath.property("rewards").index(r), issues);
+                        String type = normalizeString(reward.get("type"));
+                        if ("loot_table".equals(type)) {
+                            lootTableRewards.add(new LootTableRewardRef(questPath.property("rewards").index(r), reward));
+                        }
+                    }
+                }
+            }
+        }
+        return new ChapterResult(index, schemaIssues, issues, claims, questDependencies, lootTableRewards);
+    }
+
+    private void validateStructure(Map<String, Object> root, List<ChapterResult> chapters, List<ValidationIssue> issues) {
         Map<String, ValidationPath> chapterIds = new LinkedHashMap<>();
         Map<String, ValidationPath> questIds = new LinkedHashMap<>();
         Map<String, ValidationPath> groupIds = new LinkedHashMap<>();
         Map<String, ValidationPath> lootTableIds = new LinkedHashMap<>();
         List<GroupReference> groupReferences = new ArrayList<>();
-        List<QuestDependencies> questDependencies = new ArrayList<>();
-        List<LootTableRewardRef> lootTableRewards = new ArrayList<>();
 
         Object groupsRaw = root.get("chapter_groups");
         if (groupsRaw instanceof List<?> groups) {
@@ -84,64 +379,17 @@ public final class SnbtValidationService {
             }
         }
 
-        Object chaptersRaw = root.get("chapters");
-        if (chaptersRaw instanceof List<?> chapters) {
-            for (int i = 0; i < chapters.size(); i++) {
-                Object entry = chapters.get(i);
-                if (!(entry instanceof Map<?, ?> map)) {
-                    continue;
-                }
-                Map<String, Object> chapter = castCompound(map);
-                String chapterId = normalizeId(chapter.get("id"));
-                ValidationPath chapterPath = ValidationPath.root().property("chapters").index(i);
-                if (chapterId != null) {
-                    checkUniqueness(chapterId, chapterPath.property("id"), chapterIds, issues, "chapter");
-                }
-                List<?> questsRaw = optionalList(chapter.get("quests"));
-                if (questsRaw == null) {
-                    continue;
-                }
-                for (int q = 0; q < questsRaw.size(); q++) {
-                    Object questEntry = questsRaw.get(q);
-                    if (!(questEntry instanceof Map<?, ?> questMap)) {
-                        continue;
-                    }
-                    Map<String, Object> quest = castCompound(questMap);
-                    String questId = normalizeId(quest.get("id"));
-                    ValidationPath questPath = chapterPath.property("quests").index(q);
-                    if (questId != null) {
-                        checkUniqueness(questId, questPath.property("id"), questIds, issues, "quest");
-                    }
-                    List<?> tasksRaw = optionalList(quest.get("tasks"));
-                    if (tasksRaw != null) {
-                        for (int t = 0; t < tasksRaw.size(); t++) {
-                            Object taskEntry = tasksRaw.get(t);
-                            if (taskEntry instanceof Map<?, ?> taskMap) {
-                                Map<String, Object> task = castCompound(taskMap);
-                                validateTask(task, questPath.property("tasks").index(t), issues);
-                            }
-                        }
-                    }
-                    List<?> dependenciesRaw = optionalList(quest.get("dependencies"));
-                    if (dependenciesRaw != null) {
-                        questDependencies.add(new QuestDependencies(questPath.property("dependencies"), dependenciesRaw));
-                    }
-                    List<?> rewardsRaw = optionalList(quest.get("rewards"));
-                    if (rewardsRaw != null) {
-                        for (int r = 0; r < rewardsRaw.size(); r++) {
-                            Object rewardEntry = rewardsRaw.get(r);
-                            if (rewardEntry instanceof Map<?, ?> rewardMap) {
-                                Map<String, Object> reward = castCompound(rewardMap);
-                                validateReward(reward, questPath.property("rewards").index(r), issues);
-                                String type = normalizeString(reward.get("type"));
-                                if ("loot_table".equals(type)) {
-                                    lootTableRewards.add(new LootTableRewardRef(questPath.property("rewards").index(r), reward));
-                                }
-                            }
-                        }
-                    }
-                }
+        // Merge per-chapter results: id claims are checked in order, between the local issues they preceded
+        for (ChapterResult chapter : chapters) {
+            List<ValidationIssue> local = chapter.issues();
+            int next = 0;
+            for (IdClaim claim : chapter.claims()) {
+                issues.addAll(local.subList(next, claim.position()));
+                next = claim.position();
+                Map<String, ValidationPath> registry = "chapter".equals(claim.type()) ? chapterIds : questIds;
+                checkUniqueness(claim.id(), claim.path(), registry, issues, claim.type());
             }
+            issues.addAll(local.subList(next, local.size()));
         }
 
         // Validate chapter group references against known chapter IDs
@@ -157,39 +405,43 @@ public final class SnbtValidationService {
         }
 
         // Validate quest dependencies
-        for (QuestDependencies dependencies : questDependencies) {
-            List<?> values = dependencies.entries();
-            for (int i = 0; i < values.size(); i++) {
-                Object entry = values.get(i);
-                Optional<String> dependencyId = extractDependencyId(entry);
-                if (dependencyId.isEmpty()) {
-                    issues.add(new ValidationIssue(SEVERITY_ERROR,
-                            dependencies.path().index(i).toString(),
-                            "Dependency entry must provide a quest id"));
-                    continue;
-                }
-                String id = dependencyId.get();
-                if (!questIds.containsKey(id)) {
-                    issues.add(new ValidationIssue(SEVERITY_ERROR,
-                            dependencies.path().index(i).toString(),
-                            "Dependency references unknown quest id '" + id + "'"));
+        for (ChapterResult chapter : chapters) {
+            for (QuestDependencies dependencies : chapter.questDependencies()) {
+                List<?> values = dependencies.entries();
+                for (int i = 0; i < values.size(); i++) {
+                    Object entry = values.get(i);
+                    Optional<String> dependencyId = extractDependencyId(entry);
+                    if (dependencyId.isEmpty()) {
+                        issues.add(new ValidationIssue(SEVERITY_ERROR,
+                                dependencies.path().index(i).toString(),
+                                "Dependency entry must provide a quest id"));
+                        continue;
+                    }
+                    String id = dependencyId.get();
+                    if (!questIds.containsKey(id)) {
+                        issues.add(new ValidationIssue(SEVERITY_ERROR,
+                                dependencies.path().index(i).toString(),
+                                "Dependency references unknown quest id '" + id + "'"));
+                    }
                 }
             }
         }
 
         // Validate loot table reward references
-        for (LootTableRewardRef reward : lootTableRewards) {
-            Object tableIdRaw = reward.value().get("table");
-            if (!(tableIdRaw instanceof String tableId) || tableId.isBlank()) {
-                issues.add(new ValidationIssue(SEVERITY_ERROR,
-                        reward.path().property("table").toString(),
-                        "Loot table rewards must specify a non-empty 'table' property"));
-                continue;
-            }
-            if (!lootTableIds.containsKey(tableId)) {
-                issues.add(new ValidationIssue(SEVERITY_ERROR,
-                        reward.path().property("table").toString(),
-                        "Loot table reward references unknown table '" + tableId + "'"));
+        for (ChapterResult chapter : chapters) {
+            for (LootTableRewardRef reward : chapter.lootTableRewards()) {
+                Object tableIdRaw = reward.value().get("table");
+                if (!(tableIdRaw instanceof String tableId) || tableId.isBlank()) {
+                    issues.add(new ValidationIssue(SEVERITY_ERROR,
+                            reward.path().property("table").toString(),
+                            "Loot table rewards must specify a non-empty 'table' property"));
+                    continue;
+                }
+                if (!lootTableIds.containsKey(tableId)) {
+                    issues.add(new ValidationIssue(SEVERITY_ERROR,
+                            reward.path().property("table").toString(),
+                            "Loot table reward references unknown table '" + tableId + "'"));
+                }
             }
         }
     }
@@ -360,4 +612,59 @@ public final class SnbtValidationService {
 
     private record LootTableRewardRef(ValidationPath path, Map<String, Object> value) {
     }
+
+    /**
+     * A chapter or quest id to be checked for uniqueness before local issue {@code position}.
+     */
+    private record IdClaim(String type, String id, ValidationPath path, int position) {
+    }
+
+    /**
+     * Result of {@link #validateChapter} for the chapter at {@code index}; every path in it starts with that
+     * chapter's path.
+     */
+    record ChapterResult(int index,
+                         List<ValidationIssue> schemaIssues,
+                         List<ValidationIssue> issues,
+                         List<IdClaim> claims,
+                         List<QuestDependencies> questDependencies,
+                         List<LootTableRewardRef> lootTableRewards) {
+
+        /**
+         * The same result for the same chapter at position {@code target}.
+         */
+        ChapterResult at(int target) {
+            if (target == index) {
+                return this;
+            }
+            ValidationPath from = chapterPath(index);
+            ValidationPath to = chapterPath(target);
+            return new ChapterResult(target,
+                    relocateIssues(schemaIssues, from, to),
+                    relocateIssues(issues, from, to),
+                    claims.stream()
+                            .map(claim -> new IdClaim(claim.type(), claim.id(), claim.path().relocate(from, to),
+                                    claim.position()))
+                            .toList(),
+                    questDependencies.stream()
+                            .map(dependencies -> new QuestDependencies(dependencies.path().relocate(from, to),
+                                    dependencies.entries()))
+                            .toList(),
+                    lootTableRewards.stream()
+                            .map(reward -> new LootTableRewardRef(reward.path().relocate(from, to), reward.value()))
+                            .toList());
+        }
+
+        private static List<ValidationIssue> relocateIssues(List<ValidationIssue> issues, ValidationPath from,
+                ValidationPath to) {
+            return issues.stream()
+                    .map(issue -> new ValidationIssue(issue.severity(), ValidationPath.relocate(issue.path(), from, to),
+                            issue.message()))
+                    .toList();
+        }
+    }
+
+    private static ValidationPath chapterPath(int index) {
+        return ValidationPath.root().property("chapters").index(index);
+    }
 }
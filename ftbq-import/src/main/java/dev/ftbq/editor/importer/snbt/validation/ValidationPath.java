@@ -30,6 +30,26 @@ final class ValidationPath {
         return new ValidationPath(value + "[" + index + "]");
     }
 
+    /**
+     * This path with the leading {@code from} replaced by {@code to}; unchanged when it does not start with
+     * {@code from}.
+     */
+    ValidationPath relocate(ValidationPath from, ValidationPath to) {
+        String relocated = relocate(value, from, to);
+        return relocated == value ? this : new ValidationPath(relocated);
+    }
+
+    static String relocate(String path, ValidationPath from, ValidationPath to) {
+        if (!path.startsWith(from.value)) {
+            return path;
+        }
+        String rest = path.substring(from.value.length());
+        if (!rest.isEmpty() && rest.charAt(0) != '.' && rest.charAt(0) != '[') {
+            return path;
+        }
+        return to.value + rest;
+    }
+
     @Override
     public String toString() {
         return value;
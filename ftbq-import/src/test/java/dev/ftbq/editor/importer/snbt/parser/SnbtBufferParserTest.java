@@ -0,0 +1,102 @@
+package dev.ftbq.editor.importer.snbt.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnbtBufferParserTest {
+
+    @Test
+    void matchesReferenceParserOnExamples() {
+        for (String name : List.of("complex_values.snbt", "valid_pack.snbt", "missing_icon_invalid.snbt",
+                "chapter_group_missing_ids_invalid.snbt")) {
+            String snbt = loadExample(name);
+            assertEquals(SnbtParser.parseRootCompound(snbt), SnbtBufferParser.parseRootCompound(snbt), name);
+        }
+    }
+
+    @Test
+    void classifiesBareWordsLikeReferenceParser() {
+        List<String> tokens = List.of("0", "-12", "+7", "127b", "128b", "-32768s", "40000s", "9223372036854775807",
+                "9223372036854775808", "12L", "1.5", "-0.0", ".5", "1.", "3.14159d", "6.022e23", "1e-7", "1E400",
+                "0.1f", "-2.5F", "16777217f", "1e5x", "1.0fd", "NaNd", "Infinityf", "Infinity", "TRUE", "False",
+                "diamond_sword", "minecraft:stone", "a/b", "b", "-", "1_000", "x#y", "12\u0663", "\u0661\u0662b");
+        for (String token : tokens) {
+            String snbt = "{v:" + token + "}";
+            Object expected = SnbtParser.parseRootCompound(snbt).get("v");
+            Object actual = SnbtBufferParser.parseRootCompound(snbt).get("v");
+            assertEquals(expected, actual, token);
+            assertEquals(expected.getClass(), actual.getClass(), token);
+        }
+    }
+
+    @Test
+    void reportsSameErrorsAsReferenceParser() {
+        for (String snbt : List.of("[1,2,3]", "{id:\"x\"} extra", "{a:1,}", "{a 1}", "{a:\"x", "{a:\"\\q\"}",
+                "{a:\"\\u12", "{a:/* open", "{a:1", "{a:}", "")) {
+            SnbtParseException expected = assertThrows(SnbtParseException.class, () -> SnbtParser.parseRootCompound(snbt));
+            SnbtParseException actual = assertThrows(SnbtParseException.class,
+                    () -> SnbtBufferParser.parseRootCompound(snbt));
+            assertEquals(expected.getMessage(), actual.getMessage(), snbt);
+        }
+        // The reference parser leaks a NumberFormatException here.
+        SnbtParseException invalidEscape = assertThrows(SnbtParseException.class,
+                () -> SnbtBufferParser.parseRootCompound("{a:\"\\u12\"}\"}"));
+        assertEquals("Invalid unicode escape at index 6", invalidEscape.getMessage());
+    }
+
+    @Test
+    void lexerExposesPrimitiveValuesAndInternsKeys() {
+        SnbtLexer lexer = SnbtLexer.of("{count:42s, ratio:0.25f, id:\"minecraft:stone\"} {count:1}");
+        lexer.expect('{');
+        String key = lexer.readKey();
+        lexer.expect(':');
+        assertEquals(SnbtLexer.ScalarType.SHORT, lexer.readScalar());
+        assertEquals(42L, lexer.longValue());
+        lexer.expect(',');
+        lexer.readKey();
+        lexer.expect(':');
+        lexer.skipWhitespace();
+        assertEquals(SnbtLexer.ScalarType.FLOAT, lexer.readScalar());
+        assertEquals(0.25d, lexer.doubleValue());
+        lexer.expect(',');
+        lexer.readKey();
+        lexer.expect(':');
+        assertEquals(SnbtLexer.ScalarType.STRING, lexer.readScalar());
+        assertEquals("minecraft:stone", lexer.stringValue());
+        lexer.expect('}');
+        lexer.skipWhitespace();
+        lexer.expect('{');
+        assertSame(key, lexer.readKey());
+    }
+
+    @Test
+    void parsesUtf8FilesWithoutIntermediateString(@TempDir Path tempDir) throws Exception {
+        String snbt = "{title:\"Caf\u00e9 \u2615 \ud83c\udf75\", note:'\u00fcber', list:[1b, 2b]}";
+        Path file = tempDir.resolve("quests.snbt");
+        Files.write(file, snbt.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Object> root = SnbtBufferParser.parseRootCompound(file);
+
+        assertEquals(SnbtParser.parseRootCompound(snbt), root);
+    }
+
+    private String loadExample(String name) {
+        try (var input = getClass().getResourceAsStream("/snbt/" + name)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing SNBT example: " + name);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to read SNBT example " + name, ex);
+        }
+    }
+}
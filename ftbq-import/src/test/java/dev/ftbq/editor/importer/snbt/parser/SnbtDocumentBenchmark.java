@@ -0,0 +1,71 @@
+package dev.ftbq.editor.importer.snbt.parser;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+
+/**
+ * Manual benchmark for round-tripping a large quest file through {@link SnbtDocument} with a handful of edited
+ * quests, compared with copying the file and with fully parsing it through {@link SnbtBufferParser}. Not part of
+ * the test suite; run the {@code main} method from the IDE or with
+ * {@code java -cp <test classpath> dev.ftbq.editor.importer.snbt.parser.SnbtDocumentBenchmark}.
+ * <p>
+ * Uses the synthetic file of {@link SnbtParserBenchmark}.
+ */
+public final class SnbtDocumentBenchmark {
+
+    private static final int EDITED_QUESTS = 5;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private SnbtDocumentBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path workDir = Files.createTempDirectory("ftbq-snbt-document-bench");
+        Path file = workDir.resolve("quests.snbt");
+        Path copy = workDir.resolve("copy.snbt");
+        try {
+            Files.writeString(file, SnbtParserBenchmark.generate(), StandardCharsets.UTF_8);
+            System.out.printf(Locale.ROOT, "Synthetic quest file: %,d bytes%n", Files.size(file));
+
+            measure("Files.copy", () -> Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING));
+            measure("SnbtBufferParser (parse only)", () -> SnbtBufferParser.parseRootCompound(file));
+            measure("SnbtDocument (" + EDITED_QUESTS + " quests edited)", () -> {
+                SnbtDocument document = SnbtDocument.read(file);
+                SnbtDocument.ListNode chapters = document.root().getList("chapters");
+                for (int i = 0; i < EDITED_QUESTS; i++) {
+                    SnbtDocument.ListNode quests = chapters.getCompound(i * chapters.size() / EDITED_QUESTS)
+                            .getList("quests");
+                    quests.getCompound(quests.size() / 2).put("title", "Edited quest " + i);
+                }
+                try (BufferedWriter out = Files.newBufferedWriter(copy, StandardCharsets.UTF_8)) {
+                    document.write(out);
+                }
+            });
+        } finally {
+            Files.deleteIfExists(copy);
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(workDir);
+        }
+    }
+
+    private interface Run {
+        void run() throws IOException;
+    }
+
+    private static void measure(String label, Run run) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            run.run();
+        }
+        System.out.printf(Locale.ROOT, "%-40s %8.1f ms/run%n", label, (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS);
+    }
+}
@@ -0,0 +1,189 @@
+package dev.ftbq.editor.importer.snbt.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnbtDocumentTest {
+
+    private static final String PACK = """
+            # exported by hand
+            {
+              id: "pack",
+              chapters: [
+                {
+                  id: "0001", // first chapter
+                  title: "Start",
+                  custom_flag: 1b,
+                  quests: [
+                    {id:"q1", title:"One", x:1.50d, tasks:[{item:"minecraft:stone"}]},
+                    {id:"q2", title:'Two', unknown:{nested:[1L, 2L]}}
+                  ]
+                },
+                {
+                  id: "0002",
+                  quests: []
+                }
+              ],
+              id: "duplicate"
+            }
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writesUneditedDocumentVerbatim() throws Exception {
+        SnbtDocument document = SnbtDocument.parse(PACK);
+        assertEquals(SnbtBufferParser.parseRootCompound(PACK), document.root().toValue());
+        assertEquals("duplicate", document.root().getString("id"));
+        assertFalse(document.isDirty());
+        assertEquals(PACK, document.toSnbt());
+
+        String crlf = PACK.replace("\n", "\r\n");
+        Path file = tempDir.resolve("data.snbt");
+        Files.writeString(file, crlf);
+        assertEquals(crlf, SnbtDocument.read(file).toSnbt());
+    }
+
+    @Test
+    void matchesBufferParserOnExamples() throws Exception {
+        for (String name : List.of("complex_values.snbt", "valid_pack.snbt", "missing_icon_invalid.snbt",
+                "chapter_group_missing_ids_invalid.snbt")) {
+            String snbt;
+            try (var input = getClass().getResourceAsStream("/snbt/" + name)) {
+                snbt = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            SnbtDocument document = SnbtDocument.parse(snbt);
+            assertEquals(SnbtBufferParser.parseRootCompound(snbt), document.root().toValue(), name);
+            assertEquals(snbt, document.toSnbt(), name);
+        }
+    }
+
+    @Test
+    void parsesSubtreesOnFirstAccess() {
+        SnbtDocument document = SnbtDocument.parse(PACK);
+        SnbtDocument.ListNode chapters = document.root().getList("chapters");
+        assertTrue(chapters.isParsed());
+        assertEquals(2, chapters.size());
+        SnbtDocument.Compound first = chapters.getCompound(0);
+        SnbtDocument.Compound second = chapters.getCompound(1);
+        assertFalse(first.isParsed());
+        assertFalse(second.isParsed());
+
+        assertEquals("0002", second.getString("id"));
+        assertTrue(second.isParsed());
+        assertTrue(second.getList("quests").isParsed());
+        assertFalse(first.isParsed());
+
+        SnbtDocument.Compound quest = first.getList("quests").getCompound(1);
+        assertFalse(quest.isParsed());
+        assertEquals("Two", quest.getString("title"));
+        assertFalse(first.getList("quests").getCompound(0).isParsed());
+    }
+
+    @Test
+    void rewritesOnlyEditedSubtrees() {
+        SnbtDocument document = SnbtDocument.parse(PACK);
+        SnbtDocument.Compound first = document.root().getList("chapters").getCompound(0);
+        SnbtDocument.ListNode quests = first.getList("quests");
+        quests.getCompound(1).put("title", "Two \"revised\"");
+        first.remove("custom_flag");
+
+        assertTrue(document.isDirty());
+        assertTrue(first.isDirty());
+        assertFalse(quests.getCompound(0).isDirty());
+        assertFalse(document.root().getList("chapters").getCompound(1).isDirty());
+        assertEquals(PACK
+                .replace("title:'Two'", "title:\"Two \\\"revised\\\"\"")
+                .replace("      custom_flag: 1b,\n", ""), document.toSnbt());
+    }
+
+    @Test
+    void indentsAddedEntriesLikeTheirSiblings() {
+        SnbtDocument document = SnbtDocument.parse(PACK);
+        SnbtDocument.ListNode chapters = document.root().getList("chapters");
+        SnbtDocument.Compound first = chapters.getCompound(0);
+        first.put("subtitle", "New");
+        first.getList("quests").getCompound(0).put("hide", true);
+
+        Map<String, Object> quest = new LinkedHashMap<>();
+        quest.put("id", "q3");
+        quest.put("size", 1.5);
+        quest.put("tasks", List.of());
+        chapters.getCompound(1).getList("quests").add(quest);
+
+        String expected = PACK
+                .replace("tasks:[{item:\"minecraft:stone\"}]}", "tasks:[{item:\"minecraft:stone\"}], hide:true}")
+                .replace("      ]\n    },", "      ],\n      subtitle:\"New\"\n    },")
+                .replace("      quests: []", "      quests: [\n"
+                        + "        {\n"
+                        + "          id:\"q3\",\n"
+                        + "          size:1.5d,\n"
+                        + "          tasks:[]\n"
+                        + "        }\n"
+                        + "      ]");
+        assertEquals(expected, document.toSnbt());
+        assertEquals(SnbtBufferParser.parseRootCompound(expected), document.root().toValue());
+    }
+
+    @Test
+    void movesNodesBetweenDocumentsWithTheirSourceText() {
+        SnbtDocument source = SnbtDocument.parse(PACK);
+        SnbtDocument target = SnbtDocument.parse("{chapters:[]}");
+        SnbtDocument.ListNode quests = source.root().getList("chapters").getCompound(0).getList("quests");
+        SnbtDocument.Node quest = quests.get(1);
+
+        assertThrows(IllegalArgumentException.class, () -> target.root().getList("chapters").add(quest));
+        assertSame(quest, quests.remove(1));
+        target.root().getList("chapters").add(quest);
+        assertNull(quests.getCompound(0).get("missing"));
+
+        assertEquals("{chapters:[\n    {id:\"q2\", title:'Two', unknown:{nested:[1L, 2L]}}\n  ]}", target.toSnbt());
+        assertTrue(source.toSnbt().contains("tasks:[{item:\"minecraft:stone\"}]}\n      ]"));
+    }
+
+    @Test
+    void writesNumbersAsPlainDecimals() {
+        assertEquals("10000000000.0d", SnbtDocument.Value.of(1e10).text());
+        assertEquals("0.000015d", SnbtDocument.Value.of(1.5e-5).text());
+        assertEquals("-2.0d", SnbtDocument.Value.of(-2.0).text());
+        assertEquals("0.25f", SnbtDocument.Value.of(0.25f).text());
+        assertEquals("100000000.0f", SnbtDocument.Value.of(1e8f).text());
+        assertThrows(IllegalArgumentException.class, () -> SnbtDocument.Value.of(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> SnbtDocument.Value.of(Float.POSITIVE_INFINITY));
+
+        SnbtDocument document = SnbtDocument.parse("{}");
+        document.root().put("big", 1e10);
+        document.root().put("small", 1.5e-5);
+        SnbtDocument reparsed = SnbtDocument.parse(document.toSnbt());
+        assertEquals(1e10, reparsed.root().get("big").toValue());
+        assertEquals(1.5e-5, reparsed.root().get("small").toValue());
+    }
+
+    @Test
+    void rejectsCyclesAndInvalidInput() {
+        SnbtDocument document = SnbtDocument.parse("{a:{b:[]}}");
+        SnbtDocument.Compound a = document.root().getCompound("a");
+        a.getList("b").add(1);
+        assertSame(a, document.root().remove("a"));
+        assertNull(a.parent());
+        assertThrows(IllegalArgumentException.class, () -> a.getList("b").add(a));
+
+        assertThrows(SnbtParseException.class, () -> SnbtDocument.parse("[1]"));
+        assertThrows(SnbtParseException.class, () -> SnbtDocument.parse("{a:[1,}"));
+        assertThrows(SnbtParseException.class, () -> SnbtDocument.parse("{a:1} b"));
+    }
+}
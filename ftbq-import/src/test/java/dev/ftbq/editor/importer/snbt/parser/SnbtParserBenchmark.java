@@ -0,0 +1,118 @@
+package dev.ftbq.editor.importer.snbt.parser;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Manual benchmark comparing {@link SnbtParser} with {@link SnbtBufferParser} on a generated multi-megabyte
+ * quest file. Not part of the test suite; run the {@code main} method from the IDE or with
+ * {@code java -cp <test classpath> dev.ftbq.editor.importer.snbt.parser.SnbtParserBenchmark}.
+ * <p>
+ * The file resembles a large exported pack: many chapters of quests, each with item tasks and rewards,
+ * numeric suffixes on most values, multi-line descriptions and repeated keys.
+ */
+public final class SnbtParserBenchmark {
+
+    private static final int CHAPTERS = 60;
+    private static final int QUESTS_PER_CHAPTER = 250;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private SnbtParserBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path workDir = Files.createTempDirectory("ftbq-snbt-bench");
+        Path file = workDir.resolve("quests.snbt");
+        try {
+            Files.writeString(file, generate(), StandardCharsets.UTF_8);
+            System.out.printf(Locale.ROOT, "Synthetic quest file: %,d bytes%n", Files.size(file));
+
+            measure("SnbtParser (readString + String)", () -> SnbtParser.parseRootCompound(
+                    Files.readString(file, StandardCharsets.UTF_8)));
+            measure("SnbtBufferParser (readString + String)", () -> SnbtBufferParser.parseRootCompound(
+                    Files.readString(file, StandardCharsets.UTF_8)));
+            measure("SnbtBufferParser (file)", () -> SnbtBufferParser.parseRootCompound(file));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(workDir);
+        }
+    }
+
+    private interface ParseRun {
+        Map<String, Object> parse() throws IOException;
+    }
+
+    private static void measure(String label, ParseRun run) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run.parse();
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long totalBytes = 0;
+        long totalNanos = 0;
+        int keys = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            Map<String, Object> root = run.parse();
+            totalNanos += System.nanoTime() - start;
+            totalBytes += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            keys += root.size();
+        }
+        System.out.printf(Locale.ROOT, "%-40s %8.1f ms/parse %10.1f MB allocated/parse (%d)%n", label,
+                totalNanos / 1e6 / MEASURED_ROUNDS, totalBytes / 1024.0 / 1024.0 / MEASURED_ROUNDS, keys);
+    }
+
+    static String generate() {
+        StringBuilder out = new StringBuilder(8 << 20);
+        out.append("{\n\tid: \"benchmark_pack\",\n\ttitle: \"Benchmark Pack\",\n\tfile_version: 13,\n\tchapters: [\n");
+        for (int c = 0; c < CHAPTERS; c++) {
+            out.append(c == 0 ? "" : ",\n").append("\t\t{\n")
+                    .append("\t\t\tid: \"").append(hexId(c * 7919L)).append("\",\n")
+                    .append("\t\t\ttitle: \"Chapter ").append(c).append("\",\n")
+                    .append("\t\t\torder_index: ").append(c).append(",\n")
+                    .append("\t\t\tquests: [\n");
+            for (int q = 0; q < QUESTS_PER_CHAPTER; q++) {
+                int n = c * QUESTS_PER_CHAPTER + q;
+                out.append(q == 0 ? "" : ",\n").append("\t\t\t\t{\n")
+                        .append("\t\t\t\t\tid: \"").append(hexId(n * 104729L)).append("\",\n")
+                        .append("\t\t\t\t\ttitle: \"Quest ").append(n).append("\",\n")
+                        .append("\t\t\t\t\tx: ").append(q % 20).append(".5d,\n")
+                        .append("\t\t\t\t\ty: -").append(q / 20).append(".0d,\n")
+                        .append("\t\t\t\t\tshape: \"hexagon\",\n")
+                        .append("\t\t\t\t\tsize: 1.25d,\n")
+                        .append("\t\t\t\t\tdescription: [\"Collect the items below. \\\"Quoted\\\" text\", \"\", ")
+                        .append("\"Second line for quest ").append(n).append("\"],\n")
+                        .append("\t\t\t\t\tdependencies: [\"").append(hexId(Math.max(0, n - 1) * 104729L)).append("\"],\n")
+                        .append("\t\t\t\t\ttasks: [{\n")
+                        .append("\t\t\t\t\t\tid: \"").append(hexId(n * 31L)).append("\",\n")
+                        .append("\t\t\t\t\t\ttype: \"item\",\n")
+                        .append("\t\t\t\t\t\titem: { id: \"minecraft:iron_ingot\", Count: ").append(1 + q % 64).append("b },\n")
+                        .append("\t\t\t\t\t\tcount: ").append(16 + q % 48).append("L,\n")
+                        .append("\t\t\t\t\t\tconsume_items: false\n")
+                        .append("\t\t\t\t\t}],\n")
+                        .append("\t\t\t\t\trewards: [\n")
+                        .append("\t\t\t\t\t\t{ id: \"").append(hexId(n * 37L))
+                        .append("\", type: \"item\", item: { id: \"minecraft:diamond\", Count: 2b } },\n")
+                        .append("\t\t\t\t\t\t{ id: \"").append(hexId(n * 41L)).append("\", type: \"xp\", xp: ")
+                        .append(10 + q).append(" }\n")
+                        .append("\t\t\t\t\t]\n")
+                        .append("\t\t\t\t}");
+            }
+            out.append("\n\t\t\t]\n\t\t}");
+        }
+        out.append("\n\t]\n}\n");
+        return out.toString();
+    }
+
+    private static String hexId(long value) {
+        return String.format(Locale.ROOT, "%016X", value);
+    }
+}
@@ -0,0 +1,91 @@
+package dev.ftbq.editor.importer.snbt.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SnbtReaderTest {
+
+    @Test
+    void emitsEventsWithPaths() {
+        SnbtReader reader = SnbtReader.of("{id:\"pack\", chapters:[{id:1L, quests:[]}], flag:true}");
+        List<String> events = new ArrayList<>();
+        SnbtReader.Event event;
+        while ((event = reader.next()) != SnbtReader.Event.END_DOCUMENT) {
+            String detail = switch (event) {
+                case KEY -> " " + reader.key();
+                case VALUE -> " " + reader.value();
+                default -> "";
+            };
+            events.add(event + detail + " @" + reader.path());
+        }
+
+        assertEquals(List.of(
+                "BEGIN_COMPOUND @$",
+                "KEY id @$.id",
+                "VALUE pack @$.id",
+                "KEY chapters @$.chapters",
+                "BEGIN_LIST @$.chapters",
+                "BEGIN_COMPOUND @$.chapters[0]",
+                "KEY id @$.chapters[0].id",
+                "VALUE 1 @$.chapters[0].id",
+                "KEY quests @$.chapters[0].quests",
+                "BEGIN_LIST @$.chapters[0].quests",
+                "END_LIST @$.chapters[0].quests",
+                "END_COMPOUND @$.chapters[0]",
+                "END_LIST @$.chapters",
+                "KEY flag @$.flag",
+                "VALUE true @$.flag",
+                "END_COMPOUND @$"), events);
+    }
+
+    @Test
+    void skipsSubtreesAfterKeyOrBegin() {
+        SnbtReader reader = SnbtReader.of(
+                "{big:{a:[1,2,{b:'}]'}], c:\"x\\\"]\"}, list:[[1],[2 /* ] */]], # ]\n last:5b}");
+        assertEquals(SnbtReader.Event.BEGIN_COMPOUND, reader.next());
+        assertEquals(SnbtReader.Event.KEY, reader.next());
+        reader.skipValue();
+        assertEquals(SnbtReader.Event.KEY, reader.next());
+        assertEquals("list", reader.key());
+        assertEquals(SnbtReader.Event.BEGIN_LIST, reader.next());
+        assertEquals(SnbtReader.Event.BEGIN_LIST, reader.next());
+        reader.skipValue();
+        assertEquals(SnbtReader.Event.END_LIST, reader.current());
+        assertEquals(SnbtReader.Event.BEGIN_LIST, reader.next());
+        assertEquals("$.list[1]", reader.path());
+        reader.skipValue();
+        assertEquals(SnbtReader.Event.END_LIST, reader.next());
+        assertEquals(SnbtReader.Event.KEY, reader.next());
+        assertEquals(SnbtReader.Event.VALUE, reader.next());
+        assertEquals(SnbtLexer.ScalarType.BYTE, reader.scalarType());
+        assertEquals(5L, reader.longValue());
+        assertEquals(SnbtReader.Event.END_COMPOUND, reader.next());
+        assertEquals(SnbtReader.Event.END_DOCUMENT, reader.next());
+    }
+
+    @Test
+    void rejectsMalformedDocuments() {
+        assertTrue(assertThrows(SnbtParseException.class, () -> drain("[1]")).getMessage()
+                .contains("Root of SNBT must be a compound"));
+        assertTrue(assertThrows(SnbtParseException.class, () -> drain("{a:1} extra")).getMessage()
+                .contains("Trailing content"));
+        assertEquals("Expected '}' at end of input",
+                assertThrows(SnbtParseException.class, () -> drain("{a:{b:1}")).getMessage());
+        SnbtReader reader = SnbtReader.of("{a:[1,2}");
+        reader.next();
+        reader.next();
+        assertThrows(SnbtParseException.class, reader::skipValue);
+    }
+
+    private static void drain(String snbt) {
+        SnbtReader reader = SnbtReader.of(snbt);
+        while (reader.next() != SnbtReader.Event.END_DOCUMENT) {
+            // consume
+        }
+    }
+}
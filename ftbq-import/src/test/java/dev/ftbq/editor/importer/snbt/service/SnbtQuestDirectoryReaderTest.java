@@ -0,0 +1,141 @@
+package dev.ftbq.editor.importer.snbt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.ftbq.editor.importer.snbt.model.ImportedChapter;
+import dev.ftbq.editor.importer.snbt.model.ImportedQuest;
+import dev.ftbq.editor.importer.snbt.model.ImportedQuestPack;
+import dev.ftbq.editor.importer.snbt.model.QuestPackSkim;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnbtQuestDirectoryReaderTest {
+
+    @Test
+    void readsSplitLayoutInDeterministicOrder(@TempDir Path tempDir) throws Exception {
+        Path root = tempDir.resolve("config/ftbquests/quests");
+        writeSplitPack(root);
+
+        ImportedQuestPack pack = new SnbtQuestDirectoryReader().read(tempDir);
+
+        assertEquals("Split Pack", pack.title());
+        assertEquals(13L, pack.schemaVersion());
+        assertEquals(List.of("BBBB", "AAAA"), pack.chapters().stream().map(ImportedChapter::id).toList());
+        ImportedChapter first = pack.chapters().get(0);
+        assertEquals("Getting Started", first.title());
+        ImportedQuest quest = first.quests().get(0);
+        assertEquals("Chop a tree", quest.title());
+        assertEquals("Punch it.\nRepeatedly.", quest.description());
+        assertEquals("Inline", pack.chapters().get(1).title());
+        assertEquals(1, pack.chapterGroups().size());
+        assertEquals("Basics", pack.chapterGroups().get(0).title());
+        assertEquals(List.of("BBBB", "AAAA"), pack.chapterGroups().get(0).chapterIds());
+        assertEquals(List.of("minecraft:book", "minecraft:textures/gui/default.png", "minecraft:oak_log",
+                "minecraft:stone"), List.copyOf(pack.referencedAssets()));
+        assertEquals(3, pack.warnings().size());
+        assertTrue(pack.warnings().get(0).startsWith("Skipped chapters/c_broken.snbt: "),
+                () -> pack.warnings().toString());
+        assertEquals("Quest 2222 has no tasks.", pack.warnings().get(1));
+        assertEquals("Reward tables are not imported (1 found).", pack.warnings().get(2));
+    }
+
+    @Test
+    void resultDoesNotDependOnExecutor(@TempDir Path tempDir) throws Exception {
+        writeSplitPack(tempDir);
+        for (int i = 0; i < 20; i++) {
+            writeChapter(tempDir.resolve("chapters/gen_" + i + ".snbt"), "G" + i, i % 3, "Q" + i);
+        }
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        ExecutorService many = Executors.newFixedThreadPool(8);
+        try {
+            ImportedQuestPack serial = new SnbtQuestDirectoryReader(new SnbtQuestPackReader(), single).read(tempDir);
+            ImportedQuestPack parallel = new SnbtQuestDirectoryReader(new SnbtQuestPackReader(), many).read(tempDir);
+            assertEquals(serial, parallel);
+            assertEquals(List.of("BBBB", "G0", "G12"), serial.chapters().subList(0, 3).stream()
+                    .map(ImportedChapter::id).toList());
+        } finally {
+            single.shutdownNow();
+            many.shutdownNow();
+        }
+    }
+
+    @Test
+    void readsSingleDataFileLikePackReader(@TempDir Path tempDir) throws Exception {
+        String snbt = loadExample("valid_pack.snbt");
+        write(tempDir.resolve("questbook/data.snbt"), snbt);
+
+        SnbtQuestDirectoryReader reader = new SnbtQuestDirectoryReader();
+        ImportedQuestPack expected = new SnbtQuestPackReader().read(snbt);
+
+        assertEquals(expected, reader.read(tempDir));
+        assertEquals(QuestPackSkim.of(expected), reader.skim(tempDir));
+    }
+
+    @Test
+    void reportsMissingAndUnreadablePacks(@TempDir Path tempDir) throws Exception {
+        SnbtQuestDirectoryReader reader = new SnbtQuestDirectoryReader();
+        assertThrows(NoSuchFileException.class, () -> reader.read(tempDir));
+
+        write(tempDir.resolve("data.snbt"), "{ chapters: [");
+        assertThrows(RuntimeException.class, () -> reader.read(tempDir));
+    }
+
+    private static void writeSplitPack(Path root) throws IOException {
+        write(root.resolve("data.snbt"), "{ version: 13, title: \"Split Pack\" }");
+        write(root.resolve("chapter_groups.snbt"), "{ chapter_groups: [{ id: \"GRP1\" }] }");
+        write(root.resolve("chapters/a_second.snbt"), """
+                {
+                  id: "AAAA", group: "GRP1", order_index: 1, title: "Inline",
+                  quests: [{ id: "2222", icon: "minecraft:stone", tasks: [] }]
+                }
+                """);
+        write(root.resolve("chapters/b_first.snbt"), """
+                {
+                  id: "BBBB", group: "GRP1", order_index: 0,
+                  quests: [{ id: "1111", icon: "minecraft:oak_log", tasks: [{ id: "T1", type: "item" }] }]
+                }
+                """);
+        write(root.resolve("chapters/c_broken.snbt"), "{ id: \"CCCC\", quests: [");
+        write(root.resolve("reward_tables/loot.snbt"), "{ id: \"LOOT\", rewards: [] }");
+        write(root.resolve("lang/en_us.snbt"), """
+                {
+                  chapter.BBBB.title: "Getting Started",
+                  chapter.AAAA.title: "Ignored, the chapter has its own title",
+                  chapter_group.GRP1.title: "Basics",
+                  quest.1111.title: "Chop a tree",
+                  quest.1111.quest_desc: ["Punch it.", "Repeatedly."]
+                }
+                """);
+    }
+
+    private static void writeChapter(Path file, String id, int order, String questId) throws IOException {
+        write(file, "{ id: \"" + id + "\", order_index: " + order
+                + ", quests: [{ id: \"" + questId + "\", tasks: [{ type: \"xp\" }] }] }");
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private String loadExample(String name) {
+        try (var input = getClass().getResourceAsStream("/snbt/" + name)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing SNBT example: " + name);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to read SNBT example " + name, ex);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package dev.ftbq.editor.importer.snbt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+import dev.ftbq.editor.domain.Chapter;
+import dev.ftbq.editor.domain.ChapterGroup;
+import dev.ftbq.editor.domain.Dependency;
+import dev.ftbq.editor.domain.ItemRef;
+import dev.ftbq.editor.domain.ItemTask;
+import dev.ftbq.editor.domain.Quest;
+import dev.ftbq.editor.domain.QuestFile;
+import dev.ftbq.editor.domain.Visibility;
+import dev.ftbq.editor.importer.snbt.model.ImportConflictPolicy;
+import dev.ftbq.editor.importer.snbt.model.ImportOptions;
+import dev.ftbq.editor.importer.snbt.model.ImportedChapter;
+import dev.ftbq.editor.importer.snbt.model.ImportedChapterGroup;
+import dev.ftbq.editor.importer.snbt.model.ImportedDependency;
+import dev.ftbq.editor.importer.snbt.model.ImportedQuest;
+import dev.ftbq.editor.importer.snbt.model.ImportedQuestPack;
+import dev.ftbq.editor.importer.snbt.model.ImportedTask;
+import dev.ftbq.editor.importer.snbt.model.QuestImportResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SnbtQuestImporterTest {
+
+    private static final int CHAPTERS = 50;
+    private static final int QUESTS_PER_CHAPTER = 100;
+
+    private final SnbtQuestImporter importer = new SnbtQuestImporter();
+
+    @Test
+    void mergesLargePacksUnderEveryPolicyWithinBudget() {
+        // 5000 existing quests in c0..c49; 5000 imported quests in c25..c74, half of them conflicting.
+        // Renames also cover the conflicting chapter group "main".
+        QuestFile current = existingFile();
+        ImportedQuestPack imported = importedPack();
+
+        for (ImportConflictPolicy policy : ImportConflictPolicy.values()) {
+            ImportOptions options = ImportOptions.builder().chapterPolicy(policy).questPolicy(policy).build();
+
+            QuestImportResult result = assertTimeout(Duration.ofSeconds(5), () -> importer.merge(current, imported, options),
+                    () -> "Merging 5k quests into 5k quests took too long with " + policy);
+
+            QuestFile merged = result.questFile();
+            int questCount = merged.chapters().stream().mapToInt(chapter -> chapter.quests().size()).sum();
+            switch (policy) {
+                case SKIP -> {
+                    assertEquals(75, merged.chapters().size());
+                    assertEquals(7_500, questCount);
+                    assertEquals(25, result.summary().addedChapters().size());
+                }
+                case MERGE_BY_ID -> {
+                    assertEquals(75, merged.chapters().size());
+                    assertEquals(7_500, questCount);
+                    assertEquals(25, result.summary().mergedChapters().size());
+                    assertEquals("Imported 2500", merged.chapters().get(25).quests().get(0).title());
+                    assertEquals(List.of(new Dependency("q2500", true)),
+                            merged.chapters().get(25).quests().get(1).dependencies());
+                }
+                case RENAME -> {
+                    assertEquals(100, merged.chapters().size());
+                    assertEquals(10_000, questCount);
+                    assertEquals(2_526, result.summary().renamedIds().size());
+                    Chapter renamed = merged.chapters().get(50);
+                    assertEquals("c25_import", renamed.id());
+                    assertEquals("q2500_import", renamed.quests().get(0).id());
+                    assertEquals(List.of(new Dependency("q2500_import", true)), renamed.quests().get(1).dependencies());
+                }
+                case NEW_IDS -> {
+                    assertEquals(100, merged.chapters().size());
+                    assertEquals(10_000, questCount);
+                    assertEquals(2_526, result.summary().renamedIds().size());
+                }
+            }
+            assertEquals(questCount, merged.chapters().stream()
+                    .flatMap(chapter -> chapter.quests().stream())
+                    .map(Quest::id)
+                    .distinct()
+                    .count());
+        }
+    }
+
+    private static QuestFile existingFile() {
+        QuestFile.Builder file = QuestFile.builder().id("existing").title("Existing");
+        ChapterGroup.Builder group = ChapterGroup.builder().id("main").title("Main");
+        for (int c = 0; c < CHAPTERS; c++) {
+            Chapter.Builder chapter = Chapter.builder().id("c" + c).title("Chapter " + c);
+            for (int q = 0; q < QUESTS_PER_CHAPTER; q++) {
+                chapter.addQuest(Quest.builder()
+                        .id("q" + (c * QUESTS_PER_CHAPTER + q))
+                        .title("Existing " + (c * QUESTS_PER_CHAPTER + q))
+                        .addTask(new ItemTask(new ItemRef("minecraft:stone", 1), true))
+                        .build());
+            }
+            file.addChapter(chapter.build());
+            group.addChapterId("c" + c);
+        }
+        return file.addChapterGroup(group.build()).build();
+    }
+
+    private static ImportedQuestPack importedPack() {
+        List<ImportedChapter> chapters = new ArrayList<>();
+        List<String> chapterIds = new ArrayList<>();
+        for (int c = CHAPTERS / 2; c < CHAPTERS + CHAPTERS / 2; c++) {
+            List<ImportedQuest> quests = new ArrayList<>();
+            for (int q = 0; q < QUESTS_PER_CHAPTER; q++) {
+                int id = c * QUESTS_PER_CHAPTER + q;
+                List<ImportedDependency> dependencies = q == 0 ? List.of() : List.of(new ImportedDependency("q" + (id - 1), true));
+                quests.add(new ImportedQuest("q" + id, "Imported " + id, "", "minecraft:stone", Visibility.VISIBLE,
+                        List.of(new ImportedTask("item", Map.of("item", Map.of("id", "minecraft:dirt")))),
+                        List.of(), dependencies, Map.of()));
+            }
+            chapters.add(new ImportedChapter("c" + c, "Imported chapter " + c, "", "main", "minecraft:book",
+                    "minecraft:textures/gui/default.png", Visibility.VISIBLE, quests, List.of(), List.of(), Map.of()));
+            chapterIds.add("c" + c);
+        }
+        List<ImportedChapterGroup> groups = List.of(
+                new ImportedChapterGroup("main", "Main", "minecraft:book", chapterIds, Visibility.VISIBLE));
+        return new ImportedQuestPack("imported", "Imported", 13L, groups, chapters, new LinkedHashSet<>(), List.of());
+    }
+}
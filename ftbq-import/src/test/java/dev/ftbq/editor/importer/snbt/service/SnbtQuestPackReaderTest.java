@@ -0,0 +1,88 @@
+package dev.ftbq.editor.importer.snbt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.ftbq.editor.importer.snbt.model.ImportedChapter;
+import dev.ftbq.editor.importer.snbt.model.ImportedQuest;
+import dev.ftbq.editor.importer.snbt.model.ImportedQuestPack;
+import dev.ftbq.editor.importer.snbt.model.QuestPackSkim;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnbtQuestPackReaderTest {
+
+    private final SnbtQuestPackReader reader = new SnbtQuestPackReader();
+
+    @Test
+    void skimMatchesFullReadOnExamples() {
+        for (String name : List.of("valid_pack.snbt", "chapter_group_missing_ids_invalid.snbt")) {
+            String snbt = loadExample(name);
+            assertSkimMatches(reader.read(snbt), reader.skim(snbt));
+        }
+    }
+
+    @Test
+    void skimHandlesNumericIdsSingleCompoundsAndIgnoredSubtrees(@TempDir Path tempDir) throws Exception {
+        String snbt = """
+                {
+                  title: "Pack",
+                  version: "7",
+                  extra: {chapters: [{id: "not-a-chapter"}], deep: [[[{}]]]},
+                  chapter_groups: {id: 3, chapters: "a"},
+                  chapters: [
+                    {id: 12L, quests: {id: 99, tasks: []}},
+                    {title: "Untitled", quests: [{id: "q1", tasks: [{type: "item"}, {type: "xp"}], rewards: {type: "xp"}}]}
+                  ]
+                }
+                """;
+        Path file = tempDir.resolve("data.snbt");
+        Files.writeString(file, snbt, StandardCharsets.UTF_8);
+
+        QuestPackSkim skim = reader.skim(file);
+
+        assertSkimMatches(reader.read(snbt), skim);
+        assertEquals(7L, skim.schemaVersion());
+        assertEquals(List.of("99", "q1"), skim.chapters().stream().flatMap(c -> c.questIds().stream()).toList());
+        assertEquals(2, skim.taskCount());
+        assertEquals(1, skim.rewardCount());
+    }
+
+    private static void assertSkimMatches(ImportedQuestPack pack, QuestPackSkim skim) {
+        assertEquals(pack.id(), skim.id());
+        assertEquals(pack.title(), skim.title());
+        assertEquals(pack.schemaVersion(), skim.schemaVersion());
+        assertEquals(pack.chapterGroups().size(), skim.chapterGroupCount());
+        assertEquals(pack.warnings(), skim.warnings());
+        List<String> chapters = new ArrayList<>();
+        int tasks = 0;
+        int rewards = 0;
+        for (ImportedChapter chapter : pack.chapters()) {
+            chapters.add(chapter.id() + "/" + chapter.title() + "/" + chapter.quests().stream().map(ImportedQuest::id).toList());
+            for (ImportedQuest quest : chapter.quests()) {
+                tasks += quest.tasks().size();
+                rewards += quest.rewards().size();
+            }
+        }
+        assertEquals(chapters, skim.chapters().stream()
+                .map(chapter -> chapter.id() + "/" + chapter.title() + "/" + chapter.questIds())
+                .toList());
+        assertEquals(tasks, skim.taskCount());
+        assertEquals(rewards, skim.rewardCount());
+    }
+
+    private String loadExample(String name) {
+        try (var input = getClass().getResourceAsStream("/snbt/" + name)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing SNBT example: " + name);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to read SNBT example " + name, ex);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package dev.ftbq.editor.importer.snbt.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import dev.ftbq.editor.importer.snbt.parser.SnbtBufferParser;
+import dev.ftbq.editor.validation.ValidationIssue;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SnbtSchemaCompilerTest {
+
+    private static final List<Object> REPLACEMENTS = List.of("", "  ", "minecraft:stone", "Not An Id", "item",
+            "hidden", 7, 2.5d, true, List.of(), List.of("x"), Map.of(), Map.of("id", "minecraft:dirt"));
+
+    @Test
+    void compiledSchemaReportsLikeInterpretedSchema() {
+        List<Object> documents = new ArrayList<>();
+        for (String name : List.of("valid_pack.snbt", "missing_icon_invalid.snbt", "chapter_group_missing_ids_invalid.snbt")) {
+            documents.add(SnbtBufferParser.parseRootCompound(loadExample(name)));
+        }
+        Map<String, Object> base = SnbtBufferParser.parseRootCompound(loadExample("valid_pack.snbt"));
+        Random random = new Random(43);
+        for (int i = 0; i < 500; i++) {
+            Object mutated = copy(base);
+            for (int m = 0; m < 1 + random.nextInt(4); m++) {
+                mutate(mutated, random);
+            }
+            documents.add(mutated);
+        }
+        documents.add("not a compound");
+        documents.add(Map.of(1, "numeric key", "id", "x"));
+
+        for (SnbtSchemaNode schema : List.of(SnbtSchemas.questPack(), SnbtSchemas.questPackShell())) {
+            SnbtSchemaValidator validator = new SnbtSchemaValidator(schema);
+            for (Object document : documents) {
+                List<ValidationIssue> expected = new ArrayList<>();
+                schema.validate(document, ValidationPath.root(), expected);
+                assertEquals(expected, validator.validate(document), () -> "Mismatch for " + document);
+            }
+        }
+    }
+
+    @Test
+    void compilesEachSchemaOnce() {
+        assertSame(SnbtSchemaCompiler.compile(SnbtSchemas.questPack()), SnbtSchemaCompiler.compile(SnbtSchemas.questPack()));
+    }
+
+    @Test
+    void nestedPathsMatchValidationPath() {
+        PathCursor cursor = new PathCursor(ValidationPath.root().property("chapters").index(3));
+        cursor.push("quests");
+        cursor.push(12);
+        cursor.push("tasks");
+        assertEquals(ValidationPath.root().property("chapters").index(3).property("quests").index(12).property("tasks")
+                .toString(), cursor.toString());
+        cursor.pop();
+        cursor.pop();
+        cursor.pop();
+        assertEquals("$.chapters[3]", cursor.toString());
+    }
+
+    /**
+     * Replaces, removes or nulls one randomly chosen value somewhere in the tree.
+     */
+    @SuppressWarnings("unchecked")
+    private static void mutate(Object node, Random random) {
+        while (true) {
+            if (node instanceof Map<?, ?> raw && !raw.isEmpty()) {
+                Map<String, Object> map = (Map<String, Object>) raw;
+                List<String> keys = new ArrayList<>(map.keySet());
+                String key = keys.get(random.nextInt(keys.size()));
+                Object child = map.get(key);
+                if ((child instanceof Map<?, ?> || child instanceof List<?>) && random.nextInt(3) > 0) {
+                    node = child;
+                    continue;
+                }
+                switch (random.nextInt(4)) {
+                    case 0 -> map.remove(key);
+                    case 1 -> map.put(key, null);
+                    default -> map.put(key, copy(REPLACEMENTS.get(random.nextInt(REPLACEMENTS.size()))));
+                }
+                return;
+            }
+            if (node instanceof List<?> raw && !raw.isEmpty()) {
+                List<Object> list = (List<Object>) raw;
+                int index = random.nextInt(list.size());
+                Object child = list.get(index);
+                if ((child instanceof Map<?, ?> || child instanceof List<?>) && random.nextInt(3) > 0) {
+                    node = child;
+                    continue;
+                }
+                list.set(index, copy(REPLACEMENTS.get(random.nextInt(REPLACEMENTS.size()))));
+                return;
+            }
+            return;
+        }
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, child) -> copy.put(String.valueOf(key), copy(child)));
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>();
+            for (Object child : list) {
+                copy.add(copy(child));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    private String loadExample(String name) {
+        try (var input = getClass().getResourceAsStream("/snbt/" + name)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing SNBT example: " + name);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to read SNBT example " + name, ex);
+        }
+    }
+}
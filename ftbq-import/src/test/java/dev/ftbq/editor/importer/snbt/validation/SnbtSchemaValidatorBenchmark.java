@@ -0,0 +1,98 @@
+package dev.ftbq.editor.importer.snbt.validation;
+
+import dev.ftbq.editor.importer.snbt.parser.SnbtBufferParser;
+import dev.ftbq.editor.validation.ValidationIssue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Manual benchmark comparing the interpreted quest pack schema ({@link SnbtSchemaNode#validate}) with the
+ * compiled validator behind {@link SnbtSchemaValidator}. Not part of the test suite; run the {@code main}
+ * method from the IDE or with
+ * {@code java -cp <test classpath> dev.ftbq.editor.importer.snbt.validation.SnbtSchemaValidatorBenchmark}.
+ * <p>
+ * Throughput is reported in visited tree nodes (compounds, lists and scalars) per second, once for a valid
+ * pack and once for a pack where every quest has a few issues.
+ */
+public final class SnbtSchemaValidatorBenchmark {
+
+    private static final int CHAPTERS = 60;
+    private static final int QUESTS_PER_CHAPTER = 250;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private SnbtSchemaValidatorBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        SnbtSchemaNode schema = SnbtSchemas.questPack();
+        SnbtSchemaValidator compiled = new SnbtSchemaValidator(schema);
+        for (boolean broken : new boolean[] {false, true}) {
+            Map<String, Object> pack = SnbtBufferParser.parseRootCompound(generate(broken));
+            long nodes = countNodes(pack);
+            System.out.printf(Locale.ROOT, "%s pack: %,d nodes%n", broken ? "Invalid" : "Valid", nodes);
+            measure("interpreted", nodes, () -> {
+                List<ValidationIssue> issues = new ArrayList<>();
+                schema.validate(pack, ValidationPath.root(), issues);
+                return issues.size();
+            });
+            measure("compiled", nodes, () -> compiled.validate(pack).size());
+        }
+    }
+
+    private interface Run {
+        int validate();
+    }
+
+    private static void measure(String label, long nodes, Run run) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run.validate();
+        }
+        int issues = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            issues = run.validate();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9 / MEASURED_ROUNDS;
+        System.out.printf(Locale.ROOT, "  %-12s %8.1f ms/run %8.1f M nodes/s (%d issues)%n", label,
+                seconds * 1e3, nodes / seconds / 1e6, issues);
+    }
+
+    private static long countNodes(Object value) {
+        long count = 1;
+        if (value instanceof Map<?, ?> map) {
+            for (Object child : map.values()) {
+                count += countNodes(child);
+            }
+        } else if (value instanceof List<?> list) {
+            for (Object child : list) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+
+    private static String generate(boolean broken) {
+        StringBuilder out = new StringBuilder(8 << 20);
+        out.append("{id:\"benchmark_pack\", title:\"Benchmark Pack\", file_version:13, chapters:[");
+        for (int c = 0; c < CHAPTERS; c++) {
+            out.append(c == 0 ? "" : ",").append("{id:\"C").append(c).append("\", title:\"Chapter ").append(c)
+                    .append("\", icon:\"minecraft:book\", background:\"minecraft:textures/gui/book.png\", group:")
+                    .append(c % 4).append(", quests:[");
+            for (int q = 0; q < QUESTS_PER_CHAPTER; q++) {
+                int n = c * QUESTS_PER_CHAPTER + q;
+                out.append(q == 0 ? "" : ",").append("{id:").append(n).append("L, title:\"Quest ").append(n)
+                        .append("\", icon:\"").append(broken ? "Stone" : "minecraft:stone")
+                        .append("\", description:[\"Collect\", \"the items\"], x:").append(q % 20)
+                        .append(".5d, dependencies:[\"").append(Math.max(0, n - 1)).append("\"]")
+                        .append(", tasks:[{type:\"item\", item:{id:\"minecraft:iron_ingot\", count:")
+                        .append(1 + q % 64).append("b}, consume:").append(broken ? "\"yes\"" : "true").append("}]")
+                        .append(", rewards:[{type:\"xp\", amount:").append(10 + q).append("}]}");
+            }
+            out.append("]}");
+        }
+        return out.append("]}").toString();
+    }
+}
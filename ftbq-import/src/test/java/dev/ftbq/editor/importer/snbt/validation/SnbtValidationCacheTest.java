@@ -0,0 +1,156 @@
+package dev.ftbq.editor.importer.snbt.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnbtValidationCacheTest {
+
+    private static final String HEADER = """
+            id:"split_pack", title:"Split Pack", file_version:1, version:1""";
+    private static final String GROUPS = """
+            chapter_groups:[{id:"group", title:"Group", icon:"minecraft:book", chapter_ids:["c1", "c2", "c9"]}]""";
+    private static final String TABLES = """
+            {id:"loot", icon:"minecraft:book", items:[]}""";
+
+    private final SnbtValidationService service = new SnbtValidationService();
+
+    @Test
+    void splitDirectoryReportsLikeEquivalentSingleFile(@TempDir Path tempDir) throws Exception {
+        List<String> chapters = writeSplitPack(tempDir, 3);
+
+        SnbtValidationReport report = service.validateDirectory(tempDir);
+
+        assertEquals(service.validate(combined(chapters)).issues(), report.issues());
+        assertTrue(report.issues().stream().anyMatch(issue -> issue.path().equals("$.chapter_groups[0].chapter_ids[2]")),
+                () -> "Expected unknown chapter reference but got: " + report.issues());
+    }
+
+    @Test
+    void singleDataFileReportsLikeValidate(@TempDir Path tempDir) throws Exception {
+        String snbt = combined(List.of(chapter(1, "q1", "q0"), chapter(2, "q1", "q1")));
+        write(tempDir.resolve("data.snbt"), snbt);
+        assertEquals(service.validate(snbt).issues(), service.validateDirectory(tempDir).issues());
+
+        write(tempDir.resolve("data.snbt"), "{ chapters: [");
+        assertEquals(service.validate("{ chapters: [").issues(), service.validateDirectory(tempDir).issues());
+    }
+
+    @Test
+    void revalidatesOnlyChangedChapters(@TempDir Path tempDir) throws Exception {
+        List<String> chapters = writeSplitPack(tempDir, 6);
+        SnbtValidationCache cache = new SnbtValidationCache();
+
+        service.validateDirectory(tempDir, cache);
+        assertEquals(9, cache.parseCount());
+        assertEquals(6, cache.chapterValidationCount());
+
+        SnbtValidationReport unchanged = service.validateDirectory(tempDir, cache);
+        assertEquals(9, cache.parseCount());
+        assertEquals(6, cache.chapterValidationCount());
+        assertEquals(service.validate(combined(chapters)).issues(), unchanged.issues());
+
+        chapters.set(3, chapter(4, "q4", "missing"));
+        write(tempDir.resolve("chapters/chapter_3.snbt"), chapters.get(3));
+        SnbtValidationReport edited = service.validateDirectory(tempDir, cache);
+        assertEquals(10, cache.parseCount());
+        assertEquals(7, cache.chapterValidationCount());
+        assertEquals(service.validate(combined(chapters)).issues(), edited.issues());
+        assertTrue(edited.issues().stream().anyMatch(issue -> issue.path().startsWith("$.chapters[3].quests[0].dependencies")),
+                () -> "Expected missing dependency but got: " + edited.issues());
+    }
+
+    @Test
+    void followsMovedAndDeletedChapters(@TempDir Path tempDir) throws Exception {
+        List<String> chapters = writeSplitPack(tempDir, 4);
+        SnbtValidationCache cache = new SnbtValidationCache();
+        service.validateDirectory(tempDir, cache);
+
+        Files.delete(tempDir.resolve("chapters/chapter_1.snbt"));
+        chapters.remove(1);
+        SnbtValidationReport report = service.validateDirectory(tempDir, cache);
+
+        // The later chapters moved up one position; their results are reused with the new issue paths
+        assertEquals(3 + 3, cache.size());
+        assertEquals(4, cache.chapterValidationCount());
+        assertEquals(service.validate(combined(chapters)).issues(), report.issues());
+
+        Path touched = tempDir.resolve("chapters/chapter_0.snbt");
+        Files.setLastModifiedTime(touched, FileTime.fromMillis(Files.getLastModifiedTime(touched).toMillis() + 5_000));
+        int parses = cache.parseCount();
+        assertEquals(report.issues(), service.validateDirectory(tempDir, cache).issues());
+        assertEquals(parses, cache.parseCount());
+    }
+
+    @Test
+    void reusesInlineChaptersByContent(@TempDir Path tempDir) throws Exception {
+        List<String> chapters = new ArrayList<>(List.of(chapter(1, "q1", null), chapter(2, "q2", "q1"),
+                chapter(3, "q3", "missing")));
+        write(tempDir.resolve("data.snbt"), combined(chapters));
+        SnbtValidationCache cache = new SnbtValidationCache();
+        service.validateDirectory(tempDir, cache);
+        assertEquals(3, cache.chapterValidationCount());
+
+        // Reordering and editing one chapter of data.snbt only validates the edited chapter
+        chapters = new ArrayList<>(List.of(chapters.get(2), chapters.get(0), chapter(2, "q2", "q3")));
+        write(tempDir.resolve("data.snbt"), combined(chapters));
+        SnbtValidationReport report = service.validateDirectory(tempDir, cache);
+        assertEquals(4, cache.chapterValidationCount());
+        assertEquals(service.validate(combined(chapters)).issues(), report.issues());
+        assertTrue(report.issues().stream().anyMatch(issue -> issue.path().startsWith("$.chapters[0].quests[0].dependencies")),
+                () -> "Expected missing dependency at the new position but got: " + report.issues());
+    }
+
+    @Test
+    void reportsBrokenChapterFilesAndKeepsValidatingTheRest(@TempDir Path tempDir) throws Exception {
+        writeSplitPack(tempDir, 2);
+        write(tempDir.resolve("chapters/chapter_9.snbt"), "{ id:\"c9\", quests: [");
+
+        SnbtValidationReport report = service.validateDirectory(tempDir);
+
+        assertTrue(report.errors().get(0).message().startsWith("SNBT parse error in chapters/chapter_9.snbt: "),
+                () -> "Expected parse error first but got: " + report.errors());
+        assertEquals("$", report.errors().get(0).path());
+    }
+
+    private static List<String> writeSplitPack(Path root, int chapterCount) throws IOException {
+        write(root.resolve("data.snbt"), "{" + HEADER + "}");
+        write(root.resolve("chapter_groups.snbt"), "{" + GROUPS + "}");
+        write(root.resolve("reward_tables/loot.snbt"), TABLES);
+        List<String> chapters = new ArrayList<>();
+        for (int i = 0; i < chapterCount; i++) {
+            String chapter = chapter(i + 1, "q" + (i + 1), i == 0 ? null : "q" + i);
+            chapters.add(chapter);
+            write(root.resolve("chapters/chapter_" + i + ".snbt"), chapter);
+        }
+        write(root.resolve("chapters/zz_notes.txt"), "not a chapter");
+        return chapters;
+    }
+
+    private static String chapter(int index, String questId, String dependency) {
+        String dependencies = dependency == null ? "" : ", dependencies:[\"" + dependency + "\"]";
+        return "{id:\"c" + index + "\", order_index:" + index + ", title:\"Chapter " + index + "\","
+                + " icon:\"minecraft:apple\", quests:[{id:\"" + questId + "\", title:\"Quest\", icon:\"minecraft:apple\","
+                + " tasks:[{type:\"item\", item:{id:\"minecraft:stone\"}}],"
+                + " rewards:[{type:\"loot_table\", table:\"loot\"}]" + dependencies + "}]}";
+    }
+
+    private static String combined(List<String> chapters) {
+        return "{" + HEADER + ", " + GROUPS + ", chapters:[" + String.join(", ", chapters) + "], loot_tables:["
+                + TABLES + "]}";
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+}
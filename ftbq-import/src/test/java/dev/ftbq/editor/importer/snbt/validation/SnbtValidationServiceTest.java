@@ -59,6 +59,54 @@ class SnbtValidationServiceTest {
                 () -> "Unexpected parse error message: " + issue.message());
     }
 
+    @Test
+    void issuesKeepTreeOrderWhenChaptersAreValidatedInParallel() {
+        String snbt = """
+                {
+                  id: "pack",
+                  chapter_groups: [{ id: "G", title: "Group", icon: "minecraft:book", chapters: ["A", "Z"] }],
+                  chapters: [
+                    {
+                      id: "A", title: "First", icon: "minecraft:book", background: "bg",
+                      quests: [
+                        { id: "Q1", title: "One", icon: "minecraft:stone", tasks: [{ type: "item", item: { count: 1 } }], rewards: [] },
+                        { id: "Q2", title: "Two", icon: "minecraft:stone", tasks: [], rewards: [{ type: "loot_table", table: "missing" }], dependencies: ["Q9"] }
+                      ]
+                    },
+                    "not a chapter",
+                    {
+                      id: "A", title: "Second", icon: "Not An Icon", background: "bg",
+                      quests: [
+                        { id: "Q1", title: "Again", icon: "minecraft:stone", tasks: [{ type: "location", dimension: "minecraft:overworld", x: 1, y: 2, z: 3 }], rewards: [], dependencies: [{ required: true }] }
+                      ]
+                    }
+                  ],
+                  loot_tables: [{ id: "T", icon: "minecraft:chest" }, { id: "T", icon: "minecraft:chest" }]
+                }
+                """;
+        List<String> expected = List.of(
+                "$.title: Missing required property 'title'",
+                "$.chapters[0].quests[0].tasks[0].item.id: Missing required property 'id'",
+                "$.chapters[1]: Expected object but found String",
+                "$.chapters[2].icon: Value 'Not An Icon' does not match required pattern",
+                "$.loot_tables[1].id: loot table id 'T' is already defined at $.loot_tables[0].id",
+                "$.chapters[0].quests[0].tasks[0].item.id: Item tasks require an item id",
+                "$.chapters[2].id: chapter id 'A' is already defined at $.chapters[0].id",
+                "$.chapters[2].quests[0].id: quest id 'Q1' is already defined at $.chapters[0].quests[0].id",
+                "$.chapters[2].quests[0].tasks[0].radius: Location tasks require a radius value",
+                "$.chapter_groups[0].chapters[1]: Chapter group references unknown chapter id 'Z'",
+                "$.chapters[0].quests[1].dependencies[0]: Dependency references unknown quest id 'Q9'",
+                "$.chapters[2].quests[0].dependencies[0]: Dependency entry must provide a quest id",
+                "$.chapters[0].quests[1].rewards[0].table: Loot table reward references unknown table 'missing'");
+
+        for (SnbtValidationService validator : List.of(service, new SnbtValidationService(Runnable::run))) {
+            List<String> actual = validator.validate(snbt).issues().stream()
+                    .map(issue -> issue.path() + ": " + issue.message())
+                    .toList();
+            assertEquals(expected, actual);
+        }
+    }
+
     private String loadExample(String name) {
         try (var input = getClass().getResourceAsStream("/snbt/" + name)) {
             if (input == null) {
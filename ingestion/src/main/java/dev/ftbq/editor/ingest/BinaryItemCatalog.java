@@ -0,0 +1,554 @@
+package dev.ftbq.editor.ingest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Read-only item catalog backed by a memory-mapped binary file.
+ * <p>
+ * Opening a catalog maps the file and validates its header; nothing else is decoded up front. Strings
+ * are decoded on first use and items are only turned into {@link ItemMeta} when asked for, so large
+ * catalogs are usable right after launch. The layout (all integers big-endian) is:
+ * <pre>
+ * header      magic "FTBC", format version, flags, source/version string refs,
+ *             item/tag/reference/string counts and the positions of the four offset tables
+ * offsets     int[stringCount], int[itemCount], int[tagCount], int[referenceCount]
+ * strings     per string: varint byte length + UTF-8 bytes; every distinct string is stored once,
+ *             so namespaces, mod ids and versions are dictionary encoded
+ * items       per item, sorted by id: varint string refs for id, display name, namespace, kind,
+ *             a flag varint, then texture, icon, mod id, mod name, mod version as ref+1 (0 = null)
+ * tags        per tag, sorted by id: varint tag ref, varint member count, delta-encoded item ordinals,
+ *             then varint count and string refs of the members that are not items of this catalog
+ * references  per tag with nested tags, sorted by id: varint tag ref, varint count, varint tag refs
+ * </pre>
+ * Because items are stored in id order, the item offset table doubles as the sorted id index used for
+ * binary search.
+ */
+public final class BinaryItemCatalog {
+
+    public static final String FILE_EXTENSION = ".ftbc";
+
+    private static final int MAGIC = 0x46544243;
+    private static final int FORMAT_VERSION = 2;
+    private static final int FLAG_VANILLA = 1;
+    private static final int HEADER_SIZE = 52;
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final int itemCount;
+    private final int tagCount;
+    private final int referenceCount;
+    private final int stringOffsets;
+    private final int itemOffsets;
+    private final int tagOffsets;
+    private final int referenceOffsets;
+    private final boolean vanilla;
+    private final String source;
+    private final String version;
+
+    private BinaryItemCatalog(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary item catalog");
+        }
+        int formatVersion = buffer.getInt(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary catalog version " + formatVersion);
+        }
+        this.vanilla = (buffer.getInt(8) & FLAG_VANILLA) != 0;
+        this.itemCount = buffer.getInt(20);
+        this.tagCount = buffer.getInt(24);
+        this.referenceCount = buffer.getInt(28);
+        this.strings = new String[buffer.getInt(32)];
+        this.stringOffsets = buffer.getInt(36);
+        this.itemOffsets = buffer.getInt(40);
+        this.tagOffsets = buffer.getInt(44);
+        this.referenceOffsets = buffer.getInt(48);
+        this.source = string(buffer.getInt(12));
+        this.version = string(buffer.getInt(16));
+    }
+
+    /**
+     * Map a binary catalog file.
+     *
+     * @param file catalog written by {@link #write(ItemCatalog, Path)}
+     * @return lazily decoded catalog view
+     * @throws IOException if the file cannot be read or is not a binary catalog
+     */
+    public static BinaryItemCatalog open(Path file) throws IOException {
+        Objects.requireNonNull(file, "file");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new BinaryItemCatalog(mapped);
+        }
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public boolean isVanilla() {
+        return vanilla;
+    }
+
+    public int itemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Id of the item at {@code ordinal} in id order, without decoding the rest of the record.
+     */
+    public String itemId(int ordinal) {
+        Objects.checkIndex(ordinal, itemCount);
+        int[] position = {itemRecord(ordinal)};
+        return string(readVarint(position));
+    }
+
+    /**
+     * Decode the item at {@code ordinal} in id order.
+     */
+    public ItemMeta item(int ordinal) {
+        Objects.checkIndex(ordinal, itemCount);
+        int[] position = {itemRecord(ordinal)};
+        String id = string(readVarint(position));
+        String displayName = string(readVarint(position));
+        String namespace = string(readVarint(position));
+        String kind = string(readVarint(position));
+        boolean itemVanilla = (readVarint(position) & FLAG_VANILLA) != 0;
+        String texturePath = optionalString(readVarint(position));
+        String iconHash = optionalString(readVarint(position));
+        String modId = optionalString(readVarint(position));
+        String modName = optionalString(readVarint(position));
+        String modVersion = optionalString(readVarint(position));
+        return new ItemMeta(id, displayName, namespace, kind, itemVanilla, texturePath, iconHash,
+                modId, modName, modVersion);
+    }
+
+    /**
+     * Ordinal of an item by binary search over the id index.
+     *
+     * @return the ordinal, or {@code -1} when the catalog has no such item
+     */
+    public int indexOf(String itemId) {
+        Objects.requireNonNull(itemId, "itemId");
+        int low = 0;
+        int high = itemCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = itemId(mid).compareTo(itemId);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public Optional<ItemMeta> find(String itemId) {
+        int ordinal = indexOf(itemId);
+        return ordinal >= 0 ? Optional.of(item(ordinal)) : Optional.empty();
+    }
+
+    /**
+     * Items in id order, decoded one at a time as the list is read.
+     */
+    public List<ItemMeta> items() {
+        return new AbstractList<>() {
+            @Override
+            public ItemMeta get(int index) {
+                return item(index);
+            }
+
+            @Override
+            public int size() {
+                return itemCount;
+            }
+        };
+    }
+
+    public List<String> tagIds() {
+        List<String> tags = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            int[] position = {buffer.getInt(tagOffsets + i * Integer.BYTES)};
+            tags.add(string(readVarint(position)));
+        }
+        return tags;
+    }
+
+    /**
+     * Ordinals of the items of this catalog a tag lists directly, in ascending order. Members defined by
+     * other sources have no ordinal; {@link #itemsInTag(String)} includes them.
+     *
+     * @return member ordinals, empty for unknown tags
+     */
+    public int[] tagMemberOrdinals(String tagId) {
+        int tag = findSection(tagOffsets, tagCount, tagId);
+        if (tag < 0) {
+            return new int[0];
+        }
+        int[] position = {buffer.getInt(tagOffsets + tag * Integer.BYTES)};
+        readVarint(position);
+        int[] members = new int[readVarint(position)];
+        int ordinal = 0;
+        for (int i = 0; i < members.length; i++) {
+            ordinal += readVarint(position);
+            members[i] = ordinal;
+        }
+        return members;
+    }
+
+    /**
+     * Ids of the items a tag lists directly, including those defined by other sources, sorted.
+     */
+    public List<String> itemsInTag(String tagId) {
+        int tag = findSection(tagOffsets, tagCount, tagId);
+        if (tag < 0) {
+            return List.of();
+        }
+        int[] position = {buffer.getInt(tagOffsets + tag * Integer.BYTES)};
+        readVarint(position);
+        int memberCount = readVarint(position);
+        List<String> ids = new ArrayList<>(memberCount);
+        int ordinal = 0;
+        for (int i = 0; i < memberCount; i++) {
+            ordinal += readVarint(position);
+            ids.add(itemId(ordinal));
+        }
+        int unresolvedCount = readVarint(position);
+        for (int i = 0; i < unresolvedCount; i++) {
+            ids.add(string(readVarint(position)));
+        }
+        if (unresolvedCount > 0) {
+            ids.sort(Comparator.naturalOrder());
+        }
+        return ids;
+    }
+
+    /**
+     * Nested tags referenced by a tag, in stored order.
+     */
+    public List<String> tagReferences(String tagId) {
+        int tag = findSection(referenceOffsets, referenceCount, tagId);
+        if (tag < 0) {
+            return List.of();
+        }
+        int[] position = {buffer.getInt(referenceOffsets + tag * Integer.BYTES)};
+        readVarint(position);
+        int count = readVarint(position);
+        List<String> references = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            references.add(string(readVarint(position)));
+        }
+        return references;
+    }
+
+    /**
+     * Decode the whole catalog. Intended for callers that need the regular record, not for lookups.
+     */
+    public ItemCatalog toItemCatalog() {
+        Map<String, List<String>> tags = new LinkedHashMap<>();
+        for (String tagId : tagIds()) {
+            tags.put(tagId, itemsInTag(tagId));
+        }
+        Map<String, List<String>> references = new LinkedHashMap<>();
+        for (int i = 0; i < referenceCount; i++) {
+            int[] position = {buffer.getInt(referenceOffsets + i * Integer.BYTES)};
+            String tagId = string(readVarint(position));
+            references.put(tagId, tagReferences(tagId));
+        }
+        return new ItemCatalog(source, version, vanilla, new ArrayList<>(items()), tags, references);
+    }
+
+    /**
+     * Write {@code catalog} in the binary format, replacing {@code target} atomically.
+     */
+    public static void write(ItemCatalog catalog, Path target) throws IOException {
+        Objects.requireNonNull(catalog, "catalog");
+        Objects.requireNonNull(target, "target");
+        byte[] encoded = encode(catalog);
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, encoded);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static byte[] encode(ItemCatalog catalog) {
+        StringTable table = new StringTable();
+        int sourceRef = table.ref(catalog.source());
+        int versionRef = table.ref(catalog.version());
+
+        Map<String, ItemMeta> byId = new TreeMap<>();
+        for (ItemMeta item : catalog.items()) {
+            if (item != null) {
+                byId.put(item.id(), item);
+            }
+        }
+        List<ItemMeta> items = new ArrayList<>(byId.values());
+        Map<String, Integer> ordinals = new HashMap<>(items.size() * 2);
+        for (int i = 0; i < items.size(); i++) {
+            ordinals.put(items.get(i).id(), i);
+        }
+
+        Section itemSection = new Section(items.size());
+        for (ItemMeta item : items) {
+            itemSection.startRecord();
+            itemSection.varint(table.ref(item.id()));
+            itemSection.varint(table.ref(item.displayName()));
+            itemSection.varint(table.ref(item.namespace()));
+            itemSection.varint(table.ref(item.kind()));
+            itemSection.varint(item.isVanilla() ? FLAG_VANILLA : 0);
+            itemSection.varint(table.optionalRef(item.texturePath()));
+            itemSection.varint(table.optionalRef(item.iconHash()));
+            itemSection.varint(table.optionalRef(item.modId()));
+            itemSection.varint(table.optionalRef(item.modName()));
+            itemSection.varint(table.optionalRef(item.modVersion()));
+        }
+
+        List<Map.Entry<String, List<String>>> tags = sortedEntries(catalog.tags());
+        Section tagSection = new Section(tags.size());
+        for (Map.Entry<String, List<String>> tag : tags) {
+            // Tags may list items of other sources, e.g. a mod tag that includes vanilla items
+            List<String> unresolved = tag.getValue().stream()
+                    .filter(member -> !ordinals.containsKey(member))
+                    .sorted()
+                    .distinct()
+                    .toList();
+            int[] members = tag.getValue().stream()
+                    .filter(ordinals::containsKey)
+                    .mapToInt(ordinals::get)
+                    .sorted()
+                    .distinct()
+                    .toArray();
+            tagSection.startRecord();
+            tagSection.varint(table.ref(tag.getKey()));
+            tagSection.varint(members.length);
+            int previous = 0;
+            for (int member : members) {
+                tagSection.varint(member - previous);
+                previous = member;
+            }
+            tagSection.varint(unresolved.size());
+            for (String member : unresolved) {
+                tagSection.varint(table.ref(member));
+            }
+        }
+
+        List<Map.Entry<String, List<String>>> references = sortedEntries(catalog.tagReferences());
+        Section referenceSection = new Section(references.size());
+        for (Map.Entry<String, List<String>> reference : references) {
+            referenceSection.startRecord();
+            referenceSection.varint(table.ref(reference.getKey()));
+            referenceSection.varint(reference.getValue().size());
+            for (String nested : reference.getValue()) {
+                referenceSection.varint(table.ref(nested));
+            }
+        }
+
+        Section stringSection = table.encode();
+
+        int stringOffsets = HEADER_SIZE;
+        int itemOffsets = stringOffsets + stringSection.count() * Integer.BYTES;
+        int tagOffsets = itemOffsets + itemSection.count() * Integer.BYTES;
+        int referenceOffsets = tagOffsets + tagSection.count() * Integer.BYTES;
+        int stringData = referenceOffsets + referenceSection.count() * Integer.BYTES;
+        int itemData = stringData + stringSection.size();
+        int tagData = itemData + itemSection.size();
+        int referenceData = tagData + tagSection.size();
+        int total = referenceData + referenceSection.size();
+
+        ByteBuffer out = ByteBuffer.allocate(total);
+        out.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(catalog.isVanilla() ? FLAG_VANILLA : 0)
+                .putInt(sourceRef)
+                .putInt(versionRef)
+                .putInt(itemSection.count())
+                .putInt(tagSection.count())
+                .putInt(referenceSection.count())
+                .putInt(stringSection.count())
+                .putInt(stringOffsets)
+                .putInt(itemOffsets)
+                .putInt(tagOffsets)
+                .putInt(referenceOffsets);
+        stringSection.putOffsets(out, stringData);
+        itemSection.putOffsets(out, itemData);
+        tagSection.putOffsets(out, tagData);
+        referenceSection.putOffsets(out, referenceData);
+        stringSection.putData(out);
+        itemSection.putData(out);
+        tagSection.putData(out);
+        referenceSection.putData(out);
+        return out.array();
+    }
+
+    private static List<Map.Entry<String, List<String>>> sortedEntries(Map<String, List<String>> map) {
+        List<Map.Entry<String, List<String>>> entries = new ArrayList<>(map.entrySet());
+        entries.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+        return entries;
+    }
+
+    private int itemRecord(int ordinal) {
+        return buffer.getInt(itemOffsets + ordinal * Integer.BYTES);
+    }
+
+    private int findSection(int offsets, int count, String key) {
+        Objects.requireNonNull(key, "key");
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int[] position = {buffer.getInt(offsets + mid * Integer.BYTES)};
+            int comparison = string(readVarint(position)).compareTo(key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private String optionalString(int refPlusOne) {
+        return refPlusOne == 0 ? null : string(refPlusOne - 1);
+    }
+
+    private String string(int ref) {
+        String cached = strings[ref];
+        if (cached != null) {
+            return cached;
+        }
+        int[] position = {buffer.getInt(stringOffsets + ref * Integer.BYTES)};
+        int length = readVarint(position);
+        byte[] bytes = new byte[length];
+        buffer.get(position[0], bytes);
+        String decoded = new String(bytes, StandardCharsets.UTF_8);
+        // Racing threads decode the same value; publishing either copy is harmless.
+        strings[ref] = decoded;
+        return decoded;
+    }
+
+    private int readVarint(int[] position) {
+        int value = 0;
+        int shift = 0;
+        int index = position[0];
+        while (true) {
+            byte b = buffer.get(index++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+            shift += 7;
+        }
+        position[0] = index;
+        return value;
+    }
+
+    /**
+     * Deduplicating string dictionary used while encoding.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> refs = new LinkedHashMap<>();
+
+        int ref(String value) {
+            Objects.requireNonNull(value, "value");
+            return refs.computeIfAbsent(value, ignored -> refs.size());
+        }
+
+        int optionalRef(String value) {
+            return value == null ? 0 : ref(value) + 1;
+        }
+
+        Section encode() {
+            Section section = new Section(refs.size());
+            for (String value : refs.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                section.startRecord();
+                section.varint(bytes.length);
+                section.bytes(bytes);
+            }
+            return section;
+        }
+    }
+
+    /**
+     * Sequence of variable-length records plus their start offsets.
+     */
+    private static final class Section {
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        private final int[] offsets;
+        private int records;
+
+        Section(int capacity) {
+            this.offsets = new int[capacity];
+        }
+
+        void startRecord() {
+            offsets[records++] = data.size();
+        }
+
+        void varint(int value) {
+            int remaining = value;
+            while ((remaining & ~0x7F) != 0) {
+                data.write((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            data.write(remaining);
+        }
+
+        void bytes(byte[] bytes) {
+            data.writeBytes(bytes);
+        }
+
+        int count() {
+            return records;
+        }
+
+        int size() {
+            return data.size();
+        }
+
+        void putOffsets(ByteBuffer out, int base) {
+            for (int i = 0; i < records; i++) {
+                out.putInt(base + offsets[i]);
+            }
+        }
+
+        void putData(ByteBuffer out) {
+            out.put(data.toByteArray());
+        }
+    }
+}
@@ -3,24 +3,20 @@ package dev.ftbq.editor.ingest;
 import dev.ftbq.editor.resources.ResourceId;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 /**
- * Combines multiple mod JARs into a unified icon index, caching textures locally.
+ * Combines multiple mod JARs into a unified icon index, caching textures locally by content hash.
  */
 public final class CatalogMergeService {
 
+    private static final Path ICON_CACHE_DIRECTORY = Path.of(".cache", "icons");
+
     private final Map<String, File> jarsByNamespace = new HashMap<>();
 
     public void addJar(File jar, String namespace) {
@@ -42,66 +38,45 @@ public final class CatalogMergeService {
             return iconIndex;
         }
 
-        for (Map.Entry<String, String> entry : items.entrySet()) {
-            String key = entry.getKey();
+        Map<String, ResourceId> itemIds = new LinkedHashMap<>();
+        for (String key : items.keySet()) {
             if (key == null || key.isBlank()) {
                 continue;
             }
-            ResourceId itemId;
             try {
-                itemId = ResourceId.fromString(key);
+                itemIds.put(key, ResourceId.fromString(key));
             } catch (IllegalArgumentException ignored) {
-                continue;
-            }
-
-            Optional<ItemTextureResolver.TextureLocation> texture =
-                    ItemTextureResolver.resolveTexture(jarsByNamespace, itemId);
-            String iconReference = texture.map(location -> cacheTexture(itemId, location))
-                    .orElseGet(() -> cacheDefaultIcon(itemId));
-            if (iconReference != null) {
-                iconIndex.put(key, iconReference);
+                // Skip malformed identifiers.
             }
         }
 
-        return iconIndex;
-    }
-
-    private String cacheTexture(ResourceId itemId, ItemTextureResolver.TextureLocation location) {
-        File jarFile = location.jar();
-        if (jarFile == null || !jarFile.isFile()) {
-            return cacheDefaultIcon(itemId);
-        }
-        try (ZipFile zipFile = new ZipFile(jarFile)) {
-            ZipEntry entry = zipFile.getEntry(location.entryName());
-            if (entry == null) {
-                return cacheDefaultIcon(itemId);
-            }
-            Path target = resolveIconPath(itemId);
-            Files.createDirectories(target.getParent());
-            try (InputStream input = zipFile.getInputStream(entry)) {
-                Files.copy(input, target, StandardCopyOption.REPLACE_EXISTING);
-            }
-            return itemId.toString();
-        } catch (IOException ex) {
-            return cacheDefaultIcon(itemId);
-        }
-    }
+        IconExtractionStage iconStage = new IconExtractionStage(ICON_CACHE_DIRECTORY);
+        try (ModelIndex modelIndex = new ModelIndex(jarsByNamespace)) {
+            Map<ResourceId, ItemTextureResolver.TextureLocation> textures =
+                    ItemTextureResolver.resolveAll(modelIndex, itemIds.values());
+            Map<ResourceId, ItemTextureResolver.TextureLocation> locationsByTexture = new HashMap<>();
+            textures.values().forEach(location -> locationsByTexture.putIfAbsent(location.textureId(), location));
+            Map<ResourceId, String> textureHashes = iconStage.extract(locationsByTexture.keySet(), textureId -> {
+                ItemTextureResolver.TextureLocation location = locationsByTexture.get(textureId);
+                return location != null ? modelIndex.openTexture(location) : null;
+            });
 
-    private String cacheDefaultIcon(ResourceId itemId) {
-        try {
-            Path target = resolveIconPath(itemId);
-            Files.createDirectories(target.getParent());
-            if (!Files.exists(target)) {
-                Files.write(target, IconAssets.DEFAULT_ICON_BYTES);
+            String defaultHash = null;
+            for (Map.Entry<String, ResourceId> entry : itemIds.entrySet()) {
+                ItemTextureResolver.TextureLocation texture = textures.get(entry.getValue());
+                String iconReference = texture != null ? textureHashes.get(texture.textureId()) : null;
+                if (iconReference == null) {
+                    if (defaultHash == null) {
+                        defaultHash = iconStage.defaultIconHash();
+                    }
+                    iconReference = defaultHash;
+                }
+                iconIndex.put(entry.getKey(), iconReference);
             }
-            return itemId.toString();
         } catch (IOException ignored) {
-            return null;
+            // Writing to the icon cache or closing the archives failed; the icons resolved so far remain valid.
         }
-    }
 
-    private Path resolveIconPath(ResourceId itemId) {
-        Path root = Path.of(".cache").resolve("icons");
-        return root.resolve(itemId.namespace()).resolve(itemId.path() + ".png");
+        return iconIndex;
     }
 }
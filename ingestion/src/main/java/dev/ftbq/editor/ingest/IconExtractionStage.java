@@ -0,0 +1,274 @@
+package dev.ftbq.editor.ingest;
+
+import dev.ftbq.editor.concurrent.WorkerPool;
+import dev.ftbq.editor.resources.ResourceId;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copies item textures into the icon cache, keyed by the SHA-256 of their bytes.
+ * <p>
+ * The stage works on the set of distinct texture ids rather than on items: every texture is read and
+ * hashed once, and every distinct blob is written once as {@code icons/<hash>.png}, no matter how many
+ * items or source archives share it. Reads and writes run on an executor so large packs inflate and hash
+ * textures in parallel. Items then refer to their icon by content hash, which both {@link IconCache}
+ * and the datastore cache manager resolve.
+ * <p>
+ * Normalization is opt-in: when an {@link IconNormalizer} is passed, textures that are animation strips
+ * (per their {@code .mcmeta} sidecar) or larger than the display size additionally get one
+ * {@code icons/<hash>-<size>.png} variant per target size. Variants are keyed by the original's hash, so
+ * the original stays the recorded icon and readers fall back to it when no variant exists.
+ */
+public final class IconExtractionStage {
+
+    private static final String DEFAULT_ICON_HASH = sha256(IconAssets.DEFAULT_ICON_BYTES);
+
+    private final Path iconDirectory;
+    private final Executor executor;
+    private final IconNormalizer normalizer;
+    private final Set<String> knownBlobs = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger texturesRead = new AtomicInteger();
+    private final AtomicInteger blobsWritten = new AtomicInteger();
+    private final AtomicInteger variantsWritten = new AtomicInteger();
+
+    public IconExtractionStage(Path iconDirectory) {
+        this(iconDirectory, WorkerPool.shared(), null);
+    }
+
+    public IconExtractionStage(Path iconDirectory, Executor executor) {
+        this(iconDirectory, executor, null);
+    }
+
+    /**
+     * @param normalizer producer of display-sized variants, or {@code null} to store originals only
+     */
+    public IconExtractionStage(Path iconDirectory, Executor executor, IconNormalizer normalizer) {
+        this.iconDirectory = Objects.requireNonNull(iconDirectory, "iconDirectory");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.normalizer = normalizer;
+    }
+
+    /**
+     * Supplies the PNG bytes of a texture.
+     */
+    @FunctionalInterface
+    public interface TextureSource {
+        /**
+         * @param textureId texture identifier relative to {@code textures/}
+         * @return stream over the PNG, or {@code null} when the texture does not exist
+         */
+        InputStream open(ResourceId textureId) throws IOException;
+
+        /**
+         * @param textureId texture identifier relative to {@code textures/}
+         * @return stream over the texture's {@code .png.mcmeta} sidecar, or {@code null} when it has none
+         */
+        default InputStream openMetadata(ResourceId textureId) throws IOException {
+            return null;
+        }
+    }
+
+    /**
+     * Cache every distinct texture once and return its content hash.
+     *
+     * @param textureIds textures to cache; duplicates are read only once
+     * @param source     provider of texture bytes
+     * @return content hash keyed by texture id, in first-seen order; missing or unreadable textures are omitted
+     * @throws IOException if the icon directory cannot be created or a blob cannot be written
+     */
+    public Map<ResourceId, String> extract(Collection<ResourceId> textureIds, TextureSource source)
+            throws IOException {
+        Objects.requireNonNull(textureIds, "textureIds");
+        Objects.requireNonNull(source, "source");
+        Set<ResourceId> unique = new LinkedHashSet<>(textureIds);
+        unique.remove(null);
+        if (unique.isEmpty()) {
+            return Map.of();
+        }
+        Files.createDirectories(iconDirectory);
+
+        List<ResourceId> order = new ArrayList<>(unique);
+        List<CompletableFuture<String>> tasks = new ArrayList<>(order.size());
+        for (ResourceId textureId : order) {
+            tasks.add(CompletableFuture.supplyAsync(() -> cacheTexture(textureId, source), executor));
+        }
+
+        Map<ResourceId, String> hashes = new LinkedHashMap<>(order.size() * 2);
+        for (int i = 0; i < order.size(); i++) {
+            String hash;
+            try {
+                hash = tasks.get(i).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                throw ex;
+            }
+            if (hash != null) {
+                hashes.put(order.get(i), hash);
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Content hash of the placeholder icon, writing its blob on first use.
+     */
+    public String defaultIconHash() throws IOException {
+        Files.createDirectories(iconDirectory);
+        writeBlob(DEFAULT_ICON_HASH, IconAssets.DEFAULT_ICON_BYTES);
+        return DEFAULT_ICON_HASH;
+    }
+
+    /**
+     * Number of texture reads performed by this stage. Exposed for diagnostics and tests.
+     */
+    public int texturesRead() {
+        return texturesRead.get();
+    }
+
+    /**
+     * Number of blobs this stage actually wrote; blobs already present on disk are not counted.
+     */
+    public int blobsWritten() {
+        return blobsWritten.get();
+    }
+
+    /**
+     * Number of normalized variants this stage actually wrote.
+     */
+    public int variantsWritten() {
+        return variantsWritten.get();
+    }
+
+    public Path iconPath(String hash) {
+        return iconDirectory.resolve(hash + ".png");
+    }
+
+    public Path variantPath(String hash, int size) {
+        return iconDirectory.resolve(hash + '-' + size + ".png");
+    }
+
+    private String cacheTexture(ResourceId textureId, TextureSource source) {
+        byte[] data;
+        try (InputStream input = source.open(textureId)) {
+            if (input == null) {
+                return null;
+            }
+            data = input.readAllBytes();
+        } catch (IOException ex) {
+            // An unreadable texture falls back to the placeholder like a missing one.
+            return null;
+        }
+        texturesRead.incrementAndGet();
+        String hash = sha256(data);
+        try {
+            if (writeBlob(hash, data)) {
+                writeVariants(textureId, source, hash, data);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return hash;
+    }
+
+    /**
+     * @return {@code true} if this is the first time the stage sees the blob
+     */
+    private boolean writeBlob(String hash, byte[] data) throws IOException {
+        if (!knownBlobs.add(hash)) {
+            return false;
+        }
+        try {
+            if (writeAtomically(iconPath(hash), hash, data)) {
+                blobsWritten.incrementAndGet();
+            }
+        } catch (IOException ex) {
+            knownBlobs.remove(hash);
+            throw ex;
+        }
+        return true;
+    }
+
+    private void writeVariants(ResourceId textureId, TextureSource source, String hash, byte[] data)
+            throws IOException {
+        // The header check keeps ordinary 16px textures from being decoded, or their sidecar looked up.
+        if (normalizer == null || !normalizer.needsNormalization(data, true)) {
+            return;
+        }
+        boolean animated;
+        try (InputStream metadata = source.openMetadata(textureId)) {
+            animated = IconNormalizer.isAnimated(metadata);
+        }
+        if (!normalizer.needsNormalization(data, animated)) {
+            return;
+        }
+        boolean complete = true;
+        for (int size : normalizer.sizes()) {
+            complete &= Files.exists(variantPath(hash, size));
+        }
+        if (complete) {
+            return;
+        }
+        for (Map.Entry<Integer, byte[]> variant : normalizer.normalize(data, animated).entrySet()) {
+            if (writeAtomically(variantPath(hash, variant.getKey()), hash, variant.getValue())) {
+                variantsWritten.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the target already existed
+     */
+    private boolean writeAtomically(Path target, String prefix, byte[] data) throws IOException {
+        if (Files.exists(target)) {
+            return false;
+        }
+        // Write to a temporary sibling first so concurrent readers and writers never see a partial file.
+        Path temp = Files.createTempFile(iconDirectory, prefix, ".tmp");
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target);
+            }
+            return true;
+        } catch (FileAlreadyExistsException ex) {
+            // Another process wrote the same content first.
+            return false;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 digest not available", ex);
+        }
+    }
+}
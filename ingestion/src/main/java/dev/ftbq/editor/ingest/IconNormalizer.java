@@ -0,0 +1,217 @@
+package dev.ftbq.editor.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * Produces display-sized variants of item textures.
+ * <p>
+ * Mods ship animated textures as vertical strips of square frames (described by a {@code .mcmeta}
+ * sidecar) and some use 128px or larger art. The UI only ever shows a single frame at list or node size,
+ * so for every configured target size the normalizer crops the first frame, downsamples it with an area
+ * filter when it is larger than the target, and re-encodes it as a plain ARGB PNG without ancillary
+ * chunks. Only a texture whose sidecar has an {@code animation} section ({@link #isAnimated(InputStream)}) is
+ * cropped; tall textures without one are scaled whole. Textures that are already a single frame no larger
+ * than the smallest target need no variant; {@link #needsNormalization(byte[], boolean)} detects them from
+ * the PNG header without decoding the image.
+ */
+public final class IconNormalizer {
+
+    public static final int[] DEFAULT_SIZES = {32, 64};
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final int[] sizes;
+
+    public IconNormalizer(int... sizes) {
+        if (sizes == null || sizes.length == 0) {
+            throw new IllegalArgumentException("At least one target size is required");
+        }
+        int[] sorted = sizes.clone();
+        Arrays.sort(sorted);
+        if (sorted[0] <= 0) {
+            throw new IllegalArgumentException("Target sizes must be positive");
+        }
+        this.sizes = Arrays.stream(sorted).distinct().toArray();
+    }
+
+    public static IconNormalizer standard() {
+        return new IconNormalizer(DEFAULT_SIZES);
+    }
+
+    /**
+     * Target sizes in ascending order.
+     */
+    public int[] sizes() {
+        return sizes.clone();
+    }
+
+    /**
+     * Whether a {@code .mcmeta} sidecar declares its texture animated.
+     *
+     * @param mcmeta sidecar contents, or {@code null} when the texture has none
+     * @return {@code false} for a missing or malformed sidecar and for one without an {@code animation} section
+     */
+    public static boolean isAnimated(InputStream mcmeta) {
+        if (mcmeta == null) {
+            return false;
+        }
+        try {
+            JsonNode root = MAPPER.readTree(mcmeta);
+            return root != null && root.path("animation").isObject();
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Same as {@link #needsNormalization(byte[], boolean)} for a texture without an animation sidecar.
+     */
+    public boolean needsNormalization(byte[] png) {
+        return needsNormalization(png, false);
+    }
+
+    /**
+     * Whether the PNG is an animation strip or larger than the smallest target size. Returns {@code false}
+     * for data that is not a PNG, leaving it to be used as-is.
+     *
+     * @param animated whether the texture's {@code .mcmeta} sidecar declares an animation
+     */
+    public boolean needsNormalization(byte[] png, boolean animated) {
+        if (!isPng(png)) {
+            return false;
+        }
+        int width = readInt(png, 16);
+        int height = readInt(png, 20);
+        return (animated && height > width) || width > sizes[0] || height > sizes[0];
+    }
+
+    /**
+     * Same as {@link #normalize(byte[], boolean)} for a texture without an animation sidecar.
+     */
+    public Map<Integer, byte[]> normalize(byte[] png) throws IOException {
+        return normalize(png, false);
+    }
+
+    /**
+     * Build the variants of a texture.
+     *
+     * @param png      original texture bytes
+     * @param animated whether the texture's {@code .mcmeta} sidecar declares an animation; only then is the
+     *                 first square frame cropped
+     * @return re-encoded PNG keyed by target size, in ascending size order; empty when the texture needs no
+     * variant or cannot be decoded
+     * @throws IOException if a variant cannot be encoded
+     */
+    public Map<Integer, byte[]> normalize(byte[] png, boolean animated) throws IOException {
+        if (!needsNormalization(png, animated)) {
+            return Map.of();
+        }
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null || source.getWidth() <= 0 || source.getHeight() <= 0) {
+            return Map.of();
+        }
+        int frameSize = source.getWidth();
+        int frameHeight = animated ? Math.min(frameSize, source.getHeight()) : source.getHeight();
+        int[] frame = source.getRGB(0, 0, frameSize, frameHeight, null, 0, frameSize);
+
+        Map<Integer, byte[]> variants = new LinkedHashMap<>();
+        byte[] nativeFrame = null;
+        for (int size : sizes) {
+            if (frameSize > size || frameHeight > size) {
+                int targetWidth = Math.max(1, Math.round(size * (frameSize / (float) Math.max(frameSize, frameHeight))));
+                int targetHeight = Math.max(1, Math.round(size * (frameHeight / (float) Math.max(frameSize, frameHeight))));
+                variants.put(size, encode(downsample(frame, frameSize, frameHeight, targetWidth, targetHeight),
+                        targetWidth, targetHeight));
+            } else {
+                // No upscaling: pixel art is scaled by the view, which keeps it sharp.
+                if (nativeFrame == null) {
+                    nativeFrame = encode(frame, frameSize, frameHeight);
+                }
+                variants.put(size, nativeFrame);
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Box-filter downsampling in premultiplied alpha, so transparent pixels do not darken edges.
+     */
+    static int[] downsample(int[] argb, int width, int height, int targetWidth, int targetHeight) {
+        int[] result = new int[targetWidth * targetHeight];
+        for (int ty = 0; ty < targetHeight; ty++) {
+            int y0 = ty * height / targetHeight;
+            int y1 = Math.max(y0 + 1, (ty + 1) * height / targetHeight);
+            for (int tx = 0; tx < targetWidth; tx++) {
+                int x0 = tx * width / targetWidth;
+                int x1 = Math.max(x0 + 1, (tx + 1) * width / targetWidth);
+                long a = 0;
+                long r = 0;
+                long g = 0;
+                long b = 0;
+                for (int y = y0; y < y1; y++) {
+                    int row = y * width;
+                    for (int x = x0; x < x1; x++) {
+                        int pixel = argb[row + x];
+                        int alpha = pixel >>> 24;
+                        a += alpha;
+                        r += ((pixel >>> 16) & 0xFF) * alpha;
+                        g += ((pixel >>> 8) & 0xFF) * alpha;
+                        b += (pixel & 0xFF) * alpha;
+                    }
+                }
+                int count = (y1 - y0) * (x1 - x0);
+                int pixel = 0;
+                if (a > 0) {
+                    int outAlpha = (int) ((a + count / 2) / count);
+                    int outRed = (int) ((r + a / 2) / a);
+                    int outGreen = (int) ((g + a / 2) / a);
+                    int outBlue = (int) ((b + a / 2) / a);
+                    pixel = (outAlpha << 24) | (outRed << 16) | (outGreen << 8) | outBlue;
+                }
+                result[ty * targetWidth + tx] = pixel;
+            }
+        }
+        return result;
+    }
+
+    private static byte[] encode(int[] argb, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, width, height, argb, 0, width);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(256 + width * height);
+        if (!ImageIO.write(image, "png", output)) {
+            throw new IOException("No PNG encoder available");
+        }
+        return output.toByteArray();
+    }
+
+    private static boolean isPng(byte[] data) {
+        if (data == null || data.length < 24) {
+            return false;
+        }
+        for (int i = 0; i < PNG_SIGNATURE.length; i++) {
+            if (data[i] != PNG_SIGNATURE[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24)
+                | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8)
+                | (data[offset + 3] & 0xFF);
+    }
+}
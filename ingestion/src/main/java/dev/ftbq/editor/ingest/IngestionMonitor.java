@@ -0,0 +1,46 @@
+package dev.ftbq.editor.ingest;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Callback through which long-running ingestion reports progress and observes cancellation.
+ * <p>
+ * Extraction loops call {@link #entryProcessed(long)} once per archive entry. Implementations signal
+ * cancellation by throwing {@link CancellationException} from any callback; callers let it propagate and
+ * must not persist anything they gathered so far.
+ */
+public interface IngestionMonitor {
+
+    /**
+     * Monitor that never cancels and ignores progress.
+     */
+    IngestionMonitor NONE = new IngestionMonitor() { };
+
+    /**
+     * Throw {@link CancellationException} if the surrounding job was cancelled.
+     */
+    default void checkCancelled() {
+    }
+
+    /**
+     * Called after each archive entry has been looked at.
+     *
+     * @param bytes compressed size of the entry, or {@code 0} when unknown
+     */
+    default void entryProcessed(long bytes) {
+        checkCancelled();
+    }
+
+    /**
+     * Total number of JARs the job is going to process, once known.
+     */
+    default void jarsDiscovered(int count) {
+    }
+
+    /**
+     * Called after a JAR has been fully processed or skipped.
+     */
+    default void jarCompleted() {
+        checkCancelled();
+    }
+}
@@ -8,13 +8,19 @@ import java.util.Objects;
 
 /**
  * Catalog of items extracted from a single source (vanilla version or mod JAR).
+ * <p>
+ * {@code tags} holds the items listed directly by each tag file; {@code tagReferences} holds the nested
+ * tags ({@code #namespace:path} entries, stored without the {@code #}) each tag includes. Use
+ * {@link TagClosureIndex} to resolve the full membership. A missing {@code tagReferences} map, as in catalog
+ * JSON written before nested tags were recorded, is read as empty.
  */
 public record ItemCatalog(
         String source,
         String version,
         boolean isVanilla,
         List<ItemMeta> items,
-        Map<String, List<String>> tags
+        Map<String, List<String>> tags,
+        Map<String, List<String>> tagReferences
 ) {
     public ItemCatalog {
         Objects.requireNonNull(source, "source");
@@ -23,13 +29,22 @@ public record ItemCatalog(
         Objects.requireNonNull(tags, "tags");
 
         items = List.copyOf(items);
+        tags = copyTagMap(tags);
+        tagReferences = tagReferences == null ? Map.of() : copyTagMap(tagReferences);
+    }
+
+    public ItemCatalog(String source, String version, boolean isVanilla, List<ItemMeta> items,
+            Map<String, List<String>> tags) {
+        this(source, version, isVanilla, items, tags, Map.of());
+    }
 
+    private static Map<String, List<String>> copyTagMap(Map<String, List<String>> tags) {
         Map<String, List<String>> normalized = new LinkedHashMap<>();
         for (Map.Entry<String, List<String>> entry : tags.entrySet()) {
             String tag = Objects.requireNonNull(entry.getKey(), "tag key");
             List<String> values = Objects.requireNonNull(entry.getValue(), "tag values");
             normalized.put(tag, List.copyOf(values));
         }
-        tags = Collections.unmodifiableMap(normalized);
+        return Collections.unmodifiableMap(normalized);
     }
 }
@@ -1,6 +1,8 @@
 package dev.ftbq.editor.ingest;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.ftbq.editor.resources.ResourceId;
@@ -9,18 +11,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.zip.ZipEntry;
@@ -31,8 +32,15 @@ import java.util.zip.ZipFile;
  */
 public final class ItemCatalogExtractor {
 
+    /**
+     * Version of the extraction rules. Bump whenever the extracted items, tags or icons change for
+     * an unchanged JAR so that persisted ingestion manifests are invalidated.
+     */
+    public static final int EXTRACTOR_VERSION = 5;
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
-    private static final TypeReference<Map<String, String>> STRING_MAP = new TypeReference<>() { };
+    private static final JsonFactory JSON = MAPPER.getFactory();
+    private static final Path ICON_CACHE_DIRECTORY = Path.of(".cache", "icons");
     private static final List<String> TEXTURE_PREFERENCE = List.of("layer0", "texture", "all", "particle");
 
     private ItemCatalogExtractor() {
@@ -55,80 +63,77 @@ public final class ItemCatalogExtractor {
 
     public static ItemCatalog extract(Path jar, String source, String version, boolean isVanilla,
             ItemCatalog existingCatalog) throws IOException {
+        return extract(jar, source, version, isVanilla, existingCatalog, IngestionMonitor.NONE);
+    }
+
+    /**
+     * Variant of {@link #extract(Path, String, String, boolean, ItemCatalog)} that reports every archive
+     * entry to {@code monitor}. A {@link java.util.concurrent.CancellationException} thrown by the monitor
+     * aborts the extraction before any icon is written.
+     */
+    public static ItemCatalog extract(Path jar, String source, String version, boolean isVanilla,
+            ItemCatalog existingCatalog, IngestionMonitor monitor) throws IOException {
+        return extract(jar, source, version, isVanilla, existingCatalog, monitor, ICON_CACHE_DIRECTORY);
+    }
+
+    /**
+     * Variant of {@link #extract(Path, String, String, boolean, ItemCatalog, IngestionMonitor)} that writes
+     * icons to {@code iconDirectory} instead of {@code .cache/icons} in the working directory.
+     */
+    public static ItemCatalog extract(Path jar, String source, String version, boolean isVanilla,
+            ItemCatalog existingCatalog, IngestionMonitor monitor, Path iconDirectory) throws IOException {
         Objects.requireNonNull(jar, "jar");
         Objects.requireNonNull(source, "source");
         Objects.requireNonNull(version, "version");
+        Objects.requireNonNull(monitor, "monitor");
+        Objects.requireNonNull(iconDirectory, "iconDirectory");
 
         Map<String, ItemMeta> items = initialiseItems(existingCatalog);
-        Map<String, Set<String>> tags = initialiseTags(existingCatalog);
+        Map<String, Set<String>> tags = initialiseTags(existingCatalog == null ? null : existingCatalog.tags());
+        Map<String, Set<String>> tagReferences =
+                initialiseTags(existingCatalog == null ? null : existingCatalog.tagReferences());
         Map<String, ModMetadata> modMetadata = new LinkedHashMap<>();
         Map<ResourceId, String> modelTextures = new LinkedHashMap<>();
+        StringPool strings = new StringPool();
 
         try (ZipFile zipFile = new ZipFile(jar.toFile())) {
-            modMetadata.putAll(extractModMetadata(zipFile));
+            extractModMetadata(zipFile).forEach((modId, metadata) ->
+                    modMetadata.put(strings.intern(modId), metadata.intern(strings)));
+            EntryCollector collector = new EntryCollector(isVanilla, items, tags, tagReferences, modMetadata,
+                    modelTextures, strings);
 
+            List<String> nestedJarNames = new ArrayList<>();
             Enumeration<? extends ZipEntry> entries = zipFile.entries();
             while (entries.hasMoreElements()) {
                 ZipEntry entry = entries.nextElement();
+                monitor.entryProcessed(Math.max(0, entry.getCompressedSize()));
                 if (entry.isDirectory()) {
                     continue;
                 }
-
                 String name = entry.getName();
-                if (name.startsWith("assets/") && name.endsWith("/lang/en_us.json")) {
-                    String namespace = extractNamespace(name, "assets/");
-                    if (namespace.isEmpty()) {
-                        continue;
-                    }
-                    try (InputStream input = zipFile.getInputStream(entry)) {
-                        Map<String, String> translations = MAPPER.readValue(input, STRING_MAP);
-                        translations.forEach((key, value) ->
-                                parseLangEntry(namespace, key, value, isVanilla, modMetadata)
-                                        .ifPresent(meta -> items.put(meta.id(), meta)));
-                    }
-                } else if (name.startsWith("data/") && name.contains("/tags/items/") && name.endsWith(".json")) {
-                    String namespace = extractNamespace(name, "data/");
-                    if (namespace.isEmpty()) {
-                        continue;
-                    }
-                    String tagId = buildTagId(namespace, name);
-                    if (tagId == null) {
-                        continue;
-                    }
-                    try (InputStream input = zipFile.getInputStream(entry)) {
-                        JsonNode root = MAPPER.readTree(input);
-                        JsonNode valuesNode = root.get("values");
-                        if (valuesNode != null && valuesNode.isArray()) {
-                            Set<String> collected = tags.computeIfAbsent(tagId, key -> new LinkedHashSet<>());
-                            valuesNode.forEach(node -> {
-                                if (!node.isTextual()) {
-                                    return;
-                                }
-                                String value = node.asText();
-                                if (value.startsWith("#")) {
-                                    return;
-                                }
-                                collected.add(value);
-                            });
-                        }
-                    }
-                } else if (name.startsWith("assets/") && name.contains("/models/item/") && name.endsWith(".json")) {
-                    String namespace = extractNamespace(name, "assets/");
-                    if (namespace.isEmpty()) {
-                        continue;
-                    }
-                    String itemPath = extractModelPath(name, namespace);
-                    if (itemPath.isEmpty()) {
+                if (NestedJarArchive.isNestedJar(name)) {
+                    nestedJarNames.add(name);
+                    continue;
+                }
+                collector.accept(name, () -> zipFile.getInputStream(entry));
+            }
+
+            // Bundled jars contribute items under the outer mod: their namespaces are attributed to it
+            // unless the outer jar declares them itself.
+            List<NestedJarArchive> nestedJars =
+                    NestedJarArchive.openNested(jar, nestedJarNames, NestedJarArchive.Limits.DEFAULT);
+            ModMetadata owner = modMetadata.isEmpty() ? null : modMetadata.values().iterator().next();
+            for (NestedJarArchive nested : nestedJars) {
+                for (NestedJarArchive.Entry entry : nested.entries()) {
+                    monitor.entryProcessed(entry.compressedSize());
+                    if (entry.isDirectory() || NestedJarArchive.isNestedJar(entry.name())) {
                         continue;
                     }
-                    try (InputStream input = zipFile.getInputStream(entry)) {
-                        JsonNode root = MAPPER.readTree(input);
-                        JsonNode texturesNode = root != null ? root.get("textures") : null;
-                        String texture = selectTexture(namespace, texturesNode);
-                        if (texture != null) {
-                            modelTextures.put(new ResourceId(namespace, itemPath), texture);
-                        }
+                    String namespace = resourceNamespace(entry.name());
+                    if (owner != null && !namespace.isEmpty()) {
+                        modMetadata.putIfAbsent(strings.intern(namespace), owner);
                     }
+                    collector.accept(entry.name(), () -> nested.open(entry));
                 }
             }
 
@@ -142,18 +147,13 @@ public final class ItemCatalogExtractor {
             List<ItemMeta> baseItems = new ArrayList<>(items.values());
             baseItems.sort(Comparator.comparing(ItemMeta::id));
 
-            Path iconCacheDirectory = ensureIconCacheDirectory();
+            monitor.checkCancelled();
+            Map<ResourceId, String> iconHashes = extractIcons(baseItems, modelTextures, zipFile, nestedJars, iconDirectory);
             List<ItemMeta> enrichedItems = new ArrayList<>(baseItems.size());
             for (ItemMeta meta : baseItems) {
                 ResourceId itemId = ResourceId.fromString(meta.id());
                 String texturePath = modelTextures.get(itemId);
-                String iconReference = null;
-                if (texturePath != null) {
-                    iconReference = cacheTexture(iconCacheDirectory, itemId, texturePath, zipFile);
-                }
-                if (iconReference == null) {
-                    iconReference = cacheDefaultIcon(iconCacheDirectory, itemId);
-                }
+                String iconReference = iconHashes.get(itemId);
                 enrichedItems.add(new ItemMeta(
                         meta.id(),
                         meta.displayName(),
@@ -169,7 +169,8 @@ public final class ItemCatalogExtractor {
             }
 
             Map<String, List<String>> finalizedTags = finalizeTags(tags);
-            return new ItemCatalog(source, version, isVanilla, Collections.unmodifiableList(enrichedItems), finalizedTags);
+            return new ItemCatalog(source, version, isVanilla, Collections.unmodifiableList(enrichedItems), finalizedTags,
+                    finalizeTags(tagReferences));
         }
     }
 
@@ -187,12 +188,12 @@ public final class ItemCatalogExtractor {
         return items;
     }
 
-    private static Map<String, Set<String>> initialiseTags(ItemCatalog existingCatalog) {
+    private static Map<String, Set<String>> initialiseTags(Map<String, List<String>> existingTags) {
         Map<String, Set<String>> tags = new TreeMap<>();
-        if (existingCatalog == null) {
+        if (existingTags == null) {
             return tags;
         }
-        existingCatalog.tags().forEach((tagId, values) -> {
+        existingTags.forEach((tagId, values) -> {
             if (tagId == null || values == null) {
                 return;
             }
@@ -219,28 +220,19 @@ public final class ItemCatalogExtractor {
         return path.substring(prefix.length(), path.length() - 5);
     }
 
-    private static String selectTexture(String namespace, JsonNode texturesNode) {
-        if (texturesNode == null || !texturesNode.isObject()) {
+    private static String selectTexture(String namespace, Map<String, String> textures) {
+        if (textures.isEmpty()) {
             return null;
         }
         for (String key : TEXTURE_PREFERENCE) {
-            JsonNode value = texturesNode.get(key);
-            if (value != null && value.isTextual()) {
-                String texture = value.asText();
-                if (texture != null && !texture.isBlank()) {
-                    return normalizeTexture(namespace, texture);
-                }
+            String texture = textures.get(key);
+            if (texture != null && !texture.isBlank()) {
+                return normalizeTexture(namespace, texture);
             }
         }
-        var fields = texturesNode.fields();
-        while (fields.hasNext()) {
-            Map.Entry<String, JsonNode> entry = fields.next();
-            JsonNode value = entry.getValue();
-            if (value != null && value.isTextual()) {
-                String texture = value.asText();
-                if (texture != null && !texture.isBlank()) {
-                    return normalizeTexture(namespace, texture);
-                }
+        for (String texture : textures.values()) {
+            if (!texture.isBlank()) {
+                return normalizeTexture(namespace, texture);
             }
         }
         return null;
@@ -253,68 +245,113 @@ public final class ItemCatalogExtractor {
         return namespace + ':' + texture;
     }
 
-    private static String cacheTexture(Path iconCacheDirectory, ResourceId itemId, String textureResource,
-            ZipFile zipFile) throws IOException {
-        ResourceId textureId = ResourceId.fromString(textureResource);
-        String entryPath = "assets/" + textureId.namespace() + "/textures/" + textureId.path() + ".png";
-        ZipEntry textureEntry = zipFile.getEntry(entryPath);
-        if (textureEntry == null) {
-            return null;
-        }
-        Path namespaceDirectory = iconCacheDirectory.resolve(itemId.namespace());
-        Files.createDirectories(namespaceDirectory);
-        Path target = namespaceDirectory.resolve(itemId.path() + ".png");
-        try (InputStream input = zipFile.getInputStream(textureEntry)) {
-            byte[] data = input.readAllBytes();
-            Files.write(target, data);
+    /**
+     * Run the icon stage for every item of the catalog. Items whose model texture is missing from the
+     * archive get the placeholder icon.
+     *
+     * @return icon content hash keyed by item id
+     */
+    private static Map<ResourceId, String> extractIcons(List<ItemMeta> items, Map<ResourceId, String> modelTextures,
+            ZipFile zipFile, List<NestedJarArchive> nestedJars, Path iconDirectory) throws IOException {
+        Map<ResourceId, ResourceId> textureByItem = new LinkedHashMap<>();
+        for (Map.Entry<ResourceId, String> entry : modelTextures.entrySet()) {
+            textureByItem.put(entry.getKey(), ResourceId.fromString(entry.getValue()));
         }
-        return itemId.toString();
-    }
 
-    private static Path ensureIconCacheDirectory() throws IOException {
-        Path cacheRoot = Path.of(".cache");
-        Path iconsDir = cacheRoot.resolve("icons");
-        Files.createDirectories(iconsDir);
-        return iconsDir;
-    }
+        IconExtractionStage stage = new IconExtractionStage(iconDirectory);
+        Map<ResourceId, String> textureHashes = stage.extract(textureByItem.values(), textureId -> {
+            String name = "assets/" + textureId.namespace() + "/textures/" + textureId.path() + ".png";
+            ZipEntry entry = zipFile.getEntry(name);
+            if (entry != null) {
+                return zipFile.getInputStream(entry);
+            }
+            for (NestedJarArchive nested : nestedJars) {
+                InputStream input = nested.open(name);
+                if (input != null) {
+                    return input;
+                }
+            }
+            return null;
+        });
 
-    private static String cacheDefaultIcon(Path iconCacheDirectory, ResourceId itemId) throws IOException {
-        Path namespaceDirectory = iconCacheDirectory.resolve(itemId.namespace());
-        Files.createDirectories(namespaceDirectory);
-        Path target = namespaceDirectory.resolve(itemId.path() + ".png");
-        if (Files.exists(target)) {
-            return itemId.toString();
+        String defaultHash = null;
+        Map<ResourceId, String> iconHashes = new HashMap<>(items.size() * 2);
+        for (ItemMeta meta : items) {
+            ResourceId itemId = ResourceId.fromString(meta.id());
+            ResourceId textureId = textureByItem.get(itemId);
+            String hash = textureId != null ? textureHashes.get(textureId) : null;
+            if (hash == null) {
+                if (defaultHash == null) {
+                    defaultHash = stage.defaultIconHash();
+                }
+                hash = defaultHash;
+            }
+            iconHashes.put(itemId, hash);
         }
-        Files.write(target, IconAssets.DEFAULT_ICON_BYTES);
-        return itemId.toString();
+        return iconHashes;
     }
 
-    private static Optional<ItemMeta> parseLangEntry(String namespaceFromPath, String key, String value, boolean isVanilla,
-            Map<String, ModMetadata> modMetadata) {
-        if (key == null || value == null) {
-            return Optional.empty();
-        }
-        String[] parts = key.split("\\.");
-        if (parts.length != 3) {
-            return Optional.empty();
-        }
-        String kind = parts[0];
-        if (!kind.equals("item") && !kind.equals("block")) {
-            return Optional.empty();
+    /**
+     * Stream a lang file and keep only {@code item.<namespace>.<name>} and {@code block.<namespace>.<name>}
+     * entries. Values of all other keys are skipped without being decoded.
+     */
+    private static List<ItemMeta> readLangItems(InputStream input, String namespaceFromPath, boolean isVanilla,
+            Map<String, ModMetadata> modMetadata, StringPool strings) throws IOException {
+        List<ItemMeta> items = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return items;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                String kind = langItemKind(key, namespaceFromPath);
+                if (kind == null || valueToken != JsonToken.VALUE_STRING) {
+                    parser.skipChildren();
+                    continue;
+                }
+                String itemName = key.substring(kind.length() + namespaceFromPath.length() + 2);
+                items.add(createLangItem(namespaceFromPath, kind, itemName, parser.getText(), isVanilla, modMetadata));
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw new IOException("Malformed lang file for namespace " + namespaceFromPath);
+            }
         }
-        String namespace = parts[1];
-        if (!namespace.equals(namespaceFromPath)) {
-            return Optional.empty();
+        return items;
+    }
+
+    /**
+     * Returns {@code "item"} or {@code "block"} when {@code key} has the shape
+     * {@code <kind>.<namespace>.<name>} with a non-empty, dot-free name, otherwise {@code null}.
+     */
+    private static String langItemKind(String key, String namespace) {
+        String kind;
+        if (key.startsWith("item.")) {
+            kind = "item";
+        } else if (key.startsWith("block.")) {
+            kind = "block";
+        } else {
+            return null;
         }
-        String itemName = parts[2];
-        if (itemName.isEmpty()) {
-            return Optional.empty();
+        int namespaceStart = kind.length() + 1;
+        int nameStart = namespaceStart + namespace.length() + 1;
+        if (key.length() <= nameStart
+                || !key.startsWith(namespace, namespaceStart)
+                || key.charAt(nameStart - 1) != '.'
+                || key.indexOf('.', nameStart) >= 0) {
+            return null;
         }
+        return kind;
+    }
+
+    private static ItemMeta createLangItem(String namespace, String kind, String itemName, String value,
+            boolean isVanilla, Map<String, ModMetadata> modMetadata) {
         String id = namespace + ":" + itemName;
         boolean vanillaNamespace = "minecraft".equals(namespace);
         boolean effectiveVanilla = isVanilla || vanillaNamespace;
         ModMetadata metadata = modMetadata.get(namespace);
-        return Optional.of(new ItemMeta(
+        return new ItemMeta(
                 id,
                 value,
                 namespace,
@@ -325,7 +362,75 @@ public final class ItemCatalogExtractor {
                 metadata != null ? metadata.modId() : namespace,
                 metadata != null ? metadata.name() : null,
                 metadata != null ? metadata.version() : null
-        ));
+        );
+    }
+
+    /**
+     * Stream a tag file and collect the entries of its top-level {@code values} array. Plain item ids go
+     * to {@code tags}; nested {@code #tag} references go to {@code tagReferences} without the {@code #}.
+     */
+    private static void readTagValues(InputStream input, String tagId, Map<String, Set<String>> tags,
+            Map<String, Set<String>> tagReferences) throws IOException {
+        try (JsonParser parser = JSON.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if (!"values".equals(field) || valueToken != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                Set<String> collected = tags.computeIfAbsent(tagId, key -> new LinkedHashSet<>());
+                JsonToken element;
+                while ((element = parser.nextToken()) != JsonToken.END_ARRAY && element != null) {
+                    if (element != JsonToken.VALUE_STRING) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    String value = parser.getText();
+                    if (value.startsWith("#")) {
+                        if (value.length() > 1) {
+                            tagReferences.computeIfAbsent(tagId, key -> new LinkedHashSet<>()).add(value.substring(1));
+                        }
+                    } else {
+                        collected.add(value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream a model file and return only its top-level {@code textures} map. Large subtrees such as
+     * {@code elements} and {@code display} are skipped without building nodes.
+     */
+    private static Map<String, String> readModelTextures(InputStream input) throws IOException {
+        try (JsonParser parser = JSON.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Map.of();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if (!"textures".equals(field) || valueToken != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                Map<String, String> textures = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String key = parser.currentName();
+                    if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        textures.put(key, parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                return textures;
+            }
+        }
+        return Map.of();
     }
 
     private static ItemMeta createPlaceholderItem(String id, boolean isVanilla, Map<String, ModMetadata> modMetadata) {
@@ -493,5 +598,106 @@ public final class ItemCatalogExtractor {
         return value;
     }
 
-    private record ModMetadata(String modId, String name, String version) { }
+    private static String resourceNamespace(String name) {
+        if (name.startsWith("assets/")) {
+            return extractNamespace(name, "assets/");
+        }
+        if (name.startsWith("data/")) {
+            return extractNamespace(name, "data/");
+        }
+        return "";
+    }
+
+    @FunctionalInterface
+    private interface EntryOpener {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Routes lang, item tag and item model entries into the extraction state, regardless of whether they
+     * come from the outer JAR or a nested one.
+     */
+    private static final class EntryCollector {
+        private final boolean isVanilla;
+        private final Map<String, ItemMeta> items;
+        private final Map<String, Set<String>> tags;
+        private final Map<String, Set<String>> tagReferences;
+        private final Map<String, ModMetadata> modMetadata;
+        private final Map<ResourceId, String> modelTextures;
+        private final StringPool strings;
+
+        private EntryCollector(boolean isVanilla, Map<String, ItemMeta> items, Map<String, Set<String>> tags,
+                Map<String, Set<String>> tagReferences, Map<String, ModMetadata> modMetadata,
+                Map<ResourceId, String> modelTextures, StringPool strings) {
+            this.isVanilla = isVanilla;
+            this.items = items;
+            this.tags = tags;
+            this.tagReferences = tagReferences;
+            this.modMetadata = modMetadata;
+            this.modelTextures = modelTextures;
+            this.strings = strings;
+        }
+
+        void accept(String name, EntryOpener opener) throws IOException {
+            if (name.startsWith("assets/") && name.endsWith("/lang/en_us.json")) {
+                String namespace = strings.intern(extractNamespace(name, "assets/"));
+                if (namespace.isEmpty()) {
+                    return;
+                }
+                try (InputStream input = opener.open()) {
+                    readLangItems(input, namespace, isVanilla, modMetadata, strings)
+                            .forEach(meta -> items.put(meta.id(), meta));
+                }
+            } else if (name.startsWith("data/") && name.contains("/tags/items/") && name.endsWith(".json")) {
+                String namespace = extractNamespace(name, "data/");
+                if (namespace.isEmpty()) {
+                    return;
+                }
+                String tagId = buildTagId(namespace, name);
+                if (tagId == null) {
+                    return;
+                }
+                try (InputStream input = opener.open()) {
+                    readTagValues(input, tagId, tags, tagReferences);
+                }
+            } else if (name.startsWith("assets/") && name.contains("/models/item/") && name.endsWith(".json")) {
+                String namespace = extractNamespace(name, "assets/");
+                if (namespace.isEmpty()) {
+                    return;
+                }
+                String itemPath = extractModelPath(name, namespace);
+                if (itemPath.isEmpty()) {
+                    return;
+                }
+                try (InputStream input = opener.open()) {
+                    String texture = selectTexture(namespace, readModelTextures(input));
+                    if (texture != null) {
+                        // The outer JAR wins when a nested one ships the same model.
+                        modelTextures.putIfAbsent(new ResourceId(namespace, itemPath), texture);
+                    }
+                }
+            }
+        }
+    }
+
+    private record ModMetadata(String modId, String name, String version) {
+        ModMetadata intern(StringPool strings) {
+            return new ModMetadata(strings.intern(modId), strings.intern(name), strings.intern(version));
+        }
+    }
+
+    /**
+     * Per-extraction string pool so every item of a namespace shares one namespace and mod id instance.
+     */
+    private static final class StringPool {
+        private final Map<String, String> pool = new HashMap<>();
+
+        String intern(String value) {
+            if (value == null) {
+                return null;
+            }
+            String existing = pool.putIfAbsent(value, value);
+            return existing != null ? existing : value;
+        }
+    }
 }
@@ -1,13 +1,10 @@
 package dev.ftbq.editor.ingest;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.ftbq.editor.resources.ResourceId;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -15,15 +12,12 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 /**
  * Resolves item textures by following model indirections when necessary.
  */
 public final class ItemTextureResolver {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final List<String> TEXTURE_PRIORITY = List.of("layer0", "texture", "all", "particle");
 
     private ItemTextureResolver() {
@@ -42,22 +36,8 @@ public final class ItemTextureResolver {
             return Optional.empty();
         }
 
-        try (ZipFileProvider provider = new ZipFileProvider(jars)) {
-            Optional<TextureLocation> direct = locateDirectTexture(provider, itemId);
-            if (direct.isPresent()) {
-                return direct;
-            }
-
-            ResourceId modelId = new ResourceId(itemId.namespace(), "item/" + itemId.path());
-            Optional<TextureLocation> viaModel = resolveModelTexture(provider, modelId, new HashSet<>());
-            if (viaModel.isPresent()) {
-                return viaModel;
-            }
-
-            Optional<TextureLocation> defaultTexture = locateDefaultTexture(provider);
-            if (defaultTexture.isPresent()) {
-                return defaultTexture;
-            }
+        try (ModelIndex index = new ModelIndex(jars)) {
+            return resolveTexture(index, itemId);
         } catch (IOException ignored) {
             // Ignore and fall through to the empty result.
         }
@@ -65,92 +45,120 @@ public final class ItemTextureResolver {
         return Optional.empty();
     }
 
-    private static Optional<TextureLocation> locateDirectTexture(ZipFileProvider provider, ResourceId itemId)
-            throws IOException {
+    /**
+     * Resolve the texture of an item against a shared {@link ModelIndex}. Model files and parent
+     * chains already visited through the index are not parsed or walked again.
+     *
+     * @param index  model index for the JAR set
+     * @param itemId item to resolve
+     * @return texture location, if any
+     */
+    public static Optional<TextureLocation> resolveTexture(ModelIndex index, ResourceId itemId) {
+        if (index == null || itemId == null) {
+            return Optional.empty();
+        }
+
+        Optional<TextureLocation> direct = locateDirectTexture(index, itemId);
+        if (direct.isPresent()) {
+            return direct;
+        }
+
+        ResourceId modelId = new ResourceId(itemId.namespace(), "item/" + itemId.path());
+        Optional<TextureLocation> viaModel = resolveModelTexture(index, modelId, new HashSet<>());
+        if (viaModel.isPresent()) {
+            return viaModel;
+        }
+
+        return locateDefaultTexture(index);
+    }
+
+    /**
+     * Resolve the textures of a whole catalog in one pass over a single {@link ModelIndex}.
+     *
+     * @param jars    JARs keyed by the namespace they provide
+     * @param itemIds items to resolve
+     * @return resolved textures keyed by item id, in iteration order; unresolved items are omitted
+     */
+    public static Map<ResourceId, TextureLocation> resolveAll(Map<String, File> jars, Collection<ResourceId> itemIds) {
+        if (jars == null || itemIds == null || itemIds.isEmpty()) {
+            return Map.of();
+        }
+        try (ModelIndex index = new ModelIndex(jars)) {
+            return resolveAll(index, itemIds);
+        } catch (IOException ignored) {
+            return Map.of();
+        }
+    }
+
+    public static Map<ResourceId, TextureLocation> resolveAll(ModelIndex index, Collection<ResourceId> itemIds) {
+        Objects.requireNonNull(index, "index");
+        Objects.requireNonNull(itemIds, "itemIds");
+        Map<ResourceId, TextureLocation> resolved = new LinkedHashMap<>();
+        for (ResourceId itemId : itemIds) {
+            if (itemId == null) {
+                continue;
+            }
+            resolveTexture(index, itemId).ifPresent(location -> resolved.put(itemId, location));
+        }
+        return resolved;
+    }
+
+    private static Optional<TextureLocation> locateDirectTexture(ModelIndex index, ResourceId itemId) {
         ResourceId textureId = new ResourceId(itemId.namespace(), "item/" + itemId.path());
-        return locateTextureResource(provider, textureId);
+        return index.texture(textureId);
     }
 
-    private static Optional<TextureLocation> resolveModelTexture(ZipFileProvider provider, ResourceId modelId,
-            Set<ResourceId> visited) throws IOException {
+    private static Optional<TextureLocation> resolveModelTexture(ModelIndex index, ResourceId modelId,
+            Set<ResourceId> visited) {
+        Optional<TextureLocation> cached = index.cachedModelTexture(modelId);
+        if (cached != null) {
+            return cached;
+        }
         if (!visited.add(modelId)) {
             return Optional.empty();
         }
 
-        ZipFile zipFile = provider.open(modelId.namespace());
-        if (zipFile == null) {
-            return Optional.empty();
-        }
+        Optional<TextureLocation> resolved = index.model(modelId)
+                .flatMap(model -> resolveDeclaredTexture(index, model)
+                        .or(() -> model.parent() != null
+                                ? resolveModelTexture(index, model.parent(), visited)
+                                : Optional.empty()));
+        index.cacheModelTexture(modelId, resolved);
+        return resolved;
+    }
 
-        String entryName = "assets/" + modelId.namespace() + "/models/" + modelId.path() + ".json";
-        ZipEntry entry = zipFile.getEntry(entryName);
-        if (entry == null) {
+    private static Optional<TextureLocation> resolveDeclaredTexture(ModelIndex index, ModelIndex.ModelDefinition model) {
+        Map<String, String> textureMap = model.textures();
+        if (textureMap.isEmpty()) {
             return Optional.empty();
         }
-
-        try (InputStream input = zipFile.getInputStream(entry)) {
-            JsonNode root = MAPPER.readTree(input);
-            if (root == null) {
-                return Optional.empty();
+        List<String> ordered = new ArrayList<>();
+        for (String key : TEXTURE_PRIORITY) {
+            String value = textureMap.get(key);
+            if (value != null) {
+                ordered.add(value);
             }
-
-            JsonNode texturesNode = root.get("textures");
-            if (texturesNode != null && texturesNode.isObject()) {
-                Map<String, String> textureMap = collectTextures(texturesNode);
-                List<String> ordered = new ArrayList<>();
-                for (String key : TEXTURE_PRIORITY) {
-                    String value = textureMap.get(key);
-                    if (value != null) {
-                        ordered.add(value);
-                    }
-                }
-                for (String value : textureMap.values()) {
-                    if (!ordered.contains(value)) {
-                        ordered.add(value);
-                    }
-                }
-
-                for (String candidate : ordered) {
-                    String resolved = resolveAlias(candidate, textureMap, new HashSet<>());
-                    if (resolved == null || resolved.isBlank()) {
-                        continue;
-                    }
-                    ResourceId textureId = ResourceId.fromString(resolved, modelId.namespace());
-                    Optional<TextureLocation> resolvedTexture = locateTextureResource(provider, textureId);
-                    if (resolvedTexture.isPresent()) {
-                        return resolvedTexture;
-                    }
-                }
+        }
+        for (String value : textureMap.values()) {
+            if (!ordered.contains(value)) {
+                ordered.add(value);
             }
+        }
 
-            JsonNode parentNode = root.get("parent");
-            if (parentNode != null && parentNode.isTextual()) {
-                String parentRef = parentNode.asText();
-                if (!parentRef.isBlank()) {
-                    ResourceId parentId = ResourceId.fromString(parentRef, modelId.namespace());
-                    // Parent references include the directory (item/, block/, etc.).
-                    Optional<TextureLocation> resolvedParent = resolveModelTexture(provider, parentId, visited);
-                    if (resolvedParent.isPresent()) {
-                        return resolvedParent;
-                    }
-                }
+        for (String candidate : ordered) {
+            String resolved = resolveAlias(candidate, textureMap, new HashSet<>());
+            if (resolved == null || resolved.isBlank()) {
+                continue;
+            }
+            ResourceId textureId = ResourceId.fromString(resolved, model.id().namespace());
+            Optional<TextureLocation> resolvedTexture = index.texture(textureId);
+            if (resolvedTexture.isPresent()) {
+                return resolvedTexture;
             }
         }
-
         return Optional.empty();
     }
 
-    private static Map<String, String> collectTextures(JsonNode texturesNode) {
-        Map<String, String> textureMap = new LinkedHashMap<>();
-        texturesNode.fields().forEachRemaining(entry -> {
-            JsonNode value = entry.getValue();
-            if (value != null && value.isTextual()) {
-                textureMap.put(entry.getKey(), value.asText());
-            }
-        });
-        return textureMap;
-    }
-
     private static String resolveAlias(String value, Map<String, String> textureMap, Set<String> visitedKeys) {
         if (value == null || !value.startsWith("#")) {
             return value;
@@ -166,73 +174,13 @@ public final class ItemTextureResolver {
         return resolveAlias(next, textureMap, visitedKeys);
     }
 
-    private static Optional<TextureLocation> locateTextureResource(ZipFileProvider provider, ResourceId textureId)
-            throws IOException {
-        ZipFile zipFile = provider.open(textureId.namespace());
-        if (zipFile == null) {
-            return Optional.empty();
-        }
-        String entryName = "assets/" + textureId.namespace() + "/textures/" + textureId.path() + ".png";
-        ZipEntry entry = zipFile.getEntry(entryName);
-        if (entry == null) {
-            return Optional.empty();
-        }
-        File jarFile = provider.jarFile(textureId.namespace());
-        return Optional.of(new TextureLocation(jarFile, textureId, entryName));
-    }
-
-    private static Optional<TextureLocation> locateDefaultTexture(ZipFileProvider provider) throws IOException {
+    private static Optional<TextureLocation> locateDefaultTexture(ModelIndex index) {
         ResourceId defaultId = new ResourceId("minecraft", "item/default");
-        return locateTextureResource(provider, defaultId);
+        return index.texture(defaultId);
     }
 
     /**
      * Describes the resolved texture and its source.
      */
     public record TextureLocation(File jar, ResourceId textureId, String entryName) { }
-
-    private static final class ZipFileProvider implements AutoCloseable {
-        private final Map<String, File> jarsByNamespace;
-        private final Map<String, ZipFile> openArchives = new HashMap<>();
-
-        private ZipFileProvider(Map<String, File> jars) {
-            this.jarsByNamespace = jars != null ? new HashMap<>(jars) : Map.of();
-        }
-
-        ZipFile open(String namespace) throws IOException {
-            File jarFile = jarsByNamespace.get(namespace);
-            if (jarFile == null || !jarFile.isFile()) {
-                return null;
-            }
-            ZipFile existing = openArchives.get(namespace);
-            if (existing != null) {
-                return existing;
-            }
-            ZipFile zipFile = new ZipFile(jarFile);
-            openArchives.put(namespace, zipFile);
-            return zipFile;
-        }
-
-        File jarFile(String namespace) {
-            return jarsByNamespace.get(namespace);
-        }
-
-        @Override
-        public void close() throws IOException {
-            IOException first = null;
-            for (ZipFile zipFile : openArchives.values()) {
-                try {
-                    zipFile.close();
-                } catch (IOException ex) {
-                    if (first == null) {
-                        first = ex;
-                    }
-                }
-            }
-            openArchives.clear();
-            if (first != null) {
-                throw first;
-            }
-        }
-    }
 }
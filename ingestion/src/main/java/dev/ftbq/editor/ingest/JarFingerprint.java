@@ -0,0 +1,147 @@
+package dev.ftbq.editor.ingest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Cheap identity of a JAR file used to decide whether it needs to be ingested again.
+ * <p>
+ * Besides size and modification time the fingerprint hashes the ZIP central directory, which lists
+ * the name, CRC and size of every entry. Any change to the archive contents changes the central
+ * directory, yet hashing it only touches a few kilobytes at the end of the file.
+ *
+ * @param jarPath            absolute, normalised path of the JAR
+ * @param size               file size in bytes
+ * @param modifiedMillis     last modification time in epoch milliseconds
+ * @param centralDirectoryHash SHA-256 of the central directory and end record
+ * @param extractorVersion   {@link ItemCatalogExtractor#EXTRACTOR_VERSION} that produced the data
+ */
+public record JarFingerprint(
+        String jarPath,
+        long size,
+        long modifiedMillis,
+        String centralDirectoryHash,
+        int extractorVersion
+) {
+
+    private static final int END_RECORD_SIGNATURE = 0x06054b50;
+    private static final int END_RECORD_MIN_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final long ZIP64_MARKER = 0xFFFFFFFFL;
+    private static final int READ_CHUNK = 64 * 1024;
+
+    public JarFingerprint {
+        Objects.requireNonNull(jarPath, "jarPath");
+        Objects.requireNonNull(centralDirectoryHash, "centralDirectoryHash");
+    }
+
+    /**
+     * Compute the fingerprint of the supplied JAR using the current extractor version.
+     *
+     * @param jar path to the JAR
+     * @return fingerprint of the archive
+     * @throws IOException if the file cannot be read
+     */
+    public static JarFingerprint of(Path jar) throws IOException {
+        return of(jar, ItemCatalogExtractor.EXTRACTOR_VERSION);
+    }
+
+    public static JarFingerprint of(Path jar, int extractorVersion) throws IOException {
+        Objects.requireNonNull(jar, "jar");
+        Path absolute = jar.toAbsolutePath().normalize();
+        long size = Files.size(absolute);
+        long modified = Files.getLastModifiedTime(absolute).toMillis();
+        String hash = hashCentralDirectory(absolute, size);
+        return new JarFingerprint(absolute.toString(), size, modified, hash, extractorVersion);
+    }
+
+    /**
+     * Whether this fingerprint describes the same archive contents as {@code other}.
+     */
+    public boolean matches(JarFingerprint other) {
+        return other != null
+                && jarPath.equals(other.jarPath)
+                && size == other.size
+                && modifiedMillis == other.modifiedMillis
+                && extractorVersion == other.extractorVersion
+                && centralDirectoryHash.equals(other.centralDirectoryHash);
+    }
+
+    private static String hashCentralDirectory(Path jar, long size) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            int tailLength = (int) Math.min(size, END_RECORD_MIN_SIZE + MAX_COMMENT_SIZE);
+            ByteBuffer tail = ByteBuffer.allocate(tailLength).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, tail, size - tailLength);
+            tail.flip();
+
+            int endRecord = findEndRecord(tail);
+            if (endRecord < 0) {
+                // Not a well-formed archive; fall back to hashing the tail so changes are still noticed.
+                digest.update(tail);
+                return HexFormat.of().formatHex(digest.digest());
+            }
+
+            long directorySize = Integer.toUnsignedLong(tail.getInt(endRecord + 12));
+            long directoryOffset = Integer.toUnsignedLong(tail.getInt(endRecord + 16));
+            boolean zip64 = directorySize == ZIP64_MARKER || directoryOffset == ZIP64_MARKER;
+            if (!zip64 && directoryOffset + directorySize <= size) {
+                ByteBuffer chunk = ByteBuffer.allocate(READ_CHUNK);
+                long position = directoryOffset;
+                long remaining = directorySize;
+                while (remaining > 0) {
+                    chunk.clear();
+                    chunk.limit((int) Math.min(READ_CHUNK, remaining));
+                    int read = channel.read(chunk, position);
+                    if (read < 0) {
+                        break;
+                    }
+                    chunk.flip();
+                    digest.update(chunk);
+                    position += read;
+                    remaining -= read;
+                }
+            }
+            tail.position(endRecord);
+            digest.update(tail);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static int findEndRecord(ByteBuffer tail) {
+        for (int index = tail.limit() - END_RECORD_MIN_SIZE; index >= 0; index--) {
+            if (tail.getInt(index) == END_RECORD_SIGNATURE) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                break;
+            }
+            offset += read;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 digest not available", ex);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package dev.ftbq.editor.ingest;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -9,6 +10,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.regex.Matcher;
@@ -69,7 +71,16 @@ public final class JarScanner {
      * Extract proxy items from models and textures when formal JSON definitions are missing.
      */
     public static List<ItemMeta> extractProxyItems(Path jar, String version) throws IOException {
+        return extractProxyItems(jar, version, IngestionMonitor.NONE);
+    }
+
+    /**
+     * Variant of {@link #extractProxyItems(Path, String)} that reports every archive entry to {@code monitor}.
+     */
+    public static List<ItemMeta> extractProxyItems(Path jar, String version, IngestionMonitor monitor)
+            throws IOException {
         Objects.requireNonNull(jar, "jar");
+        Objects.requireNonNull(monitor, "monitor");
 
         Map<String, ProxyItemDescriptor> descriptors = new LinkedHashMap<>();
         var resolvedFile = jar.toAbsolutePath().toFile();
@@ -77,35 +88,7 @@ public final class JarScanner {
             LOGGER.warn("Jar file not found for proxy scan: {}", resolvedFile);
             return List.of();
         }
-        try (ZipFile zipFile = new ZipFile(resolvedFile)) {
-            Enumeration<? extends ZipEntry> entries = zipFile.entries();
-            while (entries.hasMoreElements()) {
-                ZipEntry entry = entries.nextElement();
-                if (entry.isDirectory()) {
-                    continue;
-                }
-                String path = entry.getName();
-                Matcher matcher = MOD_ASSET_PATTERN.matcher(path);
-                if (!matcher.find()) {
-                    continue;
-                }
-
-                String modId = matcher.group(1);
-                String fileName = matcher.group(2);
-                String itemName = FilenameUtils.getBaseName(fileName);
-                if (itemName == null || itemName.isBlank()) {
-                    continue;
-                }
-
-                String id = modId + ":" + itemName;
-                ProxyItemDescriptor descriptor = descriptors.computeIfAbsent(id, ignored ->
-                        new ProxyItemDescriptor(id, toDisplayName(itemName), modId, resolveModName(jar, modId)));
-
-                if (descriptor.texturePath == null || path.contains("/textures/item/")) {
-                    descriptor.texturePath = path;
-                }
-            }
-        }
+        forEachEntryPath(resolvedFile, monitor, path -> collectProxyItem(jar, path, descriptors));
 
         List<String> ids = new ArrayList<>(descriptors.keySet());
         Collections.sort(ids);
@@ -132,7 +115,16 @@ public final class JarScanner {
     }
 
     public static List<EntityMeta> extractProxyEntities(Path jar, String version) throws IOException {
+        return extractProxyEntities(jar, version, IngestionMonitor.NONE);
+    }
+
+    /**
+     * Variant of {@link #extractProxyEntities(Path, String)} that reports every archive entry to {@code monitor}.
+     */
+    public static List<EntityMeta> extractProxyEntities(Path jar, String version, IngestionMonitor monitor)
+            throws IOException {
         Objects.requireNonNull(jar, "jar");
+        Objects.requireNonNull(monitor, "monitor");
 
         Map<String, ProxyEntityDescriptor> descriptors = new LinkedHashMap<>();
         var resolvedFile = jar.toAbsolutePath().toFile();
@@ -143,42 +135,7 @@ public final class JarScanner {
 
         boolean isVanilla = isVanillaJar(jar);
 
-        try (ZipFile zipFile = new ZipFile(resolvedFile)) {
-            Enumeration<? extends ZipEntry> entries = zipFile.entries();
-            while (entries.hasMoreElements()) {
-                ZipEntry entry = entries.nextElement();
-                if (entry.isDirectory()) {
-                    continue;
-                }
-                String path = entry.getName();
-
-                Matcher textureMatcher = ENTITY_TEXTURE_PATTERN.matcher(path);
-                if (textureMatcher.find()) {
-                    String modId = textureMatcher.group(1);
-                    String entityName = textureMatcher.group(2);
-                    if (entityName != null && !entityName.isBlank()) {
-                        String id = modId + ":" + entityName;
-                        ProxyEntityDescriptor descriptor = descriptors.computeIfAbsent(id, ignored ->
-                                new ProxyEntityDescriptor(id, toDisplayName(entityName), modId, resolveModName(jar, modId)));
-                        if (descriptor.texturePath == null) {
-                            descriptor.texturePath = path;
-                        }
-                    }
-                    continue;
-                }
-
-                Matcher modelMatcher = ENTITY_MODEL_PATTERN.matcher(path);
-                if (modelMatcher.find()) {
-                    String modId = modelMatcher.group(1);
-                    String entityName = FilenameUtils.getBaseName(modelMatcher.group(2));
-                    if (entityName != null && !entityName.isBlank()) {
-                        String id = modId + ":" + entityName;
-                        descriptors.computeIfAbsent(id, ignored ->
-                                new ProxyEntityDescriptor(id, toDisplayName(entityName), modId, resolveModName(jar, modId)));
-                    }
-                }
-            }
-        }
+        forEachEntryPath(resolvedFile, monitor, path -> collectProxyEntity(jar, path, descriptors));
 
         List<String> ids = new ArrayList<>(descriptors.keySet());
         Collections.sort(ids);
@@ -202,6 +159,90 @@ public final class JarScanner {
         return proxyEntities;
     }
 
+    private static void collectProxyItem(Path jar, String path, Map<String, ProxyItemDescriptor> descriptors) {
+        Matcher matcher = MOD_ASSET_PATTERN.matcher(path);
+        if (!matcher.find()) {
+            return;
+        }
+
+        String modId = matcher.group(1);
+        String fileName = matcher.group(2);
+        String itemName = FilenameUtils.getBaseName(fileName);
+        if (itemName == null || itemName.isBlank()) {
+            return;
+        }
+
+        String id = modId + ":" + itemName;
+        ProxyItemDescriptor descriptor = descriptors.computeIfAbsent(id, ignored ->
+                new ProxyItemDescriptor(id, toDisplayName(itemName), modId, resolveModName(jar, modId)));
+
+        if (descriptor.texturePath == null || path.contains("/textures/item/")) {
+            descriptor.texturePath = path;
+        }
+    }
+
+    private static void collectProxyEntity(Path jar, String path, Map<String, ProxyEntityDescriptor> descriptors) {
+        Matcher textureMatcher = ENTITY_TEXTURE_PATTERN.matcher(path);
+        if (textureMatcher.find()) {
+            String modId = textureMatcher.group(1);
+            String entityName = textureMatcher.group(2);
+            if (entityName != null && !entityName.isBlank()) {
+                String id = modId + ":" + entityName;
+                ProxyEntityDescriptor descriptor = descriptors.computeIfAbsent(id, ignored ->
+                        new ProxyEntityDescriptor(id, toDisplayName(entityName), modId, resolveModName(jar, modId)));
+                if (descriptor.texturePath == null) {
+                    descriptor.texturePath = path;
+                }
+            }
+            return;
+        }
+
+        Matcher modelMatcher = ENTITY_MODEL_PATTERN.matcher(path);
+        if (modelMatcher.find()) {
+            String modId = modelMatcher.group(1);
+            String entityName = FilenameUtils.getBaseName(modelMatcher.group(2));
+            if (entityName != null && !entityName.isBlank()) {
+                String id = modId + ":" + entityName;
+                descriptors.computeIfAbsent(id, ignored ->
+                        new ProxyEntityDescriptor(id, toDisplayName(entityName), modId, resolveModName(jar, modId)));
+            }
+        }
+    }
+
+    /**
+     * Visit the name of every file entry of the JAR and of the JARs bundled in it. Nested entries are
+     * attributed to the outer JAR by the callers, which derive the mod name from {@code jar}.
+     */
+    private static void forEachEntryPath(File file, IngestionMonitor monitor, Consumer<String> visitor)
+            throws IOException {
+        List<String> nestedJarNames = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                monitor.entryProcessed(Math.max(0, entry.getCompressedSize()));
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                String path = entry.getName();
+                if (NestedJarArchive.isNestedJar(path)) {
+                    nestedJarNames.add(path);
+                } else {
+                    visitor.accept(path);
+                }
+            }
+        }
+        for (NestedJarArchive nested :
+                NestedJarArchive.openNested(file.toPath(), nestedJarNames, NestedJarArchive.Limits.DEFAULT)) {
+            for (NestedJarArchive.Entry entry : nested.entries()) {
+                monitor.entryProcessed(entry.compressedSize());
+                if (!entry.isDirectory() && !NestedJarArchive.isNestedJar(entry.name())) {
+                    visitor.accept(entry.name());
+                }
+            }
+        }
+    }
+
     private static boolean isVanillaJar(Path jar) {
         String fileName = jar.getFileName() != null ? jar.getFileName().toString().toLowerCase() : "";
         return fileName.contains("minecraft") && !fileName.contains("forge") && !fileName.contains("fabric");
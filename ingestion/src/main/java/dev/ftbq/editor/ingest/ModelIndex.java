@@ -0,0 +1,227 @@
+package dev.ftbq.editor.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.ftbq.editor.resources.ResourceId;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Index of item and block models for a fixed set of JARs.
+ * <p>
+ * Each archive is opened once and each model JSON is parsed at most once, no matter how many items
+ * inherit from it. Shared parents such as {@code item/generated} or {@code block/cube_all} are therefore
+ * read a single time per catalog instead of once per item. The index also memoizes the texture each
+ * model resolves to so that sibling items sharing a parent chain reuse the result.
+ * <p>
+ * Instances are safe for concurrent use and must be closed to release the underlying archives.
+ */
+public final class ModelIndex implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, File> jarsByNamespace;
+    private final Map<String, ZipFile> openArchives = new HashMap<>();
+    private final Map<ResourceId, Optional<ModelDefinition>> models = new ConcurrentHashMap<>();
+    private final Map<ResourceId, Optional<ItemTextureResolver.TextureLocation>> resolvedModels =
+            new ConcurrentHashMap<>();
+    private final Map<ResourceId, Optional<ItemTextureResolver.TextureLocation>> textures = new ConcurrentHashMap<>();
+    private boolean closed;
+
+    /**
+     * @param jarsByNamespace JAR that owns each namespace; {@code null} keys and values are ignored
+     */
+    public ModelIndex(Map<String, File> jarsByNamespace) {
+        Map<String, File> jars = new HashMap<>();
+        if (jarsByNamespace != null) {
+            jarsByNamespace.forEach((namespace, jar) -> {
+                if (namespace != null && jar != null) {
+                    jars.put(namespace, jar);
+                }
+            });
+        }
+        this.jarsByNamespace = Collections.unmodifiableMap(jars);
+    }
+
+    /**
+     * Look up a model by id, parsing it on first access.
+     *
+     * @param modelId model identifier including its directory, for example {@code minecraft:item/stick}
+     * @return the parsed model, or empty when the model does not exist or cannot be read
+     */
+    public Optional<ModelDefinition> model(ResourceId modelId) {
+        Objects.requireNonNull(modelId, "modelId");
+        Optional<ModelDefinition> cached = models.get(modelId);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<ModelDefinition> parsed = parseModel(modelId);
+        Optional<ModelDefinition> previous = models.putIfAbsent(modelId, parsed);
+        return previous != null ? previous : parsed;
+    }
+
+    /**
+     * Locate a texture PNG inside the indexed JARs.
+     *
+     * @param textureId texture identifier relative to {@code textures/}
+     * @return location of the texture, or empty when the owning JAR does not contain it
+     */
+    public Optional<ItemTextureResolver.TextureLocation> texture(ResourceId textureId) {
+        Objects.requireNonNull(textureId, "textureId");
+        Optional<ItemTextureResolver.TextureLocation> cached = textures.get(textureId);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<ItemTextureResolver.TextureLocation> located = locateTexture(textureId);
+        textures.putIfAbsent(textureId, located);
+        return located;
+    }
+
+    /**
+     * Open the bytes of a previously resolved texture using the archive already held by this index.
+     *
+     * @param location resolved texture location
+     * @return stream over the PNG bytes, or {@code null} if the entry disappeared
+     * @throws IOException if the archive cannot be read
+     */
+    public InputStream openTexture(ItemTextureResolver.TextureLocation location) throws IOException {
+        Objects.requireNonNull(location, "location");
+        ZipFile zipFile = archive(location.textureId().namespace());
+        if (zipFile == null) {
+            return null;
+        }
+        ZipEntry entry = zipFile.getEntry(location.entryName());
+        return entry != null ? zipFile.getInputStream(entry) : null;
+    }
+
+    Optional<ItemTextureResolver.TextureLocation> cachedModelTexture(ResourceId modelId) {
+        return resolvedModels.get(modelId);
+    }
+
+    void cacheModelTexture(ResourceId modelId, Optional<ItemTextureResolver.TextureLocation> texture) {
+        resolvedModels.putIfAbsent(modelId, texture);
+    }
+
+    /**
+     * Number of model files parsed so far. Exposed for diagnostics and tests.
+     */
+    public int parsedModelCount() {
+        return models.size();
+    }
+
+    private Optional<ModelDefinition> parseModel(ResourceId modelId) {
+        try {
+            ZipFile zipFile = archive(modelId.namespace());
+            if (zipFile == null) {
+                return Optional.empty();
+            }
+            ZipEntry entry = zipFile.getEntry("assets/" + modelId.namespace() + "/models/" + modelId.path() + ".json");
+            if (entry == null) {
+                return Optional.empty();
+            }
+            try (InputStream input = zipFile.getInputStream(entry)) {
+                JsonNode root = MAPPER.readTree(input);
+                if (root == null) {
+                    return Optional.empty();
+                }
+                Map<String, String> textureMap = new LinkedHashMap<>();
+                JsonNode texturesNode = root.get("textures");
+                if (texturesNode != null && texturesNode.isObject()) {
+                    texturesNode.fields().forEachRemaining(field -> {
+                        JsonNode value = field.getValue();
+                        if (value != null && value.isTextual()) {
+                            textureMap.put(field.getKey(), value.asText());
+                        }
+                    });
+                }
+                ResourceId parent = null;
+                JsonNode parentNode = root.get("parent");
+                if (parentNode != null && parentNode.isTextual() && !parentNode.asText().isBlank()) {
+                    // Parent references include the directory (item/, block/, etc.).
+                    parent = ResourceId.fromString(parentNode.asText(), modelId.namespace());
+                }
+                return Optional.of(new ModelDefinition(modelId, parent, textureMap));
+            }
+        } catch (IOException | RuntimeException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<ItemTextureResolver.TextureLocation> locateTexture(ResourceId textureId) {
+        try {
+            ZipFile zipFile = archive(textureId.namespace());
+            if (zipFile == null) {
+                return Optional.empty();
+            }
+            String entryName = "assets/" + textureId.namespace() + "/textures/" + textureId.path() + ".png";
+            if (zipFile.getEntry(entryName) == null) {
+                return Optional.empty();
+            }
+            File jarFile = jarsByNamespace.get(textureId.namespace());
+            return Optional.of(new ItemTextureResolver.TextureLocation(jarFile, textureId, entryName));
+        } catch (IOException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private synchronized ZipFile archive(String namespace) throws IOException {
+        if (closed) {
+            throw new IOException("Model index has been closed");
+        }
+        File jarFile = jarsByNamespace.get(namespace);
+        if (jarFile == null || !jarFile.isFile()) {
+            return null;
+        }
+        ZipFile existing = openArchives.get(namespace);
+        if (existing != null) {
+            return existing;
+        }
+        ZipFile zipFile = new ZipFile(jarFile);
+        openArchives.put(namespace, zipFile);
+        return zipFile;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        IOException first = null;
+        for (ZipFile zipFile : openArchives.values()) {
+            try {
+                zipFile.close();
+            } catch (IOException ex) {
+                if (first == null) {
+                    first = ex;
+                }
+            }
+        }
+        openArchives.clear();
+        if (first != null) {
+            throw first;
+        }
+    }
+
+    /**
+     * Parsed model file.
+     *
+     * @param id       model identifier including its directory
+     * @param parent   parent model, or {@code null} for root models
+     * @param textures texture variables declared directly by this model, in declaration order
+     */
+    public record ModelDefinition(ResourceId id, ResourceId parent, Map<String, String> textures) {
+        public ModelDefinition {
+            Objects.requireNonNull(id, "id");
+            textures = Collections.unmodifiableMap(new LinkedHashMap<>(
+                    Objects.requireNonNull(textures, "textures")));
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package dev.ftbq.editor.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read-only ZIP archive over a {@link ByteBuffer}, used to look inside JARs bundled in a mod under
+ * {@code META-INF/jars/} (Fabric) or {@code META-INF/jarjar/} (Forge and NeoForge).
+ * <p>
+ * Nested JARs are never extracted to disk. The outer JAR is memory-mapped; a nested JAR that is stored
+ * uncompressed is a slice of that mapping and its central directory is read in place, while a deflated
+ * nested JAR is inflated into memory once. {@link Limits} bound the nesting depth, the size of a single
+ * nested JAR and the memory inflated for one outer JAR. Mapped buffers are released by the garbage
+ * collector, so archives should not be retained longer than the ingestion pass that opened them.
+ */
+public final class NestedJarArchive {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NestedJarArchive.class);
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int END_HEADER_SIZE = 22;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    /**
+     * Bounds applied while opening nested archives.
+     *
+     * @param maxDepth      deepest nesting level opened; {@code 1} means only JARs directly inside the outer JAR
+     * @param maxEntryBytes largest uncompressed nested JAR that is opened
+     * @param maxTotalBytes memory that may be inflated for one outer JAR; stored nested JARs do not count
+     */
+    public record Limits(int maxDepth, long maxEntryBytes, long maxTotalBytes) {
+        public static final Limits DEFAULT = new Limits(2, 64L << 20, 256L << 20);
+
+        public Limits {
+            if (maxDepth < 0 || maxEntryBytes < 0 || maxTotalBytes < 0) {
+                throw new IllegalArgumentException("Limits must not be negative");
+            }
+        }
+    }
+
+    /**
+     * Central directory record of one archive entry.
+     */
+    public record Entry(String name, int method, long compressedSize, long size, long localHeaderOffset) {
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+
+    private final String path;
+    private final int depth;
+    private final ByteBuffer buffer;
+    private final List<Entry> entries;
+    private final Map<String, Entry> entriesByName;
+
+    private NestedJarArchive(String path, int depth, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.depth = depth;
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        this.entries = Collections.unmodifiableList(readCentralDirectory(this.buffer));
+        Map<String, Entry> byName = new HashMap<>(entries.size() * 2);
+        for (Entry entry : entries) {
+            byName.putIfAbsent(entry.name(), entry);
+        }
+        this.entriesByName = byName;
+    }
+
+    /**
+     * Whether an entry of a mod JAR is a bundled JAR that should be ingested with it.
+     */
+    public static boolean isNestedJar(String entryName) {
+        return entryName != null
+                && entryName.endsWith(".jar")
+                && (entryName.startsWith("META-INF/jars/") || entryName.startsWith("META-INF/jarjar/"));
+    }
+
+    /**
+     * Open the given nested JARs of {@code jar} and, within {@code limits}, the JARs nested in them.
+     * Archives that exceed a limit or cannot be parsed are skipped and logged.
+     *
+     * @param jar               outer JAR
+     * @param nestedEntryNames  names of the nested JAR entries, as found while reading the outer JAR
+     * @param limits            depth and size bounds
+     * @return opened archives in depth-first order; empty without touching the file when there are no names
+     * @throws IOException if the outer JAR cannot be mapped
+     */
+    public static List<NestedJarArchive> openNested(Path jar, Collection<String> nestedEntryNames, Limits limits)
+            throws IOException {
+        Objects.requireNonNull(jar, "jar");
+        Objects.requireNonNull(nestedEntryNames, "nestedEntryNames");
+        Objects.requireNonNull(limits, "limits");
+        if (nestedEntryNames.isEmpty() || limits.maxDepth() < 1) {
+            return List.of();
+        }
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        NestedJarArchive outer = new NestedJarArchive(jar.toString(), 0, mapped);
+        List<NestedJarArchive> opened = new ArrayList<>();
+        long[] budget = {limits.maxTotalBytes()};
+        for (String name : nestedEntryNames) {
+            outer.openNested(name, limits, budget, opened);
+        }
+        return opened;
+    }
+
+    private void openNested(String name, Limits limits, long[] budget, List<NestedJarArchive> opened) {
+        Entry entry = entriesByName.get(name);
+        if (entry == null || depth + 1 > limits.maxDepth()) {
+            return;
+        }
+        String nestedPath = path + "!/" + name;
+        if (entry.size() > limits.maxEntryBytes()) {
+            LOGGER.warn("Skipping nested jar over size limit | path={} size={}", nestedPath, entry.size());
+            return;
+        }
+        NestedJarArchive nested;
+        try {
+            ByteBuffer data;
+            if (entry.method() == METHOD_STORED) {
+                data = rawData(entry);
+            } else {
+                if (entry.size() > budget[0]) {
+                    LOGGER.warn("Skipping nested jar, inflation budget exhausted | path={} size={}",
+                            nestedPath, entry.size());
+                    return;
+                }
+                budget[0] -= entry.size();
+                data = ByteBuffer.wrap(readAllBytes(entry));
+            }
+            nested = new NestedJarArchive(nestedPath, depth + 1, data);
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warn("Skipping unreadable nested jar | path={} error={}", nestedPath, ex.toString());
+            return;
+        }
+        opened.add(nested);
+        for (Entry inner : nested.entries) {
+            if (isNestedJar(inner.name())) {
+                nested.openNested(inner.name(), limits, budget, opened);
+            }
+        }
+    }
+
+    /**
+     * Location of this archive, written as {@code outer.jar!/META-INF/jars/inner.jar}.
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Nesting level; archives directly inside the outer JAR have depth {@code 1}.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    public Entry entry(String name) {
+        return entriesByName.get(name);
+    }
+
+    /**
+     * Stream the uncompressed content of an entry.
+     */
+    public InputStream open(Entry entry) throws IOException {
+        Objects.requireNonNull(entry, "entry");
+        ByteBuffer raw = rawData(entry);
+        return switch (entry.method()) {
+            case METHOD_STORED -> new BufferInputStream(raw);
+            case METHOD_DEFLATED -> new InflatingInputStream(raw);
+            default -> throw new ZipException("Unsupported compression method " + entry.method() + " for " + entry.name());
+        };
+    }
+
+    /**
+     * Open an entry by name, or return {@code null} when it does not exist.
+     */
+    public InputStream open(String name) throws IOException {
+        Entry entry = entriesByName.get(name);
+        return entry != null ? open(entry) : null;
+    }
+
+    private byte[] readAllBytes(Entry entry) throws IOException {
+        if (entry.size() > Integer.MAX_VALUE - 8) {
+            throw new ZipException("Entry too large: " + entry.name());
+        }
+        try (InputStream input = open(entry)) {
+            byte[] data = input.readNBytes((int) entry.size());
+            if (data.length != entry.size()) {
+                throw new ZipException("Truncated entry: " + entry.name());
+            }
+            return data;
+        }
+    }
+
+    private ByteBuffer rawData(Entry entry) throws ZipException {
+        long offset = entry.localHeaderOffset();
+        if (offset < 0 || offset + 30 > buffer.limit() || buffer.getInt((int) offset) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header for " + entry.name());
+        }
+        int nameLength = Short.toUnsignedInt(buffer.getShort((int) offset + 26));
+        int extraLength = Short.toUnsignedInt(buffer.getShort((int) offset + 28));
+        long start = offset + 30 + nameLength + extraLength;
+        long end = start + entry.compressedSize();
+        if (end > buffer.limit()) {
+            throw new ZipException("Entry data out of bounds for " + entry.name());
+        }
+        return buffer.slice((int) start, (int) entry.compressedSize());
+    }
+
+    private static List<Entry> readCentralDirectory(ByteBuffer buffer) throws ZipException {
+        int end = findEndRecord(buffer);
+        long count = Short.toUnsignedInt(buffer.getShort(end + 10));
+        long directorySize = Integer.toUnsignedLong(buffer.getInt(end + 12));
+        long directoryOffset = Integer.toUnsignedLong(buffer.getInt(end + 16));
+        if ((count == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL)
+                && end >= 20 && buffer.getInt(end - 20) == ZIP64_LOCATOR_SIGNATURE) {
+            long zip64End = buffer.getLong(end - 20 + 8);
+            if (zip64End < 0 || zip64End + 56 > buffer.limit()
+                    || buffer.getInt((int) zip64End) != ZIP64_END_SIGNATURE) {
+                throw new ZipException("Invalid ZIP64 end of central directory");
+            }
+            count = buffer.getLong((int) zip64End + 32);
+            directorySize = buffer.getLong((int) zip64End + 40);
+            directoryOffset = buffer.getLong((int) zip64End + 48);
+        }
+        if (directoryOffset < 0 || directoryOffset + directorySize > buffer.limit() || count > directorySize / 46) {
+            throw new ZipException("Central directory out of bounds");
+        }
+
+        List<Entry> entries = new ArrayList<>((int) count);
+        int position = (int) directoryOffset;
+        int directoryEnd = (int) (directoryOffset + directorySize);
+        for (long i = 0; i < count; i++) {
+            if (position + 46 > directoryEnd || buffer.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory header");
+            }
+            int method = Short.toUnsignedInt(buffer.getShort(position + 10));
+            long compressedSize = Integer.toUnsignedLong(buffer.getInt(position + 20));
+            long size = Integer.toUnsignedLong(buffer.getInt(position + 24));
+            int nameLength = Short.toUnsignedInt(buffer.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(buffer.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(buffer.getShort(position + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(buffer.getInt(position + 42));
+            int nameStart = position + 46;
+            if (nameStart + nameLength + extraLength > directoryEnd) {
+                throw new ZipException("Central directory entry out of bounds");
+            }
+            byte[] nameBytes = new byte[nameLength];
+            buffer.get(nameStart, nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            if (size == 0xFFFFFFFFL || compressedSize == 0xFFFFFFFFL || localHeaderOffset == 0xFFFFFFFFL) {
+                // ZIP64 extended information: only the fields saturated in the header are present, in this order.
+                int extra = nameStart + nameLength;
+                int extraEnd = extra + extraLength;
+                while (extra + 4 <= extraEnd) {
+                    int id = Short.toUnsignedInt(buffer.getShort(extra));
+                    int length = Short.toUnsignedInt(buffer.getShort(extra + 2));
+                    if (id == 0x0001) {
+                        int field = extra + 4;
+                        if (size == 0xFFFFFFFFL && field + 8 <= extra + 4 + length) {
+                            size = buffer.getLong(field);
+                            field += 8;
+                        }
+                        if (compressedSize == 0xFFFFFFFFL && field + 8 <= extra + 4 + length) {
+                            compressedSize = buffer.getLong(field);
+                            field += 8;
+                        }
+                        if (localHeaderOffset == 0xFFFFFFFFL && field + 8 <= extra + 4 + length) {
+                            localHeaderOffset = buffer.getLong(field);
+                        }
+                        break;
+                    }
+                    extra += 4 + length;
+                }
+            }
+            entries.add(new Entry(name, method, compressedSize, size, localHeaderOffset));
+            position = nameStart + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    private static int findEndRecord(ByteBuffer buffer) throws ZipException {
+        int limit = buffer.limit();
+        int lowest = Math.max(0, limit - END_HEADER_SIZE - MAX_COMMENT_LENGTH);
+        for (int position = limit - END_HEADER_SIZE; position >= lowest; position--) {
+            if (buffer.getInt(position) == END_SIGNATURE
+                    && position + END_HEADER_SIZE + Short.toUnsignedInt(buffer.getShort(position + 20)) == limit) {
+                return position;
+            }
+        }
+        throw new ZipException("End of central directory not found");
+    }
+
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer data;
+
+        BufferInputStream(ByteBuffer data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read() {
+            return data.hasRemaining() ? data.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!data.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, data.remaining());
+            data.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return data.remaining();
+        }
+    }
+
+    /**
+     * Raw-deflate decoder fed from a buffer holding the complete compressed entry.
+     */
+    private static final class InflatingInputStream extends InputStream {
+        private final Inflater inflater = new Inflater(true);
+        private final byte[] single = new byte[1];
+        private boolean closed;
+
+        InflatingInputStream(ByteBuffer compressed) {
+            inflater.setInput(compressed);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (length == 0) {
+                return 0;
+            }
+            try {
+                while (true) {
+                    if (inflater.finished()) {
+                        return -1;
+                    }
+                    int count = inflater.inflate(target, offset, length);
+                    if (count > 0) {
+                        return count;
+                    }
+                    if (inflater.finished()) {
+                        return -1;
+                    }
+                    if (inflater.needsInput() || inflater.needsDictionary()) {
+                        throw new ZipException("Truncated deflate data");
+                    }
+                }
+            } catch (DataFormatException ex) {
+                throw new ZipException(ex.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                inflater.end();
+            }
+        }
+    }
+}
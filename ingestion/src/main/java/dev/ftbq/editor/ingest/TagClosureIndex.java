@@ -0,0 +1,319 @@
+package dev.ftbq.editor.ingest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Resolved item tag membership across a set of catalogs.
+ * <p>
+ * Tags may reference other tags ({@code "#forge:ingots"} inside {@code minecraft:beacon_payment_items}).
+ * The index builds the tag graph once, expands it transitively and stores the result as one bitset per
+ * tag over interned item ids, plus the inverse item-to-tags table. Reference cycles are tolerated: all
+ * tags on a cycle end up with the same members. References to tags that no catalog defines are ignored.
+ * <p>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class TagClosureIndex {
+
+    private static final TagClosureIndex EMPTY = new TagClosureIndex(new String[0], Map.of(), new String[0],
+            Map.of(), new BitSet[0], new int[0][]);
+
+    private final String[] itemIds;
+    private final Map<String, Integer> itemIndex;
+    private final String[] tagIds;
+    private final Map<String, Integer> tagIndex;
+    private final BitSet[] members;
+    private final int[][] tagsByItem;
+
+    private TagClosureIndex(String[] itemIds, Map<String, Integer> itemIndex, String[] tagIds,
+            Map<String, Integer> tagIndex, BitSet[] members, int[][] tagsByItem) {
+        this.itemIds = itemIds;
+        this.itemIndex = itemIndex;
+        this.tagIds = tagIds;
+        this.tagIndex = tagIndex;
+        this.members = members;
+        this.tagsByItem = tagsByItem;
+    }
+
+    public static TagClosureIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the index from the direct tag entries and tag references of the supplied catalogs. Entries
+     * for the same tag coming from different catalogs are combined, as the game does for data packs.
+     *
+     * @param catalogs catalogs to index
+     * @return resolved tag index
+     */
+    public static TagClosureIndex build(Collection<ItemCatalog> catalogs) {
+        Objects.requireNonNull(catalogs, "catalogs");
+        Builder builder = new Builder();
+        for (ItemCatalog catalog : catalogs) {
+            if (catalog == null) {
+                continue;
+            }
+            catalog.tags().forEach(builder::addItems);
+            catalog.tagReferences().forEach(builder::addReferences);
+        }
+        return builder.build();
+    }
+
+    public static TagClosureIndex of(ItemCatalog catalog) {
+        Objects.requireNonNull(catalog, "catalog");
+        return build(List.of(catalog));
+    }
+
+    /**
+     * Whether {@code itemId} is a member of {@code tagId}, directly or through nested tags.
+     */
+    public boolean contains(String tagId, String itemId) {
+        Integer tag = tagIndex.get(tagId);
+        Integer item = itemIndex.get(itemId);
+        return tag != null && item != null && members[tag].get(item);
+    }
+
+    /**
+     * All items of a tag including those contributed by nested tags, sorted by id.
+     *
+     * @param tagId tag identifier without the leading {@code #}
+     * @return member item ids, empty for unknown tags
+     */
+    public List<String> itemsInTag(String tagId) {
+        Integer tag = tagIndex.get(tagId);
+        if (tag == null) {
+            return List.of();
+        }
+        BitSet bits = members[tag];
+        List<String> result = new ArrayList<>(bits.cardinality());
+        for (int item = bits.nextSetBit(0); item >= 0; item = bits.nextSetBit(item + 1)) {
+            result.add(itemIds[item]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public int tagSize(String tagId) {
+        Integer tag = tagIndex.get(tagId);
+        return tag != null ? members[tag].cardinality() : 0;
+    }
+
+    /**
+     * All tags an item belongs to, directly or through nested tags, sorted by id.
+     *
+     * @param itemId item identifier
+     * @return tag ids, empty for items that are in no tag
+     */
+    public List<String> tagsOfItem(String itemId) {
+        Integer item = itemIndex.get(itemId);
+        if (item == null) {
+            return List.of();
+        }
+        int[] tags = tagsByItem[item];
+        String[] result = new String[tags.length];
+        for (int i = 0; i < tags.length; i++) {
+            result[i] = tagIds[tags[i]];
+        }
+        return List.of(result);
+    }
+
+    /**
+     * Tag ids known to the index, sorted.
+     */
+    public List<String> tagIds() {
+        return List.of(tagIds);
+    }
+
+    /**
+     * Item ids that appear in at least one tag, sorted.
+     */
+    public List<String> itemIds() {
+        return List.of(itemIds);
+    }
+
+    /**
+     * Expanded membership of every tag, in the shape of {@link ItemCatalog#tags()}.
+     */
+    public Map<String, List<String>> toTagMap() {
+        Map<String, List<String>> result = new LinkedHashMap<>(tagIds.length * 2);
+        for (String tagId : tagIds) {
+            result.put(tagId, itemsInTag(tagId));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static final class Builder {
+        private final Map<String, Set<String>> directItems = new HashMap<>();
+        private final Map<String, Set<String>> references = new HashMap<>();
+
+        void addItems(String tagId, List<String> items) {
+            if (tagId == null || items == null) {
+                return;
+            }
+            Set<String> target = directItems.computeIfAbsent(tagId, ignored -> new LinkedHashSet<>());
+            for (String item : items) {
+                if (item != null && !item.isBlank()) {
+                    target.add(item);
+                }
+            }
+        }
+
+        void addReferences(String tagId, List<String> nestedTags) {
+            if (tagId == null || nestedTags == null) {
+                return;
+            }
+            directItems.computeIfAbsent(tagId, ignored -> new LinkedHashSet<>());
+            Set<String> target = references.computeIfAbsent(tagId, ignored -> new LinkedHashSet<>());
+            for (String nested : nestedTags) {
+                if (nested != null && !nested.isBlank()) {
+                    target.add(nested.startsWith("#") ? nested.substring(1) : nested);
+                }
+            }
+        }
+
+        TagClosureIndex build() {
+            if (directItems.isEmpty()) {
+                return EMPTY;
+            }
+            // Interning sorted ids keeps bitset iteration order equal to id order.
+            String[] tagIds = directItems.keySet().toArray(String[]::new);
+            Arrays.sort(tagIds);
+            Map<String, Integer> tagIndex = indexOf(tagIds);
+
+            Set<String> allItems = new TreeSet<>();
+            directItems.values().forEach(allItems::addAll);
+            String[] itemIds = allItems.toArray(String[]::new);
+            Map<String, Integer> itemIndex = indexOf(itemIds);
+
+            BitSet[] members = new BitSet[tagIds.length];
+            int[][] edges = new int[tagIds.length][];
+            for (int tag = 0; tag < tagIds.length; tag++) {
+                BitSet bits = new BitSet(itemIds.length);
+                for (String item : directItems.get(tagIds[tag])) {
+                    bits.set(itemIndex.get(item));
+                }
+                members[tag] = bits;
+                edges[tag] = references.getOrDefault(tagIds[tag], Set.of()).stream()
+                        .map(tagIndex::get)
+                        .filter(Objects::nonNull)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            }
+
+            new Closure(members, edges).run();
+
+            int[] counts = new int[itemIds.length];
+            for (BitSet bits : members) {
+                for (int item = bits.nextSetBit(0); item >= 0; item = bits.nextSetBit(item + 1)) {
+                    counts[item]++;
+                }
+            }
+            int[][] tagsByItem = new int[itemIds.length][];
+            for (int item = 0; item < itemIds.length; item++) {
+                tagsByItem[item] = new int[counts[item]];
+            }
+            int[] fill = new int[itemIds.length];
+            for (int tag = 0; tag < members.length; tag++) {
+                BitSet bits = members[tag];
+                for (int item = bits.nextSetBit(0); item >= 0; item = bits.nextSetBit(item + 1)) {
+                    tagsByItem[item][fill[item]++] = tag;
+                }
+            }
+            return new TagClosureIndex(itemIds, itemIndex, tagIds, tagIndex, members, tagsByItem);
+        }
+
+        private static Map<String, Integer> indexOf(String[] ids) {
+            Map<String, Integer> index = new HashMap<>(ids.length * 2);
+            for (int i = 0; i < ids.length; i++) {
+                index.put(ids[i], i);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Transitive closure over the tag reference graph using Tarjan's strongly connected components.
+     * Components are completed in reverse topological order, so every referenced tag outside the current
+     * component is already final when the component is merged; each tag is therefore expanded once.
+     */
+    private static final class Closure {
+        private final BitSet[] members;
+        private final int[][] edges;
+        private final int[] order;
+        private final int[] low;
+        private final boolean[] onStack;
+        private final int[] stack;
+        private int stackSize;
+        private int counter;
+
+        Closure(BitSet[] members, int[][] edges) {
+            this.members = members;
+            this.edges = edges;
+            this.order = new int[members.length];
+            this.low = new int[members.length];
+            this.onStack = new boolean[members.length];
+            this.stack = new int[members.length];
+            Arrays.fill(order, -1);
+        }
+
+        void run() {
+            for (int tag = 0; tag < members.length; tag++) {
+                if (order[tag] < 0) {
+                    visit(tag);
+                }
+            }
+        }
+
+        private void visit(int tag) {
+            order[tag] = counter;
+            low[tag] = counter;
+            counter++;
+            stack[stackSize++] = tag;
+            onStack[tag] = true;
+
+            for (int next : edges[tag]) {
+                if (order[next] < 0) {
+                    visit(next);
+                    low[tag] = Math.min(low[tag], low[next]);
+                } else if (onStack[next]) {
+                    low[tag] = Math.min(low[tag], order[next]);
+                }
+            }
+
+            if (low[tag] != order[tag]) {
+                return;
+            }
+            int start = stackSize;
+            do {
+                start--;
+            } while (stack[start] != tag);
+
+            BitSet merged = new BitSet();
+            for (int i = start; i < stackSize; i++) {
+                int member = stack[i];
+                merged.or(members[member]);
+                for (int next : edges[member]) {
+                    if (!onStack[next]) {
+                        merged.or(members[next]);
+                    }
+                }
+            }
+            for (int i = start; i < stackSize; i++) {
+                int member = stack[i];
+                onStack[member] = false;
+                members[member] = merged;
+            }
+            stackSize = start;
+        }
+    }
+}
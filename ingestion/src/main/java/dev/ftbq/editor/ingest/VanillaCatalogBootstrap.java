@@ -3,6 +3,7 @@ package dev.ftbq.editor.ingest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -10,13 +11,15 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Command line utility that builds vanilla item catalogs from Minecraft JAR files.
+ * Command line utility that builds vanilla item catalogs from Minecraft JAR files, and the loader the editor
+ * uses to read them back at startup.
  */
 public final class VanillaCatalogBootstrap {
 
@@ -29,8 +32,7 @@ public final class VanillaCatalogBootstrap {
     }
 
     public static void main(String[] args) throws IOException {
-        Path root = Path.of("").toAbsolutePath();
-        Path artifactsDir = root.resolve("artifacts").resolve("catalogs");
+        Path artifactsDir = artifactsDirectory(Path.of("").toAbsolutePath());
         Path inputDir = artifactsDir.resolve("input-jars");
 
         if (!Files.isDirectory(inputDir)) {
@@ -71,10 +73,12 @@ public final class VanillaCatalogBootstrap {
                 anyFailure = true;
             }
 
-            Path output = artifactsDir.resolve("vanilla_" + version + ".json");
+            Path output = artifactsDir.resolve(catalogFileName(version, ".json"));
             try (OutputStream outputStream = Files.newOutputStream(output)) {
                 MAPPER.writeValue(outputStream, catalog);
             }
+            // Binary twin of the JSON catalog; this is the file load reads at startup
+            BinaryItemCatalog.write(catalog, artifactsDir.resolve(catalogFileName(version, BinaryItemCatalog.FILE_EXTENSION)));
 
             // Simple sanity log for the scan as additional context.
             LOGGER.info("Jar scan summary | version={} entries={}", version, scanResult.entries().size());
@@ -87,6 +91,75 @@ public final class VanillaCatalogBootstrap {
         LOGGER.info("Vanilla catalog bootstrap complete | processedJars={}", jars.size());
     }
 
+    /**
+     * Directory below {@code root} that holds the generated catalogs.
+     */
+    public static Path artifactsDirectory(Path root) {
+        Objects.requireNonNull(root, "root");
+        return root.resolve("artifacts").resolve("catalogs");
+    }
+
+    /**
+     * Read the vanilla catalog generated for {@code version}. The binary {@code .ftbc} file is preferred; the
+     * JSON catalog is read when the binary one is missing or cannot be opened.
+     *
+     * @param artifactsDir directory the catalogs were generated into
+     * @param version      Minecraft version, e.g. {@code 1.20.1}
+     * @return the catalog, or empty when neither file exists
+     * @throws IOException if the JSON catalog cannot be read
+     */
+    public static Optional<ItemCatalog> load(Path artifactsDir, String version) throws IOException {
+        Objects.requireNonNull(artifactsDir, "artifactsDir");
+        Objects.requireNonNull(version, "version");
+        Path binary = artifactsDir.resolve(catalogFileName(version, BinaryItemCatalog.FILE_EXTENSION));
+        if (Files.isRegularFile(binary)) {
+            try {
+                ItemCatalog catalog = BinaryItemCatalog.open(binary).toItemCatalog();
+                LOGGER.info("Vanilla catalog loaded | version={} items={} file={}",
+                        version, catalog.items().size(), binary);
+                return Optional.of(catalog);
+            } catch (IOException | RuntimeException ex) {
+                LOGGER.warn("Binary vanilla catalog unreadable, falling back to JSON | file={}", binary, ex);
+            }
+        }
+
+        Path json = artifactsDir.resolve(catalogFileName(version, ".json"));
+        if (!Files.isRegularFile(json)) {
+            return Optional.empty();
+        }
+        try (InputStream inputStream = Files.newInputStream(json)) {
+            ItemCatalog catalog = MAPPER.readValue(inputStream, ItemCatalog.class);
+            LOGGER.info("Vanilla catalog loaded | version={} items={} file={}", version, catalog.items().size(), json);
+            return Optional.of(catalog);
+        }
+    }
+
+    /**
+     * Identifies the catalog file {@link #load(Path, String)} reads for {@code version} by its name, size and
+     * modification time, without reading it. Callers compare it with the fingerprint of the last import to skip
+     * decoding a catalog that did not change.
+     *
+     * @return the fingerprint, or empty when neither file exists
+     * @throws IOException if the file attributes cannot be read
+     */
+    public static Optional<String> fingerprint(Path artifactsDir, String version) throws IOException {
+        Objects.requireNonNull(artifactsDir, "artifactsDir");
+        Objects.requireNonNull(version, "version");
+        Path file = artifactsDir.resolve(catalogFileName(version, BinaryItemCatalog.FILE_EXTENSION));
+        if (!Files.isRegularFile(file)) {
+            file = artifactsDir.resolve(catalogFileName(version, ".json"));
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(file.getFileName() + ":" + Files.size(file) + ":"
+                + Files.getLastModifiedTime(file).toMillis());
+    }
+
+    private static String catalogFileName(String version, String extension) {
+        return "vanilla_" + version + extension;
+    }
+
     private static String stripJarExtension(String fileName) {
         Objects.requireNonNull(fileName, "fileName");
         int dot = fileName.lastIndexOf('.');
@@ -0,0 +1,71 @@
+package dev.ftbq.editor.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinaryItemCatalogTest {
+
+    @Test
+    void roundTripsCatalogThroughMappedFile(@TempDir Path tempDir) throws Exception {
+        ItemCatalog catalog = new ItemCatalog(
+                "minecraft-1.20.1.jar",
+                "1.20.1",
+                true,
+                List.of(
+                        new ItemMeta("minecraft:stone", "Stone", "minecraft", "block", true,
+                                "minecraft:block/stone", "abc123", "minecraft", null, null),
+                        new ItemMeta("minecraft:apple", "Apple", "minecraft", "item", true,
+                                null, null, "minecraft", "Minecraft", "1.20.1"),
+                        new ItemMeta("minecraft:iron_ingot", "Iron Ingot – é", "minecraft", "item", true,
+                                "minecraft:item/iron_ingot", "def456", "minecraft", null, null)),
+                Map.of("minecraft:stone_like", List.of("minecraft:stone"),
+                        "forge:ingots", List.of("minecraft:iron_ingot", "minecraft:apple")),
+                Map.of("minecraft:beacon_payment_items", List.of("forge:ingots")));
+
+        Path file = tempDir.resolve("vanilla_1.20.1" + BinaryItemCatalog.FILE_EXTENSION);
+        BinaryItemCatalog.write(catalog, file);
+        BinaryItemCatalog binary = BinaryItemCatalog.open(file);
+
+        assertEquals("minecraft-1.20.1.jar", binary.source());
+        assertEquals("1.20.1", binary.version());
+        assertTrue(binary.isVanilla());
+        assertEquals(3, binary.itemCount());
+        assertEquals("minecraft:apple", binary.itemId(0));
+        assertEquals(2, binary.indexOf("minecraft:stone"));
+        assertEquals(-1, binary.indexOf("minecraft:dirt"));
+        assertEquals(catalog.items().get(2), binary.find("minecraft:iron_ingot").orElseThrow());
+        assertEquals(catalog.items().get(1), binary.find("minecraft:apple").orElseThrow());
+
+        assertEquals(List.of("forge:ingots", "minecraft:stone_like"), binary.tagIds());
+        assertArrayEquals(new int[] {0, 1}, binary.tagMemberOrdinals("forge:ingots"));
+        assertEquals(List.of("minecraft:apple", "minecraft:iron_ingot"), binary.itemsInTag("forge:ingots"));
+        assertEquals(List.of("forge:ingots"), binary.tagReferences("minecraft:beacon_payment_items"));
+
+        ItemCatalog decoded = binary.toItemCatalog();
+        assertEquals(catalog.tagReferences(), decoded.tagReferences());
+        assertEquals(List.of("minecraft:stone"), decoded.tags().get("minecraft:stone_like"));
+        assertEquals(3, decoded.items().size());
+    }
+
+    @Test
+    void keepsTagMembersOutsideCatalog(@TempDir Path tempDir) throws Exception {
+        ItemCatalog catalog = new ItemCatalog("mod.jar", "1.0.0", false,
+                List.of(new ItemMeta("mod:a", "A", "mod", "item", false, null, null, "mod", null, null)),
+                Map.of("mod:tag", List.of("minecraft:stone", "mod:a", "aaa:other")));
+
+        Path file = tempDir.resolve("mod" + BinaryItemCatalog.FILE_EXTENSION);
+        BinaryItemCatalog.write(catalog, file);
+        BinaryItemCatalog binary = BinaryItemCatalog.open(file);
+
+        assertArrayEquals(new int[] {0}, binary.tagMemberOrdinals("mod:tag"));
+        assertEquals(List.of("aaa:other", "minecraft:stone", "mod:a"), binary.itemsInTag("mod:tag"));
+        assertEquals(binary.itemsInTag("mod:tag"), binary.toItemCatalog().tags().get("mod:tag"));
+    }
+}
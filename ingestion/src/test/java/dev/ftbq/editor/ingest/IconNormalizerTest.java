@@ -0,0 +1,165 @@
+package dev.ftbq.editor.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.ftbq.editor.resources.ResourceId;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IconNormalizerTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    void cropsAnimationStripToFirstFrame() throws Exception {
+        // 16x64 strip: four frames, the first one red, the rest blue.
+        BufferedImage strip = new BufferedImage(16, 64, BufferedImage.TYPE_INT_ARGB);
+        fill(strip, 0, 0, 16, 16, 0xFFFF0000);
+        fill(strip, 0, 16, 16, 48, 0xFF0000FF);
+
+        Map<Integer, byte[]> variants = new IconNormalizer(32, 64).normalize(png(strip), true);
+
+        assertEquals(List.of(32, 64), List.copyOf(variants.keySet()));
+        for (byte[] variant : variants.values()) {
+            BufferedImage image = decode(variant);
+            assertEquals(16, image.getWidth(), "Small frames are not upscaled");
+            assertEquals(16, image.getHeight());
+            assertEquals(0xFFFF0000, image.getRGB(8, 8));
+        }
+    }
+
+    @Test
+    void keepsTallTexturesWithoutSidecarWhole() throws Exception {
+        BufferedImage tall = new BufferedImage(16, 64, BufferedImage.TYPE_INT_ARGB);
+        byte[] tallBytes = png(tall);
+
+        IconNormalizer normalizer = new IconNormalizer(32, 64);
+        assertTrue(normalizer.needsNormalization(tallBytes, true));
+        assertFalse(new IconNormalizer(64).needsNormalization(tallBytes));
+        BufferedImage small = decode(normalizer.normalize(tallBytes).get(32));
+        assertEquals(8, small.getWidth());
+        assertEquals(32, small.getHeight());
+    }
+
+    @Test
+    void readsAnimationFromSidecar() {
+        assertTrue(IconNormalizer.isAnimated(json("{\"animation\":{\"frametime\":2}}")));
+        assertFalse(IconNormalizer.isAnimated(json("{\"texture\":{\"blur\":true}}")));
+        assertFalse(IconNormalizer.isAnimated(json("not json")));
+        assertFalse(IconNormalizer.isAnimated(null));
+    }
+
+    @Test
+    void downsamplesLargeTexturesWithAreaAveraging() throws Exception {
+        BufferedImage large = new BufferedImage(128, 128, BufferedImage.TYPE_INT_ARGB);
+        // Alternating opaque white and transparent columns average to half-transparent white.
+        for (int x = 0; x < 128; x += 2) {
+            fill(large, x, 0, 1, 128, 0xFFFFFFFF);
+        }
+
+        Map<Integer, byte[]> variants = new IconNormalizer(32, 64).normalize(png(large));
+
+        BufferedImage small = decode(variants.get(32));
+        BufferedImage medium = decode(variants.get(64));
+        assertEquals(32, small.getWidth());
+        assertEquals(64, medium.getWidth());
+        int pixel = small.getRGB(5, 5);
+        assertEquals(0x80, pixel >>> 24);
+        assertEquals(0xFFFFFF, pixel & 0xFFFFFF, "Transparent pixels must not darken the colour");
+    }
+
+    @Test
+    void leavesSmallSingleFrameTexturesAlone() throws Exception {
+        BufferedImage icon = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        fill(icon, 0, 0, 16, 16, 0xFF00FF00);
+
+        IconNormalizer normalizer = IconNormalizer.standard();
+        assertFalse(normalizer.needsNormalization(png(icon)));
+        assertTrue(normalizer.normalize(png(icon)).isEmpty());
+        assertFalse(normalizer.needsNormalization(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    void stageWritesVariantsNextToOriginal(@TempDir Path tempDir) throws Exception {
+        BufferedImage strip = new BufferedImage(128, 512, BufferedImage.TYPE_INT_ARGB);
+        fill(strip, 0, 0, 128, 512, 0xFF336699);
+        byte[] stripBytes = png(strip);
+        BufferedImage icon = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        byte[] iconBytes = png(icon);
+        ResourceId animated = ResourceId.fromString("test:item/animated");
+        ResourceId plain = ResourceId.fromString("test:item/plain");
+
+        IconExtractionStage.TextureSource source = new IconExtractionStage.TextureSource() {
+            @Override
+            public InputStream open(ResourceId textureId) {
+                return new ByteArrayInputStream(textureId.equals(animated) ? stripBytes : iconBytes);
+            }
+
+            @Override
+            public InputStream openMetadata(ResourceId textureId) {
+                return textureId.equals(animated) ? json("{\"animation\":{}}") : null;
+            }
+        };
+
+        IconExtractionStage stage = new IconExtractionStage(tempDir, DIRECT, IconNormalizer.standard());
+        Map<ResourceId, String> hashes = stage.extract(List.of(animated, plain), source);
+
+        String animatedHash = hashes.get(animated);
+        assertTrue(Files.exists(stage.iconPath(animatedHash)), "Original is kept");
+        assertEquals(32, decode(Files.readAllBytes(stage.variantPath(animatedHash, 32))).getHeight());
+        assertEquals(64, decode(Files.readAllBytes(stage.variantPath(animatedHash, 64))).getHeight());
+        assertFalse(Files.exists(stage.variantPath(hashes.get(plain), 32)));
+        assertEquals(2, stage.variantsWritten());
+        assertTrue(Files.size(stage.variantPath(animatedHash, 32)) < stripBytes.length);
+    }
+
+    @Test
+    void stageStoresOriginalsOnlyByDefault(@TempDir Path tempDir) throws Exception {
+        BufferedImage large = new BufferedImage(128, 128, BufferedImage.TYPE_INT_ARGB);
+        byte[] largeBytes = png(large);
+        ResourceId texture = ResourceId.fromString("test:item/large");
+
+        IconExtractionStage stage = new IconExtractionStage(tempDir, DIRECT);
+        String hash = stage.extract(List.of(texture), textureId -> new ByteArrayInputStream(largeBytes)).get(texture);
+
+        assertTrue(Files.exists(stage.iconPath(hash)));
+        assertFalse(Files.exists(stage.variantPath(hash, 32)));
+        assertEquals(0, stage.variantsWritten());
+    }
+
+    private static void fill(BufferedImage image, int x, int y, int width, int height, int argb) {
+        for (int py = y; py < y + height; py++) {
+            for (int px = x; px < x + width; px++) {
+                image.setRGB(px, py, argb);
+            }
+        }
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+
+    private static BufferedImage decode(byte[] data) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(data));
+    }
+}
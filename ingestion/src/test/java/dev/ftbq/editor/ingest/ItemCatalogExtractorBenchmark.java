@@ -0,0 +1,174 @@
+package dev.ftbq.editor.ingest;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.imageio.ImageIO;
+
+/**
+ * Manual benchmark reporting time and heap allocation of {@link ItemCatalogExtractor#extract} for a
+ * synthetic large mod. Not part of the test suite; run the {@code main} method from the IDE or with
+ * {@code java -cp <test classpath> dev.ftbq.editor.ingest.ItemCatalogExtractorBenchmark}.
+ * <p>
+ * The generated JAR mimics a content-heavy mod: a lang file with tens of thousands of keys of which only
+ * a fraction are item or block names, block-style item models carrying large {@code elements} arrays,
+ * a few hundred item tags, and a few hundred textures shared by many items as block variants are.
+ */
+public final class ItemCatalogExtractorBenchmark {
+
+    private static final int LANG_KEYS = 60_000;
+    private static final int ITEMS = 6_000;
+    private static final int TAGS = 400;
+    private static final int TEXTURES = 300;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private ItemCatalogExtractorBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path workDir = Files.createTempDirectory("ftbq-extract-bench");
+        Path iconDir = workDir.resolve("icons");
+        try {
+            Path jar = workDir.resolve("large-mod.jar");
+            writeLargeModJar(jar);
+            System.out.printf(Locale.ROOT, "Synthetic jar: %s (%,d bytes)%n", jar, Files.size(jar));
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                ItemCatalogExtractor.extract(jar, "bench", "1.0.0", false, null, IngestionMonitor.NONE, iconDir);
+            }
+
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            long totalBytes = 0;
+            long totalNanos = 0;
+            int items = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+                long start = System.nanoTime();
+                ItemCatalog catalog =
+                        ItemCatalogExtractor.extract(jar, "bench", "1.0.0", false, null, IngestionMonitor.NONE, iconDir);
+                totalNanos += System.nanoTime() - start;
+                totalBytes += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+                items = catalog.items().size();
+            }
+
+            System.out.printf(Locale.ROOT, "items=%d allocated/jar=%,.1f MB time/jar=%.1f ms icon files=%d%n",
+                    items,
+                    totalBytes / (double) MEASURED_ROUNDS / (1024 * 1024),
+                    totalNanos / (double) MEASURED_ROUNDS / 1_000_000,
+                    countFiles(iconDir));
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    private static void writeLargeModJar(Path jar) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+            StringBuilder lang = new StringBuilder("{\n");
+            for (int i = 0; i < LANG_KEYS; i++) {
+                String key;
+                if (i < ITEMS) {
+                    key = (i % 2 == 0 ? "item" : "block") + ".bench.thing_" + i;
+                } else {
+                    key = "gui.bench.tooltip.section_" + i + ".line";
+                }
+                lang.append("  \"").append(key).append("\": \"Some fairly descriptive translated text number ")
+                        .append(i).append("\",\n");
+            }
+            lang.append("  \"bench.last\": \"end\"\n}\n");
+            write(zip, "assets/bench/lang/en_us.json", lang.toString());
+
+            for (int i = 0; i < ITEMS; i++) {
+                StringBuilder model = new StringBuilder();
+                model.append("{\"parent\":\"block/block\",\"display\":{\"gui\":{\"rotation\":[30,225,0],")
+                        .append("\"translation\":[0,0,0],\"scale\":[0.625,0.625,0.625]}},")
+                        .append("\"textures\":{\"particle\":\"bench:block/thing_").append(i % TEXTURES)
+                        .append("\",\"side\":\"bench:block/thing_").append(i % TEXTURES).append("_side\"},\"elements\":[");
+                for (int e = 0; e < 12; e++) {
+                    if (e > 0) {
+                        model.append(',');
+                    }
+                    model.append("{\"from\":[0,0,0],\"to\":[16,").append(e).append(",16],\"faces\":{")
+                            .append("\"north\":{\"uv\":[0,0,16,16],\"texture\":\"#side\"},")
+                            .append("\"south\":{\"uv\":[0,0,16,16],\"texture\":\"#side\"},")
+                            .append("\"up\":{\"uv\":[0,0,16,16],\"texture\":\"#particle\"}}}");
+                }
+                model.append("]}");
+                write(zip, "assets/bench/models/item/thing_" + i + ".json", model.toString());
+            }
+
+            for (int t = 0; t < TEXTURES; t++) {
+                write(zip, "assets/bench/textures/block/thing_" + t + ".png", texture(t));
+            }
+
+            for (int t = 0; t < TAGS; t++) {
+                StringBuilder tag = new StringBuilder("{\"replace\":false,\"values\":[");
+                for (int v = 0; v < 20; v++) {
+                    if (v > 0) {
+                        tag.append(',');
+                    }
+                    tag.append("\"bench:thing_").append((t * 20 + v) % ITEMS).append('"');
+                }
+                tag.append(",\"#forge:ingots\"]}");
+                write(zip, "data/bench/tags/items/group_" + t + ".json", tag.toString());
+            }
+        }
+    }
+
+    private static void write(ZipOutputStream zip, String name, String content) throws IOException {
+        write(zip, name, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void write(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private static byte[] texture(int seed) throws IOException {
+        BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                image.setRGB(x, y, 0xFF000000 | (seed * 7919 + x * 31 + y * 17) & 0xFFFFFF);
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "PNG", output);
+        return output.toByteArray();
+    }
+
+    private static long countFiles(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return 0;
+        }
+        try (var paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (var paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
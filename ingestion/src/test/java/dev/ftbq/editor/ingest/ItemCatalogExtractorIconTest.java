@@ -1,7 +1,7 @@
 package dev.ftbq.editor.ingest;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -31,9 +31,12 @@ class ItemCatalogExtractorIconTest {
         byte[] texture = createTexture();
 
         try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(jarPath))) {
-            writeEntry(zip, "assets/test/lang/en_us.json", "{\"item.test.example\":\"Example Item\"}");
+            writeEntry(zip, "assets/test/lang/en_us.json",
+                    "{\"item.test.example\":\"Example Item\",\"item.test.example_variant\":\"Example Variant\"}");
             writeEntry(zip, "assets/test/models/item/example.json",
                     "{\"parent\":\"item/generated\",\"textures\":{\"layer0\":\"item/example\"}}");
+            writeEntry(zip, "assets/test/models/item/example_variant.json",
+                    "{\"parent\":\"item/generated\",\"textures\":{\"layer0\":\"item/example\"}}");
             writeEntry(zip, "assets/test/textures/item/example.png", texture);
         }
 
@@ -45,14 +48,22 @@ class ItemCatalogExtractorIconTest {
                     .filter(item -> item.id().equals("test:example"))
                     .findFirst()
                     .orElseThrow();
+            ItemMeta variant = catalog.items().stream()
+                    .filter(item -> item.id().equals("test:example_variant"))
+                    .findFirst()
+                    .orElseThrow();
 
             assertEquals("test:item/example", meta.texturePath());
             assertNotNull(meta.iconHash());
-            assertFalse(meta.iconHash().isBlank());
-            assertEquals("test:example", meta.iconHash());
+            assertTrue(meta.iconHash().matches("[0-9a-f]{64}"), "Icon reference should be a content hash");
+            assertEquals(meta.iconHash(), variant.iconHash(), "Items sharing a texture share one icon blob");
 
-            Path cachedIcon = Path.of(".cache", "icons", "test", "example.png");
+            Path cachedIcon = Path.of(".cache", "icons", meta.iconHash() + ".png");
             assertTrue(Files.exists(cachedIcon), "Icon cache file should exist");
+            assertArrayEquals(texture, Files.readAllBytes(cachedIcon));
+            try (var icons = Files.list(Path.of(".cache", "icons"))) {
+                assertEquals(1, icons.count(), "Shared texture should be written once");
+            }
         } finally {
             clearCache();
         }
@@ -0,0 +1,72 @@
+package dev.ftbq.editor.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.ftbq.editor.resources.ResourceId;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ItemTextureResolverTest {
+
+    @Test
+    void batchResolutionParsesSharedParentsOnce(@TempDir Path tempDir) throws Exception {
+        Path jarPath = tempDir.resolve("models.jar");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(jarPath))) {
+            writeEntry(zip, "assets/test/models/item/base.json",
+                    "{\"parent\":\"item/generated\",\"textures\":{\"layer0\":\"test:item/shared\"}}");
+            writeEntry(zip, "assets/test/models/item/alpha.json", "{\"parent\":\"test:item/base\"}");
+            writeEntry(zip, "assets/test/models/item/beta.json", "{\"parent\":\"test:item/base\"}");
+            writeEntry(zip, "assets/test/models/item/gamma.json",
+                    "{\"textures\":{\"particle\":\"#all\",\"all\":\"test:block/gamma\"}}");
+            writeEntry(zip, "assets/test/textures/item/shared.png", "png");
+            writeEntry(zip, "assets/test/textures/block/gamma.png", "png");
+        }
+
+        Map<String, File> jars = Map.of("test", jarPath.toFile());
+        ResourceId alpha = new ResourceId("test", "alpha");
+        ResourceId beta = new ResourceId("test", "beta");
+        ResourceId gamma = new ResourceId("test", "gamma");
+        ResourceId missing = new ResourceId("test", "missing");
+
+        try (ModelIndex index = new ModelIndex(jars)) {
+            Map<ResourceId, ItemTextureResolver.TextureLocation> resolved =
+                    ItemTextureResolver.resolveAll(index, List.of(alpha, beta, gamma, missing));
+
+            assertEquals(new ResourceId("test", "item/shared"), resolved.get(alpha).textureId());
+            assertEquals(new ResourceId("test", "item/shared"), resolved.get(beta).textureId());
+            assertEquals(new ResourceId("test", "block/gamma"), resolved.get(gamma).textureId());
+            assertFalse(resolved.containsKey(missing));
+            // alpha, beta, gamma, missing and the shared base model, each parsed or probed once.
+            assertEquals(5, index.parsedModelCount());
+            assertTrue(index.model(new ResourceId("test", "item/base")).isPresent());
+        }
+
+        Optional<ItemTextureResolver.TextureLocation> single = ItemTextureResolver.resolveTexture(jars, alpha);
+        assertEquals("assets/test/textures/item/shared.png", single.orElseThrow().entryName());
+
+        // Namespaces without a JAR are ignored rather than rejected
+        Map<String, File> partial = new HashMap<>(jars);
+        partial.put("other", null);
+        assertTrue(ItemTextureResolver.resolveTexture(partial, alpha).isPresent());
+        assertFalse(ItemTextureResolver.resolveTexture(partial, new ResourceId("other", "thing")).isPresent());
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
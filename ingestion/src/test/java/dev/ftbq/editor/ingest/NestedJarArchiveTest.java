@@ -0,0 +1,116 @@
+package dev.ftbq.editor.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NestedJarArchiveTest {
+
+    @Test
+    void opensStoredAndDeflatedNestedJarsRecursively(@TempDir Path tempDir) throws Exception {
+        byte[] innermost = zip(Map.of("assets/deep/lang/en_us.json", "{\"item.deep.core\":\"Core\"}"), false);
+        Map<String, Object> library = new LinkedHashMap<>();
+        library.put("assets/lib/lang/en_us.json", "{\"item.lib.gear\":\"Gear\"}");
+        library.put("META-INF/jars/deep.jar", innermost);
+        Map<String, Object> outer = new LinkedHashMap<>();
+        outer.put("META-INF/jars/library.jar", zip(library, true));
+        outer.put("META-INF/jarjar/other.jar", zip(Map.of("data/other/tags/items/a.json", "{}"), false));
+        Path jar = tempDir.resolve("outer.jar");
+        // Stored outer entries are read as slices of the mapping; library.jar's own entries are deflated.
+        Files.write(jar, zip(outer, false));
+
+        List<NestedJarArchive> nested = NestedJarArchive.openNested(jar,
+                List.of("META-INF/jars/library.jar", "META-INF/jarjar/other.jar"), NestedJarArchive.Limits.DEFAULT);
+
+        assertEquals(3, nested.size());
+        assertEquals(jar + "!/META-INF/jars/library.jar", nested.get(0).path());
+        assertEquals(2, nested.get(1).depth());
+        try (InputStream input = nested.get(1).open("assets/deep/lang/en_us.json")) {
+            assertNotNull(input);
+            assertEquals("{\"item.deep.core\":\"Core\"}", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try (InputStream input = nested.get(0).open("assets/lib/lang/en_us.json")) {
+            assertEquals("{\"item.lib.gear\":\"Gear\"}", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void respectsDepthAndSizeLimits(@TempDir Path tempDir) throws Exception {
+        Map<String, Object> library = new LinkedHashMap<>();
+        library.put("META-INF/jars/deep.jar", zip(Map.of("a.txt", "a"), false));
+        Path jar = tempDir.resolve("outer.jar");
+        Files.write(jar, zip(Map.of("META-INF/jars/library.jar", zip(library, false)), true));
+        List<String> names = List.of("META-INF/jars/library.jar");
+
+        assertEquals(1, NestedJarArchive.openNested(jar, names, new NestedJarArchive.Limits(1, 1 << 20, 1 << 20)).size());
+        assertEquals(0, NestedJarArchive.openNested(jar, names, new NestedJarArchive.Limits(2, 16, 1 << 20)).size());
+        assertEquals(0, NestedJarArchive.openNested(jar, names, new NestedJarArchive.Limits(2, 1 << 20, 16)).size());
+        assertTrue(NestedJarArchive.openNested(jar, List.of(), NestedJarArchive.Limits.DEFAULT).isEmpty());
+    }
+
+    @Test
+    void extractorAttributesNestedItemsToOuterMod(@TempDir Path tempDir) throws Exception {
+        Map<String, Object> library = new LinkedHashMap<>();
+        library.put("assets/lib/lang/en_us.json", "{\"item.lib.gear\":\"Gear\"}");
+        library.put("data/forge/tags/items/gears.json", "{\"values\":[\"lib:gear\"]}");
+        Map<String, Object> outer = new LinkedHashMap<>();
+        outer.put("META-INF/mods.toml", "[[mods]]\nmodId=\"bigmod\"\ndisplayName=\"Big Mod\"\nversion=\"2.0\"\n");
+        outer.put("assets/bigmod/lang/en_us.json", "{\"item.bigmod.widget\":\"Widget\"}");
+        outer.put("META-INF/jarjar/library.jar", zip(library, false));
+        Path jar = tempDir.resolve("bigmod.jar");
+        Files.write(jar, zip(outer, true));
+
+        ItemCatalog catalog = ItemCatalogExtractor.extract(jar, "bigmod", "1.0", false);
+
+        ItemMeta gear = catalog.items().stream()
+                .filter(item -> item.id().equals("lib:gear"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("bigmod", gear.modId());
+        assertEquals("Big Mod", gear.modName());
+        assertEquals("lib", gear.namespace());
+        assertEquals(List.of("lib:gear"), catalog.tags().get("forge:gears"));
+
+        List<ItemMeta> proxies = JarScanner.extractProxyItems(jar, "1.0");
+        assertTrue(proxies.isEmpty(), "No models or textures, so no proxy items");
+    }
+
+    private static byte[] zip(Map<String, ?> entries, boolean deflate) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, ?> entry : entries.entrySet()) {
+                byte[] data = entry.getValue() instanceof byte[] raw
+                        ? raw
+                        : entry.getValue().toString().getBytes(StandardCharsets.UTF_8);
+                ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                if (!deflate) {
+                    CRC32 crc = new CRC32();
+                    crc.update(data);
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(data.length);
+                    zipEntry.setCompressedSize(data.length);
+                    zipEntry.setCrc(crc.getValue());
+                }
+                zip.putNextEntry(zipEntry);
+                zip.write(data);
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,58 @@
+package dev.ftbq.editor.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TagClosureIndexTest {
+
+    @Test
+    void expandsNestedTagsAcrossCatalogs() {
+        ItemCatalog vanilla = new ItemCatalog("vanilla", "1.20.1", true, List.of(),
+                Map.of(
+                        "minecraft:beacon_payment_items", List.of("minecraft:emerald", "minecraft:diamond"),
+                        "minecraft:planks", List.of("minecraft:oak_planks")),
+                Map.of("minecraft:beacon_payment_items", List.of("forge:ingots", "missing:tag")));
+        ItemCatalog forge = new ItemCatalog("forge", "47.0.0", false, List.of(),
+                Map.of(
+                        "forge:ingots", List.of("minecraft:iron_ingot"),
+                        "forge:ingots/copper", List.of("minecraft:copper_ingot")),
+                Map.of("forge:ingots", List.of("forge:ingots/copper")));
+
+        TagClosureIndex index = TagClosureIndex.build(List.of(vanilla, forge));
+
+        assertEquals(List.of("minecraft:copper_ingot", "minecraft:diamond", "minecraft:emerald",
+                        "minecraft:iron_ingot"),
+                index.itemsInTag("minecraft:beacon_payment_items"));
+        assertEquals(List.of("forge:ingots", "forge:ingots/copper", "minecraft:beacon_payment_items"),
+                index.tagsOfItem("minecraft:copper_ingot"));
+        assertTrue(index.contains("forge:ingots", "minecraft:copper_ingot"));
+        assertFalse(index.contains("forge:ingots/copper", "minecraft:iron_ingot"));
+        assertEquals(List.of("minecraft:planks"), index.tagsOfItem("minecraft:oak_planks"));
+        assertEquals(List.of(), index.itemsInTag("missing:tag"));
+    }
+
+    @Test
+    void cyclicReferencesShareMembers() {
+        ItemCatalog catalog = new ItemCatalog("mod", "1.0.0", false, List.of(),
+                Map.of(
+                        "mod:a", List.of("mod:apple"),
+                        "mod:b", List.of("mod:banana"),
+                        "mod:c", List.of("mod:cherry")),
+                Map.of(
+                        "mod:a", List.of("mod:b"),
+                        "mod:b", List.of("mod:a", "mod:c")));
+
+        TagClosureIndex index = TagClosureIndex.of(catalog);
+
+        List<String> all = List.of("mod:apple", "mod:banana", "mod:cherry");
+        assertEquals(all, index.itemsInTag("mod:a"));
+        assertEquals(all, index.itemsInTag("mod:b"));
+        assertEquals(List.of("mod:cherry"), index.itemsInTag("mod:c"));
+        assertEquals(List.of("mod:a", "mod:b", "mod:c"), index.tagsOfItem("mod:cherry"));
+    }
+}
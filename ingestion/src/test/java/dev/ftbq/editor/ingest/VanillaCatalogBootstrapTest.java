@@ -0,0 +1,73 @@
+package dev.ftbq.editor.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VanillaCatalogBootstrapTest {
+
+    @Test
+    void loadsBinaryCatalogAndFallsBackToJson(@TempDir Path tempDir) throws Exception {
+        assertTrue(VanillaCatalogBootstrap.load(tempDir, "1.20.1").isEmpty());
+
+        ItemCatalog json = catalog("JSON Stone");
+        new ObjectMapper().writeValue(tempDir.resolve("vanilla_1.20.1.json").toFile(), json);
+        assertEquals(json, VanillaCatalogBootstrap.load(tempDir, "1.20.1").orElseThrow());
+
+        ItemCatalog binary = catalog("Binary Stone");
+        Path binaryFile = tempDir.resolve("vanilla_1.20.1" + BinaryItemCatalog.FILE_EXTENSION);
+        BinaryItemCatalog.write(binary, binaryFile);
+        assertEquals(binary, VanillaCatalogBootstrap.load(tempDir, "1.20.1").orElseThrow());
+
+        // A damaged binary file does not prevent startup
+        Files.write(binaryFile, new byte[] {'F', 'T', 'B', 'C', 0, 0});
+        assertEquals(json, VanillaCatalogBootstrap.load(tempDir, "1.20.1").orElseThrow());
+    }
+
+    @Test
+    void readsJsonCatalogWithoutTagReferences(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("vanilla_1.20.1.json"), """
+                {"source":"1.20.1.jar","version":"1.20.1","isVanilla":true,"items":[],
+                 "tags":{"minecraft:stone_like":["minecraft:stone"]}}
+                """);
+
+        ItemCatalog catalog = VanillaCatalogBootstrap.load(tempDir, "1.20.1").orElseThrow();
+        assertEquals(Map.of("minecraft:stone_like", List.of("minecraft:stone")), catalog.tags());
+        assertEquals(Map.of(), catalog.tagReferences());
+    }
+
+    @Test
+    void fingerprintChangesWithTheCatalogFile(@TempDir Path tempDir) throws Exception {
+        assertTrue(VanillaCatalogBootstrap.fingerprint(tempDir, "1.20.1").isEmpty());
+
+        Path binaryFile = tempDir.resolve("vanilla_1.20.1" + BinaryItemCatalog.FILE_EXTENSION);
+        BinaryItemCatalog.write(catalog("Stone"), binaryFile);
+        Files.setLastModifiedTime(binaryFile, FileTime.fromMillis(1_000_000L));
+        String fingerprint = VanillaCatalogBootstrap.fingerprint(tempDir, "1.20.1").orElseThrow();
+        assertEquals(fingerprint, VanillaCatalogBootstrap.fingerprint(tempDir, "1.20.1").orElseThrow());
+
+        BinaryItemCatalog.write(catalog("Smooth Stone"), binaryFile);
+        Files.setLastModifiedTime(binaryFile, FileTime.fromMillis(2_000_000L));
+        assertNotEquals(fingerprint, VanillaCatalogBootstrap.fingerprint(tempDir, "1.20.1").orElseThrow());
+    }
+
+    private static ItemCatalog catalog(String stoneName) {
+        return new ItemCatalog(
+                "1.20.1.jar",
+                "1.20.1",
+                true,
+                List.of(new ItemMeta("minecraft:stone", stoneName, "minecraft", "block", true,
+                        "minecraft:block/stone", null, "minecraft", "Minecraft", "1.20.1")),
+                Map.of("minecraft:stone_like", List.of("minecraft:stone")),
+                Map.of());
+    }
+}
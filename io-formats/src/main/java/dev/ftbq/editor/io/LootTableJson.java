@@ -15,6 +15,7 @@ import dev.ftbq.editor.domain.LootTable;
 import dev.ftbq.editor.io.model.ItemRefData;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -34,13 +35,29 @@ public final class LootTableJson {
     public static void save(LootTable lootTable, Path root) throws IOException {
         Objects.requireNonNull(lootTable, "lootTable");
         Objects.requireNonNull(root, "root");
-        Path relative = resourceLocationToPath(lootTable.id());
-        Path jsonPath = root.resolve(relative + ".json");
+        Path jsonPath = root.resolve(relativePath(lootTable));
         Files.createDirectories(jsonPath.getParent());
         LootTableData data = toData(lootTable);
         JsonConfig.OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(jsonPath.toFile(), data);
     }
 
+    /**
+     * Writes the content {@link #save} stores for {@code lootTable} to {@code out}, which is closed afterwards.
+     */
+    public static void write(LootTable lootTable, OutputStream out) throws IOException {
+        Objects.requireNonNull(lootTable, "lootTable");
+        Objects.requireNonNull(out, "out");
+        JsonConfig.OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(out, toData(lootTable));
+    }
+
+    /**
+     * Where {@link #save} puts {@code lootTable}, relative to the loot table root.
+     */
+    public static String relativePath(LootTable lootTable) {
+        Objects.requireNonNull(lootTable, "lootTable");
+        return resourceLocationToPath(lootTable.id()).toString().replace('\\', '/') + ".json";
+    }
+
     public static LootTable load(Path file) throws IOException {
         Objects.requireNonNull(file, "file");
         LootTableData data = JsonConfig.OBJECT_MAPPER.readValue(file.toFile(), LootTableData.class);
@@ -30,6 +30,7 @@ import dev.ftbq.editor.domain.Visibility;
 import dev.ftbq.editor.io.model.ItemRefData;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -61,6 +62,19 @@ public final class QuestFileJson {
         JsonConfig.OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(jsonPath.toFile(), data);
     }
 
+    /**
+     * Writes the content {@link #save} stores in {@link #fileName()} to {@code out}, which is closed afterwards.
+     */
+    public static void write(QuestFile questFile, OutputStream out) throws IOException {
+        Objects.requireNonNull(questFile, "questFile");
+        Objects.requireNonNull(out, "out");
+        JsonConfig.OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(out, QuestFileData.fromDomain(questFile));
+    }
+
+    public static String fileName() {
+        return FILE_NAME;
+    }
+
     private record QuestFileData(@JsonProperty("id") String id,
                                  @JsonProperty("title") String title,
                                  @JsonProperty("chapter_groups") List<ChapterGroupData> chapterGroups,
@@ -0,0 +1,253 @@
+package dev.ftbq.editor.io.exporter;
+
+import dev.ftbq.editor.concurrent.WorkerPool;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Brings exported asset files up to date with their sources, touching only the ones that differ.
+ * <p>
+ * A target with the size and modification time of its source is taken as current. When only the modification
+ * time differs, the SHA-256 of both files decides; identical targets get the source's modification time so the
+ * next sync takes the fast path. Every other target is replaced atomically through a temporary sibling, either
+ * as a hard link to the source (when enabled and both are on the same file store) or as a copy made with
+ * {@link FileChannel#transferTo}, which lets the operating system move the bytes without passing them through
+ * the Java heap. Files are processed in parallel on the configured executor.
+ * <p>
+ * Hard links are off by default: a linked target is the source file, so editing one edits the other.
+ */
+public final class AssetSync {
+    private static final int HASH_CHUNK = 64 * 1024;
+
+    private final Executor executor;
+    private final boolean hardLinks;
+
+    private AssetSync(Builder builder) {
+        this.executor = builder.executor;
+        this.hardLinks = builder.hardLinks;
+    }
+
+    public Executor executor() {
+        return executor;
+    }
+
+    public boolean hardLinks() {
+        return hardLinks;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Makes every target in {@code transfers}, keyed by target path, hold the content of its source. Missing
+     * parent directories are created.
+     *
+     * @throws IOException the first failure; files that were already brought up to date stay so
+     */
+    public Summary sync(Map<Path, Path> transfers) throws IOException {
+        Objects.requireNonNull(transfers, "transfers");
+        AtomicBoolean linking = new AtomicBoolean(hardLinks);
+        List<CompletableFuture<Outcome>> outcomes = new ArrayList<>(transfers.size());
+        for (Map.Entry<Path, Path> transfer : transfers.entrySet()) {
+            Path target = transfer.getKey();
+            Path source = transfer.getValue();
+            outcomes.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return syncFile(source, target, linking);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, executor));
+        }
+
+        int copied = 0;
+        int linked = 0;
+        int skipped = 0;
+        long bytes = 0;
+        IOException failure = null;
+        for (CompletableFuture<Outcome> future : outcomes) {
+            Outcome outcome;
+            try {
+                outcome = future.join();
+            } catch (CompletionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause() instanceof UncheckedIOException io
+                            ? io.getCause()
+                            : new IOException("Asset sync failed", ex.getCause());
+                }
+                continue;
+            }
+            switch (outcome.action()) {
+                case COPIED -> copied++;
+                case LINKED -> linked++;
+                case SKIPPED -> skipped++;
+            }
+            bytes += outcome.bytes();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return new Summary(copied, linked, skipped, bytes);
+    }
+
+    private static Outcome syncFile(Path source, Path target, AtomicBoolean linking) throws IOException {
+        BasicFileAttributes sourceAttributes = Files.readAttributes(source, BasicFileAttributes.class);
+        FileTime modified = sourceAttributes.lastModifiedTime();
+        BasicFileAttributes targetAttributes = readAttributes(target);
+        if (targetAttributes != null && targetAttributes.size() == sourceAttributes.size()) {
+            if (targetAttributes.lastModifiedTime().equals(modified) || Files.isSameFile(source, target)) {
+                return new Outcome(Action.SKIPPED, 0);
+            }
+            if (Arrays.equals(sha256(source), sha256(target))) {
+                Files.setLastModifiedTime(target, modified);
+                return new Outcome(Action.SKIPPED, 0);
+            }
+        }
+
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        if (linking.get() && Files.getFileStore(source).equals(Files.getFileStore(directory))) {
+            try {
+                replace(target, temp -> Files.createLink(temp, source));
+                return new Outcome(Action.LINKED, 0);
+            } catch (IOException | UnsupportedOperationException ex) {
+                // The file system does not do hard links after all; copy this file and the remaining ones
+                linking.set(false);
+            }
+        }
+        long[] transferred = new long[1];
+        replace(target, temp -> {
+            transferred[0] = transfer(source, temp);
+            Files.setLastModifiedTime(temp, modified);
+        });
+        return new Outcome(Action.COPIED, transferred[0]);
+    }
+
+    private static BasicFileAttributes readAttributes(Path file) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.isRegularFile() ? attributes : null;
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates the new content at a temporary sibling of {@code target} and moves it into place, so readers never
+     * see a partially written file.
+     */
+    private static void replace(Path target, TempWriter writer) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + "." + Long.toHexString(System.nanoTime())
+                + "-" + Thread.currentThread().threadId() + ".tmp");
+        try {
+            writer.write(temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static long transfer(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long count = in.transferTo(position, size - position, out);
+                if (count <= 0) {
+                    break;
+                }
+                position += count;
+            }
+            return position;
+        }
+    }
+
+    private static byte[] sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+        ByteBuffer chunk = ByteBuffer.allocate(HASH_CHUNK);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(chunk) >= 0) {
+                chunk.flip();
+                digest.update(chunk);
+                chunk.clear();
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * What a sync did.
+     *
+     * @param copied  targets written with a copy of their source
+     * @param linked  targets replaced by a hard link to their source
+     * @param skipped targets that already matched their source
+     * @param bytes   bytes copied
+     */
+    public record Summary(int copied, int linked, int skipped, long bytes) {
+    }
+
+    public static final class Builder {
+        private Executor executor = WorkerPool.shared();
+        private boolean hardLinks;
+
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor");
+            return this;
+        }
+
+        public Builder hardLinks(boolean hardLinks) {
+            this.hardLinks = hardLinks;
+            return this;
+        }
+
+        public AssetSync build() {
+            return new AssetSync(this);
+        }
+    }
+
+    private enum Action {
+        COPIED,
+        LINKED,
+        SKIPPED
+    }
+
+    private record Outcome(Action action, long bytes) {
+    }
+
+    @FunctionalInterface
+    private interface TempWriter {
+        void write(Path temp) throws IOException;
+    }
+}
@@ -0,0 +1,276 @@
+package dev.ftbq.editor.io.exporter;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.ftbq.editor.io.JsonConfig;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Records what an export wrote below a target directory so later exports only render and write what changed.
+ * <p>
+ * For every file the manifest keeps the SHA-256 of its content and the size and modification time it had right
+ * after being written, persisted in the target directory as {@value #FILE_NAME} or under the name given to
+ * {@link #load(Path, String)}. A file that already holds the
+ * freshly rendered content is left untouched. On top of that, one manifest instance remembers the domain value
+ * each file was last rendered from: when an export passes an equal value and the file on disk still has the
+ * recorded size and modification time, the file is not rendered at all. Changed files are replaced atomically
+ * through a temporary sibling.
+ * <p>
+ * Each export calls {@link #begin()}, then {@link #write} for every file, {@link #removeStale()} and
+ * {@link #save()}. Instances are not thread-safe; keep one per target directory. Exporters that write into the
+ * same directory must use different manifest names, since {@link #removeStale()} deletes every recorded file
+ * the current export did not write.
+ */
+public final class ExportManifest {
+    public static final String FILE_NAME = ".ftbq-export-manifest.json";
+    private static final int VERSION = 1;
+
+    private final Path root;
+    private final String fileName;
+    private final Map<String, FileEntry> files;
+    private final Map<String, Object> sources = new HashMap<>();
+    private final Set<String> touched = new HashSet<>();
+    private int rendered;
+    private int written;
+
+    private ExportManifest(Path root, String fileName, Map<String, FileEntry> files) {
+        this.root = root;
+        this.fileName = fileName;
+        this.files = files;
+    }
+
+    /**
+     * The manifest stored as {@value #FILE_NAME} in {@code root}, or an empty one when there is none or it cannot
+     * be read.
+     */
+    public static ExportManifest load(Path root) {
+        return load(root, FILE_NAME);
+    }
+
+    /**
+     * The manifest stored as {@code fileName} in {@code root}, or an empty one when there is none or it cannot be
+     * read.
+     *
+     * @param fileName plain file name of the manifest, distinct for every exporter writing into {@code root}
+     */
+    public static ExportManifest load(Path root, String fileName) {
+        Objects.requireNonNull(root, "root");
+        Objects.requireNonNull(fileName, "fileName");
+        if (fileName.isBlank() || !Path.of(fileName).getFileName().toString().equals(fileName)) {
+            throw new IllegalArgumentException("Manifest name must be a plain file name: " + fileName);
+        }
+        Path normalized = root.toAbsolutePath().normalize();
+        Map<String, FileEntry> files = new TreeMap<>();
+        Path manifestFile = normalized.resolve(fileName);
+        if (Files.isRegularFile(manifestFile)) {
+            try {
+                ManifestData data = JsonConfig.OBJECT_MAPPER.readValue(manifestFile.toFile(), ManifestData.class);
+                if (data.version() == VERSION && data.files() != null) {
+                    files.putAll(data.files());
+                }
+            } catch (IOException ex) {
+                // Unreadable manifest: every file is rendered and compared again
+            }
+        }
+        return new ExportManifest(normalized, fileName, files);
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /**
+     * Starts an export: resets the counters and the set of files written by it.
+     */
+    public void begin() {
+        touched.clear();
+        rendered = 0;
+        written = 0;
+    }
+
+    /**
+     * Makes {@code relativePath} hold what {@code renderer} produces for {@code source}.
+     *
+     * @param source the domain value the content is rendered from, compared with {@link Object#equals}; {@code null}
+     *               when the content does not derive from a single value and must always be rendered
+     * @return whether the file was written
+     */
+    public boolean write(String relativePath, Object source, Renderer renderer) throws IOException {
+        Objects.requireNonNull(relativePath, "relativePath");
+        Objects.requireNonNull(renderer, "renderer");
+        Path target = resolve(relativePath);
+        touched.add(relativePath);
+        FileEntry recorded = files.get(relativePath);
+        if (source != null && recorded != null && source.equals(sources.get(relativePath))
+                && recorded.matches(target)) {
+            return false;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        renderer.render(buffer);
+        rendered++;
+        byte[] content = buffer.toByteArray();
+        String sha256 = sha256(content);
+        if (recorded != null && recorded.sha256().equals(sha256) && recorded.matches(target)) {
+            remember(relativePath, source);
+            return false;
+        }
+        boolean changed = !hasContent(target, content);
+        if (changed) {
+            writeAtomically(target, content);
+            written++;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(target, BasicFileAttributes.class);
+        files.put(relativePath, new FileEntry(sha256, attributes.size(), attributes.lastModifiedTime().toMillis()));
+        remember(relativePath, source);
+        return changed;
+    }
+
+    /**
+     * Deletes the files recorded by earlier exports that the current export did not write.
+     *
+     * @return the number of files removed
+     */
+    public int removeStale() throws IOException {
+        int removed = 0;
+        Iterator<String> paths = files.keySet().iterator();
+        while (paths.hasNext()) {
+            String relativePath = paths.next();
+            if (!touched.contains(relativePath)) {
+                if (Files.deleteIfExists(resolve(relativePath))) {
+                    removed++;
+                }
+                paths.remove();
+                sources.remove(relativePath);
+            }
+        }
+        return removed;
+    }
+
+    public void save() throws IOException {
+        byte[] content = JsonConfig.OBJECT_MAPPER.writerWithDefaultPrettyPrinter()
+                .writeValueAsBytes(new ManifestData(VERSION, files));
+        writeAtomically(root.resolve(fileName), content);
+    }
+
+    /**
+     * Files rendered since {@link #begin()}.
+     */
+    public int renderedCount() {
+        return rendered;
+    }
+
+    /**
+     * Files written since {@link #begin()}.
+     */
+    public int writtenCount() {
+        return written;
+    }
+
+    /**
+     * Files passed to {@link #write} since {@link #begin()}.
+     */
+    public int fileCount() {
+        return touched.size();
+    }
+
+    private void remember(String relativePath, Object source) {
+        if (source == null) {
+            sources.remove(relativePath);
+        } else {
+            sources.put(relativePath, source);
+        }
+    }
+
+    private Path resolve(String relativePath) throws IOException {
+        Path resolved = root.resolve(relativePath).normalize();
+        if (!resolved.startsWith(root) || resolved.equals(root)) {
+            throw new IOException("Export path escapes target root: " + relativePath);
+        }
+        return resolved;
+    }
+
+    /**
+     * Whether {@code file} already holds exactly {@code content}, e.g. when it was exported before the manifest
+     * existed or was touched without being changed.
+     */
+    private static boolean hasContent(Path file, byte[] content) throws IOException {
+        try {
+            return Files.size(file) == content.length && Arrays.equals(Files.readAllBytes(file), content);
+        } catch (NoSuchFileException ex) {
+            return false;
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        // Write to a temporary sibling first so readers never see a partially written file.
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * Produces the content of one exported file.
+     */
+    @FunctionalInterface
+    public interface Renderer {
+        void render(OutputStream out) throws IOException;
+    }
+
+    private record FileEntry(@JsonProperty("sha256") String sha256,
+                             @JsonProperty("size") long size,
+                             @JsonProperty("modified") long modified) {
+
+        /**
+         * Whether the file still looks as it did right after the export wrote it.
+         */
+        private boolean matches(Path file) throws IOException {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return attributes.isRegularFile() && attributes.size() == size
+                        && attributes.lastModifiedTime().toMillis() == modified;
+            } catch (NoSuchFileException ex) {
+                return false;
+            }
+        }
+    }
+
+    private record ManifestData(@JsonProperty("version") int version,
+                                @JsonProperty("files") Map<String, FileEntry> files) {
+    }
+}
@@ -13,17 +13,36 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public final class Exporter {
     private static final Logger LOGGER = LoggerFactory.getLogger(Exporter.class);
 
+    private final Map<Path, ExportManifest> manifests = new ConcurrentHashMap<>();
+    private final AssetSync assetSync;
+
+    public Exporter() {
+        this(AssetSync.builder().build());
+    }
+
+    public Exporter(AssetSync assetSync) {
+        this.assetSync = Objects.requireNonNull(assetSync, "assetSync");
+    }
+
+    /**
+     * Exports the quest file and its loot tables as JSON plus the referenced assets. Files are tracked in an
+     * {@link ExportManifest} in {@code targetRoot}: repeated exports only render and rewrite the files whose
+     * content changed, and remove files written by earlier exports that are no longer part of the pack. Assets
+     * go through the {@link AssetSync}, which leaves files that already match their source alone.
+     */
     public void exportPack(QuestFile questFile, Path packRoot, Path targetRoot) throws IOException {
         Objects.requireNonNull(questFile, "questFile");
         Objects.requireNonNull(packRoot, "packRoot");
@@ -34,13 +53,20 @@ public final class Exporter {
 
         String namespace = extractNamespace(questFile.id());
 
-        Path dataNamespaceRoot = targetRoot.resolve("data").resolve(namespace);
-        Path ftbquestsRoot = dataNamespaceRoot.resolve("ftbquests");
-        QuestFileJson.save(questFile, ftbquestsRoot);
-
-        Path lootTableRoot = dataNamespaceRoot.resolve("loot_tables");
-        for (LootTable lootTable : questFile.lootTables()) {
-            LootTableJson.save(lootTable, lootTableRoot);
+        ExportManifest manifest = manifests.computeIfAbsent(targetRoot.toAbsolutePath().normalize(), ExportManifest::load);
+        synchronized (manifest) {
+            manifest.begin();
+            String dataNamespaceRoot = "data/" + namespace;
+            manifest.write(dataNamespaceRoot + "/ftbquests/" + QuestFileJson.fileName(), questFile,
+                    out -> QuestFileJson.write(questFile, out));
+            for (LootTable lootTable : questFile.lootTables()) {
+                manifest.write(dataNamespaceRoot + "/loot_tables/" + LootTableJson.relativePath(lootTable), lootTable,
+                        out -> LootTableJson.write(lootTable, out));
+            }
+            int removed = manifest.removeStale();
+            manifest.save();
+            LOGGER.info("Data export summary | files={} rendered={} written={} removed={} targetRoot={}",
+                    manifest.fileCount(), manifest.renderedCount(), manifest.writtenCount(), removed, targetRoot);
         }
 
         AssetCopySummary summary = copyAssets(questFile, packRoot, targetRoot.resolve("assets").resolve(namespace));
@@ -60,7 +86,7 @@ public final class Exporter {
         return colon >= 0 ? id.substring(0, colon) : id;
     }
 
-    private static AssetCopySummary copyAssets(QuestFile questFile, Path packRoot, Path assetsRoot) throws IOException {
+    private AssetCopySummary copyAssets(QuestFile questFile, Path packRoot, Path assetsRoot) throws IOException {
         Set<Path> iconPaths = new HashSet<>();
         Set<Path> backgroundPaths = new HashSet<>();
 
@@ -76,10 +102,13 @@ public final class Exporter {
             }
         }
 
-        int iconsCopied = copyFiles(iconPaths, assetsRoot.resolve("ftbquests").resolve("icons"));
-        int backgroundsCopied = copyFiles(backgroundPaths, assetsRoot.resolve("ftbquests").resolve("backgrounds"));
-        LOGGER.info("Asset export summary | icons={} backgrounds={} targetRoot={}", iconsCopied, backgroundsCopied, assetsRoot);
-        return new AssetCopySummary(iconsCopied, backgroundsCopied);
+        Map<Path, Path> transfers = new HashMap<>();
+        int icons = addTransfers(transfers, iconPaths, assetsRoot.resolve("ftbquests").resolve("icons"));
+        int backgrounds = addTransfers(transfers, backgroundPaths, assetsRoot.resolve("ftbquests").resolve("backgrounds"));
+        AssetSync.Summary sync = assetSync.sync(transfers);
+        LOGGER.info("Asset export summary | icons={} backgrounds={} copied={} linked={} skipped={} bytes={} targetRoot={}",
+                icons, backgrounds, sync.copied(), sync.linked(), sync.skipped(), sync.bytes(), assetsRoot);
+        return new AssetCopySummary(icons, backgrounds);
     }
 
     private static void collectIconPath(Set<Path> iconPaths, IconRef icon, Path packRoot) throws IOException {
@@ -100,20 +129,19 @@ public final class Exporter {
         toExistingFile(background.texture()).ifPresent(backgroundPaths::add);
     }
 
-    private static int copyFiles(Set<Path> sources, Path targetRoot) throws IOException {
-        if (sources.isEmpty()) {
-            return 0;
-        }
-        Files.createDirectories(targetRoot);
-        int copied = 0;
+    /**
+     * Adds a transfer into {@code targetRoot} for every source that is a regular file and returns how many there
+     * are. Sources sharing a file name share one target, as they did when assets were copied one after another.
+     */
+    private static int addTransfers(Map<Path, Path> transfers, Set<Path> sources, Path targetRoot) {
+        int count = 0;
         for (Path source : sources) {
             if (Files.isRegularFile(source)) {
-                Path target = targetRoot.resolve(source.getFileName().toString());
-                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
-                copied++;
+                transfers.put(targetRoot.resolve(source.getFileName().toString()), source);
+                count++;
             }
         }
-        return copied;
+        return count;
     }
 
     private static Optional<Path> toExistingFile(String value) {
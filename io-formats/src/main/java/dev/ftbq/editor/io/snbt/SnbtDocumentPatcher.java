@@ -0,0 +1,185 @@
+package dev.ftbq.editor.io.snbt;
+
+import dev.ftbq.editor.domain.Chapter;
+import dev.ftbq.editor.domain.LootTable;
+import dev.ftbq.editor.domain.Quest;
+import dev.ftbq.editor.domain.QuestFile;
+import dev.ftbq.editor.importer.snbt.parser.SnbtDocument;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Brings the {@link SnbtDocument} of an imported {@code data.snbt} up to date with an edited quest file, so that
+ * writing the document rewrites only what changed.
+ * <p>
+ * Chapters, quests and loot tables are matched to the compounds they were read from by id. Those equal to the
+ * value the document was last patched to (or imported as) are left alone and written verbatim, including keys the
+ * editor does not model. Changed ones are replaced by the {@link SnbtQuestMapper} rendering; a changed chapter
+ * still keeps the source text of its unchanged quests. Patching a pack where a few quests changed therefore
+ * renders a few chapters and copies the rest of the file.
+ */
+public final class SnbtDocumentPatcher {
+
+    private final SnbtQuestMapper mapper;
+
+    public SnbtDocumentPatcher(SnbtQuestMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+    }
+
+    /**
+     * Edits {@code document}, which holds {@code previous}, so that it holds {@code current}.
+     */
+    public void patch(SnbtDocument document, QuestFile previous, QuestFile current) {
+        Objects.requireNonNull(document, "document");
+        Objects.requireNonNull(previous, "previous");
+        Objects.requireNonNull(current, "current");
+        SnbtDocument.Compound root = document.root();
+        if (!Objects.equals(previous.id(), current.id())) {
+            root.put("id", current.id());
+        }
+        if (!Objects.equals(previous.title(), current.title())) {
+            root.put("title", current.title());
+        }
+        patchChapters(root, previous, current);
+        patchLootTables(root, previous, current);
+    }
+
+    private void patchChapters(SnbtDocument.Compound root, QuestFile previous, QuestFile current) {
+        if (previous.chapters().equals(current.chapters())) {
+            return;
+        }
+        SnbtIdRegistry ids = new SnbtIdRegistry(current);
+        SnbtDocument.ListNode chapters = list(root, "chapters");
+        Map<String, SnbtDocument.Compound> sources = compoundsById(chapters);
+        Map<String, Chapter> before = index(previous.chapters(), Chapter::id);
+        Map<String, Quest> questsBefore = new HashMap<>();
+        previous.chapters().forEach(chapter -> chapter.quests().forEach(quest -> questsBefore.put(quest.id(), quest)));
+
+        List<SnbtDocument.Node> desired = new ArrayList<>(current.chapters().size());
+        for (Chapter chapter : current.chapters()) {
+            SnbtDocument.Compound source = sources.get(ids.hexIdForChapter(chapter));
+            if (source != null && chapter.equals(before.get(chapter.id()))) {
+                desired.add(source);
+                continue;
+            }
+            SnbtDocument.Compound rendered = SnbtDocument.parse(mapper.buildChapterSnippet(chapter, ids)).root();
+            if (source != null) {
+                keepUnchangedQuests(rendered, source, chapter, ids, questsBefore);
+            }
+            desired.add(rendered);
+        }
+        reconcile(chapters, desired);
+    }
+
+    /**
+     * Swaps the quests of a re-rendered chapter that did not change for their compounds in the source chapter.
+     */
+    private static void keepUnchangedQuests(SnbtDocument.Compound rendered,
+                                            SnbtDocument.Compound source,
+                                            Chapter chapter,
+                                            SnbtIdRegistry ids,
+                                            Map<String, Quest> questsBefore) {
+        SnbtDocument.ListNode sourceQuests = source.getList("quests");
+        SnbtDocument.ListNode renderedQuests = rendered.getList("quests");
+        if (sourceQuests == null || renderedQuests == null) {
+            return;
+        }
+        Map<String, SnbtDocument.Compound> sources = compoundsById(sourceQuests);
+        List<Quest> quests = chapter.quests();
+        for (int i = 0; i < quests.size(); i++) {
+            Quest quest = quests.get(i);
+            SnbtDocument.Compound sourceQuest = sources.get(ids.hexIdForQuest(quest));
+            if (sourceQuest != null && quest.equals(questsBefore.get(quest.id()))) {
+                sourceQuests.remove(indexOf(sourceQuests, sourceQuest));
+                renderedQuests.set(i, sourceQuest);
+            }
+        }
+    }
+
+    private void patchLootTables(SnbtDocument.Compound root, QuestFile previous, QuestFile current) {
+        if (previous.lootTables().equals(current.lootTables())) {
+            return;
+        }
+        SnbtDocument.ListNode tables = list(root, "loot_tables");
+        SnbtDocument.ListNode rendered = SnbtDocument.parse(mapper.buildLootTablesSnippet(current.lootTables()))
+                .root().getList("loot_tables");
+        Map<String, SnbtDocument.Compound> sources = compoundsById(tables);
+        Map<String, LootTable> before = index(previous.lootTables(), LootTable::id);
+
+        List<SnbtDocument.Node> desired = new ArrayList<>(current.lootTables().size());
+        List<LootTable> lootTables = current.lootTables();
+        for (int i = 0; i < lootTables.size(); i++) {
+            LootTable table = lootTables.get(i);
+            SnbtDocument.Compound source = sources.get(table.id());
+            desired.add(source != null && table.equals(before.get(table.id())) ? source : rendered.get(i));
+        }
+        for (int i = rendered.size() - 1; i >= 0; i--) {
+            rendered.remove(i);
+        }
+        reconcile(tables, desired);
+    }
+
+    /**
+     * Makes {@code list} hold exactly {@code desired}, in order, keeping the text around the positions it reuses.
+     */
+    private static void reconcile(SnbtDocument.ListNode list, List<SnbtDocument.Node> desired) {
+        for (int i = 0; i < desired.size(); i++) {
+            SnbtDocument.Node node = desired.get(i);
+            if (i < list.size() && list.get(i) == node) {
+                continue;
+            }
+            if (node.parent() != null) {
+                SnbtDocument.ListNode owner = (SnbtDocument.ListNode) node.parent();
+                owner.remove(indexOf(owner, node));
+            }
+            if (i < list.size()) {
+                list.set(i, node);
+            } else {
+                list.add(node);
+            }
+        }
+        while (list.size() > desired.size()) {
+            list.remove(list.size() - 1);
+        }
+    }
+
+    private static SnbtDocument.ListNode list(SnbtDocument.Compound root, String key) {
+        SnbtDocument.ListNode list = root.getList(key);
+        if (list == null) {
+            list = new SnbtDocument.ListNode();
+            root.put(key, list);
+        }
+        return list;
+    }
+
+    private static Map<String, SnbtDocument.Compound> compoundsById(SnbtDocument.ListNode list) {
+        Map<String, SnbtDocument.Compound> compounds = new HashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            SnbtDocument.Compound compound = list.getCompound(i);
+            String id = compound != null ? compound.getString("id") : null;
+            if (id != null) {
+                compounds.putIfAbsent(id, compound);
+            }
+        }
+        return compounds;
+    }
+
+    private static int indexOf(SnbtDocument.ListNode list, SnbtDocument.Node node) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == node) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Node is not an element of its parent");
+    }
+
+    private static <T> Map<String, T> index(List<T> values, Function<T, String> id) {
+        Map<String, T> index = new HashMap<>();
+        values.forEach(value -> index.putIfAbsent(id.apply(value), value));
+        return index;
+    }
+}
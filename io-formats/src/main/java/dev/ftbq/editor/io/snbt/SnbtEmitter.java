@@ -0,0 +1,187 @@
+package dev.ftbq.editor.io.snbt;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Buffered character sink used by {@link SnbtQuestMapper}. Text is collected in a fixed buffer and handed to the
+ * target {@link Writer} or {@link StringBuilder} in blocks; numbers and escaped strings are written straight into
+ * the buffer, so emitting a quest does not build intermediate strings.
+ * <p>
+ * Failures of the target writer are thrown as {@link UncheckedIOException}.
+ */
+final class SnbtEmitter {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_LONG_DIGITS = 20;
+
+    private final Writer writer;
+    private final StringBuilder builder;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+
+    SnbtEmitter(Writer writer) {
+        this.writer = Objects.requireNonNull(writer, "writer");
+        this.builder = null;
+    }
+
+    SnbtEmitter(StringBuilder builder) {
+        this.writer = null;
+        this.builder = Objects.requireNonNull(builder, "builder");
+    }
+
+    /**
+     * Two spaces per indentation level.
+     */
+    SnbtEmitter indent(int depth) {
+        for (int i = 0; i < depth * 2; i++) {
+            append(' ');
+        }
+        return this;
+    }
+
+    SnbtEmitter newline() {
+        return append('\n');
+    }
+
+    SnbtEmitter append(char c) {
+        if (position == BUFFER_SIZE) {
+            drain();
+        }
+        buffer[position++] = c;
+        return this;
+    }
+
+    SnbtEmitter append(String text) {
+        int length = text.length();
+        int offset = 0;
+        while (offset < length) {
+            if (position == BUFFER_SIZE) {
+                drain();
+            }
+            int count = Math.min(length - offset, BUFFER_SIZE - position);
+            text.getChars(offset, offset + count, buffer, position);
+            position += count;
+            offset += count;
+        }
+        return this;
+    }
+
+    SnbtEmitter append(char[] chars, int offset, int length) {
+        while (length > 0) {
+            if (position == BUFFER_SIZE) {
+                drain();
+            }
+            int count = Math.min(length, BUFFER_SIZE - position);
+            System.arraycopy(chars, offset, buffer, position, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+        return this;
+    }
+
+    /**
+     * Decimal digits of {@code value}, as {@link Long#toString(long)} would write them.
+     */
+    SnbtEmitter append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(Long.toString(value));
+        }
+        if (BUFFER_SIZE - position < MAX_LONG_DIGITS) {
+            drain();
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        int index = end;
+        do {
+            buffer[--index] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        position = end;
+        return this;
+    }
+
+    /**
+     * {@code text} with every double quote preceded by a backslash.
+     */
+    SnbtEmitter escaped(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                append('\\');
+            }
+            append(c);
+        }
+        return this;
+    }
+
+    /**
+     * {@code text} escaped and wrapped in double quotes.
+     */
+    SnbtEmitter quoted(String text) {
+        return append('"').escaped(text).append('"');
+    }
+
+    /**
+     * A double tag: the shortest plain decimal form of {@code value} with at least one fractional digit,
+     * followed by {@code d}.
+     */
+    SnbtEmitter decimal(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            // Integral values: BigDecimal would strip the fraction, which is then put back as ".0"
+            return append((long) value).append(".0d");
+        }
+        double magnitude = Math.abs(value);
+        if (magnitude >= 1e-3 && magnitude < 1e7) {
+            // Double.toString is already plain and minimal in this range
+            return append(Double.toString(value)).append('d');
+        }
+        String plain = BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        append(plain);
+        if (plain.indexOf('.') < 0) {
+            append(".0");
+        }
+        return append('d');
+    }
+
+    /**
+     * Hands everything buffered so far to the target and flushes a target writer.
+     */
+    void flush() {
+        drain();
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private void drain() {
+        if (position == 0) {
+            return;
+        }
+        if (builder != null) {
+            builder.append(buffer, 0, position);
+        } else {
+            try {
+                writer.write(buffer, 0, position);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        position = 0;
+    }
+}
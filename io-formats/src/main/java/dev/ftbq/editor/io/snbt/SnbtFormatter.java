@@ -1,23 +1,39 @@
 package dev.ftbq.editor.io.snbt;
 
 import dev.ftbq.editor.domain.QuestFile;
+import dev.ftbq.editor.importer.snbt.parser.SnbtParseException;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Objects;
 
 /**
  * Normalizes SNBT text into the canonical quest format used by the editor.
+ * <p>
+ * {@link #format(String)} validates the text against the domain model: it is read into a {@link QuestFile} and
+ * written again by {@link SnbtQuestMapper}, so the result only holds what the editor models. {@link #reformat}
+ * only changes the layout, through a {@link SnbtPrettyPrinter}, and keeps every field.
  */
 public final class SnbtFormatter {
 
     private final SnbtQuestMapper mapper;
+    private final SnbtPrettyPrinter printer;
 
     public SnbtFormatter() {
         this(new SnbtQuestMapper());
     }
 
     public SnbtFormatter(SnbtQuestMapper mapper) {
+        this(mapper, SnbtPrettyPrinter.builder().build());
+    }
+
+    public SnbtFormatter(SnbtQuestMapper mapper, SnbtPrettyPrinter printer) {
         this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.printer = Objects.requireNonNull(printer, "printer");
     }
 
+    /**
+     * Reads the text into a {@link QuestFile} and renders it in the canonical quest format.
+     */
     public FormatResult format(String snbtText) {
         Objects.requireNonNull(snbtText, "snbtText");
         String sanitized = stripInvalidControlCharacters(snbtText);
@@ -31,29 +47,35 @@ public final class SnbtFormatter {
         return new FormatResult(formatted, questFile);
     }
 
-    private String stripInvalidControlCharacters(String text) {
-        StringBuilder sanitized = null;
-        int length = text.length();
-        for (int offset = 0; offset < length; ) {
-            int codePoint = text.codePointAt(offset);
-            if (isDisallowedControlCharacter(codePoint)) {
-                if (sanitized == null) {
-                    sanitized = new StringBuilder(length);
-                    sanitized.append(text, 0, offset);
-                }
-            } else if (sanitized != null) {
-                sanitized.appendCodePoint(codePoint);
-            }
-            offset += Character.charCount(codePoint);
+    /**
+     * Reformats the text without reading it into the domain model; see {@link SnbtPrettyPrinter}.
+     */
+    public String reformat(CharSequence snbtText) {
+        Objects.requireNonNull(snbtText, "snbtText");
+        try {
+            return printer.format(snbtText);
+        } catch (SnbtParseException e) {
+            throw new IllegalArgumentException("Invalid SNBT content", e);
         }
-        return sanitized != null ? sanitized.toString() : text;
     }
 
-    private boolean isDisallowedControlCharacter(int codePoint) {
-        if (codePoint == '\n' || codePoint == '\r' || codePoint == '\t') {
-            return false;
+    /**
+     * Streams the reformatted text to {@code out}; see {@link SnbtPrettyPrinter}.
+     */
+    public void reformat(CharSequence snbtText, Writer out) throws IOException {
+        Objects.requireNonNull(snbtText, "snbtText");
+        try {
+            printer.format(snbtText, out);
+        } catch (SnbtParseException e) {
+            throw new IllegalArgumentException("Invalid SNBT content", e);
         }
-        return Character.isISOControl(codePoint);
+    }
+
+    private String stripInvalidControlCharacters(String text) {
+        // Control characters are never surrogates, so a char-wise pass removes the same code points
+        char[] chars = text.toCharArray();
+        int length = SnbtPrettyPrinter.stripControlCharacters(chars, 0, chars.length);
+        return length == chars.length ? text : new String(chars, 0, length);
     }
 
     public record FormatResult(String formattedText, QuestFile questFile) {
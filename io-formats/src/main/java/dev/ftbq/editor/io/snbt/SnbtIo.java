@@ -1,5 +1,6 @@
 package dev.ftbq.editor.io.snbt;
 
+import dev.ftbq.editor.domain.QuestFile;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -29,4 +30,18 @@ public final class SnbtIo {
             out.write(snbt.getBytes(StandardCharsets.UTF_8));
         }
     }
+
+    /**
+     * Writes {@code questFile} as {@link SnbtQuestMapper#toSnbt(QuestFile)} would, streaming it to the file
+     * instead of building the text in memory first.
+     */
+    public static void write(File file, QuestFile questFile, SnbtQuestMapper mapper) throws IOException {
+        var parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (var out = new FileOutputStream(file)) {
+            mapper.writeSnbt(questFile, out);
+        }
+    }
 }
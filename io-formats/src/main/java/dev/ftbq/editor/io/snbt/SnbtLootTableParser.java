@@ -1,7 +1,7 @@
 package dev.ftbq.editor.io.snbt;
 
+import dev.ftbq.editor.importer.snbt.parser.SnbtBufferParser;
 import dev.ftbq.editor.importer.snbt.parser.SnbtParseException;
-import dev.ftbq.editor.importer.snbt.parser.SnbtParser;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -32,7 +32,7 @@ public class SnbtLootTableParser {
         }
         Map<String, Object> root;
         try {
-            root = SnbtParser.parseRootCompound(snbt);
+            root = SnbtBufferParser.parseRootCompound(snbt);
         } catch (SnbtParseException | IllegalArgumentException ex) {
             return new LootTableData(DEFAULT_ICON, List.of());
         }
@@ -0,0 +1,93 @@
+package dev.ftbq.editor.io.snbt;
+
+import dev.ftbq.editor.domain.Chapter;
+import dev.ftbq.editor.domain.LootTable;
+import dev.ftbq.editor.domain.QuestFile;
+import dev.ftbq.editor.io.exporter.ExportManifest;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Writes a quest file in the FTB Quests directory layout: {@code data.snbt}, {@code chapter_groups.snbt},
+ * {@code chapters/<chapter>.snbt} and {@code reward_tables/<table>.snbt}, using the same text as
+ * {@link SnbtQuestMapper#fragmentsFor}.
+ * <p>
+ * Files go through a {@link Sink}. With an {@link ExportManifest} as the sink, each chapter and reward table file
+ * is only rendered when its chapter or table changed since the last export with that manifest, and only rewritten
+ * when its text changed; other sinks can send the files elsewhere, such as straight into an archive.
+ */
+public final class SnbtPackWriter {
+    public static final String DATA_FILE = "data.snbt";
+    public static final String CHAPTER_GROUPS_FILE = "chapter_groups.snbt";
+    public static final String CHAPTERS_DIRECTORY = "chapters";
+    public static final String REWARD_TABLES_DIRECTORY = "reward_tables";
+
+    private final SnbtQuestMapper mapper;
+
+    public SnbtPackWriter(SnbtQuestMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+    }
+
+    /**
+     * Writes the pack files of {@code questFile} below {@code directory}, a path relative to the manifest root
+     * ({@code ""} for the root itself). The caller owns the manifest's {@link ExportManifest#begin() begin},
+     * {@link ExportManifest#removeStale() removeStale} and {@link ExportManifest#save() save} calls.
+     */
+    public void write(QuestFile questFile, ExportManifest manifest, String directory) throws IOException {
+        Objects.requireNonNull(manifest, "manifest");
+        write(questFile, manifest::write, directory);
+    }
+
+    /**
+     * Hands the pack files of {@code questFile} to {@code sink}, with paths below {@code directory}
+     * ({@code ""} for none).
+     */
+    public void write(QuestFile questFile, Sink sink, String directory) throws IOException {
+        Objects.requireNonNull(questFile, "questFile");
+        Objects.requireNonNull(sink, "sink");
+        String prefix = directory == null || directory.isEmpty() ? "" : directory + "/";
+        SnbtIdRegistry ids = new SnbtIdRegistry(questFile);
+
+        sink.write(prefix + DATA_FILE, questFile, out -> mapper.writeSnbt(questFile, out));
+        sink.write(prefix + CHAPTER_GROUPS_FILE, questFile.chapterGroups(),
+                out -> mapper.writeChapterGroups(questFile, ids, out));
+        for (Chapter chapter : questFile.chapters()) {
+            String path = prefix + CHAPTERS_DIRECTORY + "/" + fileName(chapter.id(), chapter.title()) + ".snbt";
+            sink.write(path, chapter, out -> mapper.writeChapter(chapter, ids, out));
+        }
+        for (LootTable table : questFile.lootTables()) {
+            String path = prefix + REWARD_TABLES_DIRECTORY + "/" + fileName(table.id(), "reward_table") + ".snbt";
+            sink.write(path, table, out -> mapper.writeLootTable(table, out));
+        }
+    }
+
+    /**
+     * Lower-case file name for an id, with every character other than letters, digits, {@code -} and {@code _}
+     * replaced by {@code _}; {@code fallback} is used for blank ids.
+     */
+    public static String fileName(String id, String fallback) {
+        String value = (id == null || id.isBlank()) ? fallback : id;
+        if (value == null || value.isBlank()) {
+            value = "entry";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '-' || c == '_') {
+                builder.append(Character.toLowerCase(c));
+            } else {
+                builder.append('_');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Receives the files of a pack. {@code source} is the domain value the file is rendered from, as in
+     * {@link ExportManifest#write}.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void write(String path, Object source, ExportManifest.Renderer renderer) throws IOException;
+    }
+}
@@ -0,0 +1,523 @@
+package dev.ftbq.editor.io.snbt;
+
+import dev.ftbq.editor.importer.snbt.parser.SnbtBufferParser;
+import dev.ftbq.editor.importer.snbt.parser.SnbtLexer;
+import dev.ftbq.editor.importer.snbt.parser.SnbtParseException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reformats SNBT text straight from the {@link SnbtLexer} token stream, without building a tree or a
+ * {@link dev.ftbq.editor.domain.QuestFile}.
+ * <p>
+ * Whitespace and comments are replaced by the configured layout. Bare words, keys and double-quoted strings are
+ * copied with their original spelling, so number suffixes, escapes and fields the editor does not model survive;
+ * single-quoted strings are rewritten with double quotes. Output goes through a fixed buffer to the target
+ * writer, so besides the input text memory stays constant as long as keys keep their source order. Reordering
+ * keys holds the key and value positions of each open compound and scans every reordered value once more.
+ * <p>
+ * Control characters other than line breaks and tabs are removed first, as {@link SnbtFormatter} does.
+ * Instances are immutable and thread-safe.
+ */
+public final class SnbtPrettyPrinter {
+
+    private final String indent;
+    private final List<String> leadingKeys;
+    private final boolean sortKeys;
+    private final int lineWidth;
+
+    private SnbtPrettyPrinter(Builder builder) {
+        this.indent = builder.indent;
+        this.leadingKeys = List.copyOf(builder.leadingKeys);
+        this.sortKeys = builder.sortKeys;
+        this.lineWidth = builder.lineWidth;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String indent() {
+        return indent;
+    }
+
+    public List<String> leadingKeys() {
+        return leadingKeys;
+    }
+
+    public boolean sortKeys() {
+        return sortKeys;
+    }
+
+    public int lineWidth() {
+        return lineWidth;
+    }
+
+    public String format(CharSequence snbt) {
+        CharBuffer input = copy(snbt);
+        StringBuilder builder = new StringBuilder(input.remaining() + input.remaining() / 4);
+        SnbtEmitter out = new SnbtEmitter(builder);
+        print(input, out);
+        out.flush();
+        return builder.toString();
+    }
+
+    public void format(CharSequence snbt, Writer out) throws IOException {
+        print(copy(snbt), out);
+    }
+
+    /**
+     * Formats a UTF-8 SNBT file, decoded the way {@link SnbtBufferParser#readChars(Path)} does.
+     */
+    public void format(Path file, Writer out) throws IOException {
+        print(SnbtBufferParser.readChars(file), out);
+    }
+
+    /**
+     * Removes control characters other than {@code \n}, {@code \r} and {@code \t} from {@code chars[from, to)} in
+     * place.
+     *
+     * @return the new end of the range
+     */
+    static int stripControlCharacters(char[] chars, int from, int to) {
+        int write = from;
+        for (int read = from; read < to; read++) {
+            char c = chars[read];
+            if (c == '\n' || c == '\r' || c == '\t' || !Character.isISOControl(c)) {
+                chars[write++] = c;
+            }
+        }
+        return write;
+    }
+
+    private static CharBuffer copy(CharSequence snbt) {
+        Objects.requireNonNull(snbt, "snbt");
+        char[] chars = new char[snbt.length()];
+        if (snbt instanceof String string) {
+            string.getChars(0, chars.length, chars, 0);
+        } else {
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = snbt.charAt(i);
+            }
+        }
+        return CharBuffer.wrap(chars);
+    }
+
+    private void print(CharBuffer input, Writer out) throws IOException {
+        Objects.requireNonNull(out, "out");
+        SnbtEmitter emitter = new SnbtEmitter(out);
+        try {
+            print(input, emitter);
+            emitter.flush();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private void print(CharBuffer input, SnbtEmitter out) {
+        char[] chars = input.array();
+        int from = input.arrayOffset() + input.position();
+        int to = stripControlCharacters(chars, from, from + input.remaining());
+        new Pass(chars, from, to, out).document();
+    }
+
+    private boolean reorders() {
+        return sortKeys || !leadingKeys.isEmpty();
+    }
+
+    /**
+     * One formatting run over a decoded input. A single lexer serves the whole run; look-ahead for line widths and
+     * reordered keys seeks back to where it left off.
+     */
+    private final class Pass {
+        private final char[] chars;
+        private final int base;
+        private final SnbtLexer lexer;
+        private final SnbtEmitter out;
+        private final Comparator<Member> order;
+        private final List<String> indents = new ArrayList<>();
+        private int budget;
+
+        Pass(char[] chars, int from, int to, SnbtEmitter out) {
+            this.chars = chars;
+            this.base = from;
+            this.lexer = new SnbtLexer(chars, from, to - from);
+            this.out = out;
+            Comparator<Member> byLeadingKey = Comparator.comparingInt(member -> {
+                int index = leadingKeys.indexOf(member.key());
+                return index >= 0 ? index : leadingKeys.size();
+            });
+            this.order = sortKeys ? byLeadingKey.thenComparing(Member::key) : byLeadingKey;
+        }
+
+        void document() {
+            lexer.skipWhitespace();
+            if (!lexer.hasNext()) {
+                throw new SnbtParseException("Unexpected end of SNBT input");
+            }
+            if (lexer.peek() != '{') {
+                throw new SnbtParseException("Root of SNBT must be a compound");
+            }
+            container(0, 0, false);
+            lexer.skipWhitespace();
+            if (lexer.hasNext()) {
+                throw new SnbtParseException("Trailing content after root compound at index " + lexer.position());
+            }
+            out.newline();
+        }
+
+        /**
+         * Writes the value at the lexer's position. {@code column} is where the value starts on its line.
+         */
+        private void value(int depth, int column, boolean flat) {
+            lexer.skipWhitespace();
+            if (!lexer.hasNext()) {
+                throw new SnbtParseException("Unexpected end of SNBT input");
+            }
+            char c = lexer.peek();
+            if (c == '{' || c == '[') {
+                container(depth, column, flat);
+            } else {
+                scalar();
+            }
+        }
+
+        private void container(int depth, int column, boolean flat) {
+            char open = lexer.peek();
+            boolean compound = open == '{';
+            char close = compound ? '}' : ']';
+            if (!flat && lineWidth > 0) {
+                // Leave room for the comma that may follow the value
+                flat = fits(lineWidth - column - 1);
+            }
+            if (compound && reorders()) {
+                reordered(depth, flat);
+                return;
+            }
+            lexer.expect(open);
+            out.append(open);
+            lexer.skipWhitespace();
+            if (lexer.consume(close)) {
+                out.append(close);
+                return;
+            }
+            boolean first = true;
+            do {
+                int entryColumn = startEntry(depth, flat, first);
+                first = false;
+                if (compound) {
+                    lexer.skipWhitespace();
+                    entryColumn += key() + 1;
+                    lexer.skipWhitespace();
+                    lexer.expect(':');
+                    out.append(':');
+                }
+                value(depth + 1, entryColumn, flat);
+                lexer.skipWhitespace();
+            } while (lexer.consume(','));
+            lexer.expect(close);
+            endContainer(depth, flat, close);
+        }
+
+        /**
+         * Writes a compound with its keys in the configured order. Values are located with
+         * {@link SnbtLexer#skipValue()} first and then formatted by seeking back to them.
+         */
+        private void reordered(int depth, boolean flat) {
+            lexer.expect('{');
+            out.append('{');
+            lexer.skipWhitespace();
+            if (lexer.consume('}')) {
+                out.append('}');
+                return;
+            }
+            List<Member> members = new ArrayList<>();
+            do {
+                lexer.skipWhitespace();
+                int keyStart = lexer.position();
+                String key = lexer.readKey();
+                int keyEnd = lexer.position();
+                lexer.skipWhitespace();
+                lexer.expect(':');
+                lexer.skipWhitespace();
+                members.add(new Member(key, keyStart, keyEnd, lexer.position()));
+                lexer.skipValue();
+                lexer.skipWhitespace();
+            } while (lexer.consume(','));
+            lexer.expect('}');
+            int after = lexer.position();
+            members.sort(order);
+            for (int i = 0; i < members.size(); i++) {
+                Member member = members.get(i);
+                int entryColumn = startEntry(depth, flat, i == 0);
+                entryColumn += key(member) + 1;
+                out.append(':');
+                lexer.seek(member.valueStart());
+                value(depth + 1, entryColumn, flat);
+            }
+            lexer.seek(after);
+            endContainer(depth, flat, '}');
+        }
+
+        /**
+         * Writes the separator before an entry and returns the column the entry starts at.
+         */
+        private int startEntry(int depth, boolean flat, boolean first) {
+            if (flat) {
+                if (!first) {
+                    out.append(", ");
+                }
+                return 0;
+            }
+            if (!first) {
+                out.append(',');
+            }
+            String prefix = indentation(depth + 1);
+            out.newline().append(prefix);
+            return prefix.length();
+        }
+
+        private void endContainer(int depth, boolean flat, char close) {
+            if (!flat) {
+                out.newline().append(indentation(depth));
+            }
+            out.append(close);
+        }
+
+        private String indentation(int depth) {
+            while (indents.size() <= depth) {
+                indents.add(indent.repeat(indents.size()));
+            }
+            return indents.get(depth);
+        }
+
+        /**
+         * Writes the key at the lexer's position and returns its width.
+         */
+        private int key() {
+            if (lexer.peek() == '\'') {
+                return quoted(lexer.readKey());
+            }
+            int from = lexer.position();
+            lexer.skipKey();
+            return copy(from, lexer.position());
+        }
+
+        private int key(Member member) {
+            if (chars[base + member.keyStart()] == '\'') {
+                return quoted(member.key());
+            }
+            return copy(member.keyStart(), member.keyEnd());
+        }
+
+        private void scalar() {
+            if (lexer.peek() == '\'') {
+                lexer.readScalar();
+                quoted(lexer.stringValue());
+                return;
+            }
+            int from = lexer.position();
+            lexer.skipScalar();
+            copy(from, lexer.position());
+        }
+
+        private int copy(int from, int to) {
+            out.append(chars, base + from, to - from);
+            return to - from;
+        }
+
+        private int quoted(String text) {
+            out.append('"');
+            int width = 2;
+            for (int i = 0; i < text.length(); i++) {
+                String escape = escape(text.charAt(i));
+                if (escape == null) {
+                    out.append(text.charAt(i));
+                    width++;
+                } else {
+                    out.append(escape);
+                    width += escape.length();
+                }
+            }
+            out.append('"');
+            return width;
+        }
+
+        /**
+         * Whether the value at the lexer's position fits in {@code available} columns on one line. The lexer is
+         * left where it was.
+         */
+        private boolean fits(int available) {
+            if (available <= 0) {
+                return false;
+            }
+            int start = lexer.position();
+            budget = available;
+            try {
+                return measure();
+            } catch (SnbtParseException ex) {
+                // Malformed input is reported by the formatting pass itself
+                return false;
+            } finally {
+                lexer.seek(start);
+            }
+        }
+
+        /**
+         * Subtracts the one-line width of the value at the lexer's position from the budget. Stops reading as soon
+         * as the budget is used up, so a large container costs no more than a line's worth of tokens.
+         */
+        private boolean measure() {
+            lexer.skipWhitespace();
+            if (!lexer.hasNext()) {
+                return false;
+            }
+            char open = lexer.peek();
+            if (open != '{' && open != '[') {
+                budget -= scalarWidth();
+                return budget >= 0;
+            }
+            boolean compound = open == '{';
+            char close = compound ? '}' : ']';
+            lexer.expect(open);
+            budget -= 2;
+            lexer.skipWhitespace();
+            if (lexer.consume(close)) {
+                return budget >= 0;
+            }
+            boolean first = true;
+            do {
+                if (!first) {
+                    budget -= 2;
+                }
+                first = false;
+                if (compound) {
+                    lexer.skipWhitespace();
+                    budget -= keyWidth() + 1;
+                    lexer.skipWhitespace();
+                    lexer.expect(':');
+                }
+                if (budget < 0 || !measure()) {
+                    return false;
+                }
+                lexer.skipWhitespace();
+            } while (lexer.consume(','));
+            lexer.expect(close);
+            return budget >= 0;
+        }
+
+        private int keyWidth() {
+            if (lexer.peek() == '\'') {
+                return quotedWidth(lexer.readKey());
+            }
+            int from = lexer.position();
+            lexer.skipKey();
+            return rawWidth(from, lexer.position());
+        }
+
+        private int scalarWidth() {
+            if (lexer.peek() == '\'') {
+                lexer.readScalar();
+                return quotedWidth(lexer.stringValue());
+            }
+            int from = lexer.position();
+            lexer.skipScalar();
+            return rawWidth(from, lexer.position());
+        }
+
+        /**
+         * Width of copied text; a line break inside a quoted string never fits on one line.
+         */
+        private int rawWidth(int from, int to) {
+            for (int i = base + from; i < base + to; i++) {
+                if (chars[i] == '\n' || chars[i] == '\r') {
+                    return Integer.MAX_VALUE / 2;
+                }
+            }
+            return to - from;
+        }
+
+        private static int quotedWidth(String text) {
+            int width = 2;
+            for (int i = 0; i < text.length(); i++) {
+                String escape = escape(text.charAt(i));
+                width += escape == null ? 1 : escape.length();
+            }
+            return width;
+        }
+    }
+
+    /**
+     * Escape sequence for {@code c} inside a double-quoted string, or {@code null} when it is written as is.
+     */
+    private static String escape(char c) {
+        return switch (c) {
+            case '"' -> "\\\"";
+            case '\\' -> "\\\\";
+            case '\n' -> "\\n";
+            case '\r' -> "\\r";
+            case '\t' -> "\\t";
+            default -> null;
+        };
+    }
+
+    private record Member(String key, int keyStart, int keyEnd, int valueStart) {
+    }
+
+    public static final class Builder {
+        private String indent = "  ";
+        private List<String> leadingKeys = List.of();
+        private boolean sortKeys;
+        private int lineWidth;
+
+        /**
+         * Text written once per nesting level; spaces and tabs only. Defaults to two spaces, as
+         * {@link SnbtQuestMapper} writes.
+         */
+        public Builder indent(String indent) {
+            Objects.requireNonNull(indent, "indent");
+            if (!indent.chars().allMatch(c -> c == ' ' || c == '\t')) {
+                throw new IllegalArgumentException("Indent must consist of spaces and tabs");
+            }
+            this.indent = indent;
+            return this;
+        }
+
+        /**
+         * Keys written first in every compound, in this order. The other keys follow in source order, or sorted
+         * when {@link #sortKeys(boolean)} is set.
+         */
+        public Builder leadingKeys(List<String> leadingKeys) {
+            this.leadingKeys = List.copyOf(Objects.requireNonNull(leadingKeys, "leadingKeys"));
+            return this;
+        }
+
+        public Builder sortKeys(boolean sortKeys) {
+            this.sortKeys = sortKeys;
+            return this;
+        }
+
+        /**
+         * Compounds and lists that fit on the rest of their line within this many columns are written on one line;
+         * {@code 0}, the default, puts every entry on its own line.
+         */
+        public Builder lineWidth(int lineWidth) {
+            if (lineWidth < 0) {
+                throw new IllegalArgumentException("lineWidth must not be negative");
+            }
+            this.lineWidth = lineWidth;
+            return this;
+        }
+
+        public SnbtPrettyPrinter build() {
+            return new SnbtPrettyPrinter(this);
+        }
+    }
+}
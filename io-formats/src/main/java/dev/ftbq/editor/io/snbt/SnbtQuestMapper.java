@@ -28,24 +28,39 @@ import dev.ftbq.editor.domain.StageTask;
 import dev.ftbq.editor.domain.StatTask;
 import dev.ftbq.editor.domain.StructureTask;
 import dev.ftbq.editor.domain.Task;
+import dev.ftbq.editor.domain.Visibility;
 import dev.ftbq.editor.domain.XpTask;
 import dev.ftbq.editor.importer.snbt.model.ImportOptions;
 import dev.ftbq.editor.importer.snbt.service.SnbtQuestImporter;
-import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.StringJoiner;
+import java.util.function.Consumer;
 
 /**
  * Maps quest domain objects to their SNBT representation.
+ * <p>
+ * {@link #writeSnbt(QuestFile, OutputStream)} streams a quest file as it is emitted instead of building the
+ * whole text first; {@link #toSnbt(QuestFile)} produces the same characters as a string.
  */
 public class SnbtQuestMapper {
 
-    private static final String INDENT = "  ";
+    private static final Map<Visibility, String> VISIBILITY_NAMES = new EnumMap<>(Visibility.class);
+
+    static {
+        for (Visibility visibility : Visibility.values()) {
+            VISIBILITY_NAMES.put(visibility, visibility.name().toLowerCase(Locale.ROOT));
+        }
+    }
 
     public Fragments fragmentsFor(QuestFile file) {
         Objects.requireNonNull(file, "file");
@@ -65,263 +80,352 @@ public class SnbtQuestMapper {
 
     public String toSnbt(QuestFile file) {
         var builder = new StringBuilder();
+        var out = new SnbtEmitter(builder);
+        appendQuestFile(out, file);
+        out.flush();
+        return builder.toString();
+    }
+
+    /**
+     * Streams the same text as {@link #toSnbt(QuestFile)} to {@code writer}, which is flushed but not closed.
+     */
+    public void writeSnbt(QuestFile file, Writer writer) throws IOException {
+        emit(writer, out -> appendQuestFile(out, file));
+    }
+
+    /**
+     * Streams the UTF-8 encoding of {@link #toSnbt(QuestFile)} to {@code stream}, which is flushed but not closed.
+     */
+    public void writeSnbt(QuestFile file, OutputStream stream) throws IOException {
+        writeSnbt(file, new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Streams the UTF-8 encoding of {@link Fragments#chapters() the chapter file} for {@code chapter}.
+     */
+    public void writeChapter(Chapter chapter, SnbtIdRegistry ids, OutputStream stream) throws IOException {
+        emit(new OutputStreamWriter(stream, StandardCharsets.UTF_8), out -> appendChapter(out, chapter, true, ids));
+    }
+
+    /**
+     * Streams the UTF-8 encoding of {@link Fragments#chapterGroups() the chapter group file} of {@code file}.
+     */
+    public void writeChapterGroups(QuestFile file, SnbtIdRegistry ids, OutputStream stream) throws IOException {
+        emit(new OutputStreamWriter(stream, StandardCharsets.UTF_8), out -> appendChapterGroups(out, file, ids));
+    }
+
+    /**
+     * Streams the UTF-8 encoding of {@link Fragments#rewardTables() the reward table file} for {@code table}.
+     */
+    public void writeLootTable(LootTable table, OutputStream stream) throws IOException {
+        emit(new OutputStreamWriter(stream, StandardCharsets.UTF_8), out -> appendLootTable(out, table));
+    }
+
+    private static void emit(Writer writer, Consumer<SnbtEmitter> body) throws IOException {
+        var out = new SnbtEmitter(writer);
+        try {
+            body.accept(out);
+            out.flush();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private void appendQuestFile(SnbtEmitter out, QuestFile file) {
         var ids = new SnbtIdRegistry(file);
-        appendLine(builder, 0, "{");
-        appendLine(builder, 1, "id:\"" + escape(file.id()) + "\",");
-        appendLine(builder, 1, "title:\"" + escape(file.title()) + "\",");
-        appendLine(builder, 1, "chapters:[");
+        out.append('{').newline();
+        out.indent(1).append("id:").quoted(file.id()).append(',').newline();
+        out.indent(1).append("title:").quoted(file.title()).append(',').newline();
+        out.indent(1).append("chapters:[").newline();
         var chapters = file.chapters();
         for (int i = 0; i < chapters.size(); i++) {
-            appendChapter(builder, chapters.get(i), i == chapters.size() - 1, ids);
+            appendChapter(out, chapters.get(i), i == chapters.size() - 1, ids);
         }
-        appendLine(builder, 1, "],");
-        appendLootTables(builder, file.lootTables());
-        appendLine(builder, 0, "}");
-        return builder.toString();
+        out.indent(1).append("],").newline();
+        appendLootTables(out, file.lootTables());
+        out.append('}').newline();
     }
 
-    private String buildChapterSnippet(Chapter chapter, SnbtIdRegistry ids) {
+    String buildChapterSnippet(Chapter chapter, SnbtIdRegistry ids) {
         var builder = new StringBuilder();
-        appendChapter(builder, chapter, true, ids);
+        var out = new SnbtEmitter(builder);
+        appendChapter(out, chapter, true, ids);
+        out.flush();
         return builder.toString();
     }
 
-    private void appendChapter(StringBuilder builder, Chapter chapter, boolean last, SnbtIdRegistry ids) {
-        appendLine(builder, 2, "{");
-        appendLine(builder, 3, "id:\"" + ids.hexIdForChapter(chapter) + "\",");
-        appendLine(builder, 3, "title:\"" + escape(chapter.title()) + "\",");
-        appendLine(builder, 3, "icon:\"" + escape(chapter.icon().icon()) + "\",");
-        appendLine(builder, 3, "background:\"" + escape(chapter.background().texture()) + "\",");
-        appendLine(builder, 3, "visibility:\"" + chapter.visibility().name().toLowerCase(Locale.ROOT) + "\",");
-        appendImages(builder, chapter.images());
-        appendQuestLinks(builder, chapter.questLinks(), ids);
-        appendLine(builder, 3, "quests:[");
+    private void appendChapter(SnbtEmitter out, Chapter chapter, boolean last, SnbtIdRegistry ids) {
+        out.indent(2).append('{').newline();
+        out.indent(3).append("id:\"").append(ids.hexIdForChapter(chapter)).append("\",").newline();
+        out.indent(3).append("title:").quoted(chapter.title()).append(',').newline();
+        out.indent(3).append("icon:").quoted(chapter.icon().icon()).append(',').newline();
+        out.indent(3).append("background:").quoted(chapter.background().texture()).append(',').newline();
+        out.indent(3).append("visibility:\"").append(visibilityName(chapter.visibility())).append("\",").newline();
+        appendImages(out, chapter.images());
+        appendQuestLinks(out, chapter.questLinks(), ids);
+        out.indent(3).append("quests:[").newline();
         var quests = chapter.quests();
         for (int i = 0; i < quests.size(); i++) {
-            appendQuest(builder, quests.get(i), i == quests.size() - 1, ids);
+            appendQuest(out, quests.get(i), i == quests.size() - 1, ids);
         }
-        appendLine(builder, 3, "]");
-        appendLine(builder, 2, "}" + (last ? "" : ","));
+        out.indent(3).append(']').newline();
+        out.indent(2).append(last ? "}" : "},").newline();
     }
 
-    private void appendQuest(StringBuilder builder, Quest quest, boolean last, SnbtIdRegistry ids) {
-        appendLine(builder, 4, "{");
-        appendLine(builder, 5, "id:\"" + ids.hexIdForQuest(quest) + "\",");
-        appendLine(builder, 5, "title:\"" + escape(quest.title()) + "\",");
-        appendLine(builder, 5, "description:\"" + escape(quest.description()) + "\",");
-        appendLine(builder, 5, "icon:\"" + escape(quest.icon().icon()) + "\",");
-        appendLine(builder, 5, "visibility:\"" + quest.visibility().name().toLowerCase(Locale.ROOT) + "\",");
+    private void appendQuest(SnbtEmitter out, Quest quest, boolean last, SnbtIdRegistry ids) {
+        out.indent(4).append('{').newline();
+        out.indent(5).append("id:\"").append(ids.hexIdForQuest(quest)).append("\",").newline();
+        out.indent(5).append("title:").quoted(quest.title()).append(',').newline();
+        out.indent(5).append("description:").quoted(quest.description()).append(',').newline();
+        out.indent(5).append("icon:").quoted(quest.icon().icon()).append(',').newline();
+        out.indent(5).append("visibility:\"").append(visibilityName(quest.visibility())).append("\",").newline();
         if (quest.shape() != null && quest.shape() != QuestShape.DEFAULT) {
-            appendLine(builder, 5, "shape:\"" + quest.shape().snbtValue() + "\",");
+            out.indent(5).append("shape:\"").append(quest.shape().snbtValue()).append("\",").newline();
         }
         if (quest.size() != null) {
-            appendLine(builder, 5, "size:" + formatDouble(quest.size()) + ",");
+            out.indent(5).append("size:").decimal(quest.size()).append(',').newline();
         }
         if (quest.x() != null) {
-            appendLine(builder, 5, "x:" + formatDouble(quest.x()) + ",");
+            out.indent(5).append("x:").decimal(quest.x()).append(',').newline();
         }
         if (quest.y() != null) {
-            appendLine(builder, 5, "y:" + formatDouble(quest.y()) + ",");
-        }
-        appendLine(builder, 5, "tasks:[" + formatList(tasksToSnbt(quest.tasks())) + "],");
-        appendLine(builder, 5, "rewards:[" + formatList(rewardsToSnbt(quest)) + "],");
-        appendLine(builder, 5, "dependencies:[" + formatList(depsToSnbt(quest.dependencies(), ids)) + "]");
-        appendLine(builder, 4, "}" + (last ? "" : ","));
-    }
-
-    private String formatList(List<String> entries) {
-        if (entries.isEmpty()) {
-            return "";
+            out.indent(5).append("y:").decimal(quest.y()).append(',').newline();
         }
-        var joiner = new StringJoiner(", ");
-        entries.forEach(joiner::add);
-        return joiner.toString();
+        out.indent(5).append("tasks:[");
+        appendTasks(out, quest.tasks());
+        out.append("],").newline();
+        out.indent(5).append("rewards:[");
+        appendRewards(out, quest);
+        out.append("],").newline();
+        out.indent(5).append("dependencies:[");
+        appendDependencies(out, quest.dependencies(), ids);
+        out.append(']').newline();
+        out.indent(4).append(last ? "}" : "},").newline();
     }
 
-    private List<String> tasksToSnbt(List<Task> tasks) {
-        var entries = new ArrayList<String>(tasks.size());
-        for (Task task : tasks) {
+    private void appendTasks(SnbtEmitter out, List<Task> tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (i > 0) {
+                out.append(", ");
+            }
             if (task instanceof ItemTask itemTask) {
-                var sb = new StringBuilder("{type:\"item\", item:" + itemRefToSnbt(itemTask.item()));
+                out.append("{type:\"item\", item:");
+                appendItemRef(out, itemTask.item());
                 if (itemTask.consume()) {
-                    sb.append(", consume_items:true");
+                    out.append(", consume_items:true");
                 }
-                sb.append("}");
-                entries.add(sb.toString());
+                out.append('}');
             } else if (task instanceof AdvancementTask advancementTask) {
-                entries.add("{type:\"advancement\", advancement:\"" + escape(advancementTask.advancementId()) + "\"}");
+                out.append("{type:\"advancement\", advancement:").quoted(advancementTask.advancementId()).append('}');
             } else if (task instanceof LocationTask locationTask) {
-                entries.add("{type:\"location\", dimension:\"" + escape(locationTask.dimension()) + "\", x:" + formatDouble(locationTask.x())
-                        + ", y:" + formatDouble(locationTask.y()) + ", z:" + formatDouble(locationTask.z()) + ", radius:" + formatDouble(locationTask.radius()) + "}");
+                out.append("{type:\"location\", dimension:").quoted(locationTask.dimension())
+                        .append(", x:").decimal(locationTask.x())
+                        .append(", y:").decimal(locationTask.y())
+                        .append(", z:").decimal(locationTask.z())
+                        .append(", radius:").decimal(locationTask.radius()).append('}');
             } else if (task instanceof CheckmarkTask) {
-                entries.add("{type:\"checkmark\"}");
+                out.append("{type:\"checkmark\"}");
             } else if (task instanceof KillTask killTask) {
-                var sb = new StringBuilder("{type:\"kill\", entity:\"" + escape(killTask.entityType()) + "\", value:" + killTask.count());
+                out.append("{type:\"kill\", entity:").quoted(killTask.entityType()).append(", value:").append(killTask.count());
                 if (killTask.entityTag() != null && !killTask.entityTag().isBlank()) {
-                    sb.append(", entity_tag:\"").append(escape(killTask.entityTag())).append("\"");
+                    out.append(", entity_tag:").quoted(killTask.entityTag());
                 }
                 if (killTask.customName() != null && !killTask.customName().isBlank()) {
-                    sb.append(", custom_name:\"").append(escape(killTask.customName())).append("\"");
+                    out.append(", custom_name:").quoted(killTask.customName());
                 }
-                sb.append("}");
-                entries.add(sb.toString());
+                out.append('}');
             } else if (task instanceof ObservationTask obsTask) {
-                entries.add("{type:\"observation\", observe_type:\"" + obsTask.observeType().name() + "\", to_observe:\"" + escape(obsTask.toObserve()) + "\", timer:" + obsTask.timer() + "L}");
+                out.append("{type:\"observation\", observe_type:\"").append(obsTask.observeType().name())
+                        .append("\", to_observe:").quoted(obsTask.toObserve())
+                        .append(", timer:").append(obsTask.timer()).append("L}");
             } else if (task instanceof StageTask stageTask) {
-                entries.add("{type:\"gamestage\", stage:\"" + escape(stageTask.stage()) + "\", team_stage:" + booleanToByte(stageTask.teamStage()) + "}");
+                out.append("{type:\"gamestage\", stage:").quoted(stageTask.stage())
+                        .append(", team_stage:").append(booleanToByte(stageTask.teamStage())).append('}');
             } else if (task instanceof DimensionTask dimTask) {
-                entries.add("{type:\"dimension\", dimension:\"" + escape(dimTask.dimension()) + "\"}");
+                out.append("{type:\"dimension\", dimension:").quoted(dimTask.dimension()).append('}');
             } else if (task instanceof BiomeTask biomeTask) {
-                entries.add("{type:\"biome\", biome:\"" + escape(biomeTask.biome()) + "\"}");
+                out.append("{type:\"biome\", biome:").quoted(biomeTask.biome()).append('}');
             } else if (task instanceof StructureTask structTask) {
-                entries.add("{type:\"structure\", structure:\"" + escape(structTask.structure()) + "\"}");
+                out.append("{type:\"structure\", structure:").quoted(structTask.structure()).append('}');
             } else if (task instanceof XpTask xpTask) {
-                entries.add("{type:\"xp\", value:" + xpTask.value() + "L, points:" + booleanToByte(xpTask.points()) + "}");
+                out.append("{type:\"xp\", value:").append(xpTask.value())
+                        .append("L, points:").append(booleanToByte(xpTask.points())).append('}');
             } else if (task instanceof StatTask statTask) {
-                entries.add("{type:\"stat\", stat:\"" + escape(statTask.stat()) + "\", value:" + statTask.value() + "}");
+                out.append("{type:\"stat\", stat:").quoted(statTask.stat()).append(", value:").append(statTask.value())
+                        .append('}');
             } else if (task instanceof FluidTask fluidTask) {
-                entries.add("{type:\"fluid\", fluid:\"" + escape(fluidTask.fluid()) + "\", amount:" + fluidTask.amount() + "L}");
+                out.append("{type:\"fluid\", fluid:").quoted(fluidTask.fluid())
+                        .append(", amount:").append(fluidTask.amount()).append("L}");
             } else if (task instanceof CustomTask customTask) {
-                entries.add("{type:\"custom\", max_progress:" + customTask.maxProgress() + "L}");
+                out.append("{type:\"custom\", max_progress:").append(customTask.maxProgress()).append("L}");
             } else {
                 throw new IllegalArgumentException("Unsupported task type: " + task);
             }
         }
-        return entries;
     }
 
-    private List<String> rewardsToSnbt(Quest quest) {
-        var entries = new ArrayList<String>();
+    private void appendRewards(SnbtEmitter out, Quest quest) {
+        boolean first = true;
         for (ItemReward itemReward : quest.itemRewards()) {
-            entries.add("{type:\"item\", item:" + itemRefToSnbt(itemReward.itemRef()) + "}");
+            first = separate(out, first);
+            out.append("{type:\"item\", item:");
+            appendItemRef(out, itemReward.itemRef());
+            out.append('}');
         }
         Integer xpLevels = quest.experienceLevels();
         if (xpLevels != null) {
-            entries.add("{type:\"xp_levels\", amount:" + xpLevels + "}");
+            first = separate(out, first);
+            out.append("{type:\"xp_levels\", amount:").append(xpLevels).append('}');
         }
         Integer xpAmount = quest.experienceAmount();
         if (xpAmount != null) {
-            entries.add("{type:\"xp_amount\", amount:" + xpAmount + "}");
+            first = separate(out, first);
+            out.append("{type:\"xp_amount\", amount:").append(xpAmount).append('}');
         }
         String lootTableId = quest.lootTableId();
         if (lootTableId != null && !lootTableId.isBlank()) {
-            entries.add("{type:\"loot_table\", table:\"" + escape(lootTableId) + "\"}");
+            first = separate(out, first);
+            out.append("{type:\"loot_table\", table:").quoted(lootTableId).append('}');
         }
         RewardCommand command = quest.commandReward();
         if (command != null) {
-            entries.add("{type:\"command\", command:\"" + escape(command.command()) + "\", run_as_server:" + booleanToByte(command.runAsServer()) + "}");
+            separate(out, first);
+            out.append("{type:\"command\", command:").quoted(command.command())
+                    .append(", run_as_server:").append(booleanToByte(command.runAsServer())).append('}');
+        }
+    }
+
+    private static boolean separate(SnbtEmitter out, boolean first) {
+        if (!first) {
+            out.append(", ");
         }
-        return entries;
+        return false;
     }
 
-    private List<String> depsToSnbt(List<Dependency> dependencies, SnbtIdRegistry ids) {
-        var entries = new ArrayList<String>(dependencies.size());
-        for (Dependency dependency : dependencies) {
-            entries.add("\"" + ids.hexIdForQuestId(dependency.questId()) + "\"");
+    private void appendDependencies(SnbtEmitter out, List<Dependency> dependencies, SnbtIdRegistry ids) {
+        for (int i = 0; i < dependencies.size(); i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append('"').append(ids.hexIdForQuestId(dependencies.get(i).questId())).append('"');
         }
-        return entries;
     }
 
-    private void appendImages(StringBuilder builder, List<ChapterImage> images) {
+    private void appendImages(SnbtEmitter out, List<ChapterImage> images) {
         if (images == null || images.isEmpty()) {
-            appendLine(builder, 3, "images:[],");
+            out.indent(3).append("images:[],").newline();
             return;
         }
-        appendLine(builder, 3, "images:[");
+        out.indent(3).append("images:[").newline();
         for (int i = 0; i < images.size(); i++) {
             ChapterImage img = images.get(i);
-            var sb = new StringBuilder("{");
-            sb.append("image:\"").append(escape(img.image())).append("\"");
-            sb.append(", x:").append(formatDouble(img.x())).append("d");
-            sb.append(", y:").append(formatDouble(img.y())).append("d");
-            sb.append(", width:").append(formatDouble(img.width())).append("d");
-            sb.append(", height:").append(formatDouble(img.height())).append("d");
+            out.indent(4).append("{image:").quoted(img.image());
+            // Image coordinates have always been written with a second "d" suffix; kept for identical output
+            out.append(", x:").decimal(img.x()).append('d');
+            out.append(", y:").decimal(img.y()).append('d');
+            out.append(", width:").decimal(img.width()).append('d');
+            out.append(", height:").decimal(img.height()).append('d');
             if (img.rotation() != 0.0) {
-                sb.append(", rotation:").append(formatDouble(img.rotation())).append("d");
+                out.append(", rotation:").decimal(img.rotation()).append('d');
             }
             if (img.color() != null) {
-                sb.append(", color:").append(img.color());
+                out.append(", color:").append(img.color());
             }
             if (img.alpha() != null) {
-                sb.append(", alpha:").append(img.alpha());
+                out.append(", alpha:").append(img.alpha());
             }
             if (!img.hover().isEmpty()) {
-                sb.append(", hover:[");
+                out.append(", hover:[");
                 for (int j = 0; j < img.hover().size(); j++) {
-                    sb.append("\"").append(escape(img.hover().get(j))).append("\"");
+                    out.quoted(img.hover().get(j));
                     if (j < img.hover().size() - 1) {
-                        sb.append(", ");
+                        out.append(", ");
                     }
                 }
-                sb.append("]");
+                out.append(']');
             }
-            sb.append("}");
-            appendLine(builder, 4, sb.toString() + (i < images.size() - 1 ? "," : ""));
+            out.append(i < images.size() - 1 ? "}," : "}").newline();
         }
-        appendLine(builder, 3, "],");
+        out.indent(3).append("],").newline();
     }
 
-    private void appendQuestLinks(StringBuilder builder, List<QuestLink> questLinks, SnbtIdRegistry ids) {
+    private void appendQuestLinks(SnbtEmitter out, List<QuestLink> questLinks, SnbtIdRegistry ids) {
         if (questLinks == null || questLinks.isEmpty()) {
-            appendLine(builder, 3, "quest_links:[],");
+            out.indent(3).append("quest_links:[],").newline();
             return;
         }
-        appendLine(builder, 3, "quest_links:[");
+        out.indent(3).append("quest_links:[").newline();
         for (int i = 0; i < questLinks.size(); i++) {
             QuestLink link = questLinks.get(i);
-            var sb = new StringBuilder("{");
-            sb.append("id:\"").append(escape(link.id())).append("\"");
-            sb.append(", linked_quest:\"").append(ids.hexIdForQuestId(link.linkedQuestId())).append("\"");
-            sb.append(", x:").append(formatDouble(link.x())).append("d");
-            sb.append(", y:").append(formatDouble(link.y())).append("d");
-            sb.append("}");
-            appendLine(builder, 4, sb.toString() + (i < questLinks.size() - 1 ? "," : ""));
+            out.indent(4).append("{id:").quoted(link.id())
+                    .append(", linked_quest:\"").append(ids.hexIdForQuestId(link.linkedQuestId())).append('"')
+                    .append(", x:").decimal(link.x()).append('d')
+                    .append(", y:").decimal(link.y()).append('d')
+                    .append(i < questLinks.size() - 1 ? "}," : "}").newline();
         }
-        appendLine(builder, 3, "],");
+        out.indent(3).append("],").newline();
     }
 
-    private void appendLootTables(StringBuilder builder, List<LootTable> lootTables) {
+    private void appendLootTables(SnbtEmitter out, List<LootTable> lootTables) {
         if (lootTables == null || lootTables.isEmpty()) {
-            appendLine(builder, 1, "loot_tables:[]");
+            out.indent(1).append("loot_tables:[]").newline();
             return;
         }
-        appendLine(builder, 1, "loot_tables:[");
+        out.indent(1).append("loot_tables:[").newline();
         for (int i = 0; i < lootTables.size(); i++) {
             LootTable table = lootTables.get(i);
-            appendLine(builder, 2, "{");
-            appendLine(builder, 3, "id:\"" + escape(table.id()) + "\",");
-            String iconId = table.iconId().orElse("minecraft:book");
-            appendLine(builder, 3, "icon:\"" + escape(iconId) + "\",");
-            appendLootTableItems(builder, table);
-            appendLine(builder, 2, "}" + (i == lootTables.size() - 1 ? "" : ","));
+            out.indent(2).append('{').newline();
+            out.indent(3).append("id:").quoted(table.id()).append(',').newline();
+            out.indent(3).append("icon:").quoted(table.iconId().orElse("minecraft:book")).append(',').newline();
+            appendLootTableItems(out, table);
+            out.indent(2).append(i == lootTables.size() - 1 ? "}" : "},").newline();
         }
-        appendLine(builder, 1, "]");
+        out.indent(1).append(']').newline();
+    }
+
+    /**
+     * The {@code loot_tables} entry of {@link #toSnbt(QuestFile)} wrapped in a compound of its own.
+     */
+    String buildLootTablesSnippet(List<LootTable> lootTables) {
+        var builder = new StringBuilder();
+        var out = new SnbtEmitter(builder);
+        out.append('{').newline();
+        appendLootTables(out, lootTables);
+        out.append('}').newline();
+        out.flush();
+        return builder.toString();
     }
 
     private String buildLootTableSnippet(LootTable table) {
         var builder = new StringBuilder();
-        appendLootTable(builder, table);
+        var out = new SnbtEmitter(builder);
+        appendLootTable(out, table);
+        out.flush();
         return builder.toString();
     }
 
-    private void appendLootTableItems(StringBuilder builder, LootTable table) {
-        List<LootEntry> entries = new ArrayList<>();
+    private void appendLootTableItems(SnbtEmitter out, LootTable table) {
+        int count = 0;
         for (LootPool pool : table.pools()) {
-            entries.addAll(pool.entries());
+            count += pool.entries().size();
         }
-        if (entries.isEmpty()) {
-            appendLine(builder, 3, "items:[]");
+        if (count == 0) {
+            out.indent(3).append("items:[]").newline();
             return;
         }
-        appendLine(builder, 3, "items:[");
-        for (int i = 0; i < entries.size(); i++) {
-            LootEntry entry = entries.get(i);
-            int weight = Math.max(1, (int) Math.round(entry.weight()));
-            String itemLine = "{id:\"" + escape(entry.item().itemId()) + "\", count:" + entry.item().count()
-                    + ", weight:" + weight + "}";
-            appendLine(builder, 4, itemLine + (i == entries.size() - 1 ? "" : ","));
+        out.indent(3).append("items:[").newline();
+        int written = 0;
+        for (LootPool pool : table.pools()) {
+            for (LootEntry entry : pool.entries()) {
+                int weight = Math.max(1, (int) Math.round(entry.weight()));
+                out.indent(4).append("{id:").quoted(entry.item().itemId())
+                        .append(", count:").append(entry.item().count())
+                        .append(", weight:").append(weight)
+                        .append(++written == count ? "}" : "},").newline();
+            }
         }
-        appendLine(builder, 3, "]");
+        out.indent(3).append(']').newline();
     }
 
     public QuestFile fromSnbt(String snbtText) {
@@ -337,67 +441,59 @@ public class SnbtQuestMapper {
         return importer.merge(baseFile, pack, options).questFile();
     }
 
-    private String itemRefToSnbt(ItemRef ref) {
-        return "{id:\"" + escape(ref.itemId()) + "\", count:" + ref.count() + "}";
-    }
-
-    private String formatDouble(double value) {
-        var plain = BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
-        if (!plain.contains(".")) {
-            plain = plain + ".0";
-        }
-        return plain + "d";
+    private void appendItemRef(SnbtEmitter out, ItemRef ref) {
+        out.append("{id:").quoted(ref.itemId()).append(", count:").append(ref.count()).append('}');
     }
 
     private String booleanToByte(boolean value) {
         return value ? "1b" : "0b";
     }
 
-    private void appendLine(StringBuilder builder, int indent, String line) {
-        builder.append(INDENT.repeat(indent)).append(line).append('\n');
-    }
-
-    private static String escape(String s) {
-        return s.replace("\"", "\\\"");
+    private static String visibilityName(Visibility visibility) {
+        return VISIBILITY_NAMES.get(visibility);
     }
 
     private String buildChapterGroups(QuestFile file, SnbtIdRegistry ids) {
         var builder = new StringBuilder();
-        appendLine(builder, 0, "{");
-        appendLine(builder, 1, "chapter_groups:[");
-        var groups = file.chapterGroups();
-        for (int i = 0; i < groups.size(); i++) {
-            appendChapterGroup(builder, groups.get(i), i == groups.size() - 1, ids);
-        }
-        appendLine(builder, 1, "]");
-        appendLine(builder, 0, "}");
+        var out = new SnbtEmitter(builder);
+        appendChapterGroups(out, file, ids);
+        out.flush();
         return builder.toString();
     }
 
-    private void appendChapterGroup(StringBuilder builder, ChapterGroup group, boolean last, SnbtIdRegistry ids) {
-        appendLine(builder, 2, "{");
-        appendLine(builder, 3, "id:\"" + ids.hexIdForChapterGroup(group) + "\",");
-        appendLine(builder, 3, "title:\"" + escape(group.title()) + "\",");
-        appendLine(builder, 3, "icon:\"" + escape(group.icon().icon()) + "\",");
-        appendLine(builder, 3, "visibility:\"" + group.visibility().name().toLowerCase(Locale.ROOT) + "\",");
-        appendLine(builder, 3, "chapters:[" + formatChapterList(group, ids) + "]");
-        appendLine(builder, 2, "}" + (last ? "" : ","));
+    private void appendChapterGroups(SnbtEmitter out, QuestFile file, SnbtIdRegistry ids) {
+        out.append('{').newline();
+        out.indent(1).append("chapter_groups:[").newline();
+        var groups = file.chapterGroups();
+        for (int i = 0; i < groups.size(); i++) {
+            appendChapterGroup(out, groups.get(i), i == groups.size() - 1, ids);
+        }
+        out.indent(1).append(']').newline();
+        out.append('}').newline();
     }
 
-    private String formatChapterList(ChapterGroup group, SnbtIdRegistry ids) {
-        var joiner = new StringJoiner(", ");
+    private void appendChapterGroup(SnbtEmitter out, ChapterGroup group, boolean last, SnbtIdRegistry ids) {
+        out.indent(2).append('{').newline();
+        out.indent(3).append("id:\"").append(ids.hexIdForChapterGroup(group)).append("\",").newline();
+        out.indent(3).append("title:").quoted(group.title()).append(',').newline();
+        out.indent(3).append("icon:").quoted(group.icon().icon()).append(',').newline();
+        out.indent(3).append("visibility:\"").append(visibilityName(group.visibility())).append("\",").newline();
+        out.indent(3).append("chapters:[");
+        boolean first = true;
         for (String chapterId : group.chapterIds()) {
-            joiner.add("\"" + ids.hexIdForChapterId(chapterId) + "\"");
+            first = separate(out, first);
+            out.append('"').append(ids.hexIdForChapterId(chapterId)).append('"');
         }
-        return joiner.toString();
+        out.append(']').newline();
+        out.indent(2).append(last ? "}" : "},").newline();
     }
 
-    private void appendLootTable(StringBuilder builder, LootTable table) {
-        appendLine(builder, 0, "{");
-        appendLine(builder, 1, "id:\"" + escape(table.id()) + "\",");
-        appendLine(builder, 1, "icon:\"" + escape(table.iconId().orElse("minecraft:book")) + "\",");
-        appendLootTableItems(builder, table);
-        appendLine(builder, 0, "}");
+    private void appendLootTable(SnbtEmitter out, LootTable table) {
+        out.append('{').newline();
+        out.indent(1).append("id:").quoted(table.id()).append(',').newline();
+        out.indent(1).append("icon:").quoted(table.iconId().orElse("minecraft:book")).append(',').newline();
+        appendLootTableItems(out, table);
+        out.append('}').newline();
     }
 
     public record Fragments(String data,
@@ -0,0 +1,81 @@
+package dev.ftbq.editor.io.exporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AssetSyncTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void copiesOnlyFilesThatDiffer() throws Exception {
+        Path sources = Files.createDirectories(tempDir.resolve("src"));
+        Path targets = tempDir.resolve("out/icons");
+        Map<Path, Path> transfers = new TreeMap<>();
+        for (int i = 0; i < 20; i++) {
+            Path source = Files.writeString(sources.resolve("icon" + i + ".png"), "icon-" + i);
+            transfers.put(targets.resolve(source.getFileName().toString()), source);
+        }
+        AssetSync sync = AssetSync.builder().build();
+
+        AssetSync.Summary first = sync.sync(transfers);
+        assertEquals(new AssetSync.Summary(20, 0, 0, 130), first);
+        assertEquals("icon-7", Files.readString(targets.resolve("icon7.png")));
+        assertEquals(Files.getLastModifiedTime(sources.resolve("icon7.png")),
+                Files.getLastModifiedTime(targets.resolve("icon7.png")));
+
+        assertEquals(new AssetSync.Summary(0, 0, 20, 0), sync.sync(transfers));
+
+        // Same content with another timestamp is compared by hash and only gets its timestamp fixed
+        Path touched = targets.resolve("icon3.png");
+        Files.setLastModifiedTime(touched, FileTime.fromMillis(1_000));
+        Files.writeString(sources.resolve("icon4.png"), "ICON-4");
+        Files.setLastModifiedTime(sources.resolve("icon4.png"), FileTime.fromMillis(2_000));
+        Files.writeString(sources.resolve("icon5.png"), "changed size");
+        assertEquals(new AssetSync.Summary(2, 0, 18, 18), sync.sync(transfers));
+        assertEquals(Files.getLastModifiedTime(sources.resolve("icon3.png")), Files.getLastModifiedTime(touched));
+        assertEquals("ICON-4", Files.readString(targets.resolve("icon4.png")));
+        assertEquals("changed size", Files.readString(targets.resolve("icon5.png")));
+        try (var files = Files.list(targets)) {
+            assertEquals(20, files.count());
+        }
+    }
+
+    @Test
+    void linksWhenEnabled() throws Exception {
+        Path source = Files.writeString(tempDir.resolve("background.png"), "background");
+        Path target = tempDir.resolve("out/backgrounds/background.png");
+        AssetSync sync = AssetSync.builder().hardLinks(true).build();
+
+        AssetSync.Summary summary = sync.sync(Map.of(target, source));
+        if (summary.linked() == 1) {
+            assertTrue(Files.isSameFile(source, target));
+        } else {
+            // File system without hard links
+            assertEquals(1, summary.copied());
+        }
+        assertEquals("background", Files.readString(target));
+        assertEquals(new AssetSync.Summary(0, 0, 1, 0), sync.sync(Map.of(target, source)));
+    }
+
+    @Test
+    void reportsMissingSources() {
+        AssetSync sync = AssetSync.builder().executor(Runnable::run).build();
+
+        IOException failure = assertThrows(IOException.class,
+                () -> sync.sync(Map.of(tempDir.resolve("out/a.png"), tempDir.resolve("missing.png"))));
+        assertTrue(failure instanceof NoSuchFileException);
+    }
+}
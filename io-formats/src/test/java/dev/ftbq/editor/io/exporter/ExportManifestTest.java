@@ -0,0 +1,143 @@
+package dev.ftbq.editor.io.exporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExportManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void skipsRenderingForEqualSourcesAndWritingForEqualContent() throws Exception {
+        ExportManifest manifest = ExportManifest.load(tempDir);
+        AtomicInteger renders = new AtomicInteger();
+
+        manifest.begin();
+        assertTrue(write(manifest, "chapters/a.snbt", List.of("a", 1), renders));
+        assertTrue(write(manifest, "chapters/b.snbt", List.of("b", 1), renders));
+        assertEquals(2, manifest.writtenCount());
+        FileTime written = Files.getLastModifiedTime(tempDir.resolve("chapters/a.snbt"));
+
+        manifest.begin();
+        assertFalse(write(manifest, "chapters/a.snbt", List.of("a", 1), renders));
+        assertTrue(write(manifest, "chapters/b.snbt", List.of("b", 2), renders));
+        assertEquals(3, renders.get());
+        assertEquals(1, manifest.renderedCount());
+        assertEquals(1, manifest.writtenCount());
+        assertEquals(written, Files.getLastModifiedTime(tempDir.resolve("chapters/a.snbt")));
+        assertEquals("[b, 2]", Files.readString(tempDir.resolve("chapters/b.snbt")));
+
+        // A new source with the same rendering is rendered but not rewritten
+        manifest.begin();
+        assertFalse(manifest.write("chapters/a.snbt", "other",
+                out -> out.write("[a, 1]".getBytes(StandardCharsets.UTF_8))));
+        assertEquals(1, manifest.renderedCount());
+        assertEquals(0, manifest.writtenCount());
+    }
+
+    @Test
+    void rendersAgainWhenFileChangedOnDisk() throws Exception {
+        ExportManifest manifest = ExportManifest.load(tempDir);
+        AtomicInteger renders = new AtomicInteger();
+        manifest.begin();
+        write(manifest, "data.snbt", "pack", renders);
+
+        Files.writeString(tempDir.resolve("data.snbt"), "edited by hand");
+        manifest.begin();
+        assertTrue(write(manifest, "data.snbt", "pack", renders));
+        assertEquals("pack", Files.readString(tempDir.resolve("data.snbt")));
+
+        Files.delete(tempDir.resolve("data.snbt"));
+        manifest.begin();
+        assertTrue(write(manifest, "data.snbt", "pack", renders));
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    void persistsHashesAndRemovesStaleFiles() throws Exception {
+        ExportManifest manifest = ExportManifest.load(tempDir);
+        AtomicInteger renders = new AtomicInteger();
+        manifest.begin();
+        write(manifest, "chapters/a.snbt", "a", renders);
+        write(manifest, "chapters/b.snbt", "b", renders);
+        assertEquals(0, manifest.removeStale());
+        manifest.save();
+        assertTrue(Files.isRegularFile(tempDir.resolve(ExportManifest.FILE_NAME)));
+
+        ExportManifest reloaded = ExportManifest.load(tempDir);
+        reloaded.begin();
+        assertFalse(write(reloaded, "chapters/a.snbt", "a", renders));
+        assertEquals(1, reloaded.renderedCount());
+        assertEquals(0, reloaded.writtenCount());
+        assertEquals(1, reloaded.removeStale());
+        assertFalse(Files.exists(tempDir.resolve("chapters/b.snbt")));
+        assertTrue(Files.exists(tempDir.resolve("chapters/a.snbt")));
+        try (var files = Files.list(tempDir.resolve("chapters"))) {
+            assertEquals(List.of(tempDir.resolve("chapters/a.snbt")), files.toList());
+        }
+    }
+
+    @Test
+    void adoptsIdenticalFilesWrittenWithoutManifest() throws Exception {
+        Files.createDirectories(tempDir.resolve("chapters"));
+        Files.writeString(tempDir.resolve("chapters/a.snbt"), "a");
+        FileTime before = Files.getLastModifiedTime(tempDir.resolve("chapters/a.snbt"));
+
+        ExportManifest manifest = ExportManifest.load(tempDir);
+        manifest.begin();
+        assertFalse(write(manifest, "chapters/a.snbt", "a", new AtomicInteger()));
+        assertEquals(before, Files.getLastModifiedTime(tempDir.resolve("chapters/a.snbt")));
+    }
+
+    @Test
+    void namedManifestsKeepEachOthersFiles() throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+        ExportManifest json = ExportManifest.load(tempDir);
+        json.begin();
+        write(json, "data/pack.json", "json", renders);
+        json.removeStale();
+        json.save();
+
+        ExportManifest snbt = ExportManifest.load(tempDir, ".snbt-manifest.json");
+        snbt.begin();
+        write(snbt, "questbook/data.snbt", "snbt", renders);
+        assertEquals(0, snbt.removeStale());
+        snbt.save();
+
+        ExportManifest reloaded = ExportManifest.load(tempDir);
+        reloaded.begin();
+        write(reloaded, "data/pack.json", "json", renders);
+        assertEquals(0, reloaded.removeStale());
+        assertTrue(Files.exists(tempDir.resolve("questbook/data.snbt")));
+        assertTrue(Files.isRegularFile(tempDir.resolve(".snbt-manifest.json")));
+        assertThrows(IllegalArgumentException.class, () -> ExportManifest.load(tempDir, "../manifest.json"));
+    }
+
+    @Test
+    void rejectsPathsOutsideRoot() {
+        ExportManifest manifest = ExportManifest.load(tempDir);
+        manifest.begin();
+        assertThrows(IOException.class, () -> write(manifest, "../escape.snbt", "x", new AtomicInteger()));
+    }
+
+    private static boolean write(ExportManifest manifest, String path, Object source, AtomicInteger renders)
+            throws IOException {
+        return manifest.write(path, source, out -> {
+            renders.incrementAndGet();
+            out.write(String.valueOf(source).getBytes(StandardCharsets.UTF_8));
+        });
+    }
+}
@@ -0,0 +1,147 @@
+package dev.ftbq.editor.io.snbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import dev.ftbq.editor.domain.BackgroundRef;
+import dev.ftbq.editor.domain.Chapter;
+import dev.ftbq.editor.domain.IconRef;
+import dev.ftbq.editor.domain.ItemRef;
+import dev.ftbq.editor.domain.ItemTask;
+import dev.ftbq.editor.domain.Quest;
+import dev.ftbq.editor.domain.QuestFile;
+import dev.ftbq.editor.importer.snbt.parser.SnbtBufferParser;
+import dev.ftbq.editor.importer.snbt.parser.SnbtDocument;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SnbtDocumentPatcherTest {
+
+    private final SnbtQuestMapper mapper = new SnbtQuestMapper();
+    private final SnbtDocumentPatcher patcher = new SnbtDocumentPatcher(mapper);
+
+    @Test
+    void unchangedFileKeepsTheSourceText() {
+        QuestFile questFile = createQuestFile();
+        String source = withUnknownKeys(mapper.toSnbt(questFile));
+        SnbtDocument document = SnbtDocument.parse(source);
+
+        patcher.patch(document, questFile, questFile);
+
+        assertFalse(document.isDirty());
+        assertEquals(source, document.toSnbt());
+    }
+
+    @Test
+    void rendersOnlyTheChangedQuests() {
+        QuestFile questFile = createQuestFile();
+        SnbtDocument document = SnbtDocument.parse(withUnknownKeys(mapper.toSnbt(questFile)));
+        QuestFile edited = withRenamedQuest(questFile, 2, 1);
+
+        patcher.patch(document, questFile, edited);
+
+        Map<String, Object> patched = SnbtBufferParser.parseRootCompound(document.toSnbt());
+        Map<String, Object> expected = SnbtBufferParser.parseRootCompound(mapper.toSnbt(edited));
+        // Untouched chapters and quests keep keys the editor does not know
+        assertEquals(5L, chapter(patched, 0).remove("ftbq_unknown"));
+        assertEquals((byte) 1, quests(chapter(patched, 2)).get(0).remove("ftbq_unknown"));
+        assertEquals(expected, patched);
+    }
+
+    @Test
+    void followsAddedRemovedAndReorderedChapters() {
+        QuestFile questFile = createQuestFile();
+        SnbtDocument document = SnbtDocument.parse(withUnknownKeys(mapper.toSnbt(questFile)));
+        List<Chapter> chapters = new ArrayList<>(questFile.chapters());
+        chapters.remove(1);
+        chapters.add(0, chapters.remove(1));
+        chapters.add(chapter(7));
+        QuestFile edited = QuestFile.builder()
+                .id(questFile.id())
+                .title("Renamed")
+                .chapterGroups(questFile.chapterGroups())
+                .chapters(chapters)
+                .lootTables(questFile.lootTables())
+                .build();
+
+        patcher.patch(document, questFile, edited);
+
+        Map<String, Object> patched = SnbtBufferParser.parseRootCompound(document.toSnbt());
+        assertEquals(5L, chapter(patched, 1).remove("ftbq_unknown"));
+        quests(chapter(patched, 0)).get(0).remove("ftbq_unknown");
+        assertEquals(SnbtBufferParser.parseRootCompound(mapper.toSnbt(edited)), patched);
+    }
+
+    /**
+     * Adds a key the mapper never writes to the first chapter and to the first quest of the third chapter.
+     */
+    private static String withUnknownKeys(String snbt) {
+        return snbt.replace("title:\"Chapter 0\",", "title:\"Chapter 0\", ftbq_unknown:5L,")
+                .replace("title:\"Quest 2_0\",", "title:\"Quest 2_0\", ftbq_unknown:1b,");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> chapter(Map<String, Object> root, int index) {
+        return ((List<Map<String, Object>>) root.get("chapters")).get(index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> quests(Map<String, Object> chapter) {
+        return (List<Map<String, Object>>) chapter.get("quests");
+    }
+
+    private static QuestFile withRenamedQuest(QuestFile questFile, int chapterIndex, int questIndex) {
+        List<Chapter> chapters = new ArrayList<>(questFile.chapters());
+        Chapter chapter = chapters.get(chapterIndex);
+        List<Quest> quests = new ArrayList<>(chapter.quests());
+        Quest quest = quests.get(questIndex);
+        quests.set(questIndex, Quest.builder()
+                .id(quest.id())
+                .title(quest.title() + " (edited)")
+                .icon(quest.icon())
+                .tasks(quest.tasks())
+                .build());
+        chapters.set(chapterIndex, Chapter.builder()
+                .id(chapter.id())
+                .title(chapter.title())
+                .icon(chapter.icon())
+                .background(chapter.background())
+                .visibility(chapter.visibility())
+                .quests(quests)
+                .build());
+        return QuestFile.builder()
+                .id(questFile.id())
+                .title(questFile.title())
+                .chapterGroups(questFile.chapterGroups())
+                .chapters(chapters)
+                .lootTables(questFile.lootTables())
+                .build();
+    }
+
+    private static QuestFile createQuestFile() {
+        QuestFile.Builder builder = QuestFile.builder().id("example:pack").title("Example");
+        for (int c = 0; c < 4; c++) {
+            builder.addChapter(chapter(c));
+        }
+        return builder.build();
+    }
+
+    private static Chapter chapter(int index) {
+        Chapter.Builder chapter = Chapter.builder()
+                .id("chapter_" + index)
+                .title("Chapter " + index)
+                .icon(new IconRef("minecraft:book"))
+                .background(new BackgroundRef("minecraft:textures/gui/default.png"));
+        for (int q = 0; q < 3; q++) {
+            chapter.addQuest(Quest.builder()
+                    .id("quest_" + index + "_" + q)
+                    .title("Quest " + index + "_" + q)
+                    .icon(new IconRef("minecraft:stone"))
+                    .addTask(new ItemTask(new ItemRef("minecraft:stone", 4), false))
+                    .build());
+        }
+        return chapter.build();
+    }
+}
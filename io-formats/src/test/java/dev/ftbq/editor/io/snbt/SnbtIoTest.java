@@ -2,6 +2,7 @@ package dev.ftbq.editor.io.snbt;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import dev.ftbq.editor.domain.QuestFile;
 import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -20,4 +21,15 @@ class SnbtIoTest {
 
         assertEquals(content, SnbtIo.read(file));
     }
+
+    @Test
+    void streamsQuestFileAsMapperText() throws Exception {
+        var file = tempDir.resolve("questbook/data.snbt").toFile();
+        var questFile = QuestFile.builder().id("pack").title("Pack \"Ünïcode\"").build();
+        var mapper = new SnbtQuestMapper();
+
+        SnbtIo.write(file, questFile, mapper);
+
+        assertEquals(mapper.toSnbt(questFile), SnbtIo.read(file));
+    }
 }
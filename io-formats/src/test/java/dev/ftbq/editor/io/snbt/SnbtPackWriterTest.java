@@ -0,0 +1,128 @@
+package dev.ftbq.editor.io.snbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import dev.ftbq.editor.domain.BackgroundRef;
+import dev.ftbq.editor.domain.Chapter;
+import dev.ftbq.editor.domain.ChapterGroup;
+import dev.ftbq.editor.domain.IconRef;
+import dev.ftbq.editor.domain.ItemRef;
+import dev.ftbq.editor.domain.ItemTask;
+import dev.ftbq.editor.domain.LootEntry;
+import dev.ftbq.editor.domain.LootPool;
+import dev.ftbq.editor.domain.LootTable;
+import dev.ftbq.editor.domain.Quest;
+import dev.ftbq.editor.domain.QuestFile;
+import dev.ftbq.editor.io.exporter.ExportManifest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnbtPackWriterTest {
+
+    private final SnbtQuestMapper mapper = new SnbtQuestMapper();
+    private final SnbtPackWriter writer = new SnbtPackWriter(mapper);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writesFragmentsAndOnlyRewritesChangedChapters() throws Exception {
+        QuestFile questFile = createQuestFile(10);
+        ExportManifest manifest = ExportManifest.load(tempDir);
+
+        export(questFile, manifest);
+        assertEquals(13, manifest.writtenCount());
+        SnbtQuestMapper.Fragments fragments = mapper.fragmentsFor(questFile);
+        assertEquals(fragments.data(), Files.readString(tempDir.resolve("quests/data.snbt")));
+        assertEquals(fragments.chapterGroups(), Files.readString(tempDir.resolve("quests/chapter_groups.snbt")));
+        for (Map.Entry<Chapter, String> entry : fragments.chapters().entrySet()) {
+            assertEquals(entry.getValue(), Files.readString(chapterFile(entry.getKey())));
+        }
+        assertEquals(fragments.rewardTables().values().iterator().next(),
+                Files.readString(tempDir.resolve("quests/reward_tables/example_rewards.snbt")));
+
+        export(questFile, manifest);
+        assertEquals(0, manifest.renderedCount());
+        assertEquals(0, manifest.writtenCount());
+
+        List<Chapter> chapters = new ArrayList<>(questFile.chapters());
+        Chapter changed = chapters.get(4);
+        chapters.set(4, Chapter.builder()
+                .id(changed.id())
+                .title(changed.title())
+                .icon(changed.icon())
+                .background(changed.background())
+                .visibility(changed.visibility())
+                .quests(List.of(quest("changed")))
+                .build());
+        Chapter removed = chapters.remove(7);
+        QuestFile edited = QuestFile.builder()
+                .id(questFile.id())
+                .title(questFile.title())
+                .chapterGroups(questFile.chapterGroups())
+                .chapters(chapters)
+                .lootTables(questFile.lootTables())
+                .build();
+
+        export(edited, manifest);
+        // data.snbt holds the whole pack, so it changes together with the chapter file
+        assertEquals(2, manifest.renderedCount());
+        assertEquals(2, manifest.writtenCount());
+        assertEquals(mapper.fragmentsFor(edited).chapters().get(chapters.get(4)),
+                Files.readString(chapterFile(chapters.get(4))));
+        assertFalse(Files.exists(chapterFile(removed)));
+
+        ExportManifest reloaded = ExportManifest.load(tempDir);
+        export(edited, reloaded);
+        assertEquals(0, reloaded.writtenCount());
+    }
+
+    private void export(QuestFile questFile, ExportManifest manifest) throws Exception {
+        manifest.begin();
+        writer.write(questFile, manifest, "quests");
+        manifest.removeStale();
+        manifest.save();
+    }
+
+    private Path chapterFile(Chapter chapter) {
+        return tempDir.resolve("quests/chapters/" + SnbtPackWriter.fileName(chapter.id(), chapter.title()) + ".snbt");
+    }
+
+    private static QuestFile createQuestFile(int chapterCount) {
+        QuestFile.Builder builder = QuestFile.builder().id("example:pack").title("Example");
+        List<String> chapterIds = new ArrayList<>();
+        for (int c = 0; c < chapterCount; c++) {
+            Chapter.Builder chapter = Chapter.builder()
+                    .id("chapter_" + c)
+                    .title("Chapter " + c)
+                    .icon(new IconRef("minecraft:book"))
+                    .background(new BackgroundRef("minecraft:textures/gui/default.png"));
+            for (int q = 0; q < 5; q++) {
+                chapter.addQuest(quest(c + "_" + q));
+            }
+            builder.addChapter(chapter.build());
+            chapterIds.add("chapter_" + c);
+        }
+        builder.addChapterGroup(ChapterGroup.builder().id("group").title("Group").chapterIds(chapterIds).build());
+        builder.addLootTable(LootTable.builder()
+                .id("example:rewards")
+                .addPool(LootPool.builder().addEntry(new LootEntry(new ItemRef("minecraft:diamond", 1), 1.0)).build())
+                .build());
+        return builder.build();
+    }
+
+    private static Quest quest(String id) {
+        return Quest.builder()
+                .id("quest_" + id)
+                .title("Quest " + id)
+                .icon(new IconRef("minecraft:stone"))
+                .addTask(new ItemTask(new ItemRef("minecraft:stone", 4), false))
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package dev.ftbq.editor.io.snbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.ftbq.editor.importer.snbt.parser.SnbtBufferParser;
+import dev.ftbq.editor.importer.snbt.parser.SnbtParseException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnbtPrettyPrinterTest {
+
+    private static final String INPUT = "# header\n{id:'pack',  chapters:[ {title:\"C \\\"1\\\"\", id:\"c1\","
+            + " x:1.50d, empty:[], nested:{}} ,{id:\"c2\"}], // trailing\n flag:TRUE, unknown_field:[1b,2b,3b]}";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reformatsTokensKeepingSpellings() throws Exception {
+        SnbtPrettyPrinter printer = SnbtPrettyPrinter.builder().build();
+        String formatted = printer.format(INPUT);
+
+        assertEquals("""
+                {
+                  id:"pack",
+                  chapters:[
+                    {
+                      title:"C \\"1\\"",
+                      id:"c1",
+                      x:1.50d,
+                      empty:[],
+                      nested:{}
+                    },
+                    {
+                      id:"c2"
+                    }
+                  ],
+                  flag:TRUE,
+                  unknown_field:[
+                    1b,
+                    2b,
+                    3b
+                  ]
+                }
+                """, formatted);
+        assertEquals(SnbtBufferParser.parseRootCompound(INPUT), SnbtBufferParser.parseRootCompound(formatted));
+        assertEquals(formatted, printer.format(formatted));
+
+        StringWriter streamed = new StringWriter();
+        printer.format(INPUT, streamed);
+        assertEquals(formatted, streamed.toString());
+
+        Path file = tempDir.resolve("pack.snbt");
+        Files.writeString(file, INPUT);
+        StringWriter fromFile = new StringWriter();
+        printer.format(file, fromFile);
+        assertEquals(formatted, fromFile.toString());
+    }
+
+    @Test
+    void ordersKeysAndWrapsShortContainers() {
+        SnbtPrettyPrinter printer = SnbtPrettyPrinter.builder()
+                .indent("\t")
+                .leadingKeys(List.of("id", "title"))
+                .sortKeys(true)
+                .lineWidth(70)
+                .build();
+
+        assertEquals("""
+                {
+                \tid:"pack",
+                \tchapters:[
+                \t\t{id:"c1", title:"C \\"1\\"", empty:[], nested:{}, x:1.50d},
+                \t\t{id:"c2"}
+                \t],
+                \tflag:TRUE,
+                \tunknown_field:[1b, 2b, 3b]
+                }
+                """, printer.format(INPUT));
+    }
+
+    @Test
+    void wrapsContainersThatDoNotFit() {
+        SnbtPrettyPrinter printer = SnbtPrettyPrinter.builder().lineWidth(20).build();
+
+        assertEquals("""
+                {
+                  short:[1, 2],
+                  long:[
+                    "abcdefgh",
+                    "ijklmnop"
+                  ],
+                  text:"line\\nbreak"
+                }
+                """, printer.format("{short:[1,2],long:[\"abcdefgh\",\"ijklmnop\"],text:'line\nbreak'}"));
+    }
+
+    @Test
+    void stripsControlCharactersAndRejectsInvalidInput() {
+        SnbtPrettyPrinter printer = SnbtPrettyPrinter.builder().lineWidth(80).build();
+
+        assertEquals("{title:\"ab\", \"odd key\":1}\n",
+                printer.format("{\u0000title:\"a\u0007b\",'odd key':1}"));
+        assertThrows(SnbtParseException.class, () -> printer.format("{a:[1,2}"));
+        assertThrows(SnbtParseException.class, () -> printer.format("[1]"));
+        assertThrows(SnbtParseException.class, () -> printer.format("{a:1} b"));
+        assertThrows(IllegalArgumentException.class, () -> SnbtPrettyPrinter.builder().indent("-"));
+    }
+}
@@ -0,0 +1,136 @@
+package dev.ftbq.editor.io.snbt;
+
+import dev.ftbq.editor.domain.AdvancementTask;
+import dev.ftbq.editor.domain.BackgroundRef;
+import dev.ftbq.editor.domain.Chapter;
+import dev.ftbq.editor.domain.Dependency;
+import dev.ftbq.editor.domain.IconRef;
+import dev.ftbq.editor.domain.ItemRef;
+import dev.ftbq.editor.domain.ItemReward;
+import dev.ftbq.editor.domain.ItemTask;
+import dev.ftbq.editor.domain.LocationTask;
+import dev.ftbq.editor.domain.LootEntry;
+import dev.ftbq.editor.domain.LootPool;
+import dev.ftbq.editor.domain.LootTable;
+import dev.ftbq.editor.domain.Quest;
+import dev.ftbq.editor.domain.QuestFile;
+import dev.ftbq.editor.domain.Visibility;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Manual benchmark comparing {@link SnbtQuestMapper#toSnbt} followed by UTF-8 encoding with streaming through
+ * {@link SnbtQuestMapper#writeSnbt(QuestFile, OutputStream)}. Not part of the test suite; run the {@code main}
+ * method from the IDE or with
+ * {@code java -cp <test classpath> dev.ftbq.editor.io.snbt.SnbtQuestMapperBenchmark}.
+ * <p>
+ * Reports throughput in output MB per second and the bytes allocated per run by the exporting thread, which
+ * bounds the extra heap an export needs on top of the quest file itself.
+ */
+public final class SnbtQuestMapperBenchmark {
+
+    private static final int CHAPTERS = 60;
+    private static final int QUESTS_PER_CHAPTER = 250;
+    private static final int LOOT_TABLES = 200;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private SnbtQuestMapperBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        SnbtQuestMapper mapper = new SnbtQuestMapper();
+        QuestFile file = generate();
+        long size = mapper.toSnbt(file).getBytes(StandardCharsets.UTF_8).length;
+        System.out.printf(Locale.ROOT, "Quest file: %d chapters, %d quests, %.1f MB of SNBT%n", CHAPTERS,
+                CHAPTERS * QUESTS_PER_CHAPTER, size / 1e6);
+
+        measure("toSnbt", size, () -> {
+            try (OutputStream out = new DiscardingOutputStream()) {
+                out.write(mapper.toSnbt(file).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        measure("writeSnbt", size, () -> {
+            try (OutputStream out = new DiscardingOutputStream()) {
+                mapper.writeSnbt(file, out);
+            }
+        });
+    }
+
+    private interface Run {
+        void export() throws IOException;
+    }
+
+    private static void measure(String label, long size, Run run) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run.export();
+        }
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            run.export();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9 / MEASURED_ROUNDS;
+        double allocated = (double) (allocatedBytes() - allocatedBefore) / MEASURED_ROUNDS;
+        System.out.printf(Locale.ROOT, "  %-10s %8.1f ms/run %8.1f MB/s %8.1f MB allocated/run (%.1fx output)%n",
+                label, seconds * 1e3, size / seconds / 1e6, allocated / 1e6, allocated / size);
+    }
+
+    private static long allocatedBytes() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getCurrentThreadAllocatedBytes();
+    }
+
+    private static QuestFile generate() {
+        QuestFile.Builder file = QuestFile.builder().id("benchmark_pack").title("Benchmark \"Pack\"");
+        for (int c = 0; c < CHAPTERS; c++) {
+            Chapter.Builder chapter = Chapter.builder()
+                    .id("chapter_" + c)
+                    .title("Chapter " + c)
+                    .icon(new IconRef("minecraft:book"))
+                    .background(new BackgroundRef("minecraft:textures/gui/default.png"))
+                    .visibility(Visibility.VISIBLE);
+            for (int q = 0; q < QUESTS_PER_CHAPTER; q++) {
+                int n = c * QUESTS_PER_CHAPTER + q;
+                Quest.Builder quest = Quest.builder()
+                        .id("quest_" + n)
+                        .title("Quest " + n)
+                        .description("Collect the \"items\" for step " + n)
+                        .icon(new IconRef("minecraft:iron_ingot"))
+                        .visibility(Visibility.VISIBLE)
+                        .position(q % 20 * 1.5, q / 20 * 1.25)
+                        .addTask(new ItemTask(new ItemRef("minecraft:iron_ingot", 1 + q % 64), q % 3 == 0))
+                        .addTask(new AdvancementTask("minecraft:story/smelt_iron"))
+                        .addTask(new LocationTask("minecraft:overworld", n * 0.5, 64.0, -n, 5.0))
+                        .addItemReward(new ItemReward(new ItemRef("minecraft:emerald", 1 + q % 8)))
+                        .experienceAmount(10 + q);
+                if (q > 0) {
+                    quest.addDependency(new Dependency("quest_" + (n - 1), true));
+                }
+                chapter.addQuest(quest.build());
+            }
+            file.addChapter(chapter.build());
+        }
+        for (int t = 0; t < LOOT_TABLES; t++) {
+            LootPool.Builder pool = LootPool.builder().name("main");
+            for (int e = 0; e < 10; e++) {
+                pool.addEntry(new LootEntry(new ItemRef("minecraft:diamond", 1 + e), 1 + e * 0.5));
+            }
+            file.addLootTable(LootTable.builder().id("table_" + t).addPool(pool.build()).build());
+        }
+        return file.build();
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
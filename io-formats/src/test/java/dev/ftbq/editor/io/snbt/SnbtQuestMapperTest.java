@@ -1,5 +1,6 @@
 package dev.ftbq.editor.io.snbt;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import dev.ftbq.editor.domain.AdvancementTask;
@@ -11,10 +12,15 @@ import dev.ftbq.editor.domain.ItemRef;
 import dev.ftbq.editor.domain.ItemReward;
 import dev.ftbq.editor.domain.ItemTask;
 import dev.ftbq.editor.domain.LocationTask;
+import dev.ftbq.editor.domain.LootEntry;
+import dev.ftbq.editor.domain.LootPool;
+import dev.ftbq.editor.domain.LootTable;
 import dev.ftbq.editor.domain.Quest;
 import dev.ftbq.editor.domain.QuestFile;
 import dev.ftbq.editor.domain.RewardCommand;
 import dev.ftbq.editor.domain.Visibility;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -24,6 +30,53 @@ class SnbtQuestMapperTest {
 
     @Test
     void serialisesQuestFileToExpectedSnbt() {
+        var snbt = mapper.toSnbt(createQuestFile());
+
+        assertTrue(snbt.contains("id:\"pack_id\""));
+        assertTrue(snbt.contains("title:\"Pack Title\""));
+        assertTrue(snbt.contains("title:\"Basics\""));
+        assertTrue(snbt.contains("title:\"Getting Started\""));
+        assertTrue(snbt.contains("type:\"item\""));
+        assertTrue(snbt.contains("type:\"advancement\""));
+        assertTrue(snbt.contains("type:\"location\""));
+        assertTrue(snbt.contains("visibility:\"secret\""));
+        assertTrue(snbt.contains("visibility:\"visible\""));
+        assertTrue(snbt.contains("type:\"xp_amount\""));
+        assertTrue(snbt.contains("amount:50"));
+    }
+
+    @Test
+    void streamsSameBytesAsToSnbt() throws Exception {
+        var base = createQuestFile();
+        var lootTable = LootTable.builder()
+                .id("loot_\"é\"")
+                .addPool(LootPool.builder()
+                        .addEntry(new LootEntry(new ItemRef("minecraft:diamond", 2), 1.5))
+                        .addEntry(new LootEntry(new ItemRef("minecraft:emerald", 1), 3.0))
+                        .build())
+                .build();
+        var builder = QuestFile.builder().id(base.id()).title("Pack \"Ünïcode\" 😀").lootTables(List.of(lootTable));
+        // Enough chapters to overflow the writer's buffer several times
+        for (int i = 0; i < 200; i++) {
+            var chapter = base.chapters().get(0);
+            builder.addChapter(Chapter.builder()
+                    .id(chapter.id() + "_" + i)
+                    .title(chapter.title() + " " + i)
+                    .icon(chapter.icon())
+                    .background(chapter.background())
+                    .visibility(chapter.visibility())
+                    .quests(chapter.quests())
+                    .build());
+        }
+        var file = builder.build();
+
+        var out = new ByteArrayOutputStream();
+        mapper.writeSnbt(file, out);
+
+        assertArrayEquals(mapper.toSnbt(file).getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    private static QuestFile createQuestFile() {
         var quest = new Quest(
                 "quest_1",
                 "Getting Started",
@@ -56,26 +109,12 @@ class SnbtQuestMapperTest {
                 Visibility.SECRET
         );
 
-        var file = new QuestFile(
+        return new QuestFile(
                 "pack_id",
                 "Pack Title",
                 List.of(),
                 List.of(chapter),
                 List.of()
         );
-
-        var snbt = mapper.toSnbt(file);
-
-        assertTrue(snbt.contains("id:\"pack_id\""));
-        assertTrue(snbt.contains("title:\"Pack Title\""));
-        assertTrue(snbt.contains("title:\"Basics\""));
-        assertTrue(snbt.contains("title:\"Getting Started\""));
-        assertTrue(snbt.contains("type:\"item\""));
-        assertTrue(snbt.contains("type:\"advancement\""));
-        assertTrue(snbt.contains("type:\"location\""));
-        assertTrue(snbt.contains("visibility:\"secret\""));
-        assertTrue(snbt.contains("visibility:\"visible\""));
-        assertTrue(snbt.contains("type:\"xp_amount\""));
-        assertTrue(snbt.contains("amount:50"));
     }
 }
@@ -1,11 +1,16 @@
 package dev.ftbq.editor.services;
 
 import dev.ftbq.editor.domain.QuestFile;
+import dev.ftbq.editor.importer.snbt.service.SnbtQuestDirectoryReader;
+import dev.ftbq.editor.importer.snbt.validation.SnbtValidationCache;
+import dev.ftbq.editor.importer.snbt.validation.SnbtValidationReport;
+import dev.ftbq.editor.importer.snbt.validation.SnbtValidationService;
 import dev.ftbq.editor.io.importer.Importer;
 import dev.ftbq.editor.services.bus.EventBus;
 import dev.ftbq.editor.services.events.PackReloaded;
 import dev.ftbq.editor.services.logging.AppLoggerFactory;
 import dev.ftbq.editor.services.logging.StructuredLogger;
+import dev.ftbq.editor.validation.ValidationIssue;
 import java.io.IOException;
 import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystems;
@@ -31,6 +36,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Watches a quest pack directory tree and reloads it via the {@link Importer}
  * when filesystem changes are detected. Reload events are debounced to avoid
  * redundant reloads when many files change in quick succession.
+ * <p>
+ * When the directory holds an FTB Quests SNBT pack it is validated before each
+ * reload and its errors are logged. Validation results are cached per file, so
+ * a reload after editing one chapter only parses and validates that chapter
+ * again.
  */
 public final class FileWatcher implements AutoCloseable {
 
@@ -47,6 +57,8 @@ public final class FileWatcher implements AutoCloseable {
     private final Thread watcherThread;
     private final Object reloadLock;
     private final StructuredLogger logger;
+    private final SnbtValidationService validationService;
+    private final SnbtValidationCache validationCache;
 
     private volatile ScheduledFuture<?> pendingReload;
 
@@ -85,6 +97,8 @@ public final class FileWatcher implements AutoCloseable {
         this.running = new AtomicBoolean(true);
         this.reloadLock = new Object();
         this.logger = Objects.requireNonNull(logger, "logger");
+        this.validationService = new SnbtValidationService();
+        this.validationCache = new SnbtValidationCache();
 
         registerAll(this.packRoot);
         this.watcherThread = new Thread(this::processEvents, "quest-pack-file-watcher");
@@ -190,6 +204,7 @@ public final class FileWatcher implements AutoCloseable {
         if (!running.get()) {
             return;
         }
+        validatePack();
         try {
             QuestFile questFile = importer.importPack(packRoot);
             eventBus.publish(new PackReloaded(packRoot, questFile));
@@ -199,6 +214,28 @@ public final class FileWatcher implements AutoCloseable {
         }
     }
 
+    private void validatePack() {
+        if (SnbtQuestDirectoryReader.locate(packRoot).isEmpty()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            SnbtValidationReport report = validationService.validateDirectory(packRoot, validationCache);
+            for (ValidationIssue error : report.errors()) {
+                logger.warn("Quest pack validation error",
+                        StructuredLogger.field("path", error.path()),
+                        StructuredLogger.field("message", error.message()));
+            }
+            logger.info("Validated quest pack",
+                    StructuredLogger.field("root", packRoot),
+                    StructuredLogger.field("errors", report.errors().size()),
+                    StructuredLogger.field("warnings", report.warnings().size()),
+                    StructuredLogger.field("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Failed to validate quest pack", ex, StructuredLogger.field("root", packRoot));
+        }
+    }
+
     @Override
     public void close() throws IOException {
         if (!running.getAndSet(false)) {
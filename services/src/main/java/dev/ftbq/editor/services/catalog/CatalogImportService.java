@@ -1,9 +1,13 @@
 package dev.ftbq.editor.services.catalog;
 
 import dev.ftbq.editor.ingest.EntityMeta;
+import dev.ftbq.editor.ingest.IngestionMonitor;
 import dev.ftbq.editor.ingest.ItemCatalog;
+import dev.ftbq.editor.ingest.ItemCatalogExtractor;
 import dev.ftbq.editor.ingest.ItemMeta;
+import dev.ftbq.editor.ingest.JarFingerprint;
 import dev.ftbq.editor.ingest.JarScanner;
+import dev.ftbq.editor.ingest.TagClosureIndex;
 import dev.ftbq.editor.services.logging.AppLoggerFactory;
 import dev.ftbq.editor.services.logging.StructuredLogger;
 import dev.ftbq.editor.store.StoreDao;
@@ -13,20 +17,36 @@ import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Persists ingested {@link ItemCatalog} data into the backing {@link StoreDao} database.
+ * <p>
+ * The tags stored with each item are resolved over the tag definitions of every ingested source, so a nested
+ * {@code #tag} defined by one JAR expands to items of another. The definitions of each JAR are kept in its
+ * ingestion manifest; the service loads them on first use and keeps the resolved {@link TagClosureIndex}.
+ * When an ingestion changes the tag graph, items of other sources whose resolved tags differ are rewritten in
+ * the same transaction.
  */
 public final class CatalogImportService {
 
+    static final String ENTRY_KIND_ITEM = "item";
+    static final String ENTRY_KIND_ENTITY = "entity";
+    static final String ENTRY_KIND_TAG = "tag";
+
     private final StoreDao storeDao;
     private final StructuredLogger logger;
+    private final Object tagLock = new Object();
+    private TagState tagState;
 
     public CatalogImportService(StoreDao storeDao, StructuredLogger logger) {
         this.storeDao = Objects.requireNonNull(storeDao, "storeDao");
@@ -43,9 +63,31 @@ public final class CatalogImportService {
      * @param catalog ingested catalog to persist
      */
     public void importCatalog(ItemCatalog catalog) {
-        Objects.requireNonNull(catalog, "catalog");
+        importCatalog(catalog, IngestionMonitor.NONE);
+    }
 
-        Map<String, List<String>> tagsByItem = buildTagsByItem(catalog.tags());
+    /**
+     * Cancellable variant of {@link #importCatalog(ItemCatalog)}. All rows are written in one transaction
+     * after the last cancellation check, so a cancelled import leaves the store untouched.
+     *
+     * @param catalog ingested catalog to persist
+     * @param monitor progress and cancellation callback
+     */
+    public void importCatalog(ItemCatalog catalog, IngestionMonitor monitor) {
+        importCatalog(catalog, null, monitor);
+    }
+
+    /**
+     * Variant of {@link #importCatalog(ItemCatalog, IngestionMonitor)} that records which file the catalog was
+     * read from, so that {@link #isCatalogImported(String)} can skip loading it again while it is unchanged.
+     *
+     * @param catalog     ingested catalog to persist
+     * @param fingerprint identifies the catalog file, or {@code null} when the catalog has no backing file
+     * @param monitor     progress and cancellation callback
+     */
+    public void importCatalog(ItemCatalog catalog, String fingerprint, IngestionMonitor monitor) {
+        Objects.requireNonNull(catalog, "catalog");
+        Objects.requireNonNull(monitor, "monitor");
 
         logger.info("Importing item catalog",
                 StructuredLogger.field("source", catalog.source()),
@@ -65,7 +107,7 @@ public final class CatalogImportService {
                             StructuredLogger.field("path", sourcePath.toString()));
                 } else {
                     try {
-                        List<ItemMeta> proxyItems = JarScanner.extractProxyItems(sourcePath, catalog.version());
+                        List<ItemMeta> proxyItems = JarScanner.extractProxyItems(sourcePath, catalog.version(), monitor);
                         if (!proxyItems.isEmpty()) {
                             logger.info("Proxy item catalog generated",
                                     StructuredLogger.field("path", sourcePath.toString()),
@@ -77,7 +119,7 @@ public final class CatalogImportService {
                                     proxyItems,
                                     Map.of()
                             );
-                            importCatalog(proxyCatalog);
+                            importCatalog(proxyCatalog, fingerprint, monitor);
                             return;
                         } else {
                             logger.info("No proxy items discovered",
@@ -94,39 +136,62 @@ public final class CatalogImportService {
             }
         }
 
-        int upserted = 0;
-        for (ItemMeta item : catalog.items()) {
-            if (item == null) {
-                continue;
-            }
+        List<StoreDao.ItemEntity> rows = new ArrayList<>(catalog.items().size());
+        int upserted;
+        int retagged;
+        synchronized (tagLock) {
+            TagState previous = tagState();
+            TagState next = previous.with(Map.of(catalog.source(), tagsOnly(catalog)));
+            for (ItemMeta item : catalog.items()) {
+                if (item == null) {
+                    continue;
+                }
 
-            String tags = toJsonArray(tagsByItem.get(item.id()));
-
-            StoreDao.ItemEntity entity = new StoreDao.ItemEntity(
-                    item.id(),
-                    item.displayName(),
-                    item.isVanilla(),
-                    normalize(item.modId()),
-                    normalize(item.modName()),
-                    tags,
-                    normalize(item.texturePath()),
-                    normalize(item.iconHash()),
-                    normalize(catalog.source()),
-                    normalize(catalog.version()),
-                    item.kind());
-
-            storeDao.upsertItem(entity);
-            upserted++;
+                rows.add(toItemEntity(item, next.closure(), catalog.source(), catalog.version()));
+            }
+            upserted = rows.size();
+            List<StoreDao.ItemEntity> updated = retag(previous, next, sourceKeys(Set.of(catalog.source())));
+            retagged = updated.size();
+            rows.addAll(updated);
+            monitor.checkCancelled();
+            storeDao.applyCatalogImport(
+                    new StoreDao.CatalogImportEntity(catalog.source(), catalog.version(), fingerprint),
+                    encodeTags(catalog), rows);
+            tagState = next;
         }
 
         logger.info("Catalog import completed",
                 StructuredLogger.field("source", catalog.source()),
                 StructuredLogger.field("version", catalog.version()),
-                StructuredLogger.field("upserted", upserted));
+                StructuredLogger.field("upserted", upserted),
+                StructuredLogger.field("retagged", retagged));
+    }
+
+    /**
+     * Whether a catalog with this fingerprint was already imported by
+     * {@link #importCatalog(ItemCatalog, String, IngestionMonitor)}.
+     */
+    public boolean isCatalogImported(String fingerprint) {
+        Objects.requireNonNull(fingerprint, "fingerprint");
+        return storeDao.listCatalogImports().stream()
+                .anyMatch(imported -> fingerprint.equals(imported.fingerprint()));
     }
 
     public void importEntitiesFromJar(Path jarPath, String version) {
+        importEntitiesFromJar(jarPath, version, IngestionMonitor.NONE);
+    }
+
+    /**
+     * Cancellable variant of {@link #importEntitiesFromJar(Path, String)}. The JAR is scanned first and
+     * the entities are written in one transaction afterwards, so a cancelled scan writes nothing.
+     *
+     * @param jarPath JAR to scan
+     * @param version version label stored with the rows
+     * @param monitor progress and cancellation callback
+     */
+    public void importEntitiesFromJar(Path jarPath, String version, IngestionMonitor monitor) {
         Objects.requireNonNull(jarPath, "jarPath");
+        Objects.requireNonNull(monitor, "monitor");
         if (!Files.exists(jarPath)) {
             logger.warn("Jar not found for entity scan",
                     StructuredLogger.field("path", jarPath.toString()));
@@ -134,7 +199,7 @@ public final class CatalogImportService {
         }
 
         try {
-            List<EntityMeta> entities = JarScanner.extractProxyEntities(jarPath, version);
+            List<EntityMeta> entities = JarScanner.extractProxyEntities(jarPath, version, monitor);
             if (entities.isEmpty()) {
                 logger.info("No entities discovered in jar",
                         StructuredLogger.field("path", jarPath.toString()));
@@ -145,26 +210,17 @@ public final class CatalogImportService {
                     StructuredLogger.field("path", jarPath.toString()),
                     StructuredLogger.field("count", entities.size()));
 
-            int upserted = 0;
+            List<StoreDao.EntityEntity> rows = new ArrayList<>(entities.size());
             for (EntityMeta entity : entities) {
                 if (entity == null) {
                     continue;
                 }
 
-                StoreDao.EntityEntity entityEntity = new StoreDao.EntityEntity(
-                        entity.id(),
-                        entity.displayName(),
-                        entity.isVanilla(),
-                        normalize(entity.modId()),
-                        normalize(entity.modName()),
-                        normalize(entity.texturePath()),
-                        normalize(jarPath.toString()),
-                        normalize(version)
-                );
-
-                storeDao.upsertEntity(entityEntity);
-                upserted++;
+                rows.add(toEntityEntity(entity, jarPath.toString(), version));
             }
+            monitor.checkCancelled();
+            storeDao.upsertEntities(rows);
+            int upserted = rows.size();
 
             logger.info("Entity import completed",
                     StructuredLogger.field("path", jarPath.toString()),
@@ -176,6 +232,380 @@ public final class CatalogImportService {
         }
     }
 
+    /**
+     * Bring every previously ingested JAR up to date. JARs whose fingerprint matches their ingestion manifest
+     * are skipped without being opened, changed JARs are re-extracted with the version label they were
+     * ingested with and written as a row-level diff, and JARs that no longer exist have their rows removed.
+     *
+     * @return summary of the work performed
+     */
+    public RescanSummary rescanIngestedJars() {
+        return rescanIngestedJars(IngestionMonitor.NONE);
+    }
+
+    /**
+     * Cancellable variant of {@link #rescanIngestedJars()}. Every JAR is extracted and diffed first; all
+     * diffs and removals, and the items of other sources whose resolved tags changed, are then committed in a
+     * single transaction after the last cancellation check, so a cancelled rescan never leaves a partially
+     * updated catalog behind.
+     *
+     * @throws java.util.concurrent.CancellationException if {@code monitor} cancels the rescan
+     */
+    public RescanSummary rescanIngestedJars(IngestionMonitor monitor) {
+        Objects.requireNonNull(monitor, "monitor");
+        List<StoreDao.IngestionManifestEntity> manifests = storeDao.listIngestionManifests();
+
+        long started = System.nanoTime();
+        monitor.jarsDiscovered(manifests.size());
+        RescanSummary.Builder summary = new RescanSummary.Builder();
+        List<ExtractedJar> extracted = new ArrayList<>();
+        List<String> removedJars = new ArrayList<>();
+        for (StoreDao.IngestionManifestEntity manifest : manifests) {
+            Path jar = Paths.get(manifest.jarPath());
+            if (!Files.isRegularFile(jar)) {
+                removedJars.add(manifest.jarPath());
+                summary.removed();
+                monitor.jarCompleted();
+                continue;
+            }
+            try {
+                ExtractedJar extraction = extractJar(jar, manifest.version(), monitor);
+                if (extraction.unchanged()) {
+                    summary.add(JarIngestResult.skipped(extraction.jarKey()));
+                } else {
+                    extracted.add(extraction);
+                }
+            } catch (IOException e) {
+                summary.failed();
+                logger.warn("Incremental ingestion failed", e,
+                        StructuredLogger.field("path", manifest.jarPath()));
+            }
+            monitor.jarCompleted();
+        }
+
+        int retagged;
+        synchronized (tagLock) {
+            TagState previous = tagState();
+            Map<String, ItemCatalog> replaced = new HashMap<>();
+            extracted.forEach(extraction -> replaced.put(extraction.jarKey(), tagsOnly(extraction.catalog())));
+            removedJars.forEach(jarPath -> replaced.put(jarPath, null));
+            TagState next = previous.with(replaced);
+
+            List<StoreDao.IngestionChange> changes = new ArrayList<>(extracted.size());
+            for (ExtractedJar extraction : extracted) {
+                PreparedJar prepared = diffJar(extraction, next.closure());
+                changes.add(prepared.change());
+                summary.add(prepared.result());
+            }
+            List<StoreDao.ItemEntity> updated = retag(previous, next, sourceKeys(replaced.keySet()));
+            retagged = updated.size();
+            monitor.checkCancelled();
+            storeDao.applyIngestionBatch(changes, removedJars, updated);
+            tagState = next;
+        }
+        removedJars.forEach(jarPath -> logger.info("Removed ingested jar no longer present",
+                StructuredLogger.field("path", jarPath)));
+
+        RescanSummary result = summary.build();
+        logger.info("Incremental rescan completed",
+                StructuredLogger.field("jars", manifests.size()),
+                StructuredLogger.field("skipped", result.jarsSkipped()),
+                StructuredLogger.field("ingested", result.jarsIngested()),
+                StructuredLogger.field("removed", result.jarsRemoved()),
+                StructuredLogger.field("failed", result.jarsFailed()),
+                StructuredLogger.field("inserted", result.rowsInserted()),
+                StructuredLogger.field("updated", result.rowsUpdated()),
+                StructuredLogger.field("deleted", result.rowsDeleted()),
+                StructuredLogger.field("retagged", retagged),
+                StructuredLogger.field("elapsedMs", (System.nanoTime() - started) / 1_000_000));
+        return result;
+    }
+
+    /**
+     * Incrementally ingest a single JAR, skipping it entirely when its fingerprint is unchanged.
+     *
+     * @param jarPath path to the JAR
+     * @param version version label stored with the ingested rows
+     * @return counts of the rows that were inserted, updated and deleted
+     * @throws IOException if the archive cannot be read
+     */
+    public JarIngestResult ingestJar(Path jarPath, String version) throws IOException {
+        return ingestJar(jarPath, version, IngestionMonitor.NONE);
+    }
+
+    /**
+     * Cancellable variant of {@link #ingestJar(Path, String)}; the diff, together with the items of other
+     * sources whose resolved tags changed, is only written when the monitor has not cancelled by the time
+     * extraction finished.
+     */
+    public JarIngestResult ingestJar(Path jarPath, String version, IngestionMonitor monitor) throws IOException {
+        ExtractedJar extraction = extractJar(jarPath, version, monitor);
+        if (extraction.unchanged()) {
+            return JarIngestResult.skipped(extraction.jarKey());
+        }
+        synchronized (tagLock) {
+            TagState previous = tagState();
+            TagState next = previous.with(Map.of(extraction.jarKey(), tagsOnly(extraction.catalog())));
+            PreparedJar prepared = diffJar(extraction, next.closure());
+            List<StoreDao.ItemEntity> updated = retag(previous, next, Set.of(extraction.jarKey()));
+            monitor.checkCancelled();
+            storeDao.applyIngestionBatch(List.of(prepared.change()), List.of(), updated);
+            tagState = next;
+            return prepared.result();
+        }
+    }
+
+    /**
+     * Extract a JAR without writing anything. Unchanged JARs are not opened and yield an extraction without
+     * a catalog.
+     */
+    private ExtractedJar extractJar(Path jarPath, String version, IngestionMonitor monitor) throws IOException {
+        Objects.requireNonNull(jarPath, "jarPath");
+        Objects.requireNonNull(monitor, "monitor");
+        JarFingerprint fingerprint = JarFingerprint.of(jarPath);
+        String jarKey = fingerprint.jarPath();
+        String normalizedVersion = normalize(version);
+
+        Optional<StoreDao.IngestionManifestEntity> existing = storeDao.findIngestionManifest(jarKey);
+        if (existing.isPresent() && isUnchanged(existing.get(), fingerprint, normalizedVersion)) {
+            logger.debug("Skipping unchanged jar", StructuredLogger.field("path", jarKey));
+            return new ExtractedJar(jarKey, null, null, null, List.of(), List.of());
+        }
+
+        Path jar = Paths.get(jarKey);
+        ItemCatalog catalog = ItemCatalogExtractor.extract(jar, jarKey, version, false, null, monitor);
+        List<ItemMeta> items = catalog.items();
+        if (items.isEmpty()) {
+            items = JarScanner.extractProxyItems(jar, version, monitor);
+        }
+        List<EntityMeta> entities = JarScanner.extractProxyEntities(jar, version, monitor);
+
+        StoreDao.IngestionManifestEntity manifest = new StoreDao.IngestionManifestEntity(
+                jarKey,
+                fingerprint.size(),
+                fingerprint.modifiedMillis(),
+                fingerprint.centralDirectoryHash(),
+                fingerprint.extractorVersion(),
+                normalizedVersion);
+        return new ExtractedJar(jarKey, version, manifest, catalog, items, entities);
+    }
+
+    /**
+     * Diff an extracted JAR against its stored rows without writing anything. Item tags are taken from
+     * {@code tagIndex}, the closure over every ingested source.
+     */
+    private PreparedJar diffJar(ExtractedJar extraction, TagClosureIndex tagIndex) {
+        String jarKey = extraction.jarKey();
+        String version = extraction.version();
+        Map<String, StoreDao.ItemEntity> desiredItems = new LinkedHashMap<>();
+        for (ItemMeta item : extraction.items()) {
+            if (item == null) {
+                continue;
+            }
+            StoreDao.ItemEntity entity = toItemEntity(item, tagIndex, jarKey, version);
+            desiredItems.put(entity.id(), entity);
+        }
+        Map<String, StoreDao.EntityEntity> desiredEntities = new LinkedHashMap<>();
+        for (EntityMeta entity : extraction.entities()) {
+            if (entity == null) {
+                continue;
+            }
+            StoreDao.EntityEntity row = toEntityEntity(entity, jarKey, version);
+            desiredEntities.put(row.id(), row);
+        }
+
+        Map<String, StoreDao.ItemEntity> currentItems = new LinkedHashMap<>();
+        storeDao.listItemsBySourceJar(jarKey).forEach(item -> currentItems.put(item.id(), item));
+        Map<String, StoreDao.EntityEntity> currentEntities = new LinkedHashMap<>();
+        storeDao.listEntitiesBySourceJar(jarKey).forEach(entity -> currentEntities.put(entity.id(), entity));
+
+        RowDiff<StoreDao.ItemEntity> itemDiff = diff(desiredItems, currentItems,
+                storeDao.listIngestionManifestEntries(jarKey, ENTRY_KIND_ITEM));
+        RowDiff<StoreDao.EntityEntity> entityDiff = diff(desiredEntities, currentEntities,
+                storeDao.listIngestionManifestEntries(jarKey, ENTRY_KIND_ENTITY));
+
+        StoreDao.IngestionChange change = new StoreDao.IngestionChange(extraction.manifest(), new StoreDao.IngestionDiff(
+                itemDiff.upserts(),
+                itemDiff.deletes(),
+                entityDiff.upserts(),
+                entityDiff.deletes(),
+                Map.of(
+                        ENTRY_KIND_ITEM, List.copyOf(desiredItems.keySet()),
+                        ENTRY_KIND_ENTITY, List.copyOf(desiredEntities.keySet()),
+                        ENTRY_KIND_TAG, encodeTags(extraction.catalog()))));
+
+        JarIngestResult result = new JarIngestResult(
+                jarKey,
+                false,
+                itemDiff.inserted() + entityDiff.inserted(),
+                itemDiff.updated() + entityDiff.updated(),
+                itemDiff.deletes().size() + entityDiff.deletes().size());
+        logger.info("Jar prepared for incremental ingestion",
+                StructuredLogger.field("path", jarKey),
+                StructuredLogger.field("items", desiredItems.size()),
+                StructuredLogger.field("entities", desiredEntities.size()),
+                StructuredLogger.field("inserted", result.inserted()),
+                StructuredLogger.field("updated", result.updated()),
+                StructuredLogger.field("deleted", result.deleted()));
+        return new PreparedJar(result, change);
+    }
+
+    private static boolean isUnchanged(StoreDao.IngestionManifestEntity manifest, JarFingerprint fingerprint,
+            String version) {
+        JarFingerprint stored = new JarFingerprint(
+                manifest.jarPath(),
+                manifest.size(),
+                manifest.modifiedMillis(),
+                manifest.centralDirectoryHash(),
+                manifest.extractorVersion());
+        return stored.matches(fingerprint) && Objects.equals(manifest.version(), version);
+    }
+
+    /**
+     * Tag definitions of every ingested source, loaded from the ingestion manifests on first use. Callers
+     * hold {@link #tagLock}.
+     */
+    private TagState tagState() {
+        if (tagState == null) {
+            Map<String, ItemCatalog> sources = new LinkedHashMap<>();
+            for (StoreDao.CatalogImportEntity imported : storeDao.listCatalogImports()) {
+                sources.put(imported.source(), decodeTags(imported.source(), imported.version(),
+                        storeDao.listCatalogImportTags(imported.source())));
+            }
+            for (StoreDao.IngestionManifestEntity manifest : storeDao.listIngestionManifests()) {
+                sources.put(manifest.jarPath(), decodeTags(manifest.jarPath(), manifest.version(),
+                        storeDao.listIngestionManifestEntries(manifest.jarPath(), ENTRY_KIND_TAG)));
+            }
+            tagState = new TagState(sources, TagClosureIndex.build(sources.values()));
+        }
+        return tagState;
+    }
+
+    /**
+     * Items of sources outside {@code rewrittenSources} whose resolved tags differ between the two closures,
+     * with their new tags. Items of sources whose tag definitions are not part of the state, such as catalogs
+     * imported before tag definitions were stored, keep their tags.
+     */
+    private List<StoreDao.ItemEntity> retag(TagState previous, TagState next, Set<String> rewrittenSources) {
+        if (previous.closure() == next.closure()) {
+            return List.of();
+        }
+        Set<String> knownSources = sourceKeys(next.sources().keySet());
+        Set<String> itemIds = new TreeSet<>(previous.closure().itemIds());
+        itemIds.addAll(next.closure().itemIds());
+        List<StoreDao.ItemEntity> updated = new ArrayList<>();
+        for (String itemId : itemIds) {
+            List<String> tags = next.closure().tagsOfItem(itemId);
+            if (tags.equals(previous.closure().tagsOfItem(itemId))) {
+                continue;
+            }
+            Optional<StoreDao.ItemEntity> stored = storeDao.findItemById(itemId);
+            if (stored.isEmpty() || rewrittenSources.contains(stored.get().sourceJar())
+                    || !knownSources.contains(stored.get().sourceJar())) {
+                continue;
+            }
+            StoreDao.ItemEntity item = stored.get();
+            String json = toJsonArray(tags);
+            if (!Objects.equals(json, item.tags())) {
+                updated.add(new StoreDao.ItemEntity(item.id(), item.displayName(), item.isVanilla(), item.modId(),
+                        item.modName(), json, item.texturePath(), item.iconHash(), item.sourceJar(),
+                        item.version(), item.kind()));
+            }
+        }
+        return updated;
+    }
+
+    private static Set<String> sourceKeys(Set<String> sources) {
+        Set<String> keys = new HashSet<>();
+        sources.forEach(source -> keys.add(normalize(source)));
+        return keys;
+    }
+
+    private static ItemCatalog tagsOnly(ItemCatalog catalog) {
+        return new ItemCatalog(catalog.source(), catalog.version(), catalog.isVanilla(), List.of(),
+                catalog.tags(), catalog.tagReferences());
+    }
+
+    /**
+     * Manifest entries for the tag definitions of {@code catalog}: {@code "<tag> <item>"} for direct members
+     * and {@code "<tag> #<tag>"} for nested tags.
+     */
+    private static List<String> encodeTags(ItemCatalog catalog) {
+        List<String> entries = new ArrayList<>();
+        catalog.tags().forEach((tag, items) -> items.forEach(item -> entries.add(tag + ' ' + item)));
+        catalog.tagReferences().forEach((tag, references) ->
+                references.forEach(reference -> entries.add(tag + " #" + reference)));
+        return entries;
+    }
+
+    private static ItemCatalog decodeTags(String source, String version, List<String> entries) {
+        Map<String, List<String>> tags = new LinkedHashMap<>();
+        Map<String, List<String>> references = new LinkedHashMap<>();
+        for (String entry : entries) {
+            int space = entry.indexOf(' ');
+            if (space <= 0) {
+                continue;
+            }
+            String tag = entry.substring(0, space);
+            String member = entry.substring(space + 1);
+            if (member.startsWith("#")) {
+                references.computeIfAbsent(tag, key -> new ArrayList<>()).add(member.substring(1));
+            } else {
+                tags.computeIfAbsent(tag, key -> new ArrayList<>()).add(member);
+            }
+        }
+        return new ItemCatalog(source, Objects.requireNonNullElse(version, ""), false, List.of(), tags, references);
+    }
+
+    private static <T> RowDiff<T> diff(Map<String, T> desired, Map<String, T> current, List<String> previousIds) {
+        List<T> upserts = new ArrayList<>();
+        int inserted = 0;
+        int updated = 0;
+        for (Map.Entry<String, T> entry : desired.entrySet()) {
+            T existing = current.get(entry.getKey());
+            if (existing == null) {
+                upserts.add(entry.getValue());
+                inserted++;
+            } else if (!existing.equals(entry.getValue())) {
+                upserts.add(entry.getValue());
+                updated++;
+            }
+        }
+        Set<String> stale = new LinkedHashSet<>(previousIds);
+        stale.addAll(current.keySet());
+        stale.removeAll(desired.keySet());
+        return new RowDiff<>(upserts, List.copyOf(stale), inserted, updated);
+    }
+
+    private static StoreDao.ItemEntity toItemEntity(ItemMeta item, TagClosureIndex tagIndex,
+            String source, String version) {
+        return new StoreDao.ItemEntity(
+                item.id(),
+                item.displayName(),
+                item.isVanilla(),
+                normalize(item.modId()),
+                normalize(item.modName()),
+                toJsonArray(tagIndex.tagsOfItem(item.id())),
+                normalize(item.texturePath()),
+                normalize(item.iconHash()),
+                normalize(source),
+                normalize(version),
+                item.kind());
+    }
+
+    private static StoreDao.EntityEntity toEntityEntity(EntityMeta entity, String source, String version) {
+        return new StoreDao.EntityEntity(
+                entity.id(),
+                entity.displayName(),
+                entity.isVanilla(),
+                normalize(entity.modId()),
+                normalize(entity.modName()),
+                normalize(entity.texturePath()),
+                normalize(source),
+                normalize(version)
+        );
+    }
+
     private Path resolveSourcePath(String source) {
         if (source == null || source.isBlank()) {
             return null;
@@ -201,37 +631,6 @@ public final class CatalogImportService {
         }
     }
 
-    private static Map<String, List<String>> buildTagsByItem(Map<String, List<String>> tags) {
-        if (tags == null || tags.isEmpty()) {
-            return Map.of();
-        }
-
-        Map<String, Set<String>> accumulator = new LinkedHashMap<>();
-        tags.forEach((tagId, items) -> {
-            if (tagId == null || items == null) {
-                return;
-            }
-            for (String itemId : items) {
-                if (itemId == null || itemId.isBlank()) {
-                    continue;
-                }
-                accumulator.computeIfAbsent(itemId, ignored -> new java.util.LinkedHashSet<>()).add(tagId);
-            }
-        });
-
-        if (accumulator.isEmpty()) {
-            return Map.of();
-        }
-
-        Map<String, List<String>> result = new LinkedHashMap<>(accumulator.size());
-        accumulator.forEach((itemId, tagIds) -> {
-            List<String> sorted = new ArrayList<>(tagIds);
-            Collections.sort(sorted);
-            result.put(itemId, Collections.unmodifiableList(sorted));
-        });
-        return Collections.unmodifiableMap(result);
-    }
-
     private static String toJsonArray(List<String> values) {
         if (values == null || values.isEmpty()) {
             return null;
@@ -272,4 +671,118 @@ public final class CatalogImportService {
         String trimmed = value.trim();
         return trimmed.isEmpty() ? null : trimmed;
     }
+
+    private record RowDiff<T>(List<T> upserts, List<String> deletes, int inserted, int updated) { }
+
+    /**
+     * A JAR read for incremental ingestion; {@code catalog} is {@code null} when the fingerprint matched the
+     * manifest and the JAR was not opened.
+     */
+    private record ExtractedJar(
+            String jarKey,
+            String version,
+            StoreDao.IngestionManifestEntity manifest,
+            ItemCatalog catalog,
+            List<ItemMeta> items,
+            List<EntityMeta> entities) {
+        boolean unchanged() {
+            return catalog == null;
+        }
+    }
+
+    /**
+     * Tag definitions per source and the closure resolved over all of them.
+     */
+    private record TagState(Map<String, ItemCatalog> sources, TagClosureIndex closure) {
+
+        /**
+         * Replaces the definitions of the given sources; a {@code null} value removes the source. The closure
+         * is only rebuilt when some definition actually changed.
+         */
+        TagState with(Map<String, ItemCatalog> replaced) {
+            Map<String, ItemCatalog> next = new LinkedHashMap<>(sources);
+            boolean changed = false;
+            for (Map.Entry<String, ItemCatalog> entry : replaced.entrySet()) {
+                ItemCatalog previous = entry.getValue() == null
+                        ? next.remove(entry.getKey())
+                        : next.put(entry.getKey(), entry.getValue());
+                changed |= !sameTags(previous, entry.getValue());
+            }
+            return new TagState(next, changed ? TagClosureIndex.build(next.values()) : closure);
+        }
+
+        private static boolean sameTags(ItemCatalog first, ItemCatalog second) {
+            if (first == null || second == null) {
+                return first == second;
+            }
+            return first.tags().equals(second.tags()) && first.tagReferences().equals(second.tagReferences());
+        }
+    }
+
+    /**
+     * Result and pending store change of a diffed JAR, written later in one transaction.
+     */
+    private record PreparedJar(JarIngestResult result, StoreDao.IngestionChange change) {
+    }
+
+    /**
+     * Outcome of incrementally ingesting a single JAR.
+     *
+     * @param jarPath  absolute path of the JAR
+     * @param skipped  whether the JAR was unchanged and not opened at all
+     * @param inserted number of item and entity rows inserted
+     * @param updated  number of item and entity rows whose content changed
+     * @param deleted  number of item and entity rows removed
+     */
+    public record JarIngestResult(String jarPath, boolean skipped, int inserted, int updated, int deleted) {
+        static JarIngestResult skipped(String jarPath) {
+            return new JarIngestResult(jarPath, true, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Aggregate outcome of {@link #rescanIngestedJars()}.
+     */
+    public record RescanSummary(
+            int jarsSkipped,
+            int jarsIngested,
+            int jarsRemoved,
+            int jarsFailed,
+            int rowsInserted,
+            int rowsUpdated,
+            int rowsDeleted
+    ) {
+        static final class Builder {
+            private int skipped;
+            private int ingested;
+            private int removed;
+            private int failed;
+            private int inserted;
+            private int updated;
+            private int deleted;
+
+            void add(JarIngestResult result) {
+                if (result.skipped()) {
+                    skipped++;
+                    return;
+                }
+                ingested++;
+                inserted += result.inserted();
+                updated += result.updated();
+                deleted += result.deleted();
+            }
+
+            void removed() {
+                removed++;
+            }
+
+            void failed() {
+                failed++;
+            }
+
+            RescanSummary build() {
+                return new RescanSummary(skipped, ingested, removed, failed, inserted, updated, deleted);
+            }
+        }
+    }
 }
@@ -0,0 +1,104 @@
+package dev.ftbq.editor.services.catalog;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Handle of an ingestion job submitted to {@link IngestionJobScheduler}.
+ *
+ * @param <R> result type of the job
+ */
+public final class IngestionJob<R> {
+
+    /**
+     * Scheduling priority. Queued jobs start in priority order, then in submission order.
+     */
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    /**
+     * Lifecycle of a job. {@link #COMPLETED}, {@link #CANCELLED} and {@link #FAILED} are terminal.
+     */
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == CANCELLED || this == FAILED;
+        }
+    }
+
+    private final long id;
+    private final String source;
+    private final Priority priority;
+    private final IngestionJobScheduler scheduler;
+    private final CompletableFuture<R> result = new CompletableFuture<>();
+    private final AtomicReference<State> state = new AtomicReference<>(State.QUEUED);
+    private volatile boolean cancellationRequested;
+
+    IngestionJob(long id, String source, Priority priority, IngestionJobScheduler scheduler) {
+        this.id = id;
+        this.source = Objects.requireNonNull(source, "source");
+        this.priority = Objects.requireNonNull(priority, "priority");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public Priority priority() {
+        return priority;
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    /**
+     * Future completed with the job's result. It completes exceptionally with a
+     * {@link java.util.concurrent.CancellationException} when the job is cancelled and with the task's
+     * exception when it fails.
+     */
+    public CompletableFuture<R> result() {
+        return result;
+    }
+
+    /**
+     * Request cancellation. A queued job is dropped immediately; a running job stops at its next
+     * cancellation check and commits nothing. Cancelling a finished job has no effect.
+     *
+     * @return {@code true} if the job had not finished yet
+     */
+    public boolean cancel() {
+        if (state().isTerminal()) {
+            return false;
+        }
+        cancellationRequested = true;
+        scheduler.cancelQueued(this);
+        return true;
+    }
+
+    public boolean isCancellationRequested() {
+        return cancellationRequested;
+    }
+
+    boolean transition(State expected, State next) {
+        return state.compareAndSet(expected, next);
+    }
+
+    CompletableFuture<R> future() {
+        return result;
+    }
+}
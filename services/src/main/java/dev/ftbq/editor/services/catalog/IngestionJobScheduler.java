@@ -0,0 +1,319 @@
+package dev.ftbq.editor.services.catalog;
+
+import dev.ftbq.editor.ingest.IngestionMonitor;
+import dev.ftbq.editor.services.bus.Event;
+import dev.ftbq.editor.services.bus.EventBus;
+import dev.ftbq.editor.services.events.IngestionJobFinished;
+import dev.ftbq.editor.services.events.IngestionProgressed;
+import dev.ftbq.editor.services.logging.AppLoggerFactory;
+import dev.ftbq.editor.services.logging.StructuredLogger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs catalog ingestion work in the background.
+ * <p>
+ * Jobs are queued by {@link IngestionJob.Priority} and run on a small worker pool. At most one job per
+ * source is queued or running at a time. Cancellation is cooperative: tasks receive an
+ * {@link IngestionMonitor} that throws {@link CancellationException} between archive entries once the
+ * job is cancelled, and the ingestion services only write to the store after their last check. Progress
+ * is published on the {@link EventBus} as {@link IngestionProgressed} events, at most once per progress
+ * interval per job, followed by a single {@link IngestionJobFinished}.
+ */
+public final class IngestionJobScheduler implements AutoCloseable {
+
+    public static final Duration DEFAULT_PROGRESS_INTERVAL = Duration.ofMillis(250);
+
+    /**
+     * Unit of ingestion work.
+     *
+     * @param <R> result type
+     */
+    @FunctionalInterface
+    public interface IngestionTask<R> {
+        R run(IngestionMonitor monitor) throws Exception;
+    }
+
+    private final EventBus eventBus;
+    private final StructuredLogger logger;
+    private final long progressIntervalNanos;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, IngestionJob<?>> activeBySource = new ConcurrentHashMap<>();
+    private final Map<Long, QueuedJob<?>> queued = new ConcurrentHashMap<>();
+    private final AtomicLong jobIds = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public IngestionJobScheduler(EventBus eventBus, AppLoggerFactory loggerFactory) {
+        this(eventBus, Objects.requireNonNull(loggerFactory, "loggerFactory").create(IngestionJobScheduler.class),
+                1, DEFAULT_PROGRESS_INTERVAL);
+    }
+
+    public IngestionJobScheduler(EventBus eventBus, StructuredLogger logger, int workers, Duration progressInterval) {
+        this.eventBus = Objects.requireNonNull(eventBus, "eventBus");
+        this.logger = Objects.requireNonNull(logger, "logger");
+        Objects.requireNonNull(progressInterval, "progressInterval");
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1");
+        }
+        this.progressIntervalNanos = progressInterval.toNanos();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(11, Comparator.comparing(runnable -> (QueuedJob<?>) runnable)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ftbq-ingestion-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queue an ingestion job.
+     *
+     * @param source   key identifying what is ingested, for example an absolute mods directory or JAR path
+     * @param priority scheduling priority
+     * @param task     work to run
+     * @return handle of the new job
+     * @throws IllegalStateException if a job for {@code source} is already queued or running
+     */
+    public synchronized <R> IngestionJob<R> submit(String source, IngestionJob.Priority priority,
+            IngestionTask<R> task) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(priority, "priority");
+        Objects.requireNonNull(task, "task");
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("Ingestion scheduler has been closed");
+        }
+        IngestionJob<?> existing = activeBySource.get(source);
+        if (existing != null && !existing.state().isTerminal()) {
+            throw new IllegalStateException("An ingestion job is already active for " + source);
+        }
+
+        IngestionJob<R> job = new IngestionJob<>(jobIds.incrementAndGet(), source, priority, this);
+        QueuedJob<R> queuedJob = new QueuedJob<>(job, task, sequence.incrementAndGet());
+        activeBySource.put(source, job);
+        queued.put(job.id(), queuedJob);
+        executor.execute(queuedJob);
+        logger.info("Ingestion job queued",
+                StructuredLogger.field("jobId", job.id()),
+                StructuredLogger.field("source", source),
+                StructuredLogger.field("priority", priority));
+        return job;
+    }
+
+    /**
+     * The job currently queued or running for {@code source}, if any.
+     */
+    public Optional<IngestionJob<?>> activeJob(String source) {
+        IngestionJob<?> job = activeBySource.get(source);
+        return job == null || job.state().isTerminal() ? Optional.empty() : Optional.of(job);
+    }
+
+    public List<IngestionJob<?>> activeJobs() {
+        List<IngestionJob<?>> jobs = new ArrayList<>();
+        for (IngestionJob<?> job : activeBySource.values()) {
+            if (!job.state().isTerminal()) {
+                jobs.add(job);
+            }
+        }
+        jobs.sort(Comparator.comparingLong(IngestionJob::id));
+        return jobs;
+    }
+
+    /**
+     * Cancel every job and stop the workers. Running tasks stop at their next cancellation check.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            executor.shutdown();
+        }
+        activeJobs().forEach(IngestionJob::cancel);
+    }
+
+    void cancelQueued(IngestionJob<?> job) {
+        QueuedJob<?> queuedJob = queued.get(job.id());
+        if (queuedJob != null && job.transition(IngestionJob.State.QUEUED, IngestionJob.State.CANCELLED)) {
+            executor.remove(queuedJob);
+            finish(queuedJob, IngestionJob.State.CANCELLED, 0L, null);
+        }
+    }
+
+    private <R> void run(QueuedJob<R> queuedJob) {
+        IngestionJob<R> job = queuedJob.job;
+        if (!job.transition(IngestionJob.State.QUEUED, IngestionJob.State.RUNNING)) {
+            return;
+        }
+        JobMonitor monitor = new JobMonitor(job);
+        logger.info("Ingestion job started",
+                StructuredLogger.field("jobId", job.id()),
+                StructuredLogger.field("source", job.source()));
+        R value;
+        try {
+            monitor.checkCancelled();
+            value = queuedJob.task.run(monitor);
+        } catch (CancellationException ex) {
+            job.transition(IngestionJob.State.RUNNING, IngestionJob.State.CANCELLED);
+            monitor.publishProgress();
+            finish(queuedJob, IngestionJob.State.CANCELLED, monitor.elapsedMillis(), null);
+            return;
+        } catch (Exception | Error ex) {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            job.transition(IngestionJob.State.RUNNING, IngestionJob.State.FAILED);
+            logger.warn("Ingestion job failed", cause,
+                    StructuredLogger.field("jobId", job.id()),
+                    StructuredLogger.field("source", job.source()));
+            monitor.publishProgress();
+            finish(queuedJob, IngestionJob.State.FAILED, monitor.elapsedMillis(), cause);
+            return;
+        }
+        // Work that finished before noticing a late cancel request has already been committed, so the
+        // job is reported as completed rather than cancelled.
+        job.transition(IngestionJob.State.RUNNING, IngestionJob.State.COMPLETED);
+        monitor.publishProgress();
+        finish(queuedJob, IngestionJob.State.COMPLETED, monitor.elapsedMillis(), null);
+        job.future().complete(value);
+    }
+
+    private void finish(QueuedJob<?> queuedJob, IngestionJob.State state, long elapsedMillis, Throwable error) {
+        IngestionJob<?> job = queuedJob.job;
+        queued.remove(job.id());
+        activeBySource.remove(job.source(), job);
+        logger.info("Ingestion job finished",
+                StructuredLogger.field("jobId", job.id()),
+                StructuredLogger.field("source", job.source()),
+                StructuredLogger.field("state", state),
+                StructuredLogger.field("elapsedMs", elapsedMillis));
+        publish(new IngestionJobFinished(job.id(), job.source(), state, elapsedMillis,
+                error != null ? String.valueOf(error.getMessage()) : null));
+        if (state == IngestionJob.State.CANCELLED) {
+            job.future().completeExceptionally(new CancellationException("Ingestion job cancelled: " + job.source()));
+        } else if (state == IngestionJob.State.FAILED) {
+            job.future().completeExceptionally(error);
+        }
+    }
+
+    private void publish(Event event) {
+        try {
+            eventBus.publish(event);
+        } catch (RuntimeException ex) {
+            // A failing listener must not break ingestion.
+            logger.warn("Ingestion event listener failed", ex);
+        }
+    }
+
+    /**
+     * Progress counters and cancellation hook handed to a running task.
+     */
+    private final class JobMonitor implements IngestionMonitor {
+        private final IngestionJob<?> job;
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong lastPublishNanos = new AtomicLong(startedNanos);
+        private final AtomicInteger jarsCompleted = new AtomicInteger();
+        private final AtomicInteger jarsTotal = new AtomicInteger();
+        private final AtomicLong entries = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        JobMonitor(IngestionJob<?> job) {
+            this.job = job;
+        }
+
+        @Override
+        public void checkCancelled() {
+            if (job.isCancellationRequested()) {
+                throw new CancellationException("Ingestion job cancelled: " + job.source());
+            }
+        }
+
+        @Override
+        public void entryProcessed(long entryBytes) {
+            entries.incrementAndGet();
+            bytes.addAndGet(Math.max(0L, entryBytes));
+            maybePublish();
+            checkCancelled();
+        }
+
+        @Override
+        public void jarsDiscovered(int count) {
+            jarsTotal.set(Math.max(0, count));
+            publishProgress();
+        }
+
+        @Override
+        public void jarCompleted() {
+            jarsCompleted.incrementAndGet();
+            maybePublish();
+            checkCancelled();
+        }
+
+        long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        }
+
+        private void maybePublish() {
+            long now = System.nanoTime();
+            long last = lastPublishNanos.get();
+            if (now - last >= progressIntervalNanos && lastPublishNanos.compareAndSet(last, now)) {
+                publishSnapshot(now);
+            }
+        }
+
+        void publishProgress() {
+            long now = System.nanoTime();
+            lastPublishNanos.set(now);
+            publishSnapshot(now);
+        }
+
+        private void publishSnapshot(long now) {
+            long elapsedNanos = Math.max(1L, now - startedNanos);
+            long processedBytes = bytes.get();
+            publish(new IngestionProgressed(
+                    job.id(),
+                    job.source(),
+                    jarsCompleted.get(),
+                    jarsTotal.get(),
+                    entries.get(),
+                    processedBytes,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    processedBytes * 1_000_000_000.0 / elapsedNanos));
+        }
+    }
+
+    /**
+     * Queue element ordering jobs by priority, then by submission order.
+     */
+    private final class QueuedJob<R> implements Runnable, Comparable<QueuedJob<?>> {
+        private final IngestionJob<R> job;
+        private final IngestionTask<R> task;
+        private final long sequenceNumber;
+
+        QueuedJob(IngestionJob<R> job, IngestionTask<R> task, long sequenceNumber) {
+            this.job = job;
+            this.task = task;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        @Override
+        public void run() {
+            IngestionJobScheduler.this.run(this);
+        }
+
+        @Override
+        public int compareTo(QueuedJob<?> other) {
+            int byPriority = job.priority().compareTo(other.job.priority());
+            return byPriority != 0 ? byPriority : Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package dev.ftbq.editor.services.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.ftbq.editor.concurrent.WorkerPool;
+import dev.ftbq.editor.importer.snbt.validation.SnbtValidationReport;
+import dev.ftbq.editor.importer.snbt.validation.SnbtValidationService;
+import dev.ftbq.editor.io.snbt.SnbtIo;
+import dev.ftbq.editor.validation.ValidationIssue;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Batch mode of {@link SnbtValidateCli}. Expands directories and glob patterns into SNBT files, validates them
+ * concurrently and streams one result per file as text, JSON Lines or JUnit XML, followed by aggregate timing.
+ * Results are written in argument order as soon as every earlier file is done, so output is deterministic.
+ * <p>
+ * A {@code data.snbt} is validated as a quest pack together with the split chapter files next to it, see
+ * {@link SnbtValidationService#validateDirectory(Path)}; any other {@code .snbt} file is validated on its own.
+ * Directories are searched recursively for {@code data.snbt} files.
+ */
+final class SnbtValidateBatch {
+    static final int EXIT_OK = 0;
+    static final int EXIT_USAGE = 1;
+    static final int EXIT_INVALID = 2;
+
+    private static final String PACK_FILE = "data.snbt";
+
+    enum Format {
+        TEXT,
+        JSONL,
+        JUNIT
+    }
+
+    record Options(Format format, int parallelism, Path output, List<String> targets) {
+        Options {
+            targets = List.copyOf(targets);
+        }
+    }
+
+    private SnbtValidateBatch() {
+    }
+
+    static boolean isBatch(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses {@code [--batch] [--format=text|jsonl|junit] [--parallelism=N] [--output=FILE] targets...}.
+     * Option values may also follow as the next argument.
+     *
+     * @throws IllegalArgumentException for unknown options, bad values or missing targets
+     */
+    static Options parse(String[] args) {
+        Format format = Format.TEXT;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        Path output = null;
+        List<String> targets = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                targets.add(arg);
+                continue;
+            }
+            String name = arg;
+            String value = null;
+            int equals = arg.indexOf('=');
+            if (equals >= 0) {
+                name = arg.substring(0, equals);
+                value = arg.substring(equals + 1);
+            }
+            if (name.equals("--batch")) {
+                continue;
+            }
+            if (value == null) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + name);
+                }
+                value = args[++i];
+            }
+            switch (name) {
+                case "--format" -> {
+                    try {
+                        format = Format.valueOf(value.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException ex) {
+                        throw new IllegalArgumentException("Unknown format '" + value + "'; expected text, jsonl or junit");
+                    }
+                }
+                case "--parallelism" -> {
+                    try {
+                        parallelism = Integer.parseInt(value);
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("Parallelism must be a number: " + value);
+                    }
+                    if (parallelism < 1) {
+                        throw new IllegalArgumentException("Parallelism must be at least 1: " + value);
+                    }
+                }
+                case "--output" -> output = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("No files, directories or patterns given");
+        }
+        return new Options(format, parallelism, output, targets);
+    }
+
+    /**
+     * Validates every file the targets expand to and returns the process exit code: {@link #EXIT_INVALID} when a
+     * target matched nothing, a file could not be validated or a file has errors, otherwise {@link #EXIT_OK}.
+     */
+    static int run(Options options, PrintStream out, PrintStream err) throws IOException {
+        List<String> problems = new ArrayList<>();
+        Set<Path> files = new LinkedHashSet<>();
+        for (String target : options.targets()) {
+            files.addAll(expand(target, problems));
+        }
+        for (String problem : problems) {
+            err.println(problem);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.parallelism(), WorkerPool.daemonThreads("snbt-validate-cli"));
+        // With several files in flight, each file is validated on its worker thread alone
+        SnbtValidationService service = options.parallelism() > 1
+                ? new SnbtValidationService(Runnable::run)
+                : new SnbtValidationService();
+        long start = System.nanoTime();
+        List<CompletableFuture<FileResult>> results = new ArrayList<>(files.size());
+        for (Path file : files) {
+            results.add(CompletableFuture.supplyAsync(() -> validate(file, service), executor));
+        }
+
+        OutputStream target = options.output() == null ? out : Files.newOutputStream(options.output());
+        Summary summary;
+        try {
+            ResultWriter writer = switch (options.format()) {
+                case TEXT -> new TextWriter(target);
+                case JSONL -> new JsonLinesWriter(target);
+                case JUNIT -> new JUnitWriter(target);
+            };
+            writer.begin();
+            int withErrors = 0;
+            int failed = 0;
+            long bytes = 0;
+            for (CompletableFuture<FileResult> future : results) {
+                FileResult result = future.join();
+                if (result.failure() != null) {
+                    failed++;
+                } else if (!result.report().valid()) {
+                    withErrors++;
+                }
+                bytes += result.bytes();
+                writer.file(result);
+            }
+            summary = new Summary(files.size(), withErrors, failed, problems.size(), bytes,
+                    System.nanoTime() - start, options.parallelism());
+            writer.end(summary);
+        } finally {
+            executor.shutdownNow();
+            if (target != out) {
+                target.close();
+            } else {
+                out.flush();
+            }
+        }
+        if (options.format() != Format.TEXT || options.output() != null) {
+            err.println(summary.describe());
+        }
+        return summary.withErrors() > 0 || summary.failed() > 0 || summary.unmatched() > 0 ? EXIT_INVALID : EXIT_OK;
+    }
+
+    /**
+     * Files a single argument stands for: the file itself, the {@code data.snbt} files below a directory, or the
+     * files matching a glob pattern. Problems are reported instead of throwing so other targets still run.
+     */
+    static List<Path> expand(String target, List<String> problems) throws IOException {
+        int globStart = firstGlobCharacter(target);
+        if (globStart >= 0) {
+            int separator = Math.max(target.lastIndexOf('/', globStart), target.lastIndexOf(File.separatorChar, globStart));
+            String base = separator < 0 ? "." : target.substring(0, Math.max(separator, 1));
+            String pattern = target.substring(separator + 1);
+            Path baseDir = Path.of(base).toAbsolutePath().normalize();
+            List<Path> matches = new ArrayList<>();
+            if (Files.isDirectory(baseDir)) {
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+                try (Stream<Path> walk = Files.walk(baseDir)) {
+                    walk.filter(Files::isRegularFile)
+                            .filter(file -> matcher.matches(baseDir.relativize(file)))
+                            .sorted()
+                            .forEach(matches::add);
+                }
+            }
+            if (matches.isEmpty()) {
+                problems.add("No SNBT files match " + target);
+            }
+            return matches;
+        }
+
+        Path path = Path.of(target).toAbsolutePath().normalize();
+        if (Files.isRegularFile(path)) {
+            return List.of(path);
+        }
+        if (Files.isDirectory(path)) {
+            List<Path> packs;
+            try (Stream<Path> walk = Files.walk(path)) {
+                packs = walk.filter(file -> file.getFileName().toString().equals(PACK_FILE))
+                        .filter(Files::isRegularFile)
+                        .sorted()
+                        .toList();
+            }
+            if (packs.isEmpty()) {
+                problems.add("No " + PACK_FILE + " found under " + path);
+            }
+            return packs;
+        }
+        problems.add("Could not locate SNBT file at " + path);
+        return List.of();
+    }
+
+    private static int firstGlobCharacter(String target) {
+        for (int i = 0; i < target.length(); i++) {
+            char c = target.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static FileResult validate(Path file, SnbtValidationService service) {
+        long start = System.nanoTime();
+        try {
+            SnbtValidationReport report;
+            long bytes;
+            if (file.getFileName().toString().equals(PACK_FILE)) {
+                report = service.validateDirectory(file.getParent());
+                bytes = packBytes(file.getParent());
+            } else {
+                report = service.validate(SnbtIo.read(file.toFile()));
+                bytes = Files.size(file);
+            }
+            return new FileResult(file, bytes, report, null, System.nanoTime() - start);
+        } catch (IOException | RuntimeException ex) {
+            String message = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+            return new FileResult(file, 0, null, message, System.nanoTime() - start);
+        }
+    }
+
+    private static long packBytes(Path root) throws IOException {
+        long bytes = 0;
+        for (String name : List.of(PACK_FILE, "chapter_groups.snbt")) {
+            Path file = root.resolve(name);
+            if (Files.isRegularFile(file)) {
+                bytes += Files.size(file);
+            }
+        }
+        for (String directory : List.of("chapters", "reward_tables")) {
+            Path dir = root.resolve(directory);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (file.getFileName().toString().endsWith(".snbt") && Files.isRegularFile(file)) {
+                        bytes += Files.size(file);
+                    }
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private record FileResult(Path file, long bytes, SnbtValidationReport report, String failure, long nanos) {
+        long millis() {
+            return nanos / 1_000_000;
+        }
+    }
+
+    private record Summary(int files, int withErrors, int failed, int unmatched, long bytes, long nanos,
+                           int parallelism) {
+        double seconds() {
+            return Math.max(nanos, 1) / 1e9;
+        }
+
+        String describe() {
+            return String.format(Locale.ROOT,
+                    "Validated %d file(s), %.1f MB in %d ms with %d worker(s): %.1f files/s, %.1f MB/s; "
+                            + "%d with errors, %d failed, %d target(s) unmatched.",
+                    files, bytes / 1e6, nanos / 1_000_000, parallelism, files / seconds(), bytes / 1e6 / seconds(),
+                    withErrors, failed, unmatched);
+        }
+    }
+
+    private interface ResultWriter {
+        void begin() throws IOException;
+
+        void file(FileResult result) throws IOException;
+
+        void end(Summary summary) throws IOException;
+    }
+
+    private static final class TextWriter implements ResultWriter {
+        private final PrintWriter out;
+
+        private TextWriter(OutputStream out) {
+            this.out = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void file(FileResult result) {
+            out.println("== " + result.file() + " (" + result.millis() + " ms) ==");
+            if (result.failure() != null) {
+                out.println("Could not validate: " + result.failure());
+            } else if (result.report().issues().isEmpty()) {
+                out.println("Validation succeeded with no errors or warnings.");
+            } else {
+                for (ValidationIssue issue : result.report().issues()) {
+                    out.println(issue.severity() + " " + issue.path() + " " + issue.message());
+                }
+                if (result.report().errors().isEmpty()) {
+                    out.println("Completed with warnings only.");
+                } else {
+                    out.println("Completed with " + result.report().errors().size() + " error(s).");
+                }
+            }
+            out.println();
+            out.flush();
+        }
+
+        @Override
+        public void end(Summary summary) {
+            out.println(summary.describe());
+            out.flush();
+        }
+    }
+
+    private static final class JsonLinesWriter implements ResultWriter {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final Writer out;
+
+        private JsonLinesWriter(OutputStream out) {
+            this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void file(FileResult result) throws IOException {
+            ObjectNode line = mapper.createObjectNode()
+                    .put("type", "file")
+                    .put("file", result.file().toString());
+            if (result.failure() != null) {
+                line.put("status", "failed").put("failure", result.failure());
+            } else {
+                SnbtValidationReport report = result.report();
+                line.put("status", !report.valid() ? "errors" : report.issues().isEmpty() ? "ok" : "warnings")
+                        .put("errors", report.errors().size())
+                        .put("warnings", report.warnings().size());
+            }
+            line.put("bytes", result.bytes()).put("millis", result.millis());
+            ArrayNode issues = line.putArray("issues");
+            if (result.report() != null) {
+                for (ValidationIssue issue : result.report().issues()) {
+                    issues.addObject()
+                            .put("severity", issue.severity())
+                            .put("path", issue.path())
+                            .put("message", issue.message());
+                }
+            }
+            write(line);
+        }
+
+        @Override
+        public void end(Summary summary) throws IOException {
+            write(mapper.createObjectNode()
+                    .put("type", "summary")
+                    .put("files", summary.files())
+                    .put("withErrors", summary.withErrors())
+                    .put("failed", summary.failed())
+                    .put("unmatched", summary.unmatched())
+                    .put("bytes", summary.bytes())
+                    .put("millis", summary.nanos() / 1_000_000)
+                    .put("parallelism", summary.parallelism())
+                    .put("filesPerSecond", summary.files() / summary.seconds())
+                    .put("bytesPerSecond", summary.bytes() / summary.seconds()));
+        }
+
+        private void write(ObjectNode line) throws IOException {
+            out.write(mapper.writeValueAsString(line));
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    private static final class JUnitWriter implements ResultWriter {
+        private final XMLStreamWriter xml;
+
+        private JUnitWriter(OutputStream out) throws IOException {
+            try {
+                this.xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+            } catch (XMLStreamException ex) {
+                throw new IOException("Failed to open JUnit XML writer", ex);
+            }
+        }
+
+        @Override
+        public void begin() throws IOException {
+            try {
+                xml.writeStartDocument("UTF-8", "1.0");
+                xml.writeCharacters("\n");
+                xml.writeStartElement("testsuite");
+                xml.writeAttribute("name", "snbt-validate");
+                xml.writeAttribute("timestamp", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString());
+                xml.writeCharacters("\n");
+                xml.flush();
+            } catch (XMLStreamException ex) {
+                throw new IOException(ex);
+            }
+        }
+
+        @Override
+        public void file(FileResult result) throws IOException {
+            try {
+                xml.writeCharacters("  ");
+                xml.writeStartElement("testcase");
+                xml.writeAttribute("classname", "snbt-validate");
+                xml.writeAttribute("name", result.file().toString());
+                xml.writeAttribute("time", String.format(Locale.ROOT, "%.3f", result.nanos() / 1e9));
+                if (result.failure() != null) {
+                    xml.writeStartElement("error");
+                    xml.writeAttribute("type", "unreadable");
+                    xml.writeAttribute("message", result.failure());
+                    xml.writeEndElement();
+                } else {
+                    SnbtValidationReport report = result.report();
+                    if (!report.valid()) {
+                        xml.writeStartElement("failure");
+                        xml.writeAttribute("type", "validation");
+                        xml.writeAttribute("message", report.errors().size() + " error(s)");
+                        xml.writeCharacters(describe(report.errors()));
+                        xml.writeEndElement();
+                    }
+                    if (!report.warnings().isEmpty()) {
+                        xml.writeStartElement("system-out");
+                        xml.writeCharacters(describe(report.warnings()));
+                        xml.writeEndElement();
+                    }
+                }
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+                xml.flush();
+            } catch (XMLStreamException ex) {
+                throw new IOException(ex);
+            }
+        }
+
+        @Override
+        public void end(Summary summary) throws IOException {
+            try {
+                xml.writeCharacters("  ");
+                xml.writeStartElement("system-out");
+                xml.writeCharacters(summary.describe());
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+                xml.writeEndDocument();
+                xml.flush();
+            } catch (XMLStreamException ex) {
+                throw new IOException(ex);
+            }
+        }
+
+        private static String describe(List<ValidationIssue> issues) {
+            StringBuilder text = new StringBuilder();
+            for (ValidationIssue issue : issues) {
+                text.append(issue.severity()).append(' ').append(issue.path()).append(' ').append(issue.message())
+                        .append('\n');
+            }
+            return text.toString();
+        }
+    }
+}
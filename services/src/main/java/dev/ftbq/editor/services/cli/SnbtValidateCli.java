@@ -16,7 +16,23 @@ public final class SnbtValidateCli {
     public static void main(String[] args) throws Exception {
         if (args.length == 0) {
             printUsage();
-            System.exit(1);
+            System.exit(SnbtValidateBatch.EXIT_USAGE);
+            return;
+        }
+        if (SnbtValidateBatch.isBatch(args)) {
+            SnbtValidateBatch.Options options;
+            try {
+                options = SnbtValidateBatch.parse(args);
+            } catch (IllegalArgumentException ex) {
+                System.err.println(ex.getMessage());
+                printUsage();
+                System.exit(SnbtValidateBatch.EXIT_USAGE);
+                return;
+            }
+            int exitCode = SnbtValidateBatch.run(options, System.out, System.err);
+            if (exitCode != SnbtValidateBatch.EXIT_OK) {
+                System.exit(exitCode);
+            }
             return;
         }
         SnbtValidationService service = new SnbtValidationService();
@@ -46,7 +62,7 @@ public final class SnbtValidateCli {
             System.out.println();
         }
         if (hadErrors) {
-            System.exit(2);
+            System.exit(SnbtValidateBatch.EXIT_INVALID);
         }
     }
 
@@ -65,5 +81,13 @@ public final class SnbtValidateCli {
     private static void printUsage() {
         System.out.println("Usage: snbt-validate <path-to-data.snbt or quest directory> [additional files...]");
         System.out.println("If a directory is provided, '" + DEFAULT_FILE + "' is assumed.");
+        System.out.println();
+        System.out.println("Batch mode: snbt-validate --batch [options] <files, directories or glob patterns...>");
+        System.out.println("  Directories are searched for data.snbt files; patterns such as 'packs/**/data.snbt'");
+        System.out.println("  are matched against files below their fixed leading directory.");
+        System.out.println("  --format=text|jsonl|junit  result format (default text)");
+        System.out.println("  --parallelism=N            files validated at once (default: available processors)");
+        System.out.println("  --output=FILE              write results to FILE instead of standard output");
+        System.out.println("Exit codes: 0 valid, 1 usage error, 2 errors found or files missing.");
     }
 }
@@ -0,0 +1,28 @@
+package dev.ftbq.editor.services.events;
+
+import dev.ftbq.editor.services.bus.Event;
+import dev.ftbq.editor.services.catalog.IngestionJob;
+
+import java.util.Objects;
+
+/**
+ * Published once when an ingestion job completes, fails or is cancelled.
+ *
+ * @param jobId         scheduler-assigned job id
+ * @param source        source the job ingested
+ * @param state         terminal state of the job
+ * @param elapsedMillis time the job spent running, {@code 0} if it was cancelled while queued
+ * @param error         failure message for {@link IngestionJob.State#FAILED}, otherwise {@code null}
+ */
+public record IngestionJobFinished(
+        long jobId,
+        String source,
+        IngestionJob.State state,
+        long elapsedMillis,
+        String error
+) implements Event {
+    public IngestionJobFinished {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(state, "state");
+    }
+}
@@ -0,0 +1,32 @@
+package dev.ftbq.editor.services.events;
+
+import dev.ftbq.editor.services.bus.Event;
+
+import java.util.Objects;
+
+/**
+ * Throttled progress snapshot of a running ingestion job.
+ *
+ * @param jobId            scheduler-assigned job id
+ * @param source           source the job ingests, for example a mods directory or JAR path
+ * @param jarsCompleted    JARs processed or skipped so far
+ * @param jarsTotal        JARs the job will process, or {@code 0} while unknown
+ * @param entriesProcessed archive entries looked at so far
+ * @param bytesProcessed   compressed bytes of those entries
+ * @param elapsedMillis    time since the job started running
+ * @param bytesPerSecond   average throughput since the job started
+ */
+public record IngestionProgressed(
+        long jobId,
+        String source,
+        int jarsCompleted,
+        int jarsTotal,
+        long entriesProcessed,
+        long bytesProcessed,
+        long elapsedMillis,
+        double bytesPerSecond
+) implements Event {
+    public IngestionProgressed {
+        Objects.requireNonNull(source, "source");
+    }
+}
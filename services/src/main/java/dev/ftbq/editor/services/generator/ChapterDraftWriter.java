@@ -5,6 +5,7 @@ import dev.ftbq.editor.domain.LootTable;
 import dev.ftbq.editor.domain.QuestFile;
 import dev.ftbq.editor.io.snbt.SnbtQuestMapper;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
@@ -45,8 +46,9 @@ public final class ChapterDraftWriter {
                 .chapters(chapters)
                 .lootTables(lootTables)
                 .build();
-        String snbt = mapper.toSnbt(file);
-        Files.writeString(target, snbt);
+        try (OutputStream out = Files.newOutputStream(target)) {
+            mapper.writeSnbt(file, out);
+        }
         return target;
     }
 }
@@ -1,30 +1,93 @@
 package dev.ftbq.editor.services.io;
 
 import dev.ftbq.editor.domain.QuestFile;
-import dev.ftbq.editor.io.snbt.SnbtIo;
+import dev.ftbq.editor.io.exporter.ExportManifest;
+import dev.ftbq.editor.io.snbt.SnbtDocumentPatcher;
 import dev.ftbq.editor.io.snbt.SnbtQuestMapper;
 import dev.ftbq.editor.importer.snbt.model.ImportOptions;
 import dev.ftbq.editor.importer.snbt.model.ImportedQuestPack;
 import dev.ftbq.editor.importer.snbt.model.QuestImportResult;
+import dev.ftbq.editor.importer.snbt.model.QuestPackSkim;
+import dev.ftbq.editor.importer.snbt.parser.SnbtDocument;
+import dev.ftbq.editor.importer.snbt.parser.SnbtParseException;
+import dev.ftbq.editor.importer.snbt.service.SnbtQuestDirectoryReader;
 import dev.ftbq.editor.importer.snbt.service.SnbtQuestImporter;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Coordinates SNBT-based import and export of quest packs.
+ * <p>
+ * A pack imported with {@link #importPack(File)} from a single {@code data.snbt} is kept as a
+ * {@link SnbtDocument}. Exports patch that document with {@link SnbtDocumentPatcher} and write it, so chapters
+ * and quests that were not edited keep their source text, including fields the editor does not model.
  */
 public class SnbtImportExportService {
 
+    private static final String EXPORT_FILE = "questbook/data.snbt";
+    // Kept apart from the JSON exporter's manifest so neither export removes the other's files
+    private static final String MANIFEST_FILE = ".ftbq-snbt-export-manifest.json";
+
     private final SnbtQuestMapper mapper = new SnbtQuestMapper();
     private final SnbtQuestImporter importer = new SnbtQuestImporter();
+    private final SnbtDocumentPatcher patcher = new SnbtDocumentPatcher(mapper);
+    private final Map<Path, ExportManifest> manifests = new ConcurrentHashMap<>();
+    private PackSource source;
 
+    /**
+     * Writes {@code questbook/data.snbt} below {@code directory}. The file is tracked in an {@link ExportManifest},
+     * so exporting an unchanged pack again neither renders nor rewrites it, and changes replace it atomically.
+     */
     public void exportPack(QuestFile file, File directory) throws Exception {
-        var snbt = mapper.toSnbt(file);
-        SnbtIo.write(new File(directory, "questbook/data.snbt"), snbt);
+        ExportManifest manifest = manifests.computeIfAbsent(directory.toPath().toAbsolutePath().normalize(),
+                root -> ExportManifest.load(root, MANIFEST_FILE));
+        synchronized (manifest) {
+            manifest.begin();
+            manifest.write(EXPORT_FILE, file, out -> writePack(file, out));
+            manifest.removeStale();
+            manifest.save();
+        }
+    }
+
+    /**
+     * Writes {@code file} through the document of the imported pack when there is one, and with the mapper
+     * otherwise. A failed patch drops the document, so later exports fall back to the mapper.
+     */
+    private synchronized void writePack(QuestFile file, OutputStream out) throws IOException {
+        if (source == null) {
+            mapper.writeSnbt(file, out);
+            return;
+        }
+        PackSource current = source;
+        source = null;
+        patcher.patch(current.document(), current.questFile(), file);
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        current.document().write(writer);
+        writer.flush();
+        source = new PackSource(current.document(), file);
     }
 
+    /**
+     * Reads a pack from {@code questbook/data.snbt} or from an FTB Quests quest directory
+     * ({@code config/ftbquests/quests} and similar), whichever the directory contains.
+     */
     public ImportedQuestPack previewPack(File directory) throws Exception {
-        var snbt = SnbtIo.read(new File(directory, "questbook/data.snbt"));
-        return importer.parse(snbt);
+        return importer.parseDirectory(directory.toPath());
+    }
+
+    /**
+     * Reads only the ids and counts of a pack, for previews that do not need the full contents.
+     */
+    public QuestPackSkim skimPack(File directory) throws Exception {
+        return importer.skimDirectory(directory.toPath());
     }
 
     public QuestImportResult importPack(File directory, QuestFile current, ImportOptions options) throws Exception {
@@ -41,6 +104,31 @@ public class SnbtImportExportService {
         var options = ImportOptions.builder()
                 .copyAssets(false)
                 .build();
-        return importer.merge(baseFile, pack, options).questFile();
+        QuestFile questFile = importer.merge(baseFile, pack, options).questFile();
+        SnbtDocument document = readDocument(directory.toPath());
+        synchronized (this) {
+            source = document != null ? new PackSource(document, questFile) : null;
+        }
+        return questFile;
+    }
+
+    /**
+     * The document of a pack stored as a lone {@code data.snbt} with its chapters inline, or {@code null} for
+     * split packs and files that cannot be read.
+     */
+    private static SnbtDocument readDocument(Path directory) {
+        Path root = SnbtQuestDirectoryReader.locate(directory).orElse(null);
+        if (root == null || Files.isDirectory(root.resolve("chapters"))) {
+            return null;
+        }
+        try {
+            SnbtDocument document = SnbtDocument.read(root.resolve("data.snbt"));
+            return document.root().getList("chapters") != null ? document : null;
+        } catch (IOException | SnbtParseException ex) {
+            return null;
+        }
+    }
+
+    private record PackSource(SnbtDocument document, QuestFile questFile) {
     }
 }
@@ -0,0 +1,195 @@
+package dev.ftbq.editor.services.version;
+
+import dev.ftbq.editor.domain.ItemRef;
+import dev.ftbq.editor.domain.version.ItemCatalog;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Read-only overlay of item catalogs. Later layers shadow earlier ones: an id resolves to the item of the
+ * topmost layer that contains it, while iteration keeps the position of the id's first occurrence, which
+ * matches merging the catalogs bottom-up into a {@link java.util.LinkedHashMap}.
+ * <p>
+ * Nothing is copied into a merged list. Each {@link Layer} indexes its catalog once, and layers are
+ * immutable, so overlays that differ by one catalog share the indexes of all the others.
+ */
+final class LayeredItemCatalog implements ItemCatalog {
+
+    private final List<Layer> layers;
+    private final Collection<ItemRef> view = new OverlayView();
+    private int size = -1;
+
+    LayeredItemCatalog(List<Layer> layers) {
+        this.layers = List.copyOf(layers);
+    }
+
+    List<Layer> layers() {
+        return layers;
+    }
+
+    @Override
+    public Collection<ItemRef> items() {
+        return view;
+    }
+
+    @Override
+    public Optional<ItemRef> find(String itemId) {
+        return Optional.ofNullable(resolve(itemId));
+    }
+
+    @Override
+    public boolean exists(String itemId) {
+        if (itemId == null) {
+            return false;
+        }
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            if (layers.get(i).index.containsKey(itemId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ItemRef resolve(String itemId) {
+        if (itemId == null) {
+            return null;
+        }
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            ItemRef item = layers.get(i).index.get(itemId);
+            if (item != null) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether a layer below {@code layer} already contains the id, in which case the id was emitted there.
+     */
+    private boolean emittedBelow(int layer, String itemId) {
+        for (int i = 0; i < layer; i++) {
+            if (layers.get(i).index.containsKey(itemId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One catalog with its id index. Ids listed more than once keep their first position and last value.
+     */
+    static final class Layer {
+        private final ItemCatalog catalog;
+        private final long revision;
+        private final List<String> order;
+        private final Map<String, ItemRef> index;
+
+        Layer(ItemCatalog catalog) {
+            this.catalog = Objects.requireNonNull(catalog, "catalog");
+            this.revision = catalog.revision();
+            Collection<ItemRef> items = catalog.items();
+            int expected = items != null ? items.size() : 0;
+            Map<String, ItemRef> byId = new HashMap<>(Math.max(16, expected * 4 / 3 + 1));
+            List<String> ids = new ArrayList<>(expected);
+            if (items != null) {
+                for (ItemRef item : items) {
+                    if (item != null && byId.put(item.itemId(), item) == null) {
+                        ids.add(item.itemId());
+                    }
+                }
+            }
+            this.order = Collections.unmodifiableList(ids);
+            this.index = byId;
+        }
+
+        ItemCatalog catalog() {
+            return catalog;
+        }
+
+        /**
+         * Whether this layer still reflects {@code candidate}: same instance, same revision.
+         */
+        boolean isFor(ItemCatalog candidate) {
+            return candidate == catalog && candidate.revision() == revision;
+        }
+
+        int size() {
+            return order.size();
+        }
+    }
+
+    private final class OverlayView extends AbstractCollection<ItemRef> {
+        @Override
+        public Iterator<ItemRef> iterator() {
+            return new OverlayIterator();
+        }
+
+        @Override
+        public int size() {
+            int cached = size;
+            if (cached < 0) {
+                int count = 0;
+                for (int layer = 0; layer < layers.size(); layer++) {
+                    if (layer == 0) {
+                        count += layers.get(0).size();
+                        continue;
+                    }
+                    for (String id : layers.get(layer).order) {
+                        if (!emittedBelow(layer, id)) {
+                            count++;
+                        }
+                    }
+                }
+                size = cached = count;
+            }
+            return cached;
+        }
+
+        @Override
+        public boolean contains(Object candidate) {
+            return candidate instanceof ItemRef item && item.equals(resolve(item.itemId()));
+        }
+    }
+
+    private final class OverlayIterator implements Iterator<ItemRef> {
+        private int layer;
+        private int position;
+        private ItemRef next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && layer < layers.size()) {
+                List<String> order = layers.get(layer).order;
+                if (position >= order.size()) {
+                    layer++;
+                    position = 0;
+                    continue;
+                }
+                String id = order.get(position++);
+                if (layer == 0 || !emittedBelow(layer, id)) {
+                    next = resolve(id);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public ItemRef next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ItemRef result = next;
+            next = null;
+            return result;
+        }
+    }
+}
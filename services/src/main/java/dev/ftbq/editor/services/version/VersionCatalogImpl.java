@@ -1,16 +1,13 @@
 package dev.ftbq.editor.services.version;
 
-import dev.ftbq.editor.domain.ItemRef;
 import dev.ftbq.editor.domain.version.ItemCatalog;
 import dev.ftbq.editor.domain.version.MinecraftVersion;
 import dev.ftbq.editor.domain.version.VersionCatalog;
 import dev.ftbq.editor.services.logging.AppLoggerFactory;
 import dev.ftbq.editor.services.logging.StructuredLogger;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -90,31 +87,55 @@ public class VersionCatalogImpl implements VersionCatalog {
     public ItemCatalog mergeWithMods(List<ItemCatalog> modCatalogs) {
         List<ItemCatalog> sanitizedMods = sanitize(modCatalogs);
         MinecraftVersion version = getActiveVersion();
+        ItemCatalog vanilla = getVanillaItems();
         Snapshot cached = mergedSnapshots.get(version);
-        if (cached != null && cached.matches(sanitizedMods)) {
+        if (cached != null && cached.matches(vanilla, sanitizedMods)) {
             return cached.catalog();
         }
 
-        List<ItemCatalog> catalogsToMerge = new ArrayList<>(1 + sanitizedMods.size());
-        catalogsToMerge.add(getVanillaItems());
-        catalogsToMerge.addAll(sanitizedMods);
-
         ItemCatalog merged;
-        if (catalogsToMerge.size() == 1) {
-            merged = catalogsToMerge.get(0);
+        int reused = 0;
+        if (sanitizedMods.isEmpty()) {
+            merged = vanilla;
         } else {
-            merged = new CombinedItemCatalog(catalogsToMerge);
+            // Layers whose catalog is unchanged keep their index, so adding or removing one mod only
+            // indexes that mod.
+            List<LayeredItemCatalog.Layer> previous =
+                    cached != null && cached.catalog() instanceof LayeredItemCatalog layered
+                            ? layered.layers()
+                            : List.of();
+            List<LayeredItemCatalog.Layer> layers = new ArrayList<>(1 + sanitizedMods.size());
+            layers.add(reuseOrIndex(vanilla, previous));
+            for (ItemCatalog mod : sanitizedMods) {
+                layers.add(reuseOrIndex(mod, previous));
+            }
+            for (LayeredItemCatalog.Layer layer : layers) {
+                if (previous.contains(layer)) {
+                    reused++;
+                }
+            }
+            merged = new LayeredItemCatalog(layers);
         }
 
-        mergedSnapshots.put(version, new Snapshot(sanitizedMods, merged));
+        mergedSnapshots.put(version, new Snapshot(vanilla, sanitizedMods, merged));
         int resultCount = merged.items() != null ? merged.items().size() : 0;
         logger.info("Merged item catalogs",
                 StructuredLogger.field("version", version),
                 StructuredLogger.field("mods", sanitizedMods.size()),
+                StructuredLogger.field("reusedLayers", reused),
                 StructuredLogger.field("resultItems", resultCount));
         return merged;
     }
 
+    private static LayeredItemCatalog.Layer reuseOrIndex(ItemCatalog catalog, List<LayeredItemCatalog.Layer> previous) {
+        for (LayeredItemCatalog.Layer layer : previous) {
+            if (layer.isFor(catalog)) {
+                return layer;
+            }
+        }
+        return new LayeredItemCatalog.Layer(catalog);
+    }
+
     /**
      * Clears all cached merged snapshots. Should be invoked when mod jars are rescanned
      * to ensure fresh catalog data is produced on the next merge operation.
@@ -140,39 +161,44 @@ public class VersionCatalogImpl implements VersionCatalog {
         return List.copyOf(sanitized);
     }
 
-    private static final class CombinedItemCatalog implements ItemCatalog {
-        private final List<ItemRef> items;
-
-        private CombinedItemCatalog(List<ItemCatalog> catalogs) {
-            Map<String, ItemRef> merged = new LinkedHashMap<>();
-            for (ItemCatalog catalog : catalogs) {
-                Collection<ItemRef> sourceItems = catalog.items();
-                if (sourceItems == null) {
-                    continue;
-                }
-                for (ItemRef item : sourceItems) {
-                    if (item != null) {
-                        merged.put(item.itemId(), item);
-                    }
-                }
+    /**
+     * Merge result together with the layers it was built from. Layers are compared by identity and
+     * {@link ItemCatalog#revision()}, so checking a snapshot never walks the items.
+     */
+    private static final class Snapshot {
+        private final ItemCatalog vanilla;
+        private final long vanillaRevision;
+        private final ItemCatalog[] modCatalogs;
+        private final long[] modRevisions;
+        private final ItemCatalog catalog;
+
+        private Snapshot(ItemCatalog vanilla, List<ItemCatalog> modCatalogs, ItemCatalog catalog) {
+            this.vanilla = Objects.requireNonNull(vanilla, "vanilla");
+            this.vanillaRevision = vanilla.revision();
+            this.modCatalogs = modCatalogs.toArray(ItemCatalog[]::new);
+            this.modRevisions = new long[this.modCatalogs.length];
+            for (int i = 0; i < this.modCatalogs.length; i++) {
+                modRevisions[i] = this.modCatalogs[i].revision();
             }
-            this.items = List.copyOf(merged.values());
+            this.catalog = Objects.requireNonNull(catalog, "catalog");
         }
 
-        @Override
-        public Collection<ItemRef> items() {
-            return items;
+        ItemCatalog catalog() {
+            return catalog;
         }
-    }
 
-    private record Snapshot(List<ItemCatalog> modCatalogs, ItemCatalog catalog) {
-        Snapshot {
-            Objects.requireNonNull(modCatalogs, "modCatalogs");
-            Objects.requireNonNull(catalog, "catalog");
-        }
-
-        boolean matches(List<ItemCatalog> otherModCatalogs) {
-            return modCatalogs.equals(otherModCatalogs);
+        boolean matches(ItemCatalog otherVanilla, List<ItemCatalog> otherModCatalogs) {
+            if (otherVanilla != vanilla || otherVanilla.revision() != vanillaRevision
+                    || otherModCatalogs.size() != modCatalogs.length) {
+                return false;
+            }
+            for (int i = 0; i < modCatalogs.length; i++) {
+                ItemCatalog other = otherModCatalogs.get(i);
+                if (other != modCatalogs[i] || other.revision() != modRevisions[i]) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 }
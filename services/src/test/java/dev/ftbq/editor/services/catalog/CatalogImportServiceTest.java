@@ -1,18 +1,30 @@
 package dev.ftbq.editor.services.catalog;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import dev.ftbq.editor.ingest.IngestionMonitor;
 import dev.ftbq.editor.ingest.ItemCatalog;
 import dev.ftbq.editor.ingest.ItemMeta;
 import dev.ftbq.editor.services.logging.AppLoggerFactory;
 import dev.ftbq.editor.store.Jdbc;
 import dev.ftbq.editor.store.StoreDao;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class CatalogImportServiceTest {
 
@@ -129,4 +141,167 @@ class CatalogImportServiceTest {
             assertNotNull(sortedByMod.get(2).modId());
         }
     }
+
+    @Test
+    void rescanSkipsUnchangedJarsAndDiffsChangedOnes(@TempDir Path tempDir) throws Exception {
+        Path modsDir = Files.createDirectories(tempDir.resolve("mods"));
+        Path alphaJar = modsDir.resolve("alpha.jar");
+        Path betaJar = modsDir.resolve("beta.jar");
+        writeModJar(alphaJar, "alpha", "{\"item.alpha.sword\":\"Alpha Sword\"}");
+        writeModJar(betaJar, "beta", "{\"item.beta.wand\":\"Beta Wand\",\"item.beta.staff\":\"Beta Staff\"}");
+
+        clearCache();
+        try (Connection connection = Jdbc.openInMemory()) {
+            StoreDao dao = new StoreDao(connection);
+            CatalogImportService importer = new CatalogImportService(
+                    dao,
+                    AppLoggerFactory.create().create(CatalogImportService.class));
+
+            assertEquals(1, importer.ingestJar(alphaJar, "1.20.1").inserted());
+            assertEquals(2, importer.ingestJar(betaJar, "1.20.1").inserted());
+
+            CatalogImportService.RescanSummary unchanged = importer.rescanIngestedJars();
+            assertEquals(2, unchanged.jarsSkipped());
+            assertEquals(0, unchanged.jarsIngested());
+
+            writeModJar(betaJar, "beta", "{\"item.beta.wand\":\"Beta Wand II\",\"item.beta.orb\":\"Beta Orb\"}");
+            CatalogImportService.RescanSummary changed = importer.rescanIngestedJars();
+            assertEquals(1, changed.jarsSkipped());
+            assertEquals(1, changed.jarsIngested());
+            assertEquals(1, changed.rowsInserted());
+            assertEquals(1, changed.rowsUpdated());
+            assertEquals(1, changed.rowsDeleted());
+            assertEquals("Beta Wand II", dao.findItemById("beta:wand").orElseThrow().displayName());
+            assertFalse(dao.findItemById("beta:staff").isPresent());
+            assertTrue(dao.findItemById("beta:orb").isPresent());
+
+            Files.delete(alphaJar);
+            CatalogImportService.RescanSummary removed = importer.rescanIngestedJars();
+            assertEquals(1, removed.jarsRemoved());
+            assertFalse(dao.findItemById("alpha:sword").isPresent());
+            assertTrue(dao.findIngestionManifest(alphaJar.toAbsolutePath().normalize().toString()).isEmpty());
+        } finally {
+            clearCache();
+        }
+    }
+
+    @Test
+    void resolvesNestedTagsDefinedByAnotherJar(@TempDir Path tempDir) throws Exception {
+        Path modsDir = Files.createDirectories(tempDir.resolve("mods"));
+        Path alphaJar = modsDir.resolve("alpha.jar");
+        Path betaJar = modsDir.resolve("beta.jar");
+        writeModJar(alphaJar, "alpha", "{\"item.alpha.ingot\":\"Alpha Ingot\"}",
+                Map.of("data/alpha/tags/items/ingots.json", "{\"values\":[\"alpha:ingot\"]}"));
+        writeModJar(betaJar, "beta", "{\"item.beta.coin\":\"Beta Coin\"}",
+                Map.of("data/beta/tags/items/payment.json", "{\"values\":[\"beta:coin\",\"#alpha:ingots\"]}"));
+
+        clearCache();
+        try (Connection connection = Jdbc.openInMemory()) {
+            StoreDao dao = new StoreDao(connection);
+            AppLoggerFactory loggerFactory = AppLoggerFactory.create();
+            CatalogImportService importer = new CatalogImportService(dao, loggerFactory);
+
+            importer.ingestJar(alphaJar, "1.20.1");
+            importer.ingestJar(betaJar, "1.20.1");
+            assertEquals("[\"alpha:ingots\",\"beta:payment\"]", dao.findItemById("alpha:ingot").orElseThrow().tags());
+            assertEquals("[\"beta:payment\"]", dao.findItemById("beta:coin").orElseThrow().tags());
+
+            // Only beta changes; alpha is skipped but its item loses the tag beta no longer nests
+            writeModJar(betaJar, "beta", "{\"item.beta.coin\":\"Beta Coin\"}",
+                    Map.of("data/beta/tags/items/payment.json", "{\"values\":[\"beta:coin\"]}"));
+            CatalogImportService.RescanSummary changed = importer.rescanIngestedJars();
+            assertEquals(1, changed.jarsSkipped());
+            assertEquals("[\"alpha:ingots\"]", dao.findItemById("alpha:ingot").orElseThrow().tags());
+
+            // A new service instance reads the tag definitions of unchanged jars from their manifests
+            CatalogImportService restarted = new CatalogImportService(dao, loggerFactory);
+            writeModJar(betaJar, "beta", "{\"item.beta.coin\":\"Beta Coin\"}",
+                    Map.of("data/beta/tags/items/payment.json", "{\"values\":[\"#alpha:ingots\"]}"));
+            CatalogImportService.JarIngestResult result = restarted.ingestJar(betaJar, "1.20.1");
+            assertFalse(result.skipped());
+            assertEquals("[\"alpha:ingots\",\"beta:payment\"]", dao.findItemById("alpha:ingot").orElseThrow().tags());
+            assertNull(dao.findItemById("beta:coin").orElseThrow().tags());
+        } finally {
+            clearCache();
+        }
+    }
+
+    @Test
+    void keepsCatalogTagsWhenAJarTagsTheItemAfterRestart(@TempDir Path tempDir) throws Exception {
+        Path alphaJar = Files.createDirectories(tempDir.resolve("mods")).resolve("alpha.jar");
+        writeModJar(alphaJar, "alpha", "{}",
+                Map.of("data/alpha/tags/items/wood.json", "{\"values\":[\"minecraft:oak_planks\"]}"));
+
+        clearCache();
+        try (Connection connection = Jdbc.openInMemory()) {
+            StoreDao dao = new StoreDao(connection);
+            AppLoggerFactory loggerFactory = AppLoggerFactory.create();
+            ItemMeta planks = new ItemMeta("minecraft:oak_planks", "Oak Planks", "minecraft", "block", true,
+                    "minecraft:block/oak_planks", null, "minecraft", "Minecraft", "1.20.1");
+            new CatalogImportService(dao, loggerFactory).importCatalog(new ItemCatalog("minecraft.jar", "1.20.1",
+                    true, List.of(planks), Map.of("minecraft:planks", List.of("minecraft:oak_planks"))));
+
+            // The vanilla tag definitions are read back from the store by a new service instance
+            CatalogImportService restarted = new CatalogImportService(dao, loggerFactory);
+            restarted.ingestJar(alphaJar, "1.20.1");
+            assertEquals("[\"alpha:wood\",\"minecraft:planks\"]",
+                    dao.findItemById("minecraft:oak_planks").orElseThrow().tags());
+        } finally {
+            clearCache();
+        }
+    }
+
+    @Test
+    void remembersTheFingerprintOfImportedCatalogs() throws Exception {
+        try (Connection connection = Jdbc.openInMemory()) {
+            StoreDao dao = new StoreDao(connection);
+            AppLoggerFactory loggerFactory = AppLoggerFactory.create();
+            CatalogImportService importer = new CatalogImportService(dao, loggerFactory);
+            ItemMeta stone = new ItemMeta("minecraft:stone", "Stone", "minecraft", "block", true,
+                    "minecraft:block/stone", null, "minecraft", "Minecraft", "1.20.1");
+            ItemCatalog catalog = new ItemCatalog("1.20.1.jar", "1.20.1", true, List.of(stone), Map.of());
+
+            assertFalse(importer.isCatalogImported("vanilla_1.20.1.ftbc:10:1"));
+            importer.importCatalog(catalog, "vanilla_1.20.1.ftbc:10:1", IngestionMonitor.NONE);
+            assertTrue(new CatalogImportService(dao, loggerFactory).isCatalogImported("vanilla_1.20.1.ftbc:10:1"));
+
+            importer.importCatalog(catalog, "vanilla_1.20.1.ftbc:12:2", IngestionMonitor.NONE);
+            assertFalse(importer.isCatalogImported("vanilla_1.20.1.ftbc:10:1"));
+            assertTrue(importer.isCatalogImported("vanilla_1.20.1.ftbc:12:2"));
+        }
+    }
+
+    private static void writeModJar(Path jar, String namespace, String lang) throws IOException {
+        writeModJar(jar, namespace, lang, Map.of());
+    }
+
+    private static void writeModJar(Path jar, String namespace, String lang, Map<String, String> files)
+            throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+            zip.putNextEntry(new ZipEntry("assets/" + namespace + "/lang/en_us.json"));
+            zip.write(lang.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                zip.putNextEntry(new ZipEntry(file.getKey()));
+                zip.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private static void clearCache() throws IOException {
+        Path cacheRoot = Path.of(".cache");
+        if (!Files.exists(cacheRoot)) {
+            return;
+        }
+        try (var paths = Files.walk(cacheRoot)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,169 @@
+package dev.ftbq.editor.services.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.ftbq.editor.services.bus.EventBus;
+import dev.ftbq.editor.services.events.IngestionJobFinished;
+import dev.ftbq.editor.services.events.IngestionProgressed;
+import dev.ftbq.editor.services.logging.AppLoggerFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IngestionJobSchedulerTest {
+
+    private EventBus eventBus;
+    private IngestionJobScheduler scheduler;
+    private final List<IngestionJobFinished> finished = new CopyOnWriteArrayList<>();
+    private final List<IngestionProgressed> progress = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new EventBus();
+        eventBus.subscribe(IngestionJobFinished.class, finished::add);
+        eventBus.subscribe(IngestionProgressed.class, progress::add);
+        scheduler = new IngestionJobScheduler(eventBus,
+                AppLoggerFactory.create().create(IngestionJobScheduler.class), 1, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void runsQueuedJobsByPriorityThenSubmissionOrder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        IngestionJob<Void> blocker = scheduler.submit("blocker", IngestionJob.Priority.NORMAL, monitor -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        awaitRunning(blocker);
+
+        IngestionJob<String> low = scheduler.submit("low", IngestionJob.Priority.LOW, record(order, "low"));
+        IngestionJob<String> normal = scheduler.submit("normal", IngestionJob.Priority.NORMAL, record(order, "normal"));
+        IngestionJob<String> high = scheduler.submit("high", IngestionJob.Priority.HIGH, record(order, "high"));
+        release.countDown();
+
+        low.result().get(5, TimeUnit.SECONDS);
+        assertEquals("high", high.result().get());
+        assertEquals("normal", normal.result().get());
+        assertEquals(List.of("high", "normal", "low"), order);
+        assertEquals(IngestionJob.State.COMPLETED, low.state());
+    }
+
+    @Test
+    void rejectsSecondJobForActiveSource() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IngestionJob<Void> job = scheduler.submit("mods", IngestionJob.Priority.NORMAL, monitor -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> scheduler.submit("mods", IngestionJob.Priority.HIGH, monitor -> null));
+        assertTrue(scheduler.activeJob("mods").isPresent());
+
+        release.countDown();
+        job.result().get(5, TimeUnit.SECONDS);
+        awaitFinished(1);
+        assertFalse(scheduler.activeJob("mods").isPresent());
+        scheduler.submit("mods", IngestionJob.Priority.NORMAL, monitor -> null).result().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void cancellingRunningJobStopsAtNextEntry() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        IngestionJob<Integer> job = scheduler.submit("mods", IngestionJob.Priority.NORMAL, monitor -> {
+            monitor.jarsDiscovered(1);
+            int entries = 0;
+            while (true) {
+                monitor.entryProcessed(128);
+                entries++;
+                started.countDown();
+                Thread.sleep(1);
+                if (entries > 100_000) {
+                    return entries;
+                }
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(job.cancel());
+
+        assertThrows(CancellationException.class, () -> job.result().join());
+        awaitFinished(1);
+        assertEquals(IngestionJob.State.CANCELLED, job.state());
+        assertEquals(IngestionJob.State.CANCELLED, finished.get(0).state());
+        assertFalse(progress.isEmpty());
+        assertTrue(progress.get(progress.size() - 1).bytesProcessed() > 0);
+    }
+
+    @Test
+    void cancellingQueuedJobNeverRunsIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IngestionJob<Void> blocker = scheduler.submit("blocker", IngestionJob.Priority.NORMAL, monitor -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        awaitRunning(blocker);
+        List<String> order = new CopyOnWriteArrayList<>();
+        IngestionJob<String> queued = scheduler.submit("queued", IngestionJob.Priority.HIGH, record(order, "queued"));
+
+        assertTrue(queued.cancel());
+        release.countDown();
+        blocker.result().get(5, TimeUnit.SECONDS);
+
+        assertEquals(IngestionJob.State.CANCELLED, queued.state());
+        assertTrue(queued.result().isCompletedExceptionally());
+        assertTrue(order.isEmpty());
+    }
+
+    @Test
+    void failingTaskIsReportedAsFailed() throws Exception {
+        IngestionJob<Void> job = scheduler.submit("broken.jar", IngestionJob.Priority.NORMAL, monitor -> {
+            throw new java.io.IOException("corrupt archive");
+        });
+
+        CompletionException error = assertThrows(CompletionException.class, () -> job.result().join());
+        assertEquals("corrupt archive", error.getCause().getMessage());
+        awaitFinished(1);
+        assertEquals(IngestionJob.State.FAILED, finished.get(0).state());
+        assertEquals("corrupt archive", finished.get(0).error());
+    }
+
+    private static IngestionJobScheduler.IngestionTask<String> record(List<String> order, String name) {
+        return monitor -> {
+            order.add(name);
+            return name;
+        };
+    }
+
+    private static void awaitRunning(IngestionJob<?> job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job.state() == IngestionJob.State.QUEUED && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(IngestionJob.State.RUNNING, job.state());
+    }
+
+    private void awaitFinished(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (finished.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, finished.size());
+    }
+}
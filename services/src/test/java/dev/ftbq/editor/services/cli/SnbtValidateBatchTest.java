@@ -0,0 +1,124 @@
+package dev.ftbq.editor.services.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+
+class SnbtValidateBatchTest {
+
+    private static final String VALID_PACK = """
+            {id:"pack", title:"Pack", chapters:[{id:"c1", title:"One", icon:"minecraft:book",
+              background:"minecraft:textures/gui/book.png", quests:[{id:"q1", title:"Quest", icon:"minecraft:apple",
+              tasks:[{type:"item", item:{id:"minecraft:stone"}}], rewards:[]}]}]}
+            """;
+    private static final String INVALID_PACK = "{id:\"pack\", title:\"Pack <&>\", chapters:[{id:\"c1\"}]}";
+
+    @Test
+    void expandsDirectoriesAndGlobPatterns(@TempDir Path tempDir) throws Exception {
+        Path first = write(tempDir.resolve("b/questbook/data.snbt"), VALID_PACK);
+        Path second = write(tempDir.resolve("a/data.snbt"), VALID_PACK);
+        write(tempDir.resolve("a/chapters/c1.snbt"), "{}");
+        Path loose = write(tempDir.resolve("c/extra.snbt"), VALID_PACK);
+
+        List<String> problems = new ArrayList<>();
+        assertEquals(List.of(second, first), SnbtValidateBatch.expand(tempDir.toString(), problems));
+        assertEquals(List.of(loose), SnbtValidateBatch.expand(tempDir + "/*/extra.snbt", problems));
+        assertEquals(List.of(second.toAbsolutePath(), first.toAbsolutePath()),
+                SnbtValidateBatch.expand(tempDir + "/**/data.snbt", problems));
+        assertTrue(problems.isEmpty(), problems::toString);
+
+        SnbtValidateBatch.expand(tempDir + "/missing/*.snbt", problems);
+        SnbtValidateBatch.expand(tempDir.resolve("nope.snbt").toString(), problems);
+        assertEquals(2, problems.size(), problems::toString);
+    }
+
+    @Test
+    void streamsJsonLinesInArgumentOrder(@TempDir Path tempDir) throws Exception {
+        List<String> targets = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            targets.add(write(tempDir.resolve("pack" + i + ".snbt"), i % 5 == 3 ? INVALID_PACK : VALID_PACK).toString());
+        }
+        targets.add(tempDir.resolve("missing.snbt").toString());
+        List<String> args = new ArrayList<>(List.of("--format", "jsonl", "--parallelism=4"));
+        args.addAll(targets);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int exitCode = SnbtValidateBatch.run(SnbtValidateBatch.parse(args.toArray(String[]::new)),
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(new ByteArrayOutputStream()));
+
+        assertEquals(SnbtValidateBatch.EXIT_INVALID, exitCode);
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(mapper.readTree(line));
+        }
+        assertEquals(13, lines.size());
+        for (int i = 0; i < 12; i++) {
+            JsonNode line = lines.get(i);
+            assertEquals(targets.get(i), line.get("file").asText());
+            assertEquals(i % 5 == 3 ? "errors" : "ok", line.get("status").asText());
+            assertTrue(line.get("millis").asLong() >= 0);
+        }
+        assertTrue(lines.get(3).get("issues").size() > 0);
+        JsonNode summary = lines.get(12);
+        assertEquals("summary", summary.get("type").asText());
+        assertEquals(12, summary.get("files").asInt());
+        assertEquals(2, summary.get("withErrors").asInt());
+        assertEquals(1, summary.get("unmatched").asInt());
+        assertEquals(4, summary.get("parallelism").asInt());
+    }
+
+    @Test
+    void writesJUnitXmlAndExitsCleanWhenValid(@TempDir Path tempDir) throws Exception {
+        Path valid = write(tempDir.resolve("valid/data.snbt"), VALID_PACK);
+        Path report = tempDir.resolve("report.xml");
+
+        int exitCode = SnbtValidateBatch.run(SnbtValidateBatch.parse(new String[] {
+                "--batch", "--format=junit", "--output", report.toString(), valid.getParent().toString()}),
+                new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream()));
+        assertEquals(SnbtValidateBatch.EXIT_OK, exitCode);
+
+        write(tempDir.resolve("invalid/data.snbt"), INVALID_PACK);
+        exitCode = SnbtValidateBatch.run(SnbtValidateBatch.parse(new String[] {
+                "--format=junit", "--output=" + report, tempDir.toString()}),
+                new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream()));
+        assertEquals(SnbtValidateBatch.EXIT_INVALID, exitCode);
+
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(Files.readAllBytes(report)));
+        assertEquals("testsuite", document.getDocumentElement().getTagName());
+        assertEquals(2, document.getElementsByTagName("testcase").getLength());
+        assertEquals(1, document.getElementsByTagName("failure").getLength());
+    }
+
+    @Test
+    void rejectsInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> SnbtValidateBatch.parse(new String[] {"--format=xml", "a"}));
+        assertThrows(IllegalArgumentException.class, () -> SnbtValidateBatch.parse(new String[] {"--parallelism=0", "a"}));
+        assertThrows(IllegalArgumentException.class, () -> SnbtValidateBatch.parse(new String[] {"--verbose", "a"}));
+        assertThrows(IllegalArgumentException.class, () -> SnbtValidateBatch.parse(new String[] {"--batch"}));
+        assertThrows(IllegalArgumentException.class, () -> SnbtValidateBatch.parse(new String[] {"a", "--output"}));
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
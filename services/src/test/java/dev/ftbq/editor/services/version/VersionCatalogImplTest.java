@@ -1,11 +1,15 @@
 package dev.ftbq.editor.services.version;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import dev.ftbq.editor.domain.ItemRef;
 import dev.ftbq.editor.domain.version.ItemCatalog;
 import dev.ftbq.editor.domain.version.MinecraftVersion;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -55,17 +59,90 @@ class VersionCatalogImplTest {
         assertNotSame(merged, rebuilt, "Invalidating snapshots should force cache rebuild");
     }
 
+    @Test
+    void overlayResolvesTopmostLayerAndKeepsFirstSeenOrder() {
+        VersionCatalogImpl catalog = new VersionCatalogImpl(
+                Map.of(MinecraftVersion.V1_20_1, new TestCatalog(
+                        new ItemRef("minecraft:stone", 1), new ItemRef("minecraft:dirt", 1))),
+                MinecraftVersion.V1_20_1);
+        ItemCatalog modA = new TestCatalog(new ItemRef("mod_a:gear", 1), new ItemRef("minecraft:dirt", 2));
+        ItemCatalog modB = new TestCatalog(new ItemRef("minecraft:dirt", 3), new ItemRef("mod_b:cog", 1));
+
+        ItemCatalog merged = catalog.mergeWithMods(List.of(modA, modB));
+
+        assertEquals(List.of(
+                new ItemRef("minecraft:stone", 1),
+                new ItemRef("minecraft:dirt", 3),
+                new ItemRef("mod_a:gear", 1),
+                new ItemRef("mod_b:cog", 1)), new ArrayList<>(merged.items()));
+        assertEquals(4, merged.items().size());
+        assertEquals(3, merged.find("minecraft:dirt").orElseThrow().count());
+        assertTrue(merged.exists("mod_b:cog"));
+        assertFalse(merged.exists("mod_c:missing"));
+    }
+
+    @Test
+    void addingAModOnlyIndexesThatMod() {
+        TestCatalog vanilla = new TestCatalog(items("minecraft", 100_000));
+        VersionCatalogImpl catalog = new VersionCatalogImpl(Map.of(MinecraftVersion.V1_20_1, vanilla),
+                MinecraftVersion.V1_20_1);
+        TestCatalog modA = new TestCatalog(items("mod_a", 1_000));
+        TestCatalog modB = new TestCatalog(items("mod_b", 1_000));
+
+        ItemCatalog first = catalog.mergeWithMods(List.of(modA));
+        int vanillaReads = vanilla.reads;
+        int modAReads = modA.reads;
+
+        ItemCatalog second = catalog.mergeWithMods(List.of(modA, modB));
+
+        assertEquals(vanillaReads, vanilla.reads, "Vanilla layer should be reused, not re-indexed");
+        assertEquals(modAReads, modA.reads, "Unchanged mod layer should be reused, not re-indexed");
+        assertEquals(101_000, first.items().size());
+        assertEquals(102_000, second.items().size());
+        assertTrue(second.exists("minecraft:item_99999"));
+        assertTrue(second.exists("mod_b:item_0"));
+
+        modA.revision++;
+        ItemCatalog third = catalog.mergeWithMods(List.of(modA, modB));
+        assertNotSame(second, third, "A changed revision must invalidate the snapshot");
+        assertEquals(modAReads + 1, modA.reads);
+    }
+
+    private static List<ItemRef> items(String namespace, int count) {
+        List<ItemRef> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new ItemRef(namespace + ":item_" + i, 1));
+        }
+        return items;
+    }
+
     private static final class TestCatalog implements ItemCatalog {
         private final List<ItemRef> items;
+        private int reads;
+        private long revision;
 
         TestCatalog(String id) {
-            this.items = List.of(new ItemRef(id, 1));
+            this(new ItemRef(id, 1));
+        }
+
+        TestCatalog(ItemRef... items) {
+            this(List.of(items));
+        }
+
+        TestCatalog(List<ItemRef> items) {
+            this.items = List.copyOf(items);
         }
 
         @Override
         public Collection<ItemRef> items() {
+            reads++;
             return items;
         }
+
+        @Override
+        public long revision() {
+            return revision;
+        }
     }
 }
 
@@ -7,15 +7,23 @@ import dev.ftbq.editor.controller.MenuController;
 import dev.ftbq.editor.domain.QuestFile;
 import dev.ftbq.editor.domain.Quest;
 import dev.ftbq.editor.ThemeService;
+import dev.ftbq.editor.domain.version.VersionCatalog;
+import dev.ftbq.editor.ingest.ItemCatalog;
+import dev.ftbq.editor.ingest.VanillaCatalogBootstrap;
 import dev.ftbq.editor.service.UserSettings;
 import dev.ftbq.editor.services.catalog.CatalogImportService;
+import dev.ftbq.editor.services.catalog.IngestionJob;
+import dev.ftbq.editor.services.catalog.IngestionJobScheduler;
 import dev.ftbq.editor.ui.AiQuestCreationTab;
+import dev.ftbq.editor.ui.IngestionProgressWindow;
 import dev.ftbq.editor.controller.QuestEditorDialogController;
 import dev.ftbq.editor.services.UiServiceLocator;
+import dev.ftbq.editor.services.bus.ServiceLocator;
 import dev.ftbq.editor.store.Project;
 import dev.ftbq.editor.store.StoreDaoImpl;
 import dev.ftbq.editor.view.graph.layout.JsonQuestLayoutStore;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -44,6 +52,7 @@ public class MainApp extends Application {
     private QuestFile currentQuestFile;
     private ChapterGroupBrowserController chapterGroupBrowserController;
     private ChapterEditorController chapterEditorController;
+    private IngestionProgressWindow ingestionProgressWindow;
 
     @Override
     public void start(Stage stage) throws Exception {
@@ -124,6 +133,65 @@ public class MainApp extends Application {
         stage.show();
 
         LOGGER.info("UI loaded: " + mainController.getClass().getSimpleName());
+        loadVanillaCatalog();
+        rescanImportedJars();
+    }
+
+    /**
+     * Imports the vanilla catalog that {@link VanillaCatalogBootstrap} generated for the active version, in the
+     * background. Nothing is imported when no catalog was generated or when the catalog file is the one imported
+     * by an earlier session.
+     */
+    private void loadVanillaCatalog() {
+        CatalogImportService importService = UiServiceLocator.getCatalogImportService();
+        VersionCatalog versionCatalog = UiServiceLocator.getVersionCatalog();
+        if (importService == null || versionCatalog == null) {
+            return;
+        }
+        String version = versionCatalog.getActiveVersion().getId();
+        Path artifactsDir = VanillaCatalogBootstrap.artifactsDirectory(workspace);
+        IngestionJob<VanillaImport> job = UiServiceLocator.getIngestionJobScheduler().submit("vanilla_" + version,
+                IngestionJob.Priority.LOW, monitor -> {
+                    Optional<String> fingerprint = VanillaCatalogBootstrap.fingerprint(artifactsDir, version);
+                    if (fingerprint.isPresent() && importService.isCatalogImported(fingerprint.get())) {
+                        return VanillaImport.UNCHANGED;
+                    }
+                    Optional<ItemCatalog> catalog = VanillaCatalogBootstrap.load(artifactsDir, version);
+                    if (catalog.isEmpty()) {
+                        return VanillaImport.MISSING;
+                    }
+                    importService.importCatalog(catalog.get(), fingerprint.orElse(null), monitor);
+                    return VanillaImport.IMPORTED;
+                });
+        job.result().whenComplete((result, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.WARNING, "Failed to load vanilla catalog " + version, error);
+            } else if (result == VanillaImport.IMPORTED) {
+                UiServiceLocator.rebuildVersionCatalog();
+            } else if (result == VanillaImport.MISSING) {
+                LOGGER.info("No vanilla catalog generated for " + version + " in " + artifactsDir);
+            }
+        });
+    }
+
+    /**
+     * Brings the mod JARs imported in earlier sessions up to date in the background: JARs that changed on disk
+     * are ingested again and JARs that were deleted are removed from the catalog.
+     */
+    private void rescanImportedJars() {
+        CatalogImportService importService = UiServiceLocator.getCatalogImportService();
+        if (importService == null) {
+            return;
+        }
+        IngestionJob<CatalogImportService.RescanSummary> job = UiServiceLocator.getIngestionJobScheduler()
+                .submit("imported_jars", IngestionJob.Priority.LOW, importService::rescanIngestedJars);
+        job.result().whenComplete((summary, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.WARNING, "Failed to rescan imported mod jars", error);
+            } else if (summary.jarsIngested() > 0 || summary.jarsRemoved() > 0) {
+                UiServiceLocator.rebuildVersionCatalog();
+            }
+        });
     }
 
     private Project initStore() {
@@ -200,32 +268,42 @@ public class MainApp extends Application {
         Path jarPath = selectedFile.toPath();
         LOGGER.info("Importing mod jar: " + jarPath);
 
-        try {
-            CatalogImportService importService = UiServiceLocator.getCatalogImportService();
-            String version = "unknown";
-
-            importService.importEntitiesFromJar(jarPath, version);
-
-            dev.ftbq.editor.ingest.ItemCatalog itemCatalog = new dev.ftbq.editor.ingest.ItemCatalog(
-                    jarPath.toString(),
-                    version,
-                    false,
-                    dev.ftbq.editor.ingest.JarScanner.extractProxyItems(jarPath, version),
-                    java.util.Map.of()
-            );
-            importService.importCatalog(itemCatalog);
-
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Import Complete");
-            alert.setHeaderText("Mod JAR imported successfully");
-            alert.setContentText("Items and entities from " + selectedFile.getName() + " are now available in the browsers.");
-            alert.initOwner(getPrimaryStage());
-            alert.showAndWait();
+        CatalogImportService importService = UiServiceLocator.getCatalogImportService();
+        String version = "unknown";
+        String source = jarPath.toAbsolutePath().normalize().toString();
+        IngestionJobScheduler scheduler = UiServiceLocator.getIngestionJobScheduler();
+        if (scheduler.activeJob(source).isPresent()) {
+            showError("Import In Progress", selectedFile.getName() + " is already being imported.");
+            return;
+        }
 
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Failed to import mod jar", e);
-            showError("Import Failed", "Failed to import mod jar: " + e.getMessage());
+        // Items, proxy items and entities are extracted first and written in one transaction at the end,
+        // so cancelling or failing part way leaves the store as it was
+        IngestionJob<CatalogImportService.JarIngestResult> job = scheduler.submit(source, IngestionJob.Priority.HIGH,
+                monitor -> importService.ingestJar(jarPath, version, monitor));
+        ingestionProgressWindow().track(job, "Importing " + selectedFile.getName());
+        job.result().whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Import Complete");
+                alert.setHeaderText("Mod JAR imported successfully");
+                alert.setContentText("Items and entities from " + selectedFile.getName() + " are now available in the browsers.");
+                alert.initOwner(getPrimaryStage());
+                alert.showAndWait();
+            } else if (job.state() != IngestionJob.State.CANCELLED) {
+                Throwable cause = error instanceof java.util.concurrent.CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                LOGGER.log(Level.WARNING, "Failed to import mod jar", cause);
+                showError("Import Failed", "Failed to import mod jar: " + cause.getMessage());
+            }
+        }));
+    }
+
+    private IngestionProgressWindow ingestionProgressWindow() {
+        if (ingestionProgressWindow == null) {
+            ingestionProgressWindow = new IngestionProgressWindow(ServiceLocator.eventBus(), getPrimaryStage());
         }
+        return ingestionProgressWindow;
     }
 
     public void loadProject() {
@@ -347,4 +425,10 @@ public class MainApp extends Application {
         }
         alert.showAndWait();
     }
+
+    private enum VanillaImport {
+        IMPORTED,
+        UNCHANGED,
+        MISSING
+    }
 }
@@ -1,18 +1,21 @@
 package dev.ftbq.editor.controller;
 
+import dev.ftbq.editor.domain.Chapter;
 import dev.ftbq.editor.domain.ChapterGroup;
+import dev.ftbq.editor.domain.Quest;
 import dev.ftbq.editor.domain.QuestFile;
 import dev.ftbq.editor.importer.snbt.model.ImportConflictPolicy;
 import dev.ftbq.editor.importer.snbt.model.ImportOptions;
-import dev.ftbq.editor.importer.snbt.model.ImportedQuestPack;
 import dev.ftbq.editor.importer.snbt.model.QuestImportResult;
-import dev.ftbq.editor.importer.snbt.model.QuestImportSummary;
+import dev.ftbq.editor.importer.snbt.model.QuestPackSkim;
 import dev.ftbq.editor.services.io.SnbtImportExportService;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
@@ -58,8 +61,8 @@ public class ImportSnbtDialog extends Dialog<QuestImportResult> {
     private final Button importButton;
 
     private File selectedDirectory;
-    private ImportedQuestPack previewPack;
-    private QuestImportSummary previewSummary;
+    private File skimmedDirectory;
+    private QuestPackSkim previewSkim;
     private QuestImportResult importResult;
 
     public ImportSnbtDialog(Stage owner,
@@ -181,29 +184,56 @@ public class ImportSnbtDialog extends Dialog<QuestImportResult> {
             return;
         }
         try {
-            previewPack = importService.previewPack(selectedDirectory);
-            QuestImportResult result = importService.importPack(selectedDirectory, currentQuestFile, createOptions(false));
-            previewSummary = result.summary();
-            updatePreviewTree(previewSummary);
-            updateWarnings(previewSummary);
-            packInfoLabel.setText("Pack " + previewPack.title() + " (schema " + previewPack.schemaVersion() + ")");
-            summaryLabel.setText(buildSummaryLine(previewSummary));
+            // Previews only skim ids and counts; the full pack is parsed once, when importing.
+            if (previewSkim == null || !selectedDirectory.equals(skimmedDirectory)) {
+                previewSkim = importService.skimPack(selectedDirectory);
+                skimmedDirectory = selectedDirectory;
+            }
+            PreviewCounts counts = updatePreviewTree(previewSkim);
+            warningList.setItems(FXCollections.observableArrayList(previewSkim.warnings()));
+            packInfoLabel.setText("Pack " + previewSkim.title() + " (schema " + previewSkim.schemaVersion() + "): "
+                    + previewSkim.chapters().size() + " chapters, " + previewSkim.questCount() + " quests, "
+                    + previewSkim.taskCount() + " tasks, " + previewSkim.rewardCount() + " rewards");
+            summaryLabel.setText(buildSummaryLine(counts));
             importButton.setDisable(false);
         } catch (Exception ex) {
+            previewSkim = null;
+            skimmedDirectory = null;
             showError("Failed to preview SNBT", ex.getMessage());
             importButton.setDisable(true);
         }
     }
 
-    private void updatePreviewTree(QuestImportSummary summary) {
+    private PreviewCounts updatePreviewTree(QuestPackSkim skim) {
+        Set<String> existingChapters = new HashSet<>();
+        Set<String> existingQuests = new HashSet<>();
+        for (Chapter chapter : currentQuestFile.chapters()) {
+            existingChapters.add(chapter.id());
+            for (Quest quest : chapter.quests()) {
+                existingQuests.add(quest.id());
+            }
+        }
+        List<String> newChapters = new ArrayList<>();
+        List<String> conflictingChapters = new ArrayList<>();
+        List<String> newQuests = new ArrayList<>();
+        List<String> conflictingQuests = new ArrayList<>();
+        for (QuestPackSkim.ChapterSkim chapter : skim.chapters()) {
+            String label = chapter.title() + " [" + chapter.id() + "] (" + chapter.questIds().size() + " quests)";
+            (existingChapters.contains(chapter.id().trim()) ? conflictingChapters : newChapters).add(label);
+            for (String questId : chapter.questIds()) {
+                (existingQuests.contains(questId.trim()) ? conflictingQuests : newQuests).add(questId);
+            }
+        }
+
         TreeItem<String> root = new TreeItem<>("Preview");
         root.setExpanded(true);
-        addCategory(root, "Added Chapters", summary.addedChapters(), "+ ");
-        addCategory(root, "Merged Chapters", summary.mergedChapters(), "~ ");
-        addCategory(root, "Added Quests", summary.addedQuests(), "+ ");
-        addCategory(root, "Renamed IDs", summary.renamedIds(), "→ ");
+        addCategory(root, "New Chapters", newChapters, "+ ");
+        addCategory(root, "Existing Chapters, " + chapterPolicyCombo.getValue(), conflictingChapters, "~ ");
+        addCategory(root, "New Quests", newQuests, "+ ");
+        addCategory(root, "Conflicting Quest IDs, " + questPolicyCombo.getValue(), conflictingQuests, "! ");
         previewTree.setRoot(root);
         previewTree.setShowRoot(false);
+        return new PreviewCounts(newChapters.size(), conflictingChapters.size(), newQuests.size(), conflictingQuests.size());
     }
 
     private void addCategory(TreeItem<String> root, String title, List<String> entries, String prefix) {
@@ -218,26 +248,16 @@ public class ImportSnbtDialog extends Dialog<QuestImportResult> {
         root.getChildren().add(item);
     }
 
-    private void updateWarnings(QuestImportSummary summary) {
-        List<String> warnings = new ArrayList<>();
-        if (summary.warnings() != null) {
-            warnings.addAll(summary.warnings());
-        }
-        if (summary.assetWarnings() != null) {
-            warnings.addAll(summary.assetWarnings());
-        }
-        warningList.setItems(FXCollections.observableArrayList(warnings));
-    }
-
-    private String buildSummaryLine(QuestImportSummary summary) {
-        return "Chapters added: " + summary.addedChapters().size()
-                + ", merged: " + summary.mergedChapters().size()
-                + ", quests added: " + summary.addedQuests().size();
+    private String buildSummaryLine(PreviewCounts counts) {
+        return "Chapters new: " + counts.newChapters()
+                + ", existing: " + counts.conflictingChapters()
+                + ", quests new: " + counts.newQuests()
+                + ", conflicting: " + counts.conflictingQuests();
     }
 
     private void onImport(ActionEvent event) {
-        if (selectedDirectory == null || previewPack == null) {
-            showError("Select a quest pack", "Choose a folder containing questbook/data.snbt before importing.");
+        if (selectedDirectory == null || previewSkim == null) {
+            showError("Select a quest pack", "Choose a folder containing questbook/data.snbt or an FTB Quests quests directory before importing.");
             event.consume();
             return;
         }
@@ -280,4 +300,7 @@ public class ImportSnbtDialog extends Dialog<QuestImportResult> {
             return display;
         }
     }
+
+    private record PreviewCounts(int newChapters, int conflictingChapters, int newQuests, int conflictingQuests) {
+    }
 }
@@ -246,7 +246,7 @@ public class ItemBrowserController {
         }
 
         private Optional<Image> fetchIcon(String hash) {
-            return cacheManager.fetchIcon(hash).map(bytes -> new Image(new ByteArrayInputStream(bytes)));
+            return cacheManager.fetchIcon(hash, 32).map(bytes -> new Image(new ByteArrayInputStream(bytes)));
         }
     }
 }
@@ -281,7 +281,7 @@ public class LootTableEditorController {
             imageView.setImage(null);
 
             item.iconHash().ifPresentOrElse(hash -> {
-                loadingTask = CompletableFuture.supplyAsync(() -> cacheManager.fetchIcon(hash)
+                loadingTask = CompletableFuture.supplyAsync(() -> cacheManager.fetchIcon(hash, 32)
                         .map(bytes -> new Image(new ByteArrayInputStream(bytes)))
                         .orElse(null), iconExecutor);
                 loadingTask.thenAcceptAsync(image -> {
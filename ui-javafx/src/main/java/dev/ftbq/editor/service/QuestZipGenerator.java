@@ -1,161 +1,135 @@
 package dev.ftbq.editor.service;
 
-import dev.ftbq.editor.domain.Chapter;
-import dev.ftbq.editor.domain.LootTable;
+import dev.ftbq.editor.concurrent.WorkerPool;
 import dev.ftbq.editor.domain.QuestFile;
+import dev.ftbq.editor.io.exporter.ExportManifest;
 import dev.ftbq.editor.io.snbt.SnbtLangBuilder;
+import dev.ftbq.editor.io.snbt.SnbtPackWriter;
 import dev.ftbq.editor.io.snbt.SnbtQuestMapper;
-import dev.ftbq.editor.io.snbt.SnbtQuestMapper.Fragments;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.zip.ZipEntry;
-import dev.ftbq.editor.domain.HexId;
-import java.util.zip.ZipOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Builds a modpack-ready ftbquests.zip archive from the in-memory quest file.
+ * <p>
+ * Files are rendered straight into the archive; nothing is staged on disk. The compressed entries of each
+ * archive are kept until the next call, which reuses them for every chapter, reward table and language file
+ * whose domain value did not change, so only changed files are rendered and compressed again. A failed call
+ * leaves the entries of the last successful archive in place. Entries are deflated on a shared pool of daemon
+ * threads while later files are rendered, unless another compression executor is given.
  */
 public final class QuestZipGenerator {
+    private static final String ROOT = "quests";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_PENDING = 4 * Runtime.getRuntime().availableProcessors();
 
-    private final SnbtQuestMapper mapper;
+    private final SnbtPackWriter packWriter;
     private final SnbtLangBuilder langBuilder;
+    private final Executor compressionExecutor;
+    private Map<String, CachedEntry> previous = new HashMap<>();
 
     public QuestZipGenerator() {
         this(new SnbtQuestMapper(), new SnbtLangBuilder());
     }
 
     public QuestZipGenerator(SnbtQuestMapper mapper, SnbtLangBuilder langBuilder) {
-        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this(mapper, langBuilder, WorkerPool.shared());
+    }
+
+    /**
+     * @param compressionExecutor deflates archive entries while later files are rendered; entries are still
+     *                            written in order; {@code Runnable::run} compresses them on the calling thread
+     */
+    public QuestZipGenerator(SnbtQuestMapper mapper, SnbtLangBuilder langBuilder, Executor compressionExecutor) {
+        this.packWriter = new SnbtPackWriter(Objects.requireNonNull(mapper, "mapper"));
         this.langBuilder = Objects.requireNonNull(langBuilder, "langBuilder");
+        this.compressionExecutor = Objects.requireNonNull(compressionExecutor, "compressionExecutor");
     }
 
-    public Path generate(QuestFile questFile,
-                         Path workspace,
-                         UserSettings.EditorSettings settings) throws IOException {
+    /**
+     * Writes the archive to {@code ftbquests.zip} in a new temporary directory and returns its path.
+     */
+    public synchronized Path generate(QuestFile questFile,
+                                      Path workspace,
+                                      UserSettings.EditorSettings settings) throws IOException {
         Objects.requireNonNull(questFile, "questFile");
         Objects.requireNonNull(settings, "settings");
 
         Path tempRoot = Files.createTempDirectory("ftbq-quests-");
-        Path baseDir = tempRoot.resolve(HexId.generate());
-        Path questsRoot = baseDir.resolve("quests");
-        Files.createDirectories(questsRoot);
-
-        Fragments fragments = mapper.fragmentsFor(questFile);
-        writeString(questsRoot.resolve("data.snbt"), fragments.data());
-        writeString(questsRoot.resolve("chapter_groups.snbt"), fragments.chapterGroups());
-
-        Path chaptersDir = questsRoot.resolve("chapters");
-        Files.createDirectories(chaptersDir);
-        for (Map.Entry<Chapter, String> entry : fragments.chapters().entrySet()) {
-            String fileName = sanitize(entry.getKey().id(), entry.getKey().title()) + ".snbt";
-            writeString(chaptersDir.resolve(fileName), entry.getValue());
-        }
-
-        Path rewardDir = questsRoot.resolve("reward_tables");
-        Files.createDirectories(rewardDir);
-        for (Map.Entry<LootTable, String> entry : fragments.rewardTables().entrySet()) {
-            String fileName = sanitize(entry.getKey().id(), "reward_table") + ".snbt";
-            writeString(rewardDir.resolve(fileName), entry.getValue());
-        }
-
-        Path langDir = questsRoot.resolve("lang");
-        Files.createDirectories(langDir);
-        populateLanguages(langDir, questFile, workspace, settings);
-
         Path zipFile = tempRoot.resolve("ftbquests.zip");
-        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(zipFile))) {
-            Path base = baseDir;
-            try (var paths = Files.walk(base)) {
-                paths.forEach(path -> {
-                        try {
-                            if (Files.isDirectory(path)) {
-                                if (path.equals(base)) {
-                                    return;
-                                }
-                                String entryName = toZipEntryName(base, path) + "/";
-                                zip.putNextEntry(new ZipEntry(entryName));
-                                zip.closeEntry();
-                            } else {
-                                String entryName = toZipEntryName(base, path);
-                                zip.putNextEntry(new ZipEntry(entryName));
-                                try (InputStream in = Files.newInputStream(path)) {
-                                    in.transferTo(zip);
-                                }
-                                zip.closeEntry();
-                            }
-                        } catch (IOException ex) {
-                            throw new RuntimeException(ex);
-                        }
-                });
-            }
-        } catch (RuntimeException ex) {
-            if (ex.getCause() instanceof IOException io) {
-                throw io;
-            }
+        Map<String, CachedEntry> current = new HashMap<>();
+        try (ZipArchiveWriter zip = new ZipArchiveWriter(
+                new BufferedOutputStream(Files.newOutputStream(zipFile), BUFFER_SIZE), compressionExecutor, MAX_PENDING)) {
+            // Empty directories are part of the archive layout
+            zip.addDirectory(ROOT);
+            zip.addDirectory(ROOT + "/" + SnbtPackWriter.CHAPTERS_DIRECTORY);
+            zip.addDirectory(ROOT + "/" + SnbtPackWriter.REWARD_TABLES_DIRECTORY);
+            zip.addDirectory(ROOT + "/lang");
+            SnbtPackWriter.Sink sink = (path, source, renderer) -> addEntry(zip, current, path, source, renderer);
+            packWriter.write(questFile, sink, ROOT);
+            populateLanguages(sink, questFile, workspace);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(zipFile);
+            Files.deleteIfExists(tempRoot);
             throw ex;
         }
+        previous = current;
         return zipFile;
     }
 
-    private void populateLanguages(Path langDir,
+    /**
+     * Adds one file, reusing the entry compressed by the previous call when {@code source} is unchanged.
+     */
+    private void addEntry(ZipArchiveWriter zip,
+                          Map<String, CachedEntry> current,
+                          String path,
+                          Object source,
+                          ExportManifest.Renderer renderer) throws IOException {
+        CachedEntry cached = previous.get(path);
+        if (source != null && cached != null && source.equals(cached.source())) {
+            zip.add(cached.entry().join());
+            current.put(path, cached);
+            return;
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        renderer.render(content);
+        CompletableFuture<ZipArchiveWriter.Entry> entry = zip.add(path, content.toByteArray());
+        if (source != null) {
+            current.put(path, new CachedEntry(source, entry));
+        }
+    }
+
+    private void populateLanguages(SnbtPackWriter.Sink sink,
                                    QuestFile questFile,
-                                   Path workspace,
-                                   UserSettings.EditorSettings settings) throws IOException {
+                                   Path workspace) throws IOException {
         Path existingLangDir = workspace != null ? workspace.resolve("questbook").resolve("lang") : null;
         Path enSource = existingLangDir != null ? existingLangDir.resolve("en_us.snbt") : null;
         Path zhSource = existingLangDir != null ? existingLangDir.resolve("zh_cn.snbt") : null;
 
-        Path enTarget = langDir.resolve("en_us.snbt");
         if (enSource != null && Files.exists(enSource)) {
-            copyFile(enSource, enTarget);
+            sink.write(ROOT + "/lang/en_us.snbt", null, out -> Files.copy(enSource, out));
         } else {
-            writeString(enTarget, langBuilder.buildEnUs(questFile));
+            sink.write(ROOT + "/lang/en_us.snbt", questFile,
+                    out -> out.write(langBuilder.buildEnUs(questFile).getBytes(StandardCharsets.UTF_8)));
         }
 
-        Path zhTarget = langDir.resolve("zh_cn.snbt");
         if (zhSource != null && Files.exists(zhSource)) {
-            copyFile(zhSource, zhTarget);
+            sink.write(ROOT + "/lang/zh_cn.snbt", null, out -> Files.copy(zhSource, out));
         } else {
-            String zhContent = langBuilder.buildStub(questFile, false);
-            writeString(zhTarget, zhContent);
-        }
-    }
-
-    private void writeString(Path target, String content) throws IOException {
-        Files.createDirectories(target.getParent());
-        Files.writeString(target, content, StandardCharsets.UTF_8);
-    }
-
-    private void copyFile(Path source, Path target) throws IOException {
-        Files.createDirectories(target.getParent());
-        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
-    }
-
-    private String sanitize(String id, String fallback) {
-        String value = (id == null || id.isBlank()) ? fallback : id;
-        if (value == null || value.isBlank()) {
-            value = "entry";
-        }
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < value.length(); i++) {
-            char c = value.charAt(i);
-            if (Character.isLetterOrDigit(c) || c == '-' || c == '_') {
-                builder.append(Character.toLowerCase(c));
-            } else {
-                builder.append('_');
-            }
+            sink.write(ROOT + "/lang/zh_cn.snbt", questFile,
+                    out -> out.write(langBuilder.buildStub(questFile, false).getBytes(StandardCharsets.UTF_8)));
         }
-        return builder.toString();
     }
 
-    private String toZipEntryName(Path base, Path path) {
-        Path relative = base.relativize(path);
-        return relative.toString().replace('\\', '/');
+    private record CachedEntry(Object source, CompletableFuture<ZipArchiveWriter.Entry> entry) {
     }
 }
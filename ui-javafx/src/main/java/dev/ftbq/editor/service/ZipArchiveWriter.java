@@ -0,0 +1,265 @@
+package dev.ftbq.editor.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a ZIP archive from entries that are compressed before they are written.
+ * <p>
+ * {@link java.util.zip.ZipOutputStream} deflates each entry while it is written, so one archive is compressed on
+ * one thread and a compressed entry cannot be written again without inflating it. Here every entry is turned
+ * into an {@link Entry} first: deflated, or stored as is when its name marks it as already compressed (images,
+ * sounds, archives). Entries added with {@link #add(String, byte[])} are compressed on the executor and written
+ * in the order they were added, so an archive built on several threads is the same as one built on a single
+ * thread. An {@link Entry} can also be kept and added to a later archive without compressing it again.
+ * <p>
+ * Only the classic ZIP format is written: archives are limited to 65535 entries and 4 GiB.
+ */
+final class ZipArchiveWriter implements Closeable {
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_RECORD = 0x06054b50;
+    private static final int VERSION = 20;
+    private static final int UTF8_NAMES = 0x0800;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final int DIRECTORY_ATTRIBUTE = 0x10;
+    private static final long MAX_OFFSET = 0xFFFFFFFFL;
+    private static final int MAX_ENTRIES = 0xFFFF;
+
+    private static final List<String> STORED_EXTENSIONS = List.of(
+            ".png", ".jpg", ".jpeg", ".gif", ".webp", ".ogg", ".mp3", ".zip", ".jar", ".gz");
+
+    private static final ThreadLocal<Deflater> DEFLATERS =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+
+    private final OutputStream out;
+    private final Executor executor;
+    private final int maxPending;
+    private final int dosTime;
+    private final int dosDate;
+    private final Deque<CompletableFuture<Entry>> pending = new ArrayDeque<>();
+    private final ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+    private final byte[] header = new byte[46];
+    private long offset;
+    private int count;
+
+    /**
+     * @param executor   runs the compression of entries added as content; {@code Runnable::run} compresses them
+     *                   on the calling thread
+     * @param maxPending how many entries may wait for compression before {@link #add(String, byte[])} blocks,
+     *                   which bounds the memory held by uncompressed content
+     */
+    ZipArchiveWriter(OutputStream out, Executor executor, int maxPending) {
+        this.out = Objects.requireNonNull(out, "out");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("maxPending must be positive");
+        }
+        this.maxPending = maxPending;
+        LocalDateTime now = LocalDateTime.now();
+        this.dosTime = now.getHour() << 11 | now.getMinute() << 5 | now.getSecond() >> 1;
+        this.dosDate = Math.max(0, now.getYear() - 1980) << 9 | now.getMonthValue() << 5 | now.getDayOfMonth();
+    }
+
+    /**
+     * Adds a directory entry; {@code name} gets a trailing {@code /} when it has none.
+     */
+    void addDirectory(String name) throws IOException {
+        String directory = name.endsWith("/") ? name : name + "/";
+        add(new Entry(directory, STORED, 0, 0, new byte[0]));
+    }
+
+    /**
+     * Adds a file entry with {@code content}, compressed on the executor.
+     *
+     * @return the compressed entry, for adding to a later archive with {@link #add(Entry)}
+     */
+    CompletableFuture<Entry> add(String name, byte[] content) throws IOException {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(content, "content");
+        CompletableFuture<Entry> entry = CompletableFuture.supplyAsync(() -> Entry.of(name, content), executor);
+        enqueue(entry);
+        return entry;
+    }
+
+    /**
+     * Adds an entry that is already compressed.
+     */
+    void add(Entry entry) throws IOException {
+        enqueue(CompletableFuture.completedFuture(Objects.requireNonNull(entry, "entry")));
+    }
+
+    /**
+     * Writes the remaining entries and the central directory and closes the target stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+            long directoryOffset = offset;
+            centralDirectory.writeTo(out);
+            offset += centralDirectory.size();
+            checkLimits();
+            put32(0, END_RECORD);
+            put16(4, 0);
+            put16(6, 0);
+            put16(8, count);
+            put16(10, count);
+            put32(12, centralDirectory.size());
+            put32(16, (int) directoryOffset);
+            put16(20, 0);
+            out.write(header, 0, 22);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void enqueue(CompletableFuture<Entry> entry) throws IOException {
+        pending.addLast(entry);
+        // Write whatever is ready at the head; wait only when too much content is queued
+        while (!pending.isEmpty() && (pending.peekFirst().isDone() || pending.size() > maxPending)) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        write(pending.removeFirst().join());
+    }
+
+    private void write(Entry entry) throws IOException {
+        byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+        long localOffset = offset;
+
+        fillHeader(entry, name);
+        put32(0, LOCAL_HEADER);
+        // Local header: version needed at 4, then the shared fields starting at the flags
+        System.arraycopy(header, 8, header, 6, 24);
+        put16(4, VERSION);
+        out.write(header, 0, 30);
+        out.write(name);
+        out.write(entry.data());
+        offset += 30 + name.length + entry.data().length;
+
+        fillHeader(entry, name);
+        put32(0, CENTRAL_HEADER);
+        put16(4, VERSION);
+        put16(6, VERSION);
+        put16(32, 0);
+        put16(34, 0);
+        put16(36, 0);
+        put32(38, entry.name().endsWith("/") ? DIRECTORY_ATTRIBUTE : 0);
+        put32(42, (int) localOffset);
+        centralDirectory.write(header, 0, 46);
+        centralDirectory.write(name);
+
+        count++;
+        checkLimits();
+    }
+
+    /**
+     * Central directory layout of the fields shared with the local header, from the flags at 8 to the extra
+     * field length at 30.
+     */
+    private void fillHeader(Entry entry, byte[] name) {
+        put16(8, UTF8_NAMES);
+        put16(10, entry.method());
+        put16(12, dosTime);
+        put16(14, dosDate);
+        put32(16, (int) entry.crc());
+        put32(20, entry.data().length);
+        put32(24, (int) entry.size());
+        put16(28, name.length);
+        put16(30, 0);
+    }
+
+    private void checkLimits() throws IOException {
+        if (count > MAX_ENTRIES || offset > MAX_OFFSET) {
+            throw new IOException("Archive exceeds " + MAX_ENTRIES + " entries or 4 GiB");
+        }
+    }
+
+    private void put16(int index, int value) {
+        header[index] = (byte) value;
+        header[index + 1] = (byte) (value >>> 8);
+    }
+
+    private void put32(int index, int value) {
+        put16(index, value);
+        put16(index + 2, value >>> 16);
+    }
+
+    /**
+     * A compressed archive entry.
+     *
+     * @param method {@code 0} for stored, {@code 8} for deflated data
+     * @param crc    CRC-32 of the uncompressed content
+     * @param size   size of the uncompressed content
+     * @param data   the content as it is written to the archive
+     */
+    record Entry(String name, int method, long crc, long size, byte[] data) {
+
+        Entry {
+            Objects.requireNonNull(name, "name");
+            Objects.requireNonNull(data, "data");
+        }
+
+        /**
+         * Compresses {@code content} for an entry called {@code name}. Content that does not get smaller, and
+         * names with the extension of an already compressed format, are stored.
+         */
+        static Entry of(String name, byte[] content) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            if (!isCompressed(name) && content.length > 0) {
+                byte[] deflated = deflate(content);
+                if (deflated.length < content.length) {
+                    return new Entry(name, DEFLATED, crc.getValue(), content.length, deflated);
+                }
+            }
+            return new Entry(name, STORED, crc.getValue(), content.length, content);
+        }
+
+        private static boolean isCompressed(String name) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            for (String extension : STORED_EXTENSIONS) {
+                if (lower.endsWith(extension)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static byte[] deflate(byte[] content) {
+            Deflater deflater = DEFLATERS.get();
+            deflater.reset();
+            deflater.setInput(content);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, content.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+}
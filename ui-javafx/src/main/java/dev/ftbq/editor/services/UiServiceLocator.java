@@ -3,6 +3,7 @@ package dev.ftbq.editor.services;
 import dev.ftbq.editor.assets.CacheManager;
 import dev.ftbq.editor.domain.version.VersionCatalog;
 import dev.ftbq.editor.services.catalog.CatalogImportService;
+import dev.ftbq.editor.services.catalog.IngestionJobScheduler;
 import dev.ftbq.editor.services.logging.AppLoggerFactory;
 import dev.ftbq.editor.services.bus.ServiceLocator;
 import dev.ftbq.editor.services.mods.ModRegistryService;
@@ -22,6 +23,7 @@ public final class UiServiceLocator {
     private static VersionCatalog versionCatalog;
     private static ModRegistryService modRegistryService;
     private static CatalogImportService catalogImportService;
+    private static IngestionJobScheduler ingestionJobScheduler;
 
     private UiServiceLocator() {
     }
@@ -81,6 +83,13 @@ public final class UiServiceLocator {
         return catalogImportService;
     }
 
+    public static synchronized IngestionJobScheduler getIngestionJobScheduler() {
+        if (ingestionJobScheduler == null) {
+            ingestionJobScheduler = new IngestionJobScheduler(ServiceLocator.eventBus(), ServiceLocator.loggerFactory());
+        }
+        return ingestionJobScheduler;
+    }
+
     public static synchronized void overrideStoreDao(StoreDao customDao) {
         storeDao = Objects.requireNonNull(customDao, "customDao");
     }
@@ -0,0 +1,92 @@
+package dev.ftbq.editor.ui;
+
+import dev.ftbq.editor.services.bus.EventBus;
+import dev.ftbq.editor.services.catalog.IngestionJob;
+import dev.ftbq.editor.services.events.IngestionJobFinished;
+import dev.ftbq.editor.services.events.IngestionProgressed;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.util.Objects;
+
+/**
+ * Small non-modal window that follows one ingestion job: it shows the {@link IngestionProgressed} events of that
+ * job and offers a button that cancels it. It closes itself when {@link IngestionJobFinished} arrives for the job.
+ * <p>
+ * The window subscribes to the event bus once; {@link #track(IngestionJob, String)} switches it to another job.
+ */
+public final class IngestionProgressWindow {
+
+    private final Stage stage = new Stage();
+    private final Label title = new Label();
+    private final Label detail = new Label();
+    private final ProgressBar progress = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+    private final Button cancel = new Button("Cancel");
+    private IngestionJob<?> job;
+
+    public IngestionProgressWindow(EventBus eventBus, Window owner) {
+        Objects.requireNonNull(eventBus, "eventBus");
+        progress.setMaxWidth(Double.MAX_VALUE);
+        cancel.setOnAction(event -> {
+            if (job != null && job.cancel()) {
+                cancel.setDisable(true);
+                detail.setText("Cancelling...");
+            }
+        });
+        VBox content = new VBox(8, title, progress, detail, cancel);
+        content.setPadding(new Insets(12));
+        content.setPrefWidth(360);
+        stage.setScene(new Scene(content));
+        stage.setTitle("Import Progress");
+        stage.initModality(Modality.NONE);
+        if (owner != null) {
+            stage.initOwner(owner);
+        }
+        stage.setOnCloseRequest(event -> stage.hide());
+
+        eventBus.subscribe(IngestionProgressed.class, event -> Platform.runLater(() -> onProgress(event)));
+        eventBus.subscribe(IngestionJobFinished.class, event -> Platform.runLater(() -> onFinished(event)));
+    }
+
+    /**
+     * Shows the window for {@code job}. Must be called on the FX thread.
+     */
+    public void track(IngestionJob<?> job, String label) {
+        this.job = Objects.requireNonNull(job, "job");
+        title.setText(label);
+        detail.setText("Waiting to start...");
+        progress.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        cancel.setDisable(false);
+        stage.show();
+        stage.toFront();
+    }
+
+    private void onProgress(IngestionProgressed event) {
+        if (job == null || job.id() != event.jobId()) {
+            return;
+        }
+        if (event.jarsTotal() > 0) {
+            progress.setProgress((double) event.jarsCompleted() / event.jarsTotal());
+        }
+        detail.setText(String.format("%,d entries, %.1f MB at %.1f MB/s",
+                event.entriesProcessed(),
+                event.bytesProcessed() / 1e6,
+                event.bytesPerSecond() / 1e6));
+    }
+
+    private void onFinished(IngestionJobFinished event) {
+        if (job == null || job.id() != event.jobId()) {
+            return;
+        }
+        job = null;
+        stage.hide();
+    }
+}
@@ -0,0 +1,158 @@
+package dev.ftbq.editor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.ftbq.editor.domain.BackgroundRef;
+import dev.ftbq.editor.domain.Chapter;
+import dev.ftbq.editor.domain.ChapterGroup;
+import dev.ftbq.editor.domain.IconRef;
+import dev.ftbq.editor.domain.ItemRef;
+import dev.ftbq.editor.domain.ItemTask;
+import dev.ftbq.editor.domain.LootEntry;
+import dev.ftbq.editor.domain.LootPool;
+import dev.ftbq.editor.domain.LootTable;
+import dev.ftbq.editor.domain.Quest;
+import dev.ftbq.editor.domain.QuestFile;
+import dev.ftbq.editor.io.snbt.SnbtLangBuilder;
+import dev.ftbq.editor.io.snbt.SnbtPackWriter;
+import dev.ftbq.editor.io.snbt.SnbtQuestMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class QuestZipGeneratorTest {
+
+    private final SnbtQuestMapper mapper = new SnbtQuestMapper();
+    private final UserSettings.EditorSettings settings = new UserSettings.EditorSettings();
+    private final AtomicInteger compressed = new AtomicInteger();
+    private final Executor counting = task -> {
+        compressed.incrementAndGet();
+        task.run();
+    };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reusesUnchangedEntriesAcrossCalls() throws Exception {
+        QuestZipGenerator generator = new QuestZipGenerator(mapper, new SnbtLangBuilder(), counting);
+        QuestFile questFile = createQuestFile(6);
+
+        Path first = generator.generate(questFile, null, settings);
+        // data, chapter groups, six chapters, one reward table and two language files
+        assertEquals(11, compressed.getAndSet(0));
+        assertContent(first, questFile);
+
+        QuestFile edited = withChangedChapter(questFile, 2);
+        Path second = generator.generate(edited, null, settings);
+        // data.snbt and the generated language files hold the whole pack, so they change with the chapter
+        assertEquals(4, compressed.getAndSet(0));
+        assertContent(second, edited);
+        assertEquals(mapper.fragmentsFor(edited).chapters().get(edited.chapters().get(2)),
+                read(second, chapterPath(edited.chapters().get(2))));
+
+        generator.generate(edited, null, settings);
+        assertEquals(0, compressed.get());
+    }
+
+    @Test
+    void failedCallKeepsPreviousEntries() throws Exception {
+        QuestZipGenerator generator = new QuestZipGenerator(mapper, new SnbtLangBuilder(), counting);
+        QuestFile questFile = createQuestFile(3);
+        generator.generate(questFile, null, settings);
+        compressed.set(0);
+
+        // A directory where the workspace language file should be makes the copy fail after the chapters are added
+        Path workspace = tempDir.resolve("workspace");
+        Files.createDirectories(workspace.resolve("questbook/lang/en_us.snbt"));
+        QuestFile edited = withChangedChapter(questFile, 1);
+        assertThrows(IOException.class, () -> generator.generate(edited, workspace, settings));
+        compressed.set(0);
+
+        Path archive = generator.generate(edited, null, settings);
+        assertEquals(4, compressed.get());
+        assertContent(archive, edited);
+    }
+
+    private void assertContent(Path archive, QuestFile questFile) throws IOException {
+        SnbtQuestMapper.Fragments fragments = mapper.fragmentsFor(questFile);
+        assertEquals(fragments.data(), read(archive, "quests/data.snbt"));
+        assertEquals(fragments.chapterGroups(), read(archive, "quests/chapter_groups.snbt"));
+        for (Chapter chapter : questFile.chapters()) {
+            assertEquals(fragments.chapters().get(chapter), read(archive, chapterPath(chapter)));
+        }
+    }
+
+    private static String chapterPath(Chapter chapter) {
+        return "quests/chapters/" + SnbtPackWriter.fileName(chapter.id(), chapter.title()) + ".snbt";
+    }
+
+    private static String read(Path archive, String name) throws IOException {
+        try (ZipFile zip = new ZipFile(archive.toFile());
+             InputStream in = zip.getInputStream(zip.getEntry(name))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static QuestFile withChangedChapter(QuestFile questFile, int index) {
+        List<Chapter> chapters = new ArrayList<>(questFile.chapters());
+        Chapter changed = chapters.get(index);
+        chapters.set(index, Chapter.builder()
+                .id(changed.id())
+                .title(changed.title())
+                .icon(changed.icon())
+                .background(changed.background())
+                .visibility(changed.visibility())
+                .quests(List.of(quest("changed")))
+                .build());
+        return QuestFile.builder()
+                .id(questFile.id())
+                .title(questFile.title())
+                .chapterGroups(questFile.chapterGroups())
+                .chapters(chapters)
+                .lootTables(questFile.lootTables())
+                .build();
+    }
+
+    private static QuestFile createQuestFile(int chapterCount) {
+        QuestFile.Builder builder = QuestFile.builder().id("example:pack").title("Example");
+        List<String> chapterIds = new ArrayList<>();
+        for (int c = 0; c < chapterCount; c++) {
+            Chapter.Builder chapter = Chapter.builder()
+                    .id("chapter_" + c)
+                    .title("Chapter " + c)
+                    .icon(new IconRef("minecraft:book"))
+                    .background(new BackgroundRef("minecraft:textures/gui/default.png"));
+            for (int q = 0; q < 5; q++) {
+                chapter.addQuest(quest(c + "_" + q));
+            }
+            builder.addChapter(chapter.build());
+            chapterIds.add("chapter_" + c);
+        }
+        builder.addChapterGroup(ChapterGroup.builder().id("group").title("Group").chapterIds(chapterIds).build());
+        builder.addLootTable(LootTable.builder()
+                .id("example:rewards")
+                .addPool(LootPool.builder().addEntry(new LootEntry(new ItemRef("minecraft:diamond", 1), 1.0)).build())
+                .build());
+        return builder.build();
+    }
+
+    private static Quest quest(String id) {
+        return Quest.builder()
+                .id("quest_" + id)
+                .title("Quest " + id)
+                .icon(new IconRef("minecraft:stone"))
+                .addTask(new ItemTask(new ItemRef("minecraft:stone", 4), false))
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package dev.ftbq.editor.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ZipArchiveWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writesEntriesInOrderWhenCompressedInParallel() throws Exception {
+        Path archive = tempDir.resolve("parallel.zip");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<String> expected = new ArrayList<>();
+        ZipArchiveWriter.Entry reusable;
+        try (ZipArchiveWriter zip = new ZipArchiveWriter(Files.newOutputStream(archive), executor, 3)) {
+            zip.addDirectory("quests");
+            expected.add("quests/");
+            reusable = zip.add("quests/data.snbt", text("data")).get();
+            expected.add("quests/data.snbt");
+            for (int i = 0; i < 40; i++) {
+                String name = "quests/chapters/chapter_" + i + ".snbt";
+                zip.add(name, text(name));
+                expected.add(name);
+            }
+            zip.add("quests/icon.png", text("not really a png"));
+            expected.add("quests/icon.png");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            assertEquals(expected, zip.stream().map(ZipEntry::getName).toList());
+            assertTrue(zip.getEntry("quests/").isDirectory());
+            assertEquals(ZipEntry.DEFLATED, zip.getEntry("quests/data.snbt").getMethod());
+            assertEquals(ZipEntry.STORED, zip.getEntry("quests/icon.png").getMethod());
+            assertArrayEquals(text("quests/chapters/chapter_17.snbt"), read(zip, "quests/chapters/chapter_17.snbt"));
+            assertArrayEquals(text("not really a png"), read(zip, "quests/icon.png"));
+        }
+
+        // A compressed entry goes into another archive as is
+        Path copy = tempDir.resolve("copy.zip");
+        try (ZipArchiveWriter zip = new ZipArchiveWriter(Files.newOutputStream(copy), Runnable::run, 1)) {
+            zip.add(reusable);
+        }
+        try (ZipFile zip = new ZipFile(copy.toFile())) {
+            assertArrayEquals(text("data"), read(zip, "quests/data.snbt"));
+        }
+    }
+
+    private static byte[] text(String seed) {
+        return (seed + "\n").repeat(50).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] read(ZipFile zip, String name) throws Exception {
+        try (InputStream in = zip.getInputStream(zip.getEntry(name))) {
+            return in.readAllBytes();
+        }
+    }
+}